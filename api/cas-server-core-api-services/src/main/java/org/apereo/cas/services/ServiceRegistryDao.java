@@ -1,6 +1,7 @@
 package org.apereo.cas.services;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Registry of all RegisteredServices.
@@ -34,6 +35,20 @@ public interface ServiceRegistryDao {
      */
     List<RegisteredService> load();
 
+    /**
+     * Retrieve a version marker for each service in the data store, such as the time
+     * the service was last modified. The marker must change whenever the service changes,
+     * which allows callers to reload only services that have been added or modified
+     * since the previous call, rather than loading every service.
+     *
+     * @return map of numeric service ids to their version markers, or null if
+     * the data store is unable to report versions, in which case all services should be loaded.
+     * @since 5.1.0
+     */
+    default Map<Long, Long> loadVersions() {
+        return null;
+    }
+
     /**
      * Find service by the numeric id.
      *
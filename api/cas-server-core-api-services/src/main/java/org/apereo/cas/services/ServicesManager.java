@@ -8,6 +8,10 @@ import java.util.function.Predicate;
 /**
  * Manages the storage, retrieval, and matching of Services wishing to use CAS
  * and services that have been registered with CAS.
+ * <p>Registered services returned by the lookup operations are shared instances
+ * and must be treated as read-only. Callers that need to modify a service definition
+ * should obtain a private copy via {@link #findServiceForUpdate(long)} and
+ * hand it back to {@link #save(RegisteredService)}.</p>
  *
  * @author Scott Battaglia
  * @since 3.1
@@ -62,6 +66,22 @@ public interface ServicesManager {
      */
     RegisteredService findServiceBy(long id);
 
+    /**
+     * Find a RegisteredService by matching with the supplied id,
+     * and return a copy of it that may be modified and saved.
+     *
+     * @param id the id to match with.
+     * @return a copy of the RegisteredService that matches the supplied id, or null.
+     */
+    default RegisteredService findServiceForUpdate(final long id) {
+        final RegisteredService service = findServiceBy(id);
+        try {
+            return service == null ? null : service.clone();
+        } catch (final CloneNotSupportedException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
     /**
      * Retrieve the collection of all registered services.
      *
@@ -3,6 +3,7 @@ package org.apereo.cas.ticket;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 
 import java.io.Serializable;
+import java.time.ZonedDateTime;
 
 /**
  * Strategy that determines if the ticket is expired. Implementations of the
@@ -40,4 +41,33 @@ public interface ExpirationPolicy extends Serializable {
      * by the implementation.
      */
     Long getTimeToIdle();
+
+    /**
+     * Calculate the point in time at which the given ticket state is expected to expire
+     * under this policy, provided the ticket is not used again. Registries use this value
+     * to index tickets by expiration so that cleanup only visits tickets that are due.
+     * The calculated time is a hint; {@link #isExpired(TicketState)} remains authoritative.
+     * <p>The default implementation bounds the creation time by the time to live and the last
+     * time used by the time to idle, whichever comes first. Policies that define neither cannot
+     * predict expiration this way, and must override this method for their tickets to be found
+     * by registries that index tickets by expiration time.</p>
+     *
+     * @param ticketState the ticket state
+     * @return the expiration time, or {@code null} if the state never expires or its expiration cannot be predicted.
+     */
+    default ZonedDateTime getExpirationTime(final TicketState ticketState) {
+        final Long timeToLive = getTimeToLive();
+        final Long timeToIdle = getTimeToIdle();
+        ZonedDateTime expirationTime = null;
+        if (timeToLive != null && timeToLive > 0 && timeToLive < Integer.MAX_VALUE) {
+            expirationTime = ticketState.getCreationTime().plusSeconds(timeToLive);
+        }
+        if (timeToIdle != null && timeToIdle > 0 && timeToIdle < Integer.MAX_VALUE) {
+            final ZonedDateTime idleTime = ticketState.getLastTimeUsed().plusSeconds(timeToIdle);
+            if (expirationTime == null || idleTime.isBefore(expirationTime)) {
+                expirationTime = idleTime;
+            }
+        }
+        return expirationTime;
+    }
 }
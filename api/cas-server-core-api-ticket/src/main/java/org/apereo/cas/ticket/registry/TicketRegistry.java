@@ -1,6 +1,8 @@
 package org.apereo.cas.ticket.registry;
 
 import java.util.Collection;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 import org.apereo.cas.ticket.Ticket;
 
@@ -16,6 +18,11 @@ import org.apereo.cas.ticket.Ticket;
  */
 public interface TicketRegistry {
 
+    /**
+     * Default number of tickets fetched per page when streaming tickets.
+     */
+    int DEFAULT_PAGE_SIZE = 500;
+
     /**
      * Add a ticket to the registry. Ticket storage is based on the ticket id.
      *
@@ -65,6 +72,44 @@ public interface TicketRegistry {
      */
     Collection<Ticket> getTickets();
 
+    /**
+     * Stream tickets from the registry that match the given predicate.
+     * Registries that are able to do so should page through the underlying storage
+     * lazily, pulling {@code pageSize} tickets at a time, rather than materializing
+     * the entire registry in memory. Callers are expected to close the stream
+     * once done in order to release any cursors held by the registry.
+     *
+     * @param predicate the predicate tickets must satisfy
+     * @param pageSize  the number of tickets to fetch from the storage per page
+     * @return stream of tickets. Tickets might or might not be valid i.e. expired.
+     */
+    default Stream<Ticket> getTicketsStream(final Predicate<Ticket> predicate, final int pageSize) {
+        return getTickets().stream().filter(predicate);
+    }
+
+    /**
+     * Stream tickets from the registry that match the given predicate
+     * using the {@link #DEFAULT_PAGE_SIZE}.
+     *
+     * @param predicate the predicate tickets must satisfy
+     * @return stream of tickets
+     */
+    default Stream<Ticket> getTicketsStream(final Predicate<Ticket> predicate) {
+        return getTicketsStream(predicate, DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * Stream tickets from the registry that are expired and due for removal.
+     * Registries that maintain an index of tickets by expiration time should
+     * only visit tickets that are due rather than scanning the entire registry.
+     *
+     * @param pageSize the number of tickets to fetch from the storage per page
+     * @return stream of expired tickets
+     */
+    default Stream<Ticket> getExpiredTicketsStream(final int pageSize) {
+        return getTicketsStream(Ticket::isExpired, pageSize);
+    }
+
     /**
      * Update the received ticket.
      *
@@ -16,6 +16,7 @@ import org.apereo.cas.validation.Assertion;
 import java.util.Collection;
 import java.util.List;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 /**
  * CAS viewed as a set of services to generate and validate Tickets.
@@ -110,6 +111,19 @@ public interface CentralAuthenticationService {
      */
     Collection<Ticket> getTickets(Predicate<Ticket> predicate);
 
+    /**
+     * Stream tickets from the underlying ticket registry that pass the predicate check.
+     * Unlike {@link #getTickets(Predicate)}, the resulting stream is not materialized
+     * in memory and should be closed by the caller once consumed.
+     *
+     * @param predicate the predicate
+     * @return the tickets stream
+     * @since 5.1.0
+     */
+    default Stream<Ticket> getTicketsStream(final Predicate<Ticket> predicate) {
+        return getTickets(predicate).stream();
+    }
+
     /**
      * Grant a {@link ServiceTicket} that may be used to access the given service
      * by authenticating the given credentials.
@@ -0,0 +1,150 @@
+package org.apereo.cas.audit.spi;
+
+import org.apereo.cas.util.AsynchronousBatchWriter;
+import org.apereo.cas.util.ISOStandardDateFormat;
+import org.apereo.inspektr.audit.AuditActionContext;
+import org.apereo.inspektr.audit.AuditTrailManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This is {@link AsynchronousAuditTrailManager} that hands audit records over to an {@link AsynchronousBatchWriter},
+ * so that requests do not wait for records to be stored. If the underlying manager is a
+ * {@link BatchAuditTrailManager}, each batch is written at once.
+ * <p>When the queue is full, new records either wait for room, are dropped, or are appended to
+ * a spill file, depending on the {@link OverflowPolicy}. Under the {@link OverflowPolicy#SPILL} policy,
+ * records that cannot be written are spilled as well.</p>
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class AsynchronousAuditTrailManager implements AuditTrailManager, DisposableBean {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsynchronousAuditTrailManager.class);
+
+    /**
+     * What to do with records when the queue is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Wait for room in the queue.
+         */
+        BLOCK,
+        /**
+         * Discard the record.
+         */
+        DROP,
+        /**
+         * Append the record to the spill file.
+         */
+        SPILL
+    }
+
+    private final AuditTrailManager manager;
+    private final File spillFile;
+    private final AsynchronousBatchWriter<AuditActionContext> writer;
+
+    private final AtomicLong spilled = new AtomicLong();
+    private final AtomicLong spillFailures = new AtomicLong();
+
+    /**
+     * Instantiates a new Asynchronous audit trail manager.
+     *
+     * @param manager               the manager that stores records
+     * @param queueCapacity         the maximum number of records waiting to be written
+     * @param batchSize             the maximum number of records written at once
+     * @param flushIntervalInMillis how long the writer waits for a batch to fill up
+     * @param overflowPolicy        what to do with records when the queue is full
+     * @param spillFile             the file that receives records under the {@link OverflowPolicy#SPILL} policy
+     */
+    public AsynchronousAuditTrailManager(final AuditTrailManager manager, final int queueCapacity, final int batchSize,
+                                         final long flushIntervalInMillis, final OverflowPolicy overflowPolicy,
+                                         final File spillFile) {
+        this.manager = manager;
+        this.spillFile = spillFile;
+        this.writer = new AsynchronousBatchWriter<>("audit-trail-writer", this::recordBatch, manager::record,
+                queueCapacity, batchSize, flushIntervalInMillis,
+                overflowPolicy == OverflowPolicy.BLOCK ? AsynchronousBatchWriter.OverflowPolicy.BLOCK
+                        : AsynchronousBatchWriter.OverflowPolicy.DROP,
+                overflowPolicy == OverflowPolicy.SPILL ? this::spill : null);
+    }
+
+    @Override
+    public void record(final AuditActionContext auditActionContext) {
+        this.writer.write(auditActionContext);
+    }
+
+    /**
+     * Gets statistics of the writer, along with the number of records spilled.
+     * Records that could not be spilled count as dropped.
+     *
+     * @return the statistics
+     */
+    public Map<String, Long> getStatistics() {
+        final Map<String, Long> stats = this.writer.getStatistics();
+        stats.put("dropped", stats.get("dropped") + this.spillFailures.get());
+        stats.put("spilled", this.spilled.get());
+        return stats;
+    }
+
+    /**
+     * Stop accepting records into the queue, and wait for queued records to be written.
+     * Records that arrive afterwards are written directly.
+     *
+     * @throws Exception the exception
+     */
+    @Override
+    public void destroy() throws Exception {
+        this.writer.destroy();
+    }
+
+    private void recordBatch(final List<AuditActionContext> records) {
+        if (this.manager instanceof BatchAuditTrailManager) {
+            ((BatchAuditTrailManager) this.manager).record(records);
+        } else {
+            records.forEach(this.manager::record);
+        }
+    }
+
+    /**
+     * Append records to the spill file, one line per record, using the same fields as the audit trail table.
+     */
+    private synchronized void spill(final Collection<AuditActionContext> records) {
+        if (this.spillFile == null) {
+            this.spillFailures.addAndGet(records.size());
+            LOGGER.warn("No spill file is defined; dropping [{}] audit record(s)", records.size());
+            return;
+        }
+        try {
+            final File parent = this.spillFile.getParentFile();
+            if (parent != null && !parent.exists() && !parent.mkdirs()) {
+                LOGGER.warn("Unable to create directory [{}] for the audit spill file", parent);
+            }
+            try (BufferedWriter out = Files.newBufferedWriter(this.spillFile.toPath(), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (final AuditActionContext ctx : records) {
+                    out.write(String.join("|",
+                            ISOStandardDateFormat.getInstance().format(ctx.getWhenActionWasPerformed()),
+                            ctx.getPrincipal(), ctx.getActionPerformed(), ctx.getResourceOperatedUpon(),
+                            ctx.getClientIpAddress(), ctx.getServerIpAddress(), ctx.getApplicationCode()));
+                    out.newLine();
+                }
+            }
+            this.spilled.addAndGet(records.size());
+        } catch (final IOException e) {
+            this.spillFailures.addAndGet(records.size());
+            LOGGER.error("Unable to spill [{}] audit record(s) to [{}]: [{}]", records.size(), this.spillFile, e.getMessage());
+        }
+    }
+}
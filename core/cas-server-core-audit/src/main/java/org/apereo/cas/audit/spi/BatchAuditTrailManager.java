@@ -0,0 +1,23 @@
+package org.apereo.cas.audit.spi;
+
+import org.apereo.inspektr.audit.AuditActionContext;
+import org.apereo.inspektr.audit.AuditTrailManager;
+
+import java.util.List;
+
+/**
+ * This is {@link BatchAuditTrailManager} that is able to record a number of
+ * audit records at once, such as a JDBC batch insert.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public interface BatchAuditTrailManager extends AuditTrailManager {
+
+    /**
+     * Record the audit records, in the order given.
+     *
+     * @param auditActionContexts the audit records
+     */
+    void record(List<AuditActionContext> auditActionContexts);
+}
@@ -9,6 +9,7 @@ import org.apereo.inspektr.audit.AuditActionContext;
 import org.apereo.inspektr.audit.AuditTrailManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationEventPublisher;
 
@@ -22,7 +23,7 @@ import java.util.concurrent.TimeUnit;
  * @author Misagh Moayyed
  * @since 5.0.0
  */
-public class DefaultDelegatingAuditTrailManager implements DelegatingAuditTrailManager {
+public class DefaultDelegatingAuditTrailManager implements DelegatingAuditTrailManager, DisposableBean {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(DefaultDelegatingAuditTrailManager.class);
 
@@ -73,6 +74,17 @@ public class DefaultDelegatingAuditTrailManager implements DelegatingAuditTrailM
         return new HashSet<>(this.storage.asMap().values());
     }
 
+    @Override
+    public void destroy() throws Exception {
+        if (this.manager instanceof DisposableBean) {
+            ((DisposableBean) this.manager).destroy();
+        }
+    }
+
+    public AuditTrailManager getManager() {
+        return this.manager;
+    }
+
     public void setExpirationDuration(final int expirationDuration) {
         this.expirationDuration = expirationDuration;
     }
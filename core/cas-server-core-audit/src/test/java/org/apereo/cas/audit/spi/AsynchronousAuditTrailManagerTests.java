@@ -0,0 +1,119 @@
+package org.apereo.cas.audit.spi;
+
+import org.apache.commons.io.FileUtils;
+import org.apereo.inspektr.audit.AuditActionContext;
+import org.apereo.inspektr.audit.AuditPointRuntimeInfo;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * This is {@link AsynchronousAuditTrailManagerTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class AsynchronousAuditTrailManagerTests {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void verifyRecordsAreWrittenInBatchesAndInOrder() throws Exception {
+        final CollectingBatchAuditTrailManager delegate = new CollectingBatchAuditTrailManager(null);
+        final AsynchronousAuditTrailManager manager = new AsynchronousAuditTrailManager(delegate, 100, 10, 50,
+                AsynchronousAuditTrailManager.OverflowPolicy.BLOCK, null);
+        for (int i = 0; i < 25; i++) {
+            manager.record(getAuditRecord(i));
+        }
+        manager.destroy();
+
+        assertEquals(25, delegate.records.size());
+        for (int i = 0; i < 25; i++) {
+            assertEquals("casuser" + i, delegate.records.get(i).getPrincipal());
+        }
+        assertTrue(delegate.batchSizes.stream().allMatch(size -> size <= 10));
+        assertEquals(Long.valueOf(25), manager.getStatistics().get("written"));
+    }
+
+    @Test
+    public void verifyRecordsAreDroppedWhenQueueIsFull() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final CollectingBatchAuditTrailManager delegate = new CollectingBatchAuditTrailManager(latch);
+        final AsynchronousAuditTrailManager manager = new AsynchronousAuditTrailManager(delegate, 2, 1, 10,
+                AsynchronousAuditTrailManager.OverflowPolicy.DROP, null);
+        for (int i = 0; i < 10; i++) {
+            manager.record(getAuditRecord(i));
+        }
+        latch.countDown();
+        manager.destroy();
+
+        final long dropped = manager.getStatistics().get("dropped");
+        assertTrue(dropped > 0);
+        assertEquals(10, delegate.records.size() + dropped);
+    }
+
+    @Test
+    public void verifyRecordsAreSpilledWhenQueueIsFull() throws Exception {
+        final File spillFile = new File(folder.getRoot(), "audit/overflow.log");
+        final CountDownLatch latch = new CountDownLatch(1);
+        final CollectingBatchAuditTrailManager delegate = new CollectingBatchAuditTrailManager(latch);
+        final AsynchronousAuditTrailManager manager = new AsynchronousAuditTrailManager(delegate, 2, 1, 10,
+                AsynchronousAuditTrailManager.OverflowPolicy.SPILL, spillFile);
+        for (int i = 0; i < 10; i++) {
+            manager.record(getAuditRecord(i));
+        }
+        latch.countDown();
+        manager.destroy();
+
+        final List<String> lines = FileUtils.readLines(spillFile, StandardCharsets.UTF_8);
+        assertEquals(manager.getStatistics().get("spilled").longValue(), lines.size());
+        assertEquals(10, delegate.records.size() + lines.size());
+        assertEquals(Long.valueOf(0), manager.getStatistics().get("dropped"));
+    }
+
+    private static AuditActionContext getAuditRecord(final int index) {
+        return new AuditActionContext("casuser" + index, "TGT-" + index, "TICKET_GRANTING_TICKET_CREATED",
+                "CAS", new Date(), "127.0.0.1", "127.0.0.1", mock(AuditPointRuntimeInfo.class));
+    }
+
+    private static class CollectingBatchAuditTrailManager implements BatchAuditTrailManager {
+        private final List<AuditActionContext> records = Collections.synchronizedList(new ArrayList<>());
+        private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        private final CountDownLatch latch;
+
+        CollectingBatchAuditTrailManager(final CountDownLatch latch) {
+            this.latch = latch;
+        }
+
+        @Override
+        public void record(final AuditActionContext auditActionContext) {
+            record(Collections.singletonList(auditActionContext));
+        }
+
+        @Override
+        public void record(final List<AuditActionContext> auditActionContexts) {
+            try {
+                if (this.latch != null) {
+                    this.latch.await(5, TimeUnit.SECONDS);
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            this.batchSizes.add(auditActionContexts.size());
+            this.records.addAll(auditActionContexts);
+        }
+    }
+}
@@ -56,14 +56,16 @@ public abstract class AbstractUsernamePasswordAuthenticationHandler extends Abst
             throw new FailedLoginException("Password is null.");
         }
 
-        LOGGER.debug("Attempting to encode credential password via [{}] for [{}]", this.passwordEncoder.getClass().getName(), transformedUsername);
-        final String transformedPsw = this.passwordEncoder.encode(userPass.getPassword());
-        if (StringUtils.isBlank(transformedPsw)) {
-            throw new AccountNotFoundException("Encoded password is null.");
+        if (isPasswordEncodedBeforeAuthentication()) {
+            LOGGER.debug("Attempting to encode credential password via [{}] for [{}]", this.passwordEncoder.getClass().getName(), transformedUsername);
+            final String transformedPsw = this.passwordEncoder.encode(userPass.getPassword());
+            if (StringUtils.isBlank(transformedPsw)) {
+                throw new AccountNotFoundException("Encoded password is null.");
+            }
+            userPass.setPassword(transformedPsw);
         }
 
         userPass.setUsername(transformedUsername);
-        userPass.setPassword(transformedPsw);
         
         LOGGER.debug("Attempting authentication internally for transformed credential [{}]", userPass);
         return authenticateUsernamePasswordInternal(userPass, originalUserPass.getPassword());
@@ -84,6 +86,17 @@ public abstract class AbstractUsernamePasswordAuthenticationHandler extends Abst
     protected abstract HandlerResult authenticateUsernamePasswordInternal(UsernamePasswordCredential transformedCredential, String originalPassword) 
             throws GeneralSecurityException, PreventedException;
 
+    /**
+     * Whether the password should be encoded before the credential is passed on for authentication.
+     * Handlers that only verify the original password through {@link #matches(CharSequence, String)}
+     * may turn this off, since encoding with an adaptive encoder such as BCrypt costs as much as verifying.
+     *
+     * @return true if the password is encoded up front
+     */
+    protected boolean isPasswordEncodedBeforeAuthentication() {
+        return true;
+    }
+
     protected PasswordPolicyConfiguration getPasswordPolicyConfiguration() {
         return this.passwordPolicyConfiguration;
     }
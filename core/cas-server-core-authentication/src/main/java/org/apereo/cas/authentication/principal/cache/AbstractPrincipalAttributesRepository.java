@@ -45,6 +45,8 @@ public abstract class AbstractPrincipalAttributesRepository implements Principal
 
     private static final long serialVersionUID = 6350245643948535906L;
 
+    private static final String ATTRIBUTE_REPOSITORY_BEAN_NAME = "attributeRepository";
+
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractPrincipalAttributesRepository.class);
 
     /**
@@ -110,6 +112,8 @@ public abstract class AbstractPrincipalAttributesRepository implements Principal
 
     private transient IPersonAttributeDao attributeRepository;
 
+    private transient String attributeRepositoryId;
+
 
     /**
      * Instantiates a new principal attributes repository.
@@ -218,13 +222,33 @@ public abstract class AbstractPrincipalAttributesRepository implements Principal
             return cachedAttributes;
         }
 
+        final Map<String, Object> finalAttributes = retrieveAttributes(p);
+        addPrincipalAttributes(p.getId(), finalAttributes);
+        return finalAttributes;
+    }
+
+    /**
+     * Retrieve attributes for the principal from the attribute repository, and merge them
+     * with the principal's own attributes according to the merging strategy.
+     * The result is not cached.
+     *
+     * @param p the principal
+     * @return the principal attributes
+     */
+    protected Map<String, Object> retrieveAttributes(final Principal p) {
+        if (getAttributeRepository() == null) {
+            LOGGER.debug("No attribute repository is defined for [{}], so no attributes can be retrieved for [{}]",
+                    getClass().getName(), p.getId());
+            return new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        }
+
         final Map<String, List<Object>> sourceAttributes = retrievePersonAttributesToPrincipalAttributes(p.getId());
         LOGGER.debug("Found [{}] attributes for principal [[{}]] from the attribute repository.",
                 sourceAttributes.size(), p.getId());
 
         if (this.mergingStrategy == null || this.mergingStrategy.getAttributeMerger() == null) {
             LOGGER.debug("No merging strategy found, so attributes retrieved from the repository will be used instead.");
-            return convertAttributesToPrincipalAttributesAndCache(p, sourceAttributes);
+            return convertPersonAttributesToPrincipalAttributes(sourceAttributes);
         }
 
         final Map<String, List<Object>> principalAttributes = convertPrincipalAttributesToPersonAttributes(p);
@@ -235,7 +259,7 @@ public abstract class AbstractPrincipalAttributesRepository implements Principal
         try {
             final Map<String, List<Object>> mergedAttributes =
                     this.mergingStrategy.getAttributeMerger().mergeAttributes(principalAttributes, sourceAttributes);
-            return convertAttributesToPrincipalAttributesAndCache(p, mergedAttributes);
+            return convertPersonAttributesToPrincipalAttributes(mergedAttributes);
         } catch (final Exception e) {
             final StringBuilder builder = new StringBuilder();
             builder.append(e.getClass().getName().concat("-"));
@@ -250,24 +274,10 @@ public abstract class AbstractPrincipalAttributesRepository implements Principal
                     p.getId(),
                     builder.toString(),
                     principalAttributes);
-            return convertAttributesToPrincipalAttributesAndCache(p, principalAttributes);
+            return convertPersonAttributesToPrincipalAttributes(principalAttributes);
         }
     }
 
-    /**
-     * Convert attributes to principal attributes and cache.
-     *
-     * @param p                the p
-     * @param sourceAttributes the source attributes
-     * @return the map
-     */
-    private Map<String, Object> convertAttributesToPrincipalAttributesAndCache(final Principal p,
-                                                                               final Map<String, List<Object>> sourceAttributes) {
-        final Map<String, Object> finalAttributes = convertPersonAttributesToPrincipalAttributes(sourceAttributes);
-        addPrincipalAttributes(p.getId(), finalAttributes);
-        return finalAttributes;
-    }
-
     /**
      * Add principal attributes into the underlying cache instance.
      *
@@ -289,11 +299,40 @@ public abstract class AbstractPrincipalAttributesRepository implements Principal
         this.attributeRepository = attributeRepository;
     }
 
-    private IPersonAttributeDao getAttributeRepository() {
+    /**
+     * Sets the identifier of the attribute repository set via {@link #setAttributeRepository(IPersonAttributeDao)}.
+     *
+     * @param attributeRepositoryId the attribute repository id
+     */
+    public void setAttributeRepositoryId(final String attributeRepositoryId) {
+        this.attributeRepositoryId = attributeRepositoryId;
+    }
+
+    /**
+     * Gets an identifier of the attribute repository that stays the same across instances.
+     * The {@code attributeRepository} bean is identified by its name, while a repository
+     * that was set explicitly is only identified if an id was given for it.
+     *
+     * @return the attribute repository id, or null if the repository cannot be identified.
+     */
+    protected String getAttributeRepositoryId() {
+        if (this.attributeRepository == null) {
+            return ATTRIBUTE_REPOSITORY_BEAN_NAME;
+        }
+        return this.attributeRepositoryId;
+    }
+
+    /**
+     * Gets the attribute repository, falling back to the {@code attributeRepository} bean
+     * of the application context when none is set.
+     *
+     * @return the attribute repository
+     */
+    protected IPersonAttributeDao getAttributeRepository() {
         if (this.attributeRepository == null) {
             final ApplicationContext context = ApplicationContextProvider.getApplicationContext();
             if (context != null) {
-                return context.getBean("attributeRepository", IPersonAttributeDao.class);
+                return context.getBean(ATTRIBUTE_REPOSITORY_BEAN_NAME, IPersonAttributeDao.class);
             } else {
                 LOGGER.warn("No application context could be retrieved, so no attribute repository instance can be determined.");
             }
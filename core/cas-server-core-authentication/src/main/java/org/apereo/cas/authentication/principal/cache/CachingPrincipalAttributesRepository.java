@@ -4,8 +4,10 @@ import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import org.apereo.cas.authentication.principal.Principal;
+import org.apereo.cas.util.spring.ApplicationContextProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationContext;
 
 import java.io.IOException;
 import java.util.Map;
@@ -15,12 +17,16 @@ import java.util.concurrent.TimeUnit;
 /**
  * Wrapper around an attribute repository where attributes cached for a configurable period
  * based on google guava's caching library.
+ * <p>When a {@link PrincipalAttributesCache} bean named {@code principalAttributesCache} is available,
+ * attributes are kept in that shared cache instead of a cache that is private to this repository,
+ * as long as the attribute repository can be identified.</p>
  * @author Misagh Moayyed
  * @since 4.2
  */
 public class CachingPrincipalAttributesRepository extends AbstractPrincipalAttributesRepository {
     private static final long serialVersionUID = 6350244643948535906L;
     private static final long DEFAULT_MAXIMUM_CACHE_SIZE = 1000;
+    private static final String SHARED_CACHE_BEAN_NAME = "principalAttributesCache";
 
     private static final Logger LOGGER = LoggerFactory.getLogger(CachingPrincipalAttributesRepository.class);
     
@@ -65,6 +71,40 @@ public class CachingPrincipalAttributesRepository extends AbstractPrincipalAttri
                 .expireAfterWrite(getExpiration(), TimeUnit.valueOf(getTimeUnit())).build(this.cacheLoader);
     }
 
+    @Override
+    public Map<String, Object> getAttributes(final Principal p) {
+        final PrincipalAttributesCache sharedCache = getSharedCache();
+        final String attributeSource = getAttributeSource();
+        if (sharedCache == null || attributeSource == null) {
+            return super.getAttributes(p);
+        }
+        final PrincipalAttributesCache.Key key = new PrincipalAttributesCache.Key(p.getId(), attributeSource);
+        return sharedCache.get(key, TimeUnit.valueOf(getTimeUnit()).toMillis(getExpiration()), () -> retrieveAttributes(p));
+    }
+
+    /**
+     * Identify the source of attributes produced by this repository. Repositories that
+     * retrieve from the same attribute repository using the same merging strategy share cached attributes.
+     * Attributes from a repository that cannot be identified are kept in the cache private to this repository.
+     *
+     * @return the attribute source, or null if the attribute repository cannot be identified.
+     */
+    protected String getAttributeSource() {
+        final String attributeRepositoryId = getAttributeRepositoryId();
+        if (attributeRepositoryId == null) {
+            return null;
+        }
+        return getClass().getName() + ':' + getMergingStrategy() + ':' + attributeRepositoryId;
+    }
+
+    private static PrincipalAttributesCache getSharedCache() {
+        final ApplicationContext context = ApplicationContextProvider.getApplicationContext();
+        if (context != null && context.containsBean(SHARED_CACHE_BEAN_NAME)) {
+            return context.getBean(SHARED_CACHE_BEAN_NAME, PrincipalAttributesCache.class);
+        }
+        return null;
+    }
+
     @Override
     protected void addPrincipalAttributes(final String id, final Map<String, Object> attributes) {
         this.cache.put(id, attributes);
@@ -0,0 +1,246 @@
+package org.apereo.cas.authentication.principal.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apereo.cas.util.CollectionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * This is {@link PrincipalAttributesCache} that holds principal attributes on behalf of all
+ * {@link CachingPrincipalAttributesRepository} instances, keyed by the principal id and the
+ * attribute source. Each repository decides how long cached attributes remain valid for itself.
+ * <p>The cache is bounded by the approximate memory footprint of the cached attributes.
+ * Attributes that are read close to the end of their lifetime are refreshed in the background,
+ * so that the caller is served from the cache rather than waiting on the attribute source.</p>
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class PrincipalAttributesCache implements DisposableBean {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PrincipalAttributesCache.class);
+
+    private static final int ENTRY_OVERHEAD = 64;
+    private static final int REFRESH_QUEUE_CAPACITY = 1000;
+
+    private final Cache<Key, Entry> cache;
+    private final double refreshAheadFactor;
+    private final ThreadPoolExecutor refreshExecutor;
+    private final Set<Key> refreshing = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong totalLoadTime = new AtomicLong();
+    private final AtomicLong refreshes = new AtomicLong();
+
+    /**
+     * Instantiates a new Principal attributes cache.
+     *
+     * @param maximumSizeInBytes   the approximate maximum size of all cached attributes
+     * @param timeToLiveInMillis   the maximum time attributes are kept, regardless of the lifetime set by repositories
+     * @param refreshAheadFactor   the fraction of an entry's lifetime after which reading it triggers a background refresh;
+     *                             a value of 1 or more disables refresh-ahead.
+     * @param refreshPoolSize      the number of threads used to refresh entries
+     */
+    public PrincipalAttributesCache(final long maximumSizeInBytes, final long timeToLiveInMillis,
+                                    final double refreshAheadFactor, final int refreshPoolSize) {
+        this.cache = CacheBuilder.newBuilder()
+                .concurrencyLevel(Math.max(4, Runtime.getRuntime().availableProcessors()))
+                .maximumWeight(maximumSizeInBytes)
+                .weigher((final Key key, final Entry entry) -> entry.weight)
+                .expireAfterWrite(timeToLiveInMillis, TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
+        this.refreshAheadFactor = refreshAheadFactor;
+        this.refreshExecutor = new ThreadPoolExecutor(refreshPoolSize, refreshPoolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(REFRESH_QUEUE_CAPACITY),
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("principal-attributes-refresh-%d").build());
+    }
+
+    /**
+     * Get the cached attributes for the key, loading them if they are absent,
+     * empty or older than the given lifetime.
+     *
+     * @param key                the key
+     * @param timeToLiveInMillis how long cached attributes remain valid for the caller
+     * @param loader             retrieves attributes from the attribute source
+     * @return the attributes
+     */
+    public Map<String, Object> get(final Key key, final long timeToLiveInMillis, final Supplier<Map<String, Object>> loader) {
+        final Entry entry = this.cache.getIfPresent(key);
+        final long now = System.currentTimeMillis();
+        if (entry != null && !entry.attributes.isEmpty() && now - entry.creationTime < timeToLiveInMillis) {
+            this.hits.incrementAndGet();
+            if (now - entry.creationTime >= timeToLiveInMillis * this.refreshAheadFactor) {
+                refreshAhead(key, loader);
+            }
+            return entry.attributes;
+        }
+
+        this.misses.incrementAndGet();
+        if (entry != null) {
+            this.cache.asMap().remove(key, entry);
+        }
+        try {
+            return this.cache.get(key, () -> load(loader)).attributes;
+        } catch (final ExecutionException e) {
+            LOGGER.error("Unable to retrieve attributes for [{}]: [{}]", key, e.getMessage(), e);
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * Remove all cached attributes for the given principal.
+     *
+     * @param principalId the principal id
+     */
+    public void invalidate(final String principalId) {
+        this.cache.asMap().keySet().removeIf(key -> key.principalId.equals(principalId));
+    }
+
+    /**
+     * Gets cache statistics, such as hit and miss counts and the time spent loading attributes.
+     *
+     * @return the statistics
+     */
+    public Map<String, Long> getStatistics() {
+        final Map<String, Long> stats = new LinkedHashMap<>();
+        final long loadCount = this.loads.get();
+        stats.put("size", this.cache.size());
+        stats.put("hits", this.hits.get());
+        stats.put("misses", this.misses.get());
+        stats.put("loads", loadCount);
+        stats.put("refreshes", this.refreshes.get());
+        stats.put("evictions", this.cache.stats().evictionCount());
+        stats.put("totalLoadTimeMillis", this.totalLoadTime.get());
+        stats.put("averageLoadTimeMillis", loadCount == 0 ? 0 : this.totalLoadTime.get() / loadCount);
+        return stats;
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        this.refreshExecutor.shutdownNow();
+    }
+
+    private void refreshAhead(final Key key, final Supplier<Map<String, Object>> loader) {
+        if (!this.refreshing.add(key)) {
+            return;
+        }
+        try {
+            this.refreshExecutor.execute(() -> {
+                try {
+                    final Entry refreshed = load(loader);
+                    if (!refreshed.attributes.isEmpty()) {
+                        this.cache.put(key, refreshed);
+                        this.refreshes.incrementAndGet();
+                    }
+                } catch (final Exception e) {
+                    LOGGER.warn("Unable to refresh attributes for [{}]: [{}]", key, e.getMessage());
+                } finally {
+                    this.refreshing.remove(key);
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            LOGGER.debug("Refresh of attributes for [{}] is skipped; too many refreshes are pending", key);
+            this.refreshing.remove(key);
+        }
+    }
+
+    private Entry load(final Supplier<Map<String, Object>> loader) {
+        final long start = System.currentTimeMillis();
+        final Map<String, Object> attributes = loader.get();
+        final long now = System.currentTimeMillis();
+        this.loads.incrementAndGet();
+        this.totalLoadTime.addAndGet(now - start);
+        return new Entry(attributes == null ? Collections.emptyMap() : attributes, now);
+    }
+
+    /**
+     * Estimate the memory footprint of the attributes, based on the length of attribute names and values.
+     */
+    private static int weigh(final Map<String, Object> attributes) {
+        long weight = ENTRY_OVERHEAD;
+        for (final Map.Entry<String, Object> attribute : attributes.entrySet()) {
+            weight += ENTRY_OVERHEAD + 2L * attribute.getKey().length();
+            for (final Object value : CollectionUtils.toCollection(attribute.getValue())) {
+                weight += ENTRY_OVERHEAD + 2L * String.valueOf(value).length();
+            }
+        }
+        return (int) Math.min(Integer.MAX_VALUE, weight);
+    }
+
+    /**
+     * Identifies cached attributes by the principal id and the attribute source that produced them.
+     */
+    public static class Key {
+        private final String principalId;
+        private final String source;
+
+        public Key(final String principalId, final String source) {
+            this.principalId = principalId;
+            this.source = source;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key rhs = (Key) obj;
+            return new EqualsBuilder()
+                    .append(this.principalId, rhs.principalId)
+                    .append(this.source, rhs.source)
+                    .isEquals();
+        }
+
+        @Override
+        public int hashCode() {
+            return new HashCodeBuilder()
+                    .append(this.principalId)
+                    .append(this.source)
+                    .toHashCode();
+        }
+
+        @Override
+        public String toString() {
+            return new ToStringBuilder(this)
+                    .append("principalId", this.principalId)
+                    .append("source", this.source)
+                    .toString();
+        }
+    }
+
+    private static class Entry {
+        private final Map<String, Object> attributes;
+        private final long creationTime;
+        private final int weight;
+
+        Entry(final Map<String, Object> attributes, final long creationTime) {
+            this.attributes = attributes;
+            this.creationTime = creationTime;
+            this.weight = weigh(attributes);
+        }
+    }
+}
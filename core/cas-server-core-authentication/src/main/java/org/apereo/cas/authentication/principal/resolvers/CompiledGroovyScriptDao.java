@@ -0,0 +1,180 @@
+package org.apereo.cas.authentication.principal.resolvers;
+
+import groovy.lang.GroovyClassLoader;
+import groovy.lang.GroovyObject;
+import org.apache.commons.io.IOUtils;
+import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.apereo.cas.util.CollectionUtils;
+import org.apereo.services.persondir.support.BaseGroovyScriptDaoImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.io.Resource;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This is {@link CompiledGroovyScriptDao} that retrieves person attributes from a Groovy script.
+ * The script is compiled once and a single instance of it serves all lookups; the script
+ * is only recompiled when the modification time of its file changes. Since the instance
+ * is shared across threads, scripts should not keep per-user state in fields.
+ * <p>Script executions that do not complete within the configured timeout are abandoned,
+ * and produce no attributes. Timed executions run on the given executor, which should be bounded;
+ * lookups that the executor rejects produce no attributes either.</p>
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class CompiledGroovyScriptDao extends BaseGroovyScriptDaoImpl {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CompiledGroovyScriptDao.class);
+
+    private final Resource script;
+    private final ApplicationContext applicationContext;
+    private final CasConfigurationProperties casProperties;
+    private final long executionTimeoutInMillis;
+    private final ExecutorService executorService;
+
+    private final AtomicLong compileCount = new AtomicLong();
+
+    private volatile CompiledScript compiledScript;
+
+    /**
+     * Instantiates a new Compiled groovy script dao.
+     *
+     * @param script                   the groovy script
+     * @param applicationContext       the application context passed to the script
+     * @param casProperties            the cas properties passed to the script
+     * @param executionTimeoutInMillis the maximum time a script execution may take; zero or less means no limit.
+     * @param executorService          the executor that runs script executions subject to the timeout
+     */
+    public CompiledGroovyScriptDao(final Resource script, final ApplicationContext applicationContext,
+                                   final CasConfigurationProperties casProperties, final long executionTimeoutInMillis,
+                                   final ExecutorService executorService) {
+        this.script = script;
+        this.applicationContext = applicationContext;
+        this.casProperties = casProperties;
+        this.executionTimeoutInMillis = executionTimeoutInMillis;
+        this.executorService = executorService;
+    }
+
+    @Override
+    public Map<String, List<Object>> getPersonAttributesFromMultivaluedAttributes(final Map<String, List<Object>> attributes) {
+        if (attributes.containsKey("username")) {
+            final List<Object> a = attributes.get("username");
+            if (!a.isEmpty()) {
+                final Map<String, List<Object>> results = new HashMap<>();
+                final Map<String, Object> attrs = getAttributesForUser(a.get(0).toString());
+                LOGGER.debug("Groovy-based attributes found are [{}]", attrs);
+                attrs.forEach((k, v) -> {
+                    final List<Object> values = new ArrayList<>(CollectionUtils.toCollection(v));
+                    LOGGER.debug("Adding Groovy-based attribute [{}] with value(s) [{}]", k, values);
+                    results.put(k, values);
+                });
+                return results;
+            }
+        }
+        return new HashMap<>();
+    }
+
+    @Override
+    public Map<String, Object> getAttributesForUser(final String uid) {
+        Future<Map<String, Object>> result = null;
+        try {
+            final GroovyObject groovyObject = getGroovyObject();
+            if (groovyObject != null) {
+                final Object[] args = {uid, LOGGER, this.casProperties, this.applicationContext};
+                LOGGER.debug("Executing groovy script's run method, with parameters [{}]", args);
+                if (this.executionTimeoutInMillis <= 0 || this.executorService == null) {
+                    return executeScript(groovyObject, args);
+                }
+                result = this.executorService.submit(() -> executeScript(groovyObject, args));
+                return result.get(this.executionTimeoutInMillis, TimeUnit.MILLISECONDS);
+            }
+        } catch (final TimeoutException e) {
+            LOGGER.warn("Groovy script [{}] did not complete within [{}] ms for [{}]", this.script, this.executionTimeoutInMillis, uid);
+            result.cancel(true);
+        } catch (final RejectedExecutionException e) {
+            LOGGER.warn("Groovy script [{}] is not executed for [{}]; too many executions are already running", this.script, uid);
+        } catch (final Exception e) {
+            LOGGER.error(e.getMessage(), e);
+        }
+        return new HashMap<>();
+    }
+
+    /**
+     * Number of times the script has been compiled.
+     *
+     * @return the compile count
+     */
+    public long getCompileCount() {
+        return this.compileCount.get();
+    }
+
+    private Map<String, Object> executeScript(final GroovyObject groovyObject, final Object[] args) {
+        final Map<String, Object> personAttributesMap = (Map<String, Object>) groovyObject.invokeMethod("run", args);
+        LOGGER.debug("Creating person attributes with the username [{}] and attributes [{}]", args[0], personAttributesMap);
+        return personAttributesMap == null ? new HashMap<>() : new HashMap<>(personAttributesMap);
+    }
+
+    private GroovyObject getGroovyObject() throws Exception {
+        final File groovyFile = this.script.getFile();
+        if (!groovyFile.exists()) {
+            LOGGER.warn("Groovy script [{}] does not exist", groovyFile);
+            return null;
+        }
+        final long lastModified = groovyFile.lastModified();
+        CompiledScript current = this.compiledScript;
+        if (current == null || current.lastModified != lastModified) {
+            synchronized (this) {
+                current = this.compiledScript;
+                if (current == null || current.lastModified != lastModified) {
+                    current = compile(groovyFile, lastModified);
+                    if (this.compiledScript != null) {
+                        IOUtils.closeQuietly(this.compiledScript.classLoader);
+                    }
+                    this.compiledScript = current;
+                }
+            }
+        }
+        return current.groovyObject;
+    }
+
+    private CompiledScript compile(final File groovyFile, final long lastModified) throws Exception {
+        final GroovyClassLoader loader = new GroovyClassLoader(getClass().getClassLoader());
+        try {
+            final Class<?> groovyClass = loader.parseClass(groovyFile);
+            LOGGER.debug("Loaded groovy class [{}] from script [{}]", groovyClass.getSimpleName(), groovyFile.getCanonicalPath());
+            final GroovyObject groovyObject = (GroovyObject) groovyClass.newInstance();
+            this.compileCount.incrementAndGet();
+            return new CompiledScript(loader, groovyObject, lastModified);
+        } catch (final Exception e) {
+            IOUtils.closeQuietly(loader);
+            throw e;
+        }
+    }
+
+    /**
+     * The compiled script instance, along with the modification time of the file it was compiled from.
+     */
+    private static class CompiledScript {
+        private final GroovyClassLoader classLoader;
+        private final GroovyObject groovyObject;
+        private final long lastModified;
+
+        CompiledScript(final GroovyClassLoader classLoader, final GroovyObject groovyObject, final long lastModified) {
+            this.classLoader = classLoader;
+            this.groovyObject = groovyObject;
+            this.lastModified = lastModified;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package org.apereo.cas.authentication.principal.resolvers;
+
+import org.apereo.services.persondir.IPersonAttributeDao;
+import org.apereo.services.persondir.IPersonAttributes;
+import org.apereo.services.persondir.support.BasePersonAttributeDao;
+import org.apereo.services.persondir.support.NamedPersonImpl;
+import org.apereo.services.persondir.support.merger.IAttributeMerger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * This is {@link ParallelMergingPersonAttributeDao} that queries all of its attribute sources
+ * at the same time, rather than one after another, and merges their results using the configured
+ * {@link IAttributeMerger}. Results are always merged in the order in which sources are defined,
+ * so the outcome is the same as querying the sources sequentially.
+ * <p>Sources are queried on the given executor, which is owned and shut down by the caller.
+ * Sources that fail or do not answer within the timeout are skipped when failing open,
+ * or otherwise fail the entire query.</p>
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class ParallelMergingPersonAttributeDao extends BasePersonAttributeDao {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParallelMergingPersonAttributeDao.class);
+
+    private final List<IPersonAttributeDao> personAttributeDaos;
+    private final IAttributeMerger merger;
+    private final ExecutorService executorService;
+    private final long timeoutInMillis;
+    private final boolean failOpen;
+
+    /**
+     * Instantiates a new Parallel merging person attribute dao.
+     *
+     * @param personAttributeDaos the attribute sources, in the order their results are merged
+     * @param merger              the merger
+     * @param executorService     the executor used to query sources
+     * @param timeoutInMillis     the maximum time to wait for sources to answer
+     * @param failOpen            whether sources that fail or time out should be skipped, rather than fail the query
+     */
+    public ParallelMergingPersonAttributeDao(final List<IPersonAttributeDao> personAttributeDaos, final IAttributeMerger merger,
+                                             final ExecutorService executorService, final long timeoutInMillis,
+                                             final boolean failOpen) {
+        this.personAttributeDaos = personAttributeDaos;
+        this.merger = merger;
+        this.timeoutInMillis = timeoutInMillis;
+        this.failOpen = failOpen;
+        this.executorService = executorService;
+    }
+
+    @Override
+    public IPersonAttributes getPerson(final String uid) {
+        Map<String, List<Object>> attributes = null;
+        for (final IPersonAttributes person : query(dao -> dao.getPerson(uid))) {
+            if (person != null && person.getAttributes() != null) {
+                attributes = attributes == null
+                        ? new LinkedHashMap<>(person.getAttributes())
+                        : this.merger.mergeAttributes(attributes, person.getAttributes());
+            }
+        }
+        return attributes == null ? null : new NamedPersonImpl(uid, attributes);
+    }
+
+    @Override
+    public Set<IPersonAttributes> getPeople(final Map<String, Object> query) {
+        return mergeResults(query(dao -> dao.getPeople(query)));
+    }
+
+    @Override
+    public Set<IPersonAttributes> getPeopleWithMultivaluedAttributes(final Map<String, List<Object>> query) {
+        return mergeResults(query(dao -> dao.getPeopleWithMultivaluedAttributes(query)));
+    }
+
+    @Override
+    public Set<String> getPossibleUserAttributeNames() {
+        Set<String> names = null;
+        for (final IPersonAttributeDao dao : this.personAttributeDaos) {
+            final Set<String> daoNames = dao.getPossibleUserAttributeNames();
+            if (daoNames != null) {
+                names = names == null ? new HashSet<>(daoNames) : this.merger.mergePossibleUserAttributeNames(names, daoNames);
+            }
+        }
+        return names;
+    }
+
+    @Override
+    public Set<String> getAvailableQueryAttributes() {
+        Set<String> names = null;
+        for (final IPersonAttributeDao dao : this.personAttributeDaos) {
+            final Set<String> daoNames = dao.getAvailableQueryAttributes();
+            if (daoNames != null) {
+                names = names == null ? new HashSet<>(daoNames) : this.merger.mergeAvailableQueryAttributes(names, daoNames);
+            }
+        }
+        return names;
+    }
+
+    public List<IPersonAttributeDao> getPersonAttributeDaos() {
+        return this.personAttributeDaos;
+    }
+
+    private Set<IPersonAttributes> mergeResults(final List<Set<IPersonAttributes>> results) {
+        Set<IPersonAttributes> people = null;
+        for (final Set<IPersonAttributes> result : results) {
+            if (result != null) {
+                people = people == null ? new HashSet<>(result) : this.merger.mergeResults(people, result);
+            }
+        }
+        return people;
+    }
+
+    /**
+     * Submit the query to all sources, and collect their answers in the order sources are defined.
+     * Sources that are skipped are represented by a {@code null} answer.
+     */
+    private <T> List<T> query(final Function<IPersonAttributeDao, T> function) {
+        final List<Future<T>> futures = new ArrayList<>(this.personAttributeDaos.size());
+        this.personAttributeDaos.forEach(dao -> futures.add(this.executorService.submit((Callable<T>) () -> function.apply(dao))));
+
+        final long deadline = System.currentTimeMillis() + this.timeoutInMillis;
+        final List<T> results = new ArrayList<>(futures.size());
+        for (int i = 0; i < futures.size(); i++) {
+            final Future<T> future = futures.get(i);
+            final IPersonAttributeDao dao = this.personAttributeDaos.get(i);
+            try {
+                results.add(future.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS));
+            } catch (final TimeoutException e) {
+                future.cancel(true);
+                handleFailure(futures, dao, new IllegalStateException("Attribute source " + dao + " did not answer within "
+                        + this.timeoutInMillis + " ms", e));
+                results.add(null);
+            } catch (final ExecutionException e) {
+                handleFailure(futures, dao, e.getCause());
+                results.add(null);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(f -> f.cancel(true));
+                throw new IllegalStateException(e);
+            }
+        }
+        return results;
+    }
+
+    private <T> void handleFailure(final List<Future<T>> futures, final IPersonAttributeDao dao, final Throwable cause) {
+        if (this.failOpen) {
+            LOGGER.warn("Skipping attribute source [{}]: [{}]", dao, cause.getMessage());
+            LOGGER.debug(cause.getMessage(), cause);
+            return;
+        }
+        futures.forEach(f -> f.cancel(true));
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        throw new IllegalStateException(cause);
+    }
+}
@@ -0,0 +1,50 @@
+package org.apereo.cas.authentication.support;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.MetricSet;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * This is {@link StatisticsGaugeSet} that exposes each entry of a component's
+ * {@code getStatistics()} map as a gauge. The names of the gauges are taken from
+ * the statistics available when the set is created; values are read on demand.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class StatisticsGaugeSet implements MetricSet {
+    private final Supplier<Map<String, Long>> statistics;
+
+    public StatisticsGaugeSet(final Supplier<Map<String, Long>> statistics) {
+        this.statistics = statistics;
+    }
+
+    @Override
+    public Map<String, Metric> getMetrics() {
+        final Map<String, Metric> gauges = new LinkedHashMap<>();
+        this.statistics.get().keySet().forEach(key -> gauges.put(key, (Gauge<Long>) () -> this.statistics.get().get(key)));
+        return gauges;
+    }
+
+    /**
+     * Register the statistics as gauges under the given name, replacing gauges
+     * registered earlier under that name such as when the context is refreshed.
+     *
+     * @param registry   the registry, may be null if metrics are not available
+     * @param name       the name under which gauges are registered
+     * @param statistics the statistics
+     */
+    public static void register(final MetricRegistry registry, final String name, final Supplier<Map<String, Long>> statistics) {
+        if (registry == null) {
+            return;
+        }
+        final String prefix = name.concat(".");
+        registry.removeMatching((metricName, metric) -> metricName.startsWith(prefix));
+        registry.register(name, new StatisticsGaugeSet(statistics));
+    }
+}
@@ -1,17 +1,19 @@
 package org.apereo.cas.config;
 
+import com.codahale.metrics.MetricRegistry;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
-import groovy.lang.GroovyClassLoader;
-import groovy.lang.GroovyObject;
-import org.apache.commons.collections.map.HashedMap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apereo.cas.authentication.principal.cache.PrincipalAttributesCache;
+import org.apereo.cas.authentication.principal.resolvers.CompiledGroovyScriptDao;
+import org.apereo.cas.authentication.principal.resolvers.ParallelMergingPersonAttributeDao;
+import org.apereo.cas.authentication.support.StatisticsGaugeSet;
 import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.configuration.model.core.authentication.PrincipalAttributesProperties;
 import org.apereo.cas.configuration.support.Beans;
-import org.apereo.cas.util.CollectionUtils;
 import org.apereo.services.persondir.IPersonAttributeDao;
-import org.apereo.services.persondir.support.BaseGroovyScriptDaoImpl;
 import org.apereo.services.persondir.support.CachingPersonAttributeDaoImpl;
 import org.apereo.services.persondir.support.GroovyPersonAttributeDao;
 import org.apereo.services.persondir.support.JsonBackedComplexStubPersonAttributeDao;
@@ -20,13 +22,16 @@ import org.apereo.services.persondir.support.jdbc.AbstractJdbcPersonAttributeDao
 import org.apereo.services.persondir.support.jdbc.MultiRowJdbcPersonAttributeDao;
 import org.apereo.services.persondir.support.jdbc.SingleRowJdbcPersonAttributeDao;
 import org.apereo.services.persondir.support.ldap.LdaptivePersonAttributeDao;
+import org.apereo.services.persondir.support.merger.IAttributeMerger;
 import org.apereo.services.persondir.support.merger.MultivaluedAttributeMerger;
 import org.apereo.services.persondir.support.merger.NoncollidingAttributeAdder;
 import org.apereo.services.persondir.support.merger.ReplacingAttributeAdder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
@@ -35,12 +40,14 @@ import org.springframework.core.OrderComparator;
 import org.springframework.core.io.Resource;
 
 import javax.naming.directory.SearchControls;
-import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -53,6 +60,8 @@ import java.util.concurrent.TimeUnit;
 @EnableConfigurationProperties(CasConfigurationProperties.class)
 public class CasPersonDirectoryConfiguration {
     private static final Logger LOGGER = LoggerFactory.getLogger(CasPersonDirectoryConfiguration.class);
+    private static final long GROOVY_THREAD_KEEP_ALIVE_IN_SECONDS = 60;
+    private static final int PARALLEL_QUEUE_CAPACITY_PER_THREAD = 10;
 
     @Autowired
     private ApplicationContext applicationContext;
@@ -60,6 +69,10 @@ public class CasPersonDirectoryConfiguration {
     @Autowired
     private CasConfigurationProperties casProperties;
 
+    @Autowired(required = false)
+    @Qualifier("metrics")
+    private MetricRegistry metrics;
+
     @Bean
     public List<IPersonAttributeDao> attributeRepositories() {
         final List<IPersonAttributeDao> list = new ArrayList<>();
@@ -79,6 +92,37 @@ public class CasPersonDirectoryConfiguration {
         return composeMergedAndCachedAttributeRepositories(attributeRepositories());
     }
 
+    @ConditionalOnMissingBean(name = "groovyAttributeRepositoryExecutor")
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService groovyAttributeRepositoryExecutor() {
+        return new ThreadPoolExecutor(0, casProperties.getAuthn().getAttributeRepository().getGroovyPoolSize(),
+                GROOVY_THREAD_KEEP_ALIVE_IN_SECONDS, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("groovy-attribute-repository-%d").build(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @ConditionalOnMissingBean(name = "parallelAttributeRepositoryExecutor")
+    @ConditionalOnProperty(prefix = "cas.authn.attributeRepository.parallel", name = "enabled", havingValue = "true")
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService parallelAttributeRepositoryExecutor() {
+        final int poolSize = casProperties.getAuthn().getAttributeRepository().getParallel().getPoolSize();
+        return new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(poolSize * PARALLEL_QUEUE_CAPACITY_PER_THREAD),
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("person-attribute-source-%d").build(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @ConditionalOnMissingBean(name = "principalAttributesCache")
+    @ConditionalOnProperty(prefix = "cas.authn.attributeRepository.sharedCache", name = "enabled", havingValue = "true")
+    @Bean
+    public PrincipalAttributesCache principalAttributesCache() {
+        final PrincipalAttributesProperties.SharedCache cache = casProperties.getAuthn().getAttributeRepository().getSharedCache();
+        final PrincipalAttributesCache attributesCache = new PrincipalAttributesCache(cache.getMaxSizeInMegabytes() * FileUtils.ONE_MB,
+                cache.getTimeToLive(), cache.getRefreshAheadFactor(), cache.getRefreshPoolSize());
+        StatisticsGaugeSet.register(this.metrics, "cas.authn.attributeRepository.sharedCache", attributesCache::getStatistics);
+        return attributesCache;
+    }
+
     private void addJsonAttributeRepository(final List<IPersonAttributeDao> list) {
         casProperties.getAuthn().getAttributeRepository().getJson().forEach(json -> {
             final Resource r = json.getConfig().getLocation();
@@ -92,47 +136,63 @@ public class CasPersonDirectoryConfiguration {
     }
 
     private void addGroovyAttributeRepository(final List<IPersonAttributeDao> list) {
-        casProperties.getAuthn().getAttributeRepository().getGroovy().forEach(groovy -> {
+        final List<PrincipalAttributesProperties.Groovy> scripts = casProperties.getAuthn().getAttributeRepository().getGroovy();
+        for (int i = 0; i < scripts.size(); i++) {
+            final PrincipalAttributesProperties.Groovy groovy = scripts.get(i);
             if (groovy.getConfig().getLocation() != null) {
-                final GroovyPersonAttributeDao dao = new GroovyPersonAttributeDao(new GroovyScriptDao(applicationContext, casProperties));
+                final CompiledGroovyScriptDao scriptDao = new CompiledGroovyScriptDao(groovy.getConfig().getLocation(),
+                        applicationContext, casProperties, groovy.getExecutionTimeout(), groovyAttributeRepositoryExecutor());
+                StatisticsGaugeSet.register(this.metrics, "cas.authn.attributeRepository.groovy." + i,
+                        () -> Collections.singletonMap("compileCount", scriptDao.getCompileCount()));
+                final GroovyPersonAttributeDao dao = new GroovyPersonAttributeDao(scriptDao);
                 dao.setCaseInsensitiveUsername(groovy.isCaseInsensitive());
                 dao.setOrder(groovy.getOrder());
 
                 LOGGER.debug("Configured Groovy attribute sources from [{}]", groovy.getConfig().getLocation());
                 list.add(dao);
             }
-        });
+        }
     }
 
     private IPersonAttributeDao composeMergedAndCachedAttributeRepositories(final List<IPersonAttributeDao> list) {
-        final MergingPersonAttributeDaoImpl mergingDao = new MergingPersonAttributeDaoImpl();
-
+        final IAttributeMerger attributeMerger;
         final String merger = StringUtils.defaultIfBlank(casProperties.getAuthn().getAttributeRepository().getMerger(), "replace".trim());
         LOGGER.debug("Configured merging strategy for attribute sources is [{}]", merger);
         switch (merger.toLowerCase()) {
             case "merge":
-                mergingDao.setMerger(new MultivaluedAttributeMerger());
+                attributeMerger = new MultivaluedAttributeMerger();
                 break;
             case "add":
-                mergingDao.setMerger(new NoncollidingAttributeAdder());
+                attributeMerger = new NoncollidingAttributeAdder();
                 break;
             case "replace":
             default:
-                mergingDao.setMerger(new ReplacingAttributeAdder());
+                attributeMerger = new ReplacingAttributeAdder();
                 break;
         }
 
+        final IPersonAttributeDao mergingDao;
+        final PrincipalAttributesProperties.Parallel parallel = casProperties.getAuthn().getAttributeRepository().getParallel();
+        if (parallel.isEnabled()) {
+            LOGGER.debug("Attribute repository sources will be queried in parallel");
+            mergingDao = new ParallelMergingPersonAttributeDao(list, attributeMerger, parallelAttributeRepositoryExecutor(),
+                    parallel.getTimeout(), parallel.isFailOpen());
+        } else {
+            final MergingPersonAttributeDaoImpl dao = new MergingPersonAttributeDaoImpl();
+            dao.setMerger(attributeMerger);
+            dao.setPersonAttributeDaos(list);
+            mergingDao = dao;
+        }
+
         final CachingPersonAttributeDaoImpl impl = new CachingPersonAttributeDaoImpl();
         impl.setCacheNullResults(false);
 
         final Cache graphs = CacheBuilder.newBuilder()
-                .concurrencyLevel(2)
-                .weakKeys()
+                .concurrencyLevel(Math.max(4, Runtime.getRuntime().availableProcessors()))
                 .maximumSize(casProperties.getAuthn().getAttributeRepository().getMaximumCacheSize())
                 .expireAfterWrite(casProperties.getAuthn().getAttributeRepository().getExpireInMinutes(), TimeUnit.MINUTES)
                 .build();
         impl.setUserInfoCache(graphs.asMap());
-        mergingDao.setPersonAttributeDaos(list);
         impl.setCachedPersonAttributesDao(mergingDao);
 
         if (list.isEmpty()) {
@@ -242,62 +302,4 @@ public class CasPersonDirectoryConfiguration {
             }
         });
     }
-
-    private static class GroovyScriptDao extends BaseGroovyScriptDaoImpl {
-        private final ApplicationContext applicationContext;
-        private final CasConfigurationProperties casProperties;
-
-        GroovyScriptDao(final ApplicationContext applicationContext, final CasConfigurationProperties casProperties) {
-            this.applicationContext = applicationContext;
-            this.casProperties = casProperties;
-        }
-
-        @Override
-        public Map<String, List<Object>> getPersonAttributesFromMultivaluedAttributes(final Map<String, List<Object>> attributes) {
-            if (attributes.containsKey("username")) {
-                final List<Object> a = attributes.get("username");
-                if (!a.isEmpty()) {
-                    final Map<String, List<Object>> results = new HashMap<>();
-                    final Map<String, Object> attrs = getAttributesForUser(a.get(0).toString());
-                    LOGGER.debug("Groovy-based attributes found are [{}]", attrs);
-                    attrs.forEach((k, v) -> {
-                        final List<Object> values = new ArrayList<>(CollectionUtils.toCollection(v));
-                        LOGGER.debug("Adding Groovy-based attribute [{}] with value(s) [{}]", k, values);
-                        results.put(k, values);
-                    });
-                    return results;
-                }
-            }
-            return new HashMap<>();
-        }
-
-        @Override
-        public Map<String, Object> getAttributesForUser(final String uid) {
-            final Map<String, Object> finalAttributes = new HashedMap();
-            casProperties.getAuthn().getAttributeRepository().getGroovy().forEach(groovy -> {
-                final ClassLoader parent = getClass().getClassLoader();
-                try (GroovyClassLoader loader = new GroovyClassLoader(parent)) {
-                    if (groovy.getConfig().getLocation() != null) {
-                        final File groovyFile = groovy.getConfig().getLocation().getFile();
-                        if (groovyFile.exists()) {
-                            final Class<?> groovyClass = loader.parseClass(groovyFile);
-                            LOGGER.debug("Loaded groovy class [{}] from script [{}]", groovyClass.getSimpleName(), groovyFile.getCanonicalPath());
-                            final GroovyObject groovyObject = (GroovyObject) groovyClass.newInstance();
-                            LOGGER.debug("Created groovy object instance from class [{}]", groovyFile.getCanonicalPath());
-                            final Object[] args = {uid, LOGGER, casProperties, applicationContext};
-                            LOGGER.debug("Executing groovy script's run method, with parameters [{}]", args);
-                            final Map<String, Object> personAttributesMap = (Map<String, Object>) groovyObject.invokeMethod("run", args);
-                            LOGGER.debug("Creating person attributes with the username [{}] and attributes [{}]", uid, personAttributesMap);
-                            finalAttributes.putAll(personAttributesMap);
-                        }
-                    }
-                } catch (final Exception e) {
-                    LOGGER.error(e.getMessage(), e);
-                }
-            });
-
-            return finalAttributes;
-        }
-    }
 }
-
@@ -36,4 +36,18 @@ public class CachingPrincipalAttributesRepositoryTests extends AbstractCachingPr
 
         assertEquals(repositoryWritten, repositoryRead);
     }
+
+    @Test
+    public void verifyAttributeSourceIsStable() {
+        final CachingPrincipalAttributesRepository first = new CachingPrincipalAttributesRepository(TimeUnit.MINUTES.name(), 1);
+        final CachingPrincipalAttributesRepository second = new CachingPrincipalAttributesRepository(TimeUnit.HOURS.name(), 2);
+        assertEquals(first.getAttributeSource(), second.getAttributeSource());
+
+        first.setAttributeRepository(this.dao);
+        assertNull(first.getAttributeSource());
+        first.setAttributeRepositoryId("stub");
+        second.setAttributeRepository(this.dao);
+        second.setAttributeRepositoryId("stub");
+        assertEquals(first.getAttributeSource(), second.getAttributeSource());
+    }
 }
@@ -0,0 +1,92 @@
+package org.apereo.cas.authentication.principal.cache;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link PrincipalAttributesCacheTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class PrincipalAttributesCacheTests {
+
+    private static final long ONE_MB = 1024 * 1024;
+
+    private PrincipalAttributesCache cache;
+
+    @After
+    public void tearDown() throws Exception {
+        this.cache.destroy();
+    }
+
+    @Test
+    public void verifyAttributesAreSharedByKey() {
+        this.cache = new PrincipalAttributesCache(ONE_MB, 60_000, 1, 1);
+        final AtomicInteger counter = new AtomicInteger();
+        final Supplier<Map<String, Object>> loader = () -> Collections.singletonMap("count", counter.incrementAndGet());
+
+        assertEquals(1, this.cache.get(new PrincipalAttributesCache.Key("casuser", "ldap"), 60_000, loader).get("count"));
+        assertEquals(1, this.cache.get(new PrincipalAttributesCache.Key("casuser", "ldap"), 60_000, loader).get("count"));
+        assertEquals(2, this.cache.get(new PrincipalAttributesCache.Key("casuser", "jdbc"), 60_000, loader).get("count"));
+
+        final Map<String, Long> stats = this.cache.getStatistics();
+        assertEquals(Long.valueOf(1), stats.get("hits"));
+        assertEquals(Long.valueOf(2), stats.get("misses"));
+        assertEquals(Long.valueOf(2), stats.get("loads"));
+    }
+
+    @Test
+    public void verifyExpirationIsDecidedByCaller() throws Exception {
+        this.cache = new PrincipalAttributesCache(ONE_MB, 60_000, 1, 1);
+        final AtomicInteger counter = new AtomicInteger();
+        final Supplier<Map<String, Object>> loader = () -> Collections.singletonMap("count", counter.incrementAndGet());
+        final PrincipalAttributesCache.Key key = new PrincipalAttributesCache.Key("casuser", "ldap");
+
+        assertEquals(1, this.cache.get(key, 60_000, loader).get("count"));
+        Thread.sleep(50);
+        assertEquals(1, this.cache.get(key, 60_000, loader).get("count"));
+        assertEquals(2, this.cache.get(key, 10, loader).get("count"));
+    }
+
+    @Test
+    public void verifyAttributesAreRefreshedAhead() throws Exception {
+        this.cache = new PrincipalAttributesCache(ONE_MB, 60_000, 0.1, 1);
+        final AtomicInteger counter = new AtomicInteger();
+        final Supplier<Map<String, Object>> loader = () -> Collections.singletonMap("count", counter.incrementAndGet());
+        final PrincipalAttributesCache.Key key = new PrincipalAttributesCache.Key("casuser", "ldap");
+
+        assertEquals(1, this.cache.get(key, 1000, loader).get("count"));
+        Thread.sleep(200);
+        assertEquals(1, this.cache.get(key, 1000, loader).get("count"));
+
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (this.cache.getStatistics().get("refreshes") == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(2, this.cache.get(key, 1000, loader).get("count"));
+        assertEquals(Long.valueOf(1), this.cache.getStatistics().get("misses"));
+    }
+
+    @Test
+    public void verifyEmptyAttributesAreNotServedFromCache() {
+        this.cache = new PrincipalAttributesCache(ONE_MB, 60_000, 1, 1);
+        final AtomicInteger counter = new AtomicInteger();
+        final Supplier<Map<String, Object>> loader = () -> {
+            counter.incrementAndGet();
+            return Collections.emptyMap();
+        };
+        final PrincipalAttributesCache.Key key = new PrincipalAttributesCache.Key("casuser", "ldap");
+
+        assertTrue(this.cache.get(key, 60_000, loader).isEmpty());
+        assertTrue(this.cache.get(key, 60_000, loader).isEmpty());
+        assertEquals(2, counter.get());
+    }
+}
@@ -0,0 +1,102 @@
+package org.apereo.cas.authentication.principal.resolvers;
+
+import org.apache.commons.io.FileUtils;
+import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link CompiledGroovyScriptDaoTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class CompiledGroovyScriptDaoTests {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final ExecutorService executorService = new ThreadPoolExecutor(0, 1, 1, TimeUnit.SECONDS,
+            new SynchronousQueue<>(), new ThreadPoolExecutor.AbortPolicy());
+
+    @After
+    public void tearDown() {
+        this.executorService.shutdownNow();
+    }
+
+    @Test
+    public void verifyScriptIsCompiledOnce() throws Exception {
+        final File script = writeScript(folder.newFile("attributes.groovy"), "cheese", "");
+        final CompiledGroovyScriptDao dao = new CompiledGroovyScriptDao(new FileSystemResource(script), null,
+                new CasConfigurationProperties(), 0, null);
+
+        for (int i = 0; i < 3; i++) {
+            final Map<String, Object> attributes = dao.getAttributesForUser("casuser");
+            assertEquals("cheese", attributes.get("likes"));
+        }
+        assertEquals(1, dao.getCompileCount());
+    }
+
+    @Test
+    public void verifyScriptIsRecompiledWhenModified() throws Exception {
+        final File script = writeScript(folder.newFile("attributes.groovy"), "cheese", "");
+        final CompiledGroovyScriptDao dao = new CompiledGroovyScriptDao(new FileSystemResource(script), null,
+                new CasConfigurationProperties(), 0, null);
+        assertEquals("cheese", dao.getAttributesForUser("casuser").get("likes"));
+
+        writeScript(script, "bread", "");
+        assertTrue(script.setLastModified(script.lastModified() + 10_000));
+        assertEquals("bread", dao.getAttributesForUser("casuser").get("likes"));
+        assertEquals(2, dao.getCompileCount());
+    }
+
+    @Test
+    public void verifySlowScriptTimesOut() throws Exception {
+        final File script = writeScript(folder.newFile("attributes.groovy"), "cheese", "Thread.sleep(5000)");
+        final CompiledGroovyScriptDao dao = new CompiledGroovyScriptDao(new FileSystemResource(script), null,
+                new CasConfigurationProperties(), 100, this.executorService);
+
+        final long start = System.currentTimeMillis();
+        assertTrue(dao.getAttributesForUser("casuser").isEmpty());
+        assertTrue(System.currentTimeMillis() - start < 5000);
+    }
+
+    @Test
+    public void verifyExecutionsBeyondPoolAreRejected() throws Exception {
+        final File script = writeScript(folder.newFile("attributes.groovy"), "cheese", "Thread.sleep(5000)");
+        final CompiledGroovyScriptDao dao = new CompiledGroovyScriptDao(new FileSystemResource(script), null,
+                new CasConfigurationProperties(), 1000, this.executorService);
+
+        final Thread busy = new Thread(() -> dao.getAttributesForUser("casuser"));
+        busy.start();
+        Thread.sleep(200);
+        final long start = System.currentTimeMillis();
+        assertTrue(dao.getAttributesForUser("casuser").isEmpty());
+        assertTrue(System.currentTimeMillis() - start < 1000);
+        busy.join();
+    }
+
+    private static File writeScript(final File file, final String likes, final String statement) throws Exception {
+        final String script = "class SampleGroovyPersonAttributeDao {\n"
+                + "    def Map<String, List<Object>> run(final Object... args) {\n"
+                + "        " + statement + "\n"
+                + "        return [username: [args[0]], likes: '" + likes + "']\n"
+                + "    }\n"
+                + "}\n";
+        FileUtils.write(file, script, StandardCharsets.UTF_8);
+        return file;
+    }
+}
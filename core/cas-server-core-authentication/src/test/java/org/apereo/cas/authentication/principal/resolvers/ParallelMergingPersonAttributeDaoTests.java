@@ -0,0 +1,154 @@
+package org.apereo.cas.authentication.principal.resolvers;
+
+import org.apereo.services.persondir.IPersonAttributeDao;
+import org.apereo.services.persondir.IPersonAttributes;
+import org.apereo.services.persondir.support.BasePersonAttributeDao;
+import org.apereo.services.persondir.support.MergingPersonAttributeDaoImpl;
+import org.apereo.services.persondir.support.NamedPersonImpl;
+import org.apereo.services.persondir.support.merger.IAttributeMerger;
+import org.apereo.services.persondir.support.merger.MultivaluedAttributeMerger;
+import org.apereo.services.persondir.support.merger.NoncollidingAttributeAdder;
+import org.apereo.services.persondir.support.merger.ReplacingAttributeAdder;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link ParallelMergingPersonAttributeDaoTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class ParallelMergingPersonAttributeDaoTests {
+
+    private static final String UID = "casuser";
+
+    private static final Map<String, List<Object>> QUERY = Collections.singletonMap("username", Collections.singletonList(UID));
+
+    private final ExecutorService executorService = Executors.newFixedThreadPool(4);
+
+    @After
+    public void tearDown() {
+        this.executorService.shutdownNow();
+    }
+
+    @Test
+    public void verifyResultsMatchSequentialMerge() {
+        for (final IAttributeMerger merger : Arrays.asList(new ReplacingAttributeAdder(), new NoncollidingAttributeAdder(),
+                new MultivaluedAttributeMerger())) {
+            final List<IPersonAttributeDao> daos = Arrays.asList(
+                    new DelayedPersonAttributeDao(0, "mail", "casuser@example.org", "cn", "CAS"),
+                    new DelayedPersonAttributeDao(50, "mail", "cas@example.org", "uid", "casuser"),
+                    new DelayedPersonAttributeDao(0, "cn", "CAS User"));
+
+            final MergingPersonAttributeDaoImpl sequential = new MergingPersonAttributeDaoImpl();
+            sequential.setMerger(merger);
+            sequential.setPersonAttributeDaos(daos);
+            final ParallelMergingPersonAttributeDao parallel = new ParallelMergingPersonAttributeDao(daos, merger,
+                    this.executorService, 5000, true);
+
+            assertEquals(merger.getClass().getSimpleName(), getAttributes(sequential.getPeopleWithMultivaluedAttributes(QUERY)),
+                    getAttributes(parallel.getPeopleWithMultivaluedAttributes(QUERY)));
+        }
+    }
+
+    @Test
+    public void verifySourcesAreQueriedConcurrently() {
+        final List<IPersonAttributeDao> daos = Arrays.asList(
+                new DelayedPersonAttributeDao(500, "mail", "casuser@example.org"),
+                new DelayedPersonAttributeDao(500, "cn", "CAS"),
+                new DelayedPersonAttributeDao(500, "uid", "casuser"));
+        final ParallelMergingPersonAttributeDao dao = new ParallelMergingPersonAttributeDao(daos, new ReplacingAttributeAdder(),
+                this.executorService, 5000, true);
+
+        final long start = System.currentTimeMillis();
+        final Map<String, List<Object>> attributes = getAttributes(dao.getPeopleWithMultivaluedAttributes(QUERY));
+        assertTrue(System.currentTimeMillis() - start < 1000);
+        assertEquals(3, attributes.size());
+    }
+
+    @Test
+    public void verifySlowSourceIsSkippedWhenFailingOpen() {
+        final List<IPersonAttributeDao> daos = Arrays.asList(
+                new DelayedPersonAttributeDao(5000, "mail", "casuser@example.org"),
+                new DelayedPersonAttributeDao(0, "cn", "CAS"));
+        final ParallelMergingPersonAttributeDao dao = new ParallelMergingPersonAttributeDao(daos, new ReplacingAttributeAdder(),
+                this.executorService, 200, true);
+
+        final Map<String, List<Object>> attributes = getAttributes(dao.getPeopleWithMultivaluedAttributes(QUERY));
+        assertFalse(attributes.containsKey("mail"));
+        assertTrue(attributes.containsKey("cn"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void verifySlowSourceFailsQueryWhenFailingClosed() {
+        final List<IPersonAttributeDao> daos = Arrays.asList(
+                new DelayedPersonAttributeDao(5000, "mail", "casuser@example.org"),
+                new DelayedPersonAttributeDao(0, "cn", "CAS"));
+        final ParallelMergingPersonAttributeDao dao = new ParallelMergingPersonAttributeDao(daos, new ReplacingAttributeAdder(),
+                this.executorService, 200, false);
+        dao.getPeopleWithMultivaluedAttributes(QUERY);
+    }
+
+    private static Map<String, List<Object>> getAttributes(final Set<IPersonAttributes> people) {
+        assertEquals(1, people.size());
+        return people.iterator().next().getAttributes();
+    }
+
+    private static class DelayedPersonAttributeDao extends BasePersonAttributeDao {
+        private final long delay;
+        private final Map<String, List<Object>> attributes = new HashMap<>();
+
+        DelayedPersonAttributeDao(final long delay, final String... attributes) {
+            this.delay = delay;
+            for (int i = 0; i < attributes.length; i += 2) {
+                this.attributes.put(attributes[i], new ArrayList<>(Collections.singletonList(attributes[i + 1])));
+            }
+        }
+
+        @Override
+        public IPersonAttributes getPerson(final String uid) {
+            try {
+                Thread.sleep(this.delay);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            final Map<String, List<Object>> copy = new HashMap<>();
+            this.attributes.forEach((k, v) -> copy.put(k, new ArrayList<>(v)));
+            return new NamedPersonImpl(uid, copy);
+        }
+
+        @Override
+        public Set<IPersonAttributes> getPeople(final Map<String, Object> query) {
+            return new HashSet<>(Collections.singleton(getPerson(UID)));
+        }
+
+        @Override
+        public Set<IPersonAttributes> getPeopleWithMultivaluedAttributes(final Map<String, List<Object>> query) {
+            return new HashSet<>(Collections.singleton(getPerson(UID)));
+        }
+
+        @Override
+        public Set<String> getPossibleUserAttributeNames() {
+            return this.attributes.keySet();
+        }
+
+        @Override
+        public Set<String> getAvailableQueryAttributes() {
+            return Collections.singleton("username");
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package org.apereo.cas.configuration.model.core.audit;
 
 import org.apereo.cas.configuration.model.support.jpa.AbstractJpaProperties;
+import org.apereo.cas.configuration.support.Beans;
 import org.apereo.inspektr.audit.support.AbstractStringAuditTrailManager;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 
 /**
  * This is {@link AuditProperties}.
@@ -105,6 +108,16 @@ public class AuditProperties {
         private String isolationLevelName = "ISOLATION_READ_COMMITTED";
         private String propagationBehaviorName = "PROPAGATION_REQUIRED";
 
+        private Asynchronous asynchronous = new Asynchronous();
+
+        public Asynchronous getAsynchronous() {
+            return asynchronous;
+        }
+
+        public void setAsynchronous(final Asynchronous asynchronous) {
+            this.asynchronous = asynchronous;
+        }
+
         public int getMaxAgeDays() {
             return maxAgeDays;
         }
@@ -129,4 +142,61 @@ public class AuditProperties {
             this.isolationLevelName = isolationLevelName;
         }
     }
+
+    public static class Asynchronous {
+        private boolean enabled;
+        private int queueCapacity = 10000;
+        private int batchSize = 100;
+        private String flushInterval = "PT1S";
+        private String overflowPolicy = "BLOCK";
+        private Resource spillFile = new FileSystemResource("/etc/cas/audit/audit-overflow.log");
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(final boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(final int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(final int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public long getFlushInterval() {
+            return Beans.newDuration(flushInterval).toMillis();
+        }
+
+        public void setFlushInterval(final String flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+
+        public String getOverflowPolicy() {
+            return overflowPolicy;
+        }
+
+        public void setOverflowPolicy(final String overflowPolicy) {
+            this.overflowPolicy = overflowPolicy;
+        }
+
+        public Resource getSpillFile() {
+            return spillFile;
+        }
+
+        public void setSpillFile(final Resource spillFile) {
+            this.spillFile = spillFile;
+        }
+    }
 }
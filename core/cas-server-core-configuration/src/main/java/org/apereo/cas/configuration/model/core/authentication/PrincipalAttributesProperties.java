@@ -3,6 +3,7 @@ package org.apereo.cas.configuration.model.core.authentication;
 import org.apereo.cas.configuration.model.support.jpa.AbstractJpaProperties;
 import org.apereo.cas.configuration.model.support.ldap.AbstractLdapProperties;
 import org.apereo.cas.configuration.support.AbstractConfigProperties;
+import org.apereo.cas.configuration.support.Beans;
 import org.apereo.services.persondir.support.QueryType;
 import org.apereo.services.persondir.util.CaseCanonicalizationMode;
 
@@ -24,6 +25,9 @@ public class PrincipalAttributesProperties {
     private int expireInMinutes = 30;
     private int maximumCacheSize = 10000;
     private String merger = "REPLACE";
+    private Parallel parallel = new Parallel();
+    private SharedCache sharedCache = new SharedCache();
+    private int groovyPoolSize = 10;
     
     private Set<String> defaultAttributesToRelease = new HashSet<>();
     private Map<String, String> attributes = new HashMap();
@@ -65,6 +69,30 @@ public class PrincipalAttributesProperties {
         this.merger = merger;
     }
 
+    public SharedCache getSharedCache() {
+        return sharedCache;
+    }
+
+    public void setSharedCache(final SharedCache sharedCache) {
+        this.sharedCache = sharedCache;
+    }
+
+    public Parallel getParallel() {
+        return parallel;
+    }
+
+    public void setParallel(final Parallel parallel) {
+        this.parallel = parallel;
+    }
+
+    public int getGroovyPoolSize() {
+        return groovyPoolSize;
+    }
+
+    public void setGroovyPoolSize(final int groovyPoolSize) {
+        this.groovyPoolSize = groovyPoolSize;
+    }
+
     public int getExpireInMinutes() {
         return expireInMinutes;
     }
@@ -105,6 +133,93 @@ public class PrincipalAttributesProperties {
         this.defaultAttributesToRelease = defaultAttributesToRelease;
     }
 
+    public static class SharedCache {
+        private boolean enabled;
+        private long maxSizeInMegabytes = 64;
+        private String timeToLive = "PT12H";
+        private double refreshAheadFactor = 0.8;
+        private int refreshPoolSize = 2;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(final boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMaxSizeInMegabytes() {
+            return maxSizeInMegabytes;
+        }
+
+        public void setMaxSizeInMegabytes(final long maxSizeInMegabytes) {
+            this.maxSizeInMegabytes = maxSizeInMegabytes;
+        }
+
+        public long getTimeToLive() {
+            return Beans.newDuration(timeToLive).toMillis();
+        }
+
+        public void setTimeToLive(final String timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+
+        public double getRefreshAheadFactor() {
+            return refreshAheadFactor;
+        }
+
+        public void setRefreshAheadFactor(final double refreshAheadFactor) {
+            this.refreshAheadFactor = refreshAheadFactor;
+        }
+
+        public int getRefreshPoolSize() {
+            return refreshPoolSize;
+        }
+
+        public void setRefreshPoolSize(final int refreshPoolSize) {
+            this.refreshPoolSize = refreshPoolSize;
+        }
+    }
+
+    public static class Parallel {
+        private boolean enabled;
+        private int poolSize = 10;
+        private String timeout = "PT5S";
+        private boolean failOpen = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(final boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getPoolSize() {
+            return poolSize;
+        }
+
+        public void setPoolSize(final int poolSize) {
+            this.poolSize = poolSize;
+        }
+
+        public long getTimeout() {
+            return Beans.newDuration(timeout).toMillis();
+        }
+
+        public void setTimeout(final String timeout) {
+            this.timeout = timeout;
+        }
+
+        public boolean isFailOpen() {
+            return failOpen;
+        }
+
+        public void setFailOpen(final boolean failOpen) {
+            this.failOpen = failOpen;
+        }
+    }
+
     public static class Jdbc extends AbstractJpaProperties {
         private String sql;
         private boolean singleRow = true;
@@ -196,6 +311,15 @@ public class PrincipalAttributesProperties {
     public static class Groovy extends AbstractConfigProperties {
         private boolean caseInsensitive;
         private int order;
+        private String executionTimeout = "PT10S";
+
+        public long getExecutionTimeout() {
+            return Beans.newDuration(executionTimeout).toMillis();
+        }
+
+        public void setExecutionTimeout(final String executionTimeout) {
+            this.executionTimeout = executionTimeout;
+        }
 
         public int getOrder() {
             return order;
@@ -1,6 +1,7 @@
 package org.apereo.cas.configuration.model.core.authentication;
 
 import org.apereo.cas.configuration.model.support.sms.SmsProperties;
+import org.apereo.cas.configuration.support.Beans;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
 
 /**
@@ -19,6 +20,24 @@ public class RiskBasedAuthenticationProperties {
     
     private double threshold = 0.6;
     private long daysInRecentHistory = 30;
+    private String historyCacheExpiration = "PT10M";
+    private long historyCacheMaximumSize = 10_000;
+
+    public long getHistoryCacheExpiration() {
+        return Beans.newDuration(historyCacheExpiration).toMillis();
+    }
+
+    public void setHistoryCacheExpiration(final String historyCacheExpiration) {
+        this.historyCacheExpiration = historyCacheExpiration;
+    }
+
+    public long getHistoryCacheMaximumSize() {
+        return historyCacheMaximumSize;
+    }
+
+    public void setHistoryCacheMaximumSize(final long historyCacheMaximumSize) {
+        this.historyCacheMaximumSize = historyCacheMaximumSize;
+    }
 
     public long getDaysInRecentHistory() {
         return daysInRecentHistory;
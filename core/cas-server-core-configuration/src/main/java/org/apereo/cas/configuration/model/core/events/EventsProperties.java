@@ -2,6 +2,7 @@ package org.apereo.cas.configuration.model.core.events;
 
 import org.apereo.cas.configuration.model.support.jpa.AbstractJpaProperties;
 import org.apereo.cas.configuration.model.support.mongo.AbstractMongoClientProperties;
+import org.apereo.cas.configuration.support.Beans;
 
 /**
  * Configuration properties class for events.
@@ -18,6 +19,8 @@ public class EventsProperties {
 
     private Mongodb mongodb = new Mongodb();
 
+    private Asynchronous asynchronous = new Asynchronous();
+
     public Mongodb getMongodb() {
         return mongodb;
     }
@@ -42,6 +45,14 @@ public class EventsProperties {
         this.jpa = jpa;
     }
 
+    public Asynchronous getAsynchronous() {
+        return asynchronous;
+    }
+
+    public void setAsynchronous(final Asynchronous asynchronous) {
+        this.asynchronous = asynchronous;
+    }
+
     public static class Jpa extends AbstractJpaProperties {
     }
 
@@ -50,4 +61,52 @@ public class EventsProperties {
             setCollection("MongoDbCasEventRepository");
         }
     }
+
+    public static class Asynchronous {
+        private boolean enabled;
+        private int queueCapacity = 10_000;
+        private int batchSize = 100;
+        private String flushInterval = "PT1S";
+        private String overflowPolicy = "BLOCK";
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(final boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(final int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(final int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public long getFlushInterval() {
+            return Beans.newDuration(flushInterval).toMillis();
+        }
+
+        public void setFlushInterval(final String flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+
+        public String getOverflowPolicy() {
+            return overflowPolicy;
+        }
+
+        public void setOverflowPolicy(final String overflowPolicy) {
+            this.overflowPolicy = overflowPolicy;
+        }
+    }
 }
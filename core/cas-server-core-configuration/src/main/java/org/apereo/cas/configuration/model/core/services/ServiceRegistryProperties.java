@@ -36,6 +36,8 @@ public class ServiceRegistryProperties extends AbstractConfigProperties {
 
     private String repeatInterval = "PT2M";
 
+    private String fullReloadInterval = "PT1H";
+
     private boolean watcherEnabled = true;
 
     /**
@@ -77,6 +79,14 @@ public class ServiceRegistryProperties extends AbstractConfigProperties {
         this.repeatInterval = repeatInterval;
     }
 
+    public long getFullReloadInterval() {
+        return Beans.newDuration(fullReloadInterval).toMillis();
+    }
+
+    public void setFullReloadInterval(final String fullReloadInterval) {
+        this.fullReloadInterval = fullReloadInterval;
+    }
+
     public JpaServiceRegistryProperties getJpa() {
         return jpa;
     }
@@ -1,5 +1,7 @@
 package org.apereo.cas.configuration.model.core.slo;
 
+import org.apereo.cas.configuration.support.Beans;
+
 /**
  * This is {@link SloProperties}.
  *
@@ -11,6 +13,7 @@ public class SloProperties {
     
     private boolean asynchronous = true;
     private boolean disabled;
+    private Dispatcher dispatcher = new Dispatcher();
 
     public boolean isAsynchronous() {
         return asynchronous;
@@ -27,4 +30,69 @@ public class SloProperties {
     public void setDisabled(final boolean disabled) {
         this.disabled = disabled;
     }
+
+    public Dispatcher getDispatcher() {
+        return dispatcher;
+    }
+
+    public void setDispatcher(final Dispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
+    public static class Dispatcher {
+        private boolean enabled;
+        private int queueCapacity = 10_000;
+        private int poolSize = 10;
+        private int maxConcurrentRequestsPerHost = 2;
+        private int maxRetries = 3;
+        private String retryBackoff = "PT2S";
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(final boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(final int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getPoolSize() {
+            return poolSize;
+        }
+
+        public void setPoolSize(final int poolSize) {
+            this.poolSize = poolSize;
+        }
+
+        public int getMaxConcurrentRequestsPerHost() {
+            return maxConcurrentRequestsPerHost;
+        }
+
+        public void setMaxConcurrentRequestsPerHost(final int maxConcurrentRequestsPerHost) {
+            this.maxConcurrentRequestsPerHost = maxConcurrentRequestsPerHost;
+        }
+
+        public int getMaxRetries() {
+            return maxRetries;
+        }
+
+        public void setMaxRetries(final int maxRetries) {
+            this.maxRetries = maxRetries;
+        }
+
+        public long getRetryBackoff() {
+            return Beans.newDuration(retryBackoff).toMillis();
+        }
+
+        public void setRetryBackoff(final String retryBackoff) {
+            this.retryBackoff = retryBackoff;
+        }
+    }
 }
@@ -50,6 +50,8 @@ public class TicketRegistryProperties {
 
     private InMemory inMemory = new InMemory();
     private Cleaner cleaner = new Cleaner();
+    private Serializer serializer = new Serializer();
+    private NearCache nearCache = new NearCache();
 
     public MongoTicketRegistryProperties getMongo() {
         return mongo;
@@ -75,6 +77,22 @@ public class TicketRegistryProperties {
         this.cleaner = cleaner;
     }
 
+    public Serializer getSerializer() {
+        return serializer;
+    }
+
+    public void setSerializer(final Serializer serializer) {
+        this.serializer = serializer;
+    }
+
+    public NearCache getNearCache() {
+        return nearCache;
+    }
+
+    public void setNearCache(final NearCache nearCache) {
+        this.nearCache = nearCache;
+    }
+
     public CouchbaseTicketRegistryProperties getCouchbase() {
         return couchbase;
     }
@@ -184,6 +202,7 @@ public class TicketRegistryProperties {
         private boolean enabled = true;
         private String startDelay = "PT10S";
         private String repeatInterval = "PT1M";
+        private int pageSize = 500;
 
         private String appId = "cas-ticket-registry-cleaner";
 
@@ -218,5 +237,69 @@ public class TicketRegistryProperties {
         public void setRepeatInterval(final String repeatInterval) {
             this.repeatInterval = repeatInterval;
         }
+
+        public int getPageSize() {
+            return pageSize;
+        }
+
+        public void setPageSize(final int pageSize) {
+            this.pageSize = pageSize;
+        }
+    }
+
+    public static class Serializer {
+        /**
+         * Serialization formats available for tickets.
+         */
+        public enum SerializerTypes {
+            /**
+             * Default Java serialization.
+             */
+            JAVA,
+            /**
+             * Compact binary serialization via Kryo.
+             */
+            KRYO
+        }
+
+        private SerializerTypes type = SerializerTypes.JAVA;
+
+        public SerializerTypes getType() {
+            return type;
+        }
+
+        public void setType(final SerializerTypes type) {
+            this.type = type;
+        }
+    }
+
+    public static class NearCache {
+        private boolean enabled;
+        private long maxSize = 10_000;
+        private String timeToLive = "PT30S";
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(final boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(final long maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public long getTimeToLive() {
+            return Beans.newDuration(timeToLive).toMillis();
+        }
+
+        public void setTimeToLive(final String timeToLive) {
+            this.timeToLive = timeToLive;
+        }
     }
 }
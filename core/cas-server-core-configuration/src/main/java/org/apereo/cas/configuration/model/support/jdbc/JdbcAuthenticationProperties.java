@@ -3,6 +3,7 @@ package org.apereo.cas.configuration.model.support.jdbc;
 import org.apereo.cas.configuration.model.core.authentication.PasswordEncoderProperties;
 import org.apereo.cas.configuration.model.core.authentication.PrincipalTransformationProperties;
 import org.apereo.cas.configuration.model.support.jpa.AbstractJpaProperties;
+import org.apereo.cas.configuration.support.Beans;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
 
 import java.util.ArrayList;
@@ -19,6 +20,8 @@ public class JdbcAuthenticationProperties {
     private List<Encode> encode = new ArrayList();
     private List<Query> query = new ArrayList();
     private List<Bind> bind = new ArrayList();
+    private Hashing hashing = new Hashing();
+    private VerificationCache verificationCache = new VerificationCache();
 
     public List<Search> getSearch() {
         return search;
@@ -52,6 +55,91 @@ public class JdbcAuthenticationProperties {
         this.bind = bind;
     }
 
+    public Hashing getHashing() {
+        return hashing;
+    }
+
+    public void setHashing(final Hashing hashing) {
+        this.hashing = hashing;
+    }
+
+    public VerificationCache getVerificationCache() {
+        return verificationCache;
+    }
+
+    public void setVerificationCache(final VerificationCache verificationCache) {
+        this.verificationCache = verificationCache;
+    }
+
+    public static class Hashing {
+        private boolean enabled;
+        private int poolSize = Runtime.getRuntime().availableProcessors();
+        private int queueCapacity = 100;
+        private String timeout = "PT5S";
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(final boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getPoolSize() {
+            return poolSize;
+        }
+
+        public void setPoolSize(final int poolSize) {
+            this.poolSize = poolSize;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(final int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public long getTimeout() {
+            return Beans.newDuration(timeout).toMillis();
+        }
+
+        public void setTimeout(final String timeout) {
+            this.timeout = timeout;
+        }
+    }
+
+    public static class VerificationCache {
+        private boolean enabled;
+        private String expiration = "PT30S";
+        private long maximumSize = 10_000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(final boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getExpiration() {
+            return Beans.newDuration(expiration).toMillis();
+        }
+
+        public void setExpiration(final String expiration) {
+            this.expiration = expiration;
+        }
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(final long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+    }
+
     public static class Query extends AbstractJpaProperties {
         private String sql;
         private String credentialCriteria;
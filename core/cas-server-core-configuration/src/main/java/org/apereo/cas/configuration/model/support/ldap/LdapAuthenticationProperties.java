@@ -3,6 +3,7 @@ package org.apereo.cas.configuration.model.support.ldap;
 import org.apereo.cas.configuration.model.core.authentication.PasswordEncoderProperties;
 import org.apereo.cas.configuration.model.core.authentication.PasswordPolicyProperties;
 import org.apereo.cas.configuration.model.core.authentication.PrincipalTransformationProperties;
+import org.apereo.cas.configuration.support.Beans;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
 
 import java.util.ArrayList;
@@ -35,8 +36,14 @@ public class LdapAuthenticationProperties extends AbstractLdapAuthenticationProp
 
     private boolean allowMissingPrincipalAttributeValue = true;
 
+    private boolean combinedMode;
+
+    private String dnCacheExpiration = "PT1M";
+
+    private long dnCacheMaximumSize = 10000;
+
     private Integer order;
-    
+
     public Integer getOrder() {
         return order;
     }
@@ -116,4 +123,28 @@ public class LdapAuthenticationProperties extends AbstractLdapAuthenticationProp
     public void setAllowMissingPrincipalAttributeValue(final boolean allowMissingPrincipalAttributeValue) {
         this.allowMissingPrincipalAttributeValue = allowMissingPrincipalAttributeValue;
     }
+
+    public boolean isCombinedMode() {
+        return combinedMode;
+    }
+
+    public void setCombinedMode(final boolean combinedMode) {
+        this.combinedMode = combinedMode;
+    }
+
+    public long getDnCacheExpiration() {
+        return Beans.newDuration(dnCacheExpiration).toMillis();
+    }
+
+    public void setDnCacheExpiration(final String dnCacheExpiration) {
+        this.dnCacheExpiration = dnCacheExpiration;
+    }
+
+    public long getDnCacheMaximumSize() {
+        return dnCacheMaximumSize;
+    }
+
+    public void setDnCacheMaximumSize(final long dnCacheMaximumSize) {
+        this.dnCacheMaximumSize = dnCacheMaximumSize;
+    }
 }
@@ -1,5 +1,6 @@
 package org.apereo.cas.configuration.model.support.oidc;
 
+import org.apereo.cas.configuration.support.Beans;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 
@@ -17,6 +18,10 @@ public class OidcProperties {
     private String issuer = "http://localhost:8080/cas/oidc";
     private int skew = 5;
     private Resource jwksFile = new FileSystemResource("/etc/cas/keystore.jwks");
+    private String jwksCacheExpiration = "PT1H";
+    private String jwksFetchTimeout = "PT2S";
+    private int jwksFetchPoolSize = 2;
+    private long jwksCacheMaximumSize = 1000;
     private String dynamicClientRegistrationMode;
     private List<String> scopes = Arrays.asList("openid", "profile", "email", "address", "phone", "offline_access");
     private List<String> claims = Arrays.asList("sub", "name", "preferred_username",
@@ -81,4 +86,36 @@ public class OidcProperties {
     public void setJwksFile(final Resource jwksFile) {
         this.jwksFile = jwksFile;
     }
+
+    public long getJwksCacheExpiration() {
+        return Beans.newDuration(jwksCacheExpiration).toMillis();
+    }
+
+    public void setJwksCacheExpiration(final String jwksCacheExpiration) {
+        this.jwksCacheExpiration = jwksCacheExpiration;
+    }
+
+    public long getJwksFetchTimeout() {
+        return Beans.newDuration(jwksFetchTimeout).toMillis();
+    }
+
+    public void setJwksFetchTimeout(final String jwksFetchTimeout) {
+        this.jwksFetchTimeout = jwksFetchTimeout;
+    }
+
+    public int getJwksFetchPoolSize() {
+        return jwksFetchPoolSize;
+    }
+
+    public void setJwksFetchPoolSize(final int jwksFetchPoolSize) {
+        this.jwksFetchPoolSize = jwksFetchPoolSize;
+    }
+
+    public long getJwksCacheMaximumSize() {
+        return jwksCacheMaximumSize;
+    }
+
+    public void setJwksCacheMaximumSize(final long jwksCacheMaximumSize) {
+        this.jwksCacheMaximumSize = jwksCacheMaximumSize;
+    }
 }
@@ -33,6 +33,12 @@ public class RedisTicketRegistryProperties {
      */
     private int timeout;
 
+    /**
+     * Number of keys scanned, fetched or deleted per round trip
+     * when the registry walks through all tickets.
+     */
+    private int batchSize = 500;
+
     private Pool pool;
 
     public int getDatabase() {
@@ -75,6 +81,14 @@ public class RedisTicketRegistryProperties {
         return this.timeout;
     }
 
+    public int getBatchSize() {
+        return this.batchSize;
+    }
+
+    public void setBatchSize(final int batchSize) {
+        this.batchSize = batchSize;
+    }
+
     public Pool getPool() {
         return this.pool;
     }
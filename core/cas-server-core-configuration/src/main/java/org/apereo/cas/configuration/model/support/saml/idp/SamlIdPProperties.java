@@ -91,6 +91,9 @@ public class SamlIdPProperties {
         private boolean failFast = true;
         private boolean requireValidMetadata = true;
         private long cacheExpirationMinutes = TimeUnit.DAYS.toMinutes(1);
+        private long cacheMaximumAgeMinutes = TimeUnit.DAYS.toMinutes(3);
+        private long cacheMaximumSize = 1000;
+        private int cacheRefreshPoolSize = 2;
         private Resource location = new FileSystemResource("/etc/cas/saml");
         private String privateKeyAlgName = "RSA";
         private String basicAuthnUsername;
@@ -121,6 +124,30 @@ public class SamlIdPProperties {
             this.cacheExpirationMinutes = cacheExpirationMinutes;
         }
 
+        public long getCacheMaximumAgeMinutes() {
+            return cacheMaximumAgeMinutes;
+        }
+
+        public void setCacheMaximumAgeMinutes(final long cacheMaximumAgeMinutes) {
+            this.cacheMaximumAgeMinutes = cacheMaximumAgeMinutes;
+        }
+
+        public long getCacheMaximumSize() {
+            return cacheMaximumSize;
+        }
+
+        public void setCacheMaximumSize(final long cacheMaximumSize) {
+            this.cacheMaximumSize = cacheMaximumSize;
+        }
+
+        public int getCacheRefreshPoolSize() {
+            return cacheRefreshPoolSize;
+        }
+
+        public void setCacheRefreshPoolSize(final int cacheRefreshPoolSize) {
+            this.cacheRefreshPoolSize = cacheRefreshPoolSize;
+        }
+
         public Resource getLocation() {
             return location;
         }
@@ -79,6 +79,9 @@ public class X509Properties {
     private boolean cacheEternal;
     private long cacheTimeToLiveSeconds = TimeUnit.HOURS.toSeconds(4);
     private long cacheTimeToIdleSeconds = TimeUnit.MINUTES.toSeconds(30);
+    private long crlRefreshAheadSeconds = TimeUnit.MINUTES.toSeconds(15);
+    private long crlRefreshIntervalSeconds = TimeUnit.MINUTES.toSeconds(5);
+    private String crlStorageDirectory;
 
     private String crlResourceUnavailablePolicy = "DENY";
     private String crlResourceExpiredPolicy = "DENY";
@@ -191,6 +194,30 @@ public class X509Properties {
         this.cacheTimeToIdleSeconds = cacheTimeToIdleSeconds;
     }
 
+    public long getCrlRefreshAheadSeconds() {
+        return crlRefreshAheadSeconds;
+    }
+
+    public void setCrlRefreshAheadSeconds(final long crlRefreshAheadSeconds) {
+        this.crlRefreshAheadSeconds = crlRefreshAheadSeconds;
+    }
+
+    public long getCrlRefreshIntervalSeconds() {
+        return crlRefreshIntervalSeconds;
+    }
+
+    public void setCrlRefreshIntervalSeconds(final long crlRefreshIntervalSeconds) {
+        this.crlRefreshIntervalSeconds = crlRefreshIntervalSeconds;
+    }
+
+    public String getCrlStorageDirectory() {
+        return crlStorageDirectory;
+    }
+
+    public void setCrlStorageDirectory(final String crlStorageDirectory) {
+        this.crlStorageDirectory = crlStorageDirectory;
+    }
+
     public String getCrlFetcher() {
         return crlFetcher;
     }
@@ -1,13 +1,18 @@
 package org.apereo.cas.support.events.config;
 
+import com.codahale.metrics.MetricRegistry;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import org.apereo.cas.authentication.support.StatisticsGaugeSet;
 import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.apereo.cas.configuration.model.core.events.EventsProperties;
+import org.apereo.cas.support.events.dao.AsynchronousCasEventRepository;
 import org.apereo.cas.support.events.dao.CasEvent;
 import org.apereo.cas.support.events.dao.CasEventRepository;
 import org.apereo.cas.support.events.dao.InMemoryCasEventRepository;
 import org.apereo.cas.support.events.listener.DefaultCasEventListener;
+import org.apereo.cas.util.AsynchronousBatchWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -33,9 +38,25 @@ public class CasCoreEventsConfiguration {
     private static final int INITIAL_CACHE_SIZE = 50;
     private static final long MAX_CACHE_SIZE = 1000;
     
+    @Autowired
+    private CasConfigurationProperties casProperties;
+
+    @Autowired(required = false)
+    @Qualifier("metrics")
+    private MetricRegistry metrics;
+
     @Autowired
     @Bean
     public DefaultCasEventListener defaultCasEventListener(@Qualifier("casEventRepository") final CasEventRepository casEventRepository) {
+        final EventsProperties.Asynchronous async = casProperties.getEvents().getAsynchronous();
+        if (async.isEnabled()) {
+            LOGGER.debug("Events will be saved asynchronously to [{}] in batches of [{}]", casEventRepository, async.getBatchSize());
+            final AsynchronousCasEventRepository repository = new AsynchronousCasEventRepository(casEventRepository,
+                    async.getQueueCapacity(), async.getBatchSize(), async.getFlushInterval(),
+                    AsynchronousBatchWriter.OverflowPolicy.valueOf(async.getOverflowPolicy().toUpperCase()));
+            StatisticsGaugeSet.register(this.metrics, "cas.events.asynchronous", repository::getStatistics);
+            return new DefaultCasEventListener(repository);
+        }
         return new DefaultCasEventListener(casEventRepository);
     }
 
@@ -0,0 +1,114 @@
+package org.apereo.cas.support.events.dao;
+
+import org.apereo.cas.util.AsynchronousBatchWriter;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * This is {@link AsynchronousCasEventRepository} that saves events through an {@link AsynchronousBatchWriter},
+ * so that the thread publishing the event does not wait for the underlying repository.
+ * Lookups are passed to the underlying repository as they are, which means events that are
+ * still queued are not returned.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class AsynchronousCasEventRepository implements CasEventRepository, DisposableBean {
+
+    private final CasEventRepository repository;
+    private final AsynchronousBatchWriter<CasEvent> writer;
+
+    /**
+     * Instantiates a new Asynchronous cas event repository.
+     *
+     * @param repository            the repository that stores events
+     * @param queueCapacity         the maximum number of events waiting to be saved
+     * @param batchSize             the maximum number of events saved at once
+     * @param flushIntervalInMillis how long the writer waits for a batch to fill up
+     * @param overflowPolicy        what to do with events when the queue is full
+     */
+    public AsynchronousCasEventRepository(final CasEventRepository repository, final int queueCapacity, final int batchSize,
+                                          final long flushIntervalInMillis,
+                                          final AsynchronousBatchWriter.OverflowPolicy overflowPolicy) {
+        this.repository = repository;
+        this.writer = new AsynchronousBatchWriter<>("cas-event-writer", repository::save, repository::save,
+                queueCapacity, batchSize, flushIntervalInMillis, overflowPolicy, null);
+    }
+
+    @Override
+    public void save(final CasEvent event) {
+        this.writer.write(event);
+    }
+
+    @Override
+    public void save(final Collection<CasEvent> events) {
+        events.forEach(this::save);
+    }
+
+    @Override
+    public Collection<CasEvent> load() {
+        return this.repository.load();
+    }
+
+    @Override
+    public Collection<CasEvent> load(final ZonedDateTime dateTime) {
+        return this.repository.load(dateTime);
+    }
+
+    @Override
+    public Collection<CasEvent> getEventsOfTypeForPrincipal(final String type, final String principal) {
+        return this.repository.getEventsOfTypeForPrincipal(type, principal);
+    }
+
+    @Override
+    public Collection<CasEvent> getEventsOfTypeForPrincipal(final String type, final String principal, final ZonedDateTime dateTime) {
+        return this.repository.getEventsOfTypeForPrincipal(type, principal, dateTime);
+    }
+
+    @Override
+    public Collection<CasEvent> getEventsOfType(final String type) {
+        return this.repository.getEventsOfType(type);
+    }
+
+    @Override
+    public Collection<CasEvent> getEventsOfType(final String type, final ZonedDateTime dateTime) {
+        return this.repository.getEventsOfType(type, dateTime);
+    }
+
+    @Override
+    public Collection<CasEvent> getEventsForPrincipal(final String id) {
+        return this.repository.getEventsForPrincipal(id);
+    }
+
+    @Override
+    public Collection<CasEvent> getEventsForPrincipal(final String id, final ZonedDateTime dateTime) {
+        return this.repository.getEventsForPrincipal(id, dateTime);
+    }
+
+    public CasEventRepository getRepository() {
+        return this.repository;
+    }
+
+    /**
+     * Gets statistics of the writer, such as the queue depth and the number of events saved or dropped.
+     *
+     * @return the statistics
+     */
+    public Map<String, Long> getStatistics() {
+        return this.writer.getStatistics();
+    }
+
+    /**
+     * Stop accepting events into the queue, and wait for queued events to be saved.
+     * Events that arrive afterwards are saved directly.
+     *
+     * @throws Exception the exception
+     */
+    @Override
+    public void destroy() throws Exception {
+        this.writer.destroy();
+    }
+}
@@ -17,6 +17,16 @@ public interface CasEventRepository {
      */
     void save(CasEvent event);
 
+    /**
+     * Save a batch of events. Repositories that can store
+     * several events at once should override this.
+     *
+     * @param events the events
+     */
+    default void save(final Collection<CasEvent> events) {
+        events.forEach(this::save);
+    }
+
     /**
      * Load collection.
      *
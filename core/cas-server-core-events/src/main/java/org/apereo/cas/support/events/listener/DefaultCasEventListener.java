@@ -4,6 +4,7 @@ import org.apereo.cas.authentication.adaptive.geo.GeoLocationRequest;
 import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.support.events.CasRiskyAuthenticationDetectedEvent;
 import org.apereo.cas.support.events.CasTicketGrantingTicketCreatedEvent;
+import org.apereo.cas.support.events.dao.AsynchronousCasEventRepository;
 import org.apereo.cas.support.events.dao.CasEvent;
 import org.apereo.cas.support.events.dao.CasEventRepository;
 import org.apereo.cas.util.DateTimeUtils;
@@ -13,6 +14,7 @@ import org.apereo.inspektr.common.web.ClientInfo;
 import org.apereo.inspektr.common.web.ClientInfoHolder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.boot.context.properties.ConfigurationPropertiesBindingPostProcessor;
@@ -31,7 +33,7 @@ import java.util.Map;
  * @author Misagh Moayyed
  * @since 5.0.0
  */
-public class DefaultCasEventListener {
+public class DefaultCasEventListener implements DisposableBean {
     private static final Logger LOGGER = LoggerFactory.getLogger(DefaultCasEventListener.class);
 
     @Autowired
@@ -152,4 +154,11 @@ public class DefaultCasEventListener {
     public CasEventRepository getCasEventRepository() {
         return casEventRepository;
     }
+
+    @Override
+    public void destroy() throws Exception {
+        if (this.casEventRepository instanceof AsynchronousCasEventRepository) {
+            ((AsynchronousCasEventRepository) this.casEventRepository).destroy();
+        }
+    }
 }
@@ -0,0 +1,121 @@
+package org.apereo.cas.support.events;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import org.apereo.cas.support.events.dao.AsynchronousCasEventRepository;
+import org.apereo.cas.support.events.dao.CasEvent;
+import org.apereo.cas.support.events.dao.CasEventRepository;
+import org.apereo.cas.support.events.dao.InMemoryCasEventRepository;
+import org.apereo.cas.util.AsynchronousBatchWriter;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link AsynchronousCasEventRepositoryTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class AsynchronousCasEventRepositoryTests {
+
+    @Test
+    public void verifyEventsAreSavedOnShutdown() throws Exception {
+        final CasEventRepository delegate = new InMemoryCasEventRepository(CacheBuilder.newBuilder()
+                .build(new CacheLoader<String, CasEvent>() {
+                    @Override
+                    public CasEvent load(final String s) throws Exception {
+                        return null;
+                    }
+                }));
+        final AsynchronousCasEventRepository repository = new AsynchronousCasEventRepository(delegate, 100, 10, 50,
+                AsynchronousBatchWriter.OverflowPolicy.BLOCK);
+        for (int i = 0; i < 25; i++) {
+            repository.save(getEvent(i));
+        }
+        repository.destroy();
+
+        assertEquals(25, repository.load().size());
+        assertEquals(1, repository.getEventsForPrincipal("casuser7").size());
+        assertEquals(Long.valueOf(25), repository.getStatistics().get("written"));
+        assertEquals(Long.valueOf(0), repository.getStatistics().get("dropped"));
+    }
+
+    @Test
+    public void verifyEventsAreSavedInBatchesAndInOrder() throws Exception {
+        final CollectingCasEventRepository delegate = new CollectingCasEventRepository(null);
+        final AsynchronousCasEventRepository repository = new AsynchronousCasEventRepository(delegate, 100, 10, 50,
+                AsynchronousBatchWriter.OverflowPolicy.BLOCK);
+        for (int i = 0; i < 25; i++) {
+            repository.save(getEvent(i));
+        }
+        repository.destroy();
+
+        assertEquals(25, delegate.events.size());
+        for (int i = 0; i < 25; i++) {
+            assertEquals("casuser" + i, delegate.events.get(i).getPrincipalId());
+        }
+        assertTrue(delegate.batchSizes.stream().allMatch(size -> size <= 10));
+    }
+
+    @Test
+    public void verifyEventsAreDroppedWhenQueueIsFull() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final CollectingCasEventRepository delegate = new CollectingCasEventRepository(latch);
+        final AsynchronousCasEventRepository repository = new AsynchronousCasEventRepository(delegate, 2, 1, 10,
+                AsynchronousBatchWriter.OverflowPolicy.DROP);
+        for (int i = 0; i < 10; i++) {
+            repository.save(getEvent(i));
+        }
+        latch.countDown();
+        repository.destroy();
+
+        final long dropped = repository.getStatistics().get("dropped");
+        assertTrue(dropped > 0);
+        assertEquals(10, delegate.events.size() + dropped);
+    }
+
+    private static CasEvent getEvent(final int index) {
+        final CasEvent event = new CasEvent();
+        event.setType(CasTicketGrantingTicketCreatedEvent.class.getCanonicalName());
+        event.setPrincipalId("casuser" + index);
+        event.putId("TGT-" + index);
+        return event;
+    }
+
+    private static class CollectingCasEventRepository extends InMemoryCasEventRepository {
+        private final List<CasEvent> events = Collections.synchronizedList(new ArrayList<>());
+        private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        private final CountDownLatch latch;
+
+        CollectingCasEventRepository(final CountDownLatch latch) {
+            super(null);
+            this.latch = latch;
+        }
+
+        @Override
+        public void save(final CasEvent event) {
+            save(Collections.singletonList(event));
+        }
+
+        @Override
+        public void save(final Collection<CasEvent> events) {
+            try {
+                if (this.latch != null) {
+                    this.latch.await(5, TimeUnit.SECONDS);
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            this.batchSizes.add(events.size());
+            this.events.addAll(events);
+        }
+    }
+}
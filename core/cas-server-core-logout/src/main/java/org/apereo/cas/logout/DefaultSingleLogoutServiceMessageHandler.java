@@ -26,6 +26,7 @@ public class DefaultSingleLogoutServiceMessageHandler implements SingleLogoutSer
     private boolean asynchronous = true;
     private final LogoutMessageCreator logoutMessageBuilder;
     private final SingleLogoutServiceLogoutUrlBuilder singleLogoutServiceLogoutUrlBuilder;
+    private SingleLogoutMessageDispatcher singleLogoutMessageDispatcher;
 
     /**
      * Instantiates a new Single logout service message handler.
@@ -94,6 +95,12 @@ public class DefaultSingleLogoutServiceMessageHandler implements SingleLogoutSer
             final WebApplicationService logoutService = request.getService();
             logoutService.setLoggedOutAlready(true);
 
+            if (this.asynchronous && this.singleLogoutMessageDispatcher != null) {
+                LOGGER.debug("Queuing logout request for [{}] to [{}]", logoutService.getId(), request.getLogoutUrl());
+                return this.singleLogoutMessageDispatcher.dispatch(new LogoutHttpMessage(request.getLogoutUrl(), logoutRequest, false),
+                        request.getTicketId());
+            }
+
             LOGGER.debug("Sending logout request for [{}] to [{}]", logoutService.getId(), request.getLogoutUrl());
             final LogoutHttpMessage msg = new LogoutHttpMessage(request.getLogoutUrl(), logoutRequest, this.asynchronous);
             LOGGER.debug("Prepared logout message to send is [{}]", msg);
@@ -119,4 +126,14 @@ public class DefaultSingleLogoutServiceMessageHandler implements SingleLogoutSer
     public ServicesManager getServicesManager() {
         return this.servicesManager;
     }
+
+    /**
+     * Route asynchronous back-channel logout messages through the given dispatcher,
+     * rather than handing them directly to the http client.
+     *
+     * @param singleLogoutMessageDispatcher the dispatcher
+     */
+    public void setSingleLogoutMessageDispatcher(final SingleLogoutMessageDispatcher singleLogoutMessageDispatcher) {
+        this.singleLogoutMessageDispatcher = singleLogoutMessageDispatcher;
+    }
 }
@@ -0,0 +1,250 @@
+package org.apereo.cas.logout;
+
+import org.apereo.cas.util.http.HttpClient;
+import org.apereo.cas.util.http.HttpMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This is {@link SingleLogoutMessageDispatcher} that delivers back-channel logout messages
+ * on a pool of worker threads, so that slow or unavailable applications do not hold up
+ * the caller. The number of pending messages is bounded, and so is the number of concurrent
+ * requests sent to any one host. Messages to the same endpoint for the same session that
+ * are still pending are coalesced into a single delivery. Failed deliveries, and deliveries
+ * deferred because the host is busy, are retried with an exponential backoff up to the
+ * maximum number of retries.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class SingleLogoutMessageDispatcher implements DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SingleLogoutMessageDispatcher.class);
+
+    private static final long SHUTDOWN_TIMEOUT_IN_SECONDS = 10;
+
+    private final HttpClient httpClient;
+
+    private final int maxConcurrentRequestsPerHost;
+
+    private final int maxRetries;
+
+    private final long retryBackoffInMillis;
+
+    private final ThreadPoolExecutor deliveryExecutor;
+
+    private final ScheduledExecutorService retryExecutor;
+
+    private final Set<String> pendingMessages = ConcurrentHashMap.newKeySet();
+
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong deferred = new AtomicLong();
+    private final AtomicLong deliveryAttempts = new AtomicLong();
+    private final AtomicLong totalDeliveryTime = new AtomicLong();
+    private final AtomicLong maxDeliveryTime = new AtomicLong();
+
+    /**
+     * Instantiates a new Single logout message dispatcher.
+     *
+     * @param httpClient                   the http client that sends the messages
+     * @param queueCapacity                the maximum number of messages waiting for a worker
+     * @param poolSize                     the number of worker threads
+     * @param maxConcurrentRequestsPerHost the maximum number of concurrent requests sent to a single host
+     * @param maxRetries                   the number of times a delivery is retried after failing or finding the host busy
+     * @param retryBackoffInMillis         the delay before the first retry, doubled on each subsequent retry
+     */
+    public SingleLogoutMessageDispatcher(final HttpClient httpClient, final int queueCapacity, final int poolSize,
+                                         final int maxConcurrentRequestsPerHost, final int maxRetries,
+                                         final long retryBackoffInMillis) {
+        this.httpClient = httpClient;
+        this.maxConcurrentRequestsPerHost = maxConcurrentRequestsPerHost;
+        this.maxRetries = maxRetries;
+        this.retryBackoffInMillis = retryBackoffInMillis;
+        this.deliveryExecutor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueCapacity));
+        this.retryExecutor = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    /**
+     * Queue the message for delivery. The message is sent synchronously by the worker
+     * that picks it up, regardless of the message's own asynchronous flag.
+     * Logout messages carry their own identifier and issue instant, so messages are
+     * coalesced by endpoint and session rather than by content.
+     *
+     * @param message      the message
+     * @param sessionIndex the session the message logs out of, typically the service ticket id
+     * @return true if the message was accepted for delivery, false if the queue is full.
+     * The queue is bounded, and the message is offered to it atomically.
+     */
+    public boolean dispatch(final HttpMessage message, final String sessionIndex) {
+        final String key = message.getUrl().toExternalForm() + '|' + sessionIndex;
+        if (!this.pendingMessages.add(key)) {
+            LOGGER.debug("A logout message to [{}] for [{}] is already pending delivery", message.getUrl(), sessionIndex);
+            this.coalesced.incrementAndGet();
+            return true;
+        }
+        if (!submit(new Delivery(key, message, 0))) {
+            this.pendingMessages.remove(key);
+            this.rejected.incrementAndGet();
+            return false;
+        }
+        this.submitted.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Number of messages that are accepted and not yet delivered or given up on,
+     * including messages waiting to be retried.
+     *
+     * @return the queue depth
+     */
+    public int getQueueDepth() {
+        return this.pendingMessages.size();
+    }
+
+    /**
+     * Gets dispatcher statistics, such as the queue depth, the number of delivered
+     * and failed messages and the delivery latency.
+     *
+     * @return the statistics
+     */
+    public Map<String, Long> getStatistics() {
+        final Map<String, Long> stats = new LinkedHashMap<>();
+        final long attempts = this.deliveryAttempts.get();
+        stats.put("queueDepth", (long) getQueueDepth());
+        stats.put("submitted", this.submitted.get());
+        stats.put("coalesced", this.coalesced.get());
+        stats.put("rejected", this.rejected.get());
+        stats.put("delivered", this.delivered.get());
+        stats.put("failed", this.failed.get());
+        stats.put("retried", this.retried.get());
+        stats.put("deferred", this.deferred.get());
+        stats.put("deliveryAttempts", attempts);
+        stats.put("averageDeliveryTimeMillis", attempts == 0 ? 0 : this.totalDeliveryTime.get() / attempts);
+        stats.put("maxDeliveryTimeMillis", this.maxDeliveryTime.get());
+        return stats;
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        this.retryExecutor.shutdownNow();
+        this.deliveryExecutor.shutdown();
+        if (!this.deliveryExecutor.awaitTermination(SHUTDOWN_TIMEOUT_IN_SECONDS, TimeUnit.SECONDS)) {
+            LOGGER.warn("[{}] logout messages were not delivered before shutdown", getQueueDepth());
+            this.deliveryExecutor.shutdownNow();
+        }
+    }
+
+    private boolean submit(final Delivery delivery) {
+        try {
+            this.deliveryExecutor.execute(() -> deliver(delivery));
+            return true;
+        } catch (final RejectedExecutionException e) {
+            LOGGER.warn("Logout message to [{}] cannot be submitted for delivery: [{}]", delivery.message.getUrl(), e.getMessage());
+            return false;
+        }
+    }
+
+    private void deliver(final Delivery delivery) {
+        final Semaphore permits = this.hostPermits.computeIfAbsent(delivery.message.getUrl().getAuthority(),
+                k -> new Semaphore(this.maxConcurrentRequestsPerHost));
+        if (!permits.tryAcquire()) {
+            if (delivery.attempt < this.maxRetries) {
+                final long delay = this.retryBackoffInMillis << delivery.attempt;
+                LOGGER.trace("Host [{}] is busy; deferring delivery of logout message by [{}] ms", delivery.message.getUrl().getAuthority(), delay);
+                this.deferred.incrementAndGet();
+                schedule(new Delivery(delivery.key, delivery.message, delivery.attempt + 1), delay);
+            } else {
+                LOGGER.warn("Host [{}] remained busy; logout message to [{}] is dropped after [{}] attempt(s)",
+                        delivery.message.getUrl().getAuthority(), delivery.message.getUrl(), delivery.attempt + 1);
+                this.failed.incrementAndGet();
+                this.pendingMessages.remove(delivery.key);
+            }
+            return;
+        }
+
+        boolean sent = false;
+        final long start = System.currentTimeMillis();
+        try {
+            sent = this.httpClient.sendMessageToEndPoint(delivery.message);
+        } catch (final Exception e) {
+            LOGGER.debug(e.getMessage(), e);
+        } finally {
+            permits.release();
+            recordDeliveryTime(System.currentTimeMillis() - start);
+        }
+
+        if (sent) {
+            LOGGER.debug("Delivered logout message to [{}]", delivery.message.getUrl());
+            this.delivered.incrementAndGet();
+            this.pendingMessages.remove(delivery.key);
+        } else if (delivery.attempt < this.maxRetries) {
+            final long delay = this.retryBackoffInMillis << delivery.attempt;
+            LOGGER.debug("Failed to deliver logout message to [{}]; retrying in [{}] ms", delivery.message.getUrl(), delay);
+            this.retried.incrementAndGet();
+            schedule(new Delivery(delivery.key, delivery.message, delivery.attempt + 1), delay);
+        } else {
+            LOGGER.warn("Failed to deliver logout message to [{}] after [{}] attempt(s)", delivery.message.getUrl(), delivery.attempt + 1);
+            this.failed.incrementAndGet();
+            this.pendingMessages.remove(delivery.key);
+        }
+    }
+
+    private void schedule(final Delivery delivery, final long delayInMillis) {
+        try {
+            this.retryExecutor.schedule(() -> {
+                if (!submit(delivery)) {
+                    this.failed.incrementAndGet();
+                    this.pendingMessages.remove(delivery.key);
+                }
+            }, delayInMillis, TimeUnit.MILLISECONDS);
+        } catch (final RejectedExecutionException e) {
+            LOGGER.debug("Dispatcher is shutting down; logout message to [{}] is dropped", delivery.message.getUrl());
+            this.failed.incrementAndGet();
+            this.pendingMessages.remove(delivery.key);
+        }
+    }
+
+    private void recordDeliveryTime(final long elapsed) {
+        this.deliveryAttempts.incrementAndGet();
+        this.totalDeliveryTime.addAndGet(elapsed);
+        this.maxDeliveryTime.accumulateAndGet(elapsed, Math::max);
+    }
+
+    /**
+     * A message pending delivery, along with the number of attempts made so far,
+     * including attempts deferred because the host was busy.
+     */
+    private static class Delivery {
+        private final String key;
+        private final HttpMessage message;
+        private final int attempt;
+
+        Delivery(final String key, final HttpMessage message, final int attempt) {
+            this.key = key;
+            this.message = message;
+            this.attempt = attempt;
+        }
+    }
+}
@@ -1,18 +1,24 @@
 package org.apereo.cas.logout.config;
 
+import com.codahale.metrics.MetricRegistry;
+import org.apereo.cas.authentication.support.StatisticsGaugeSet;
 import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.apereo.cas.configuration.model.core.slo.SloProperties;
 import org.apereo.cas.logout.DefaultSingleLogoutServiceLogoutUrlBuilder;
 import org.apereo.cas.logout.DefaultSingleLogoutServiceMessageHandler;
 import org.apereo.cas.logout.LogoutManager;
 import org.apereo.cas.logout.LogoutManagerImpl;
 import org.apereo.cas.logout.LogoutMessageCreator;
 import org.apereo.cas.logout.SamlCompliantLogoutMessageCreator;
+import org.apereo.cas.logout.SingleLogoutMessageDispatcher;
 import org.apereo.cas.logout.SingleLogoutServiceLogoutUrlBuilder;
 import org.apereo.cas.logout.SingleLogoutServiceMessageHandler;
 import org.apereo.cas.services.ServicesManager;
 import org.apereo.cas.util.http.HttpClient;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.context.config.annotation.RefreshScope;
 import org.springframework.context.annotation.Bean;
@@ -39,6 +45,10 @@ public class CasCoreLogoutConfiguration {
     @Qualifier("servicesManager")
     private ServicesManager servicesManager;
 
+    @Autowired(required = false)
+    @Qualifier("metrics")
+    private MetricRegistry metrics;
+
     @Bean
     public SingleLogoutServiceLogoutUrlBuilder defaultSingleLogoutServiceLogoutUrlBuilder() {
         return new DefaultSingleLogoutServiceLogoutUrlBuilder();
@@ -46,8 +56,24 @@ public class CasCoreLogoutConfiguration {
 
     @Bean
     public SingleLogoutServiceMessageHandler defaultSingleLogoutServiceMessageHandler() {
-        return new DefaultSingleLogoutServiceMessageHandler(httpClient, logoutBuilder(), servicesManager, defaultSingleLogoutServiceLogoutUrlBuilder(),
-                casProperties.getSlo().isAsynchronous());
+        final DefaultSingleLogoutServiceMessageHandler handler = new DefaultSingleLogoutServiceMessageHandler(httpClient, logoutBuilder(),
+                servicesManager, defaultSingleLogoutServiceLogoutUrlBuilder(), casProperties.getSlo().isAsynchronous());
+        if (casProperties.getSlo().getDispatcher().isEnabled()) {
+            handler.setSingleLogoutMessageDispatcher(singleLogoutMessageDispatcher());
+        }
+        return handler;
+    }
+
+    @ConditionalOnMissingBean(name = "singleLogoutMessageDispatcher")
+    @ConditionalOnProperty(prefix = "cas.slo.dispatcher", name = "enabled", havingValue = "true")
+    @Bean
+    public SingleLogoutMessageDispatcher singleLogoutMessageDispatcher() {
+        final SloProperties.Dispatcher dispatcher = casProperties.getSlo().getDispatcher();
+        final SingleLogoutMessageDispatcher messageDispatcher = new SingleLogoutMessageDispatcher(httpClient,
+                dispatcher.getQueueCapacity(), dispatcher.getPoolSize(), dispatcher.getMaxConcurrentRequestsPerHost(),
+                dispatcher.getMaxRetries(), dispatcher.getRetryBackoff());
+        StatisticsGaugeSet.register(this.metrics, "cas.slo.dispatcher", messageDispatcher::getStatistics);
+        return messageDispatcher;
     }
 
     @RefreshScope
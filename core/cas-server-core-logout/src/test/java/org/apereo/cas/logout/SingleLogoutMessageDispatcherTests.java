@@ -0,0 +1,151 @@
+package org.apereo.cas.logout;
+
+import org.apereo.cas.util.http.HttpClient;
+import org.apereo.cas.util.http.HttpMessage;
+import org.junit.After;
+import org.junit.Test;
+
+import java.net.URL;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * This is {@link SingleLogoutMessageDispatcherTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class SingleLogoutMessageDispatcherTests {
+
+    private static final long TIMEOUT_IN_MILLIS = 5000;
+
+    private SingleLogoutMessageDispatcher dispatcher;
+
+    @After
+    public void tearDown() throws Exception {
+        if (this.dispatcher != null) {
+            this.dispatcher.destroy();
+        }
+    }
+
+    @Test
+    public void verifyFailedDeliveryIsRetried() throws Exception {
+        final HttpClient client = mock(HttpClient.class);
+        when(client.sendMessageToEndPoint(any(HttpMessage.class))).thenReturn(false, false, true);
+        this.dispatcher = new SingleLogoutMessageDispatcher(client, 10, 2, 2, 3, 10);
+
+        assertTrue(this.dispatcher.dispatch(newMessage("https://app.example.org/logout", "ST-1"), "ST-1"));
+        waitFor(() -> this.dispatcher.getQueueDepth() == 0);
+
+        verify(client, times(3)).sendMessageToEndPoint(any(HttpMessage.class));
+        assertEquals(Long.valueOf(1), this.dispatcher.getStatistics().get("delivered"));
+        assertEquals(Long.valueOf(2), this.dispatcher.getStatistics().get("retried"));
+        assertEquals(Long.valueOf(0), this.dispatcher.getStatistics().get("failed"));
+    }
+
+    @Test
+    public void verifyDeliveryIsAbandonedAfterRetries() throws Exception {
+        final HttpClient client = mock(HttpClient.class);
+        when(client.sendMessageToEndPoint(any(HttpMessage.class))).thenReturn(false);
+        this.dispatcher = new SingleLogoutMessageDispatcher(client, 10, 2, 2, 2, 10);
+
+        assertTrue(this.dispatcher.dispatch(newMessage("https://app.example.org/logout", "ST-1"), "ST-1"));
+        waitFor(() -> this.dispatcher.getQueueDepth() == 0);
+
+        verify(client, times(3)).sendMessageToEndPoint(any(HttpMessage.class));
+        assertEquals(Long.valueOf(1), this.dispatcher.getStatistics().get("failed"));
+    }
+
+    @Test
+    public void verifyMessagesForSameSessionAreCoalesced() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final HttpClient client = mock(HttpClient.class);
+        when(client.sendMessageToEndPoint(any(HttpMessage.class))).thenAnswer(invocation -> release.await(TIMEOUT_IN_MILLIS, TimeUnit.MILLISECONDS));
+        this.dispatcher = new SingleLogoutMessageDispatcher(client, 10, 2, 2, 0, 10);
+
+        assertTrue(this.dispatcher.dispatch(newMessage("https://app.example.org/logout", "ST-1"), "ST-1"));
+        assertTrue(this.dispatcher.dispatch(newMessage("https://app.example.org/logout", "ST-1-REISSUED"), "ST-1"));
+        assertTrue(this.dispatcher.dispatch(newMessage("https://other.example.org/logout", "ST-1"), "ST-1"));
+        assertEquals(2, this.dispatcher.getQueueDepth());
+        release.countDown();
+        waitFor(() -> this.dispatcher.getQueueDepth() == 0);
+
+        verify(client, times(2)).sendMessageToEndPoint(any(HttpMessage.class));
+        assertEquals(Long.valueOf(1), this.dispatcher.getStatistics().get("coalesced"));
+    }
+
+    @Test
+    public void verifyConcurrentRequestsPerHostAreBounded() throws Exception {
+        final AtomicInteger active = new AtomicInteger();
+        final AtomicInteger maxActive = new AtomicInteger();
+        final HttpClient client = mock(HttpClient.class);
+        when(client.sendMessageToEndPoint(any(HttpMessage.class))).thenAnswer(invocation -> {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            active.decrementAndGet();
+            return true;
+        });
+        this.dispatcher = new SingleLogoutMessageDispatcher(client, 10, 4, 1, 8, 10);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(this.dispatcher.dispatch(newMessage("https://app.example.org/logout", "ST-" + i), "ST-" + i));
+        }
+        waitFor(() -> this.dispatcher.getQueueDepth() == 0);
+
+        assertEquals(1, maxActive.get());
+        assertEquals(Long.valueOf(5), this.dispatcher.getStatistics().get("delivered"));
+    }
+
+    @Test
+    public void verifyDeferralsForBusyHostAreBounded() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final HttpClient client = mock(HttpClient.class);
+        when(client.sendMessageToEndPoint(any(HttpMessage.class))).thenAnswer(invocation -> release.await(TIMEOUT_IN_MILLIS, TimeUnit.MILLISECONDS));
+        this.dispatcher = new SingleLogoutMessageDispatcher(client, 10, 2, 1, 2, 10);
+
+        assertTrue(this.dispatcher.dispatch(newMessage("https://app.example.org/logout", "ST-1"), "ST-1"));
+        assertTrue(this.dispatcher.dispatch(newMessage("https://app.example.org/logout", "ST-2"), "ST-2"));
+        waitFor(() -> this.dispatcher.getStatistics().get("failed") == 1);
+        release.countDown();
+        waitFor(() -> this.dispatcher.getQueueDepth() == 0);
+
+        verify(client, times(1)).sendMessageToEndPoint(any(HttpMessage.class));
+        assertEquals(Long.valueOf(2), this.dispatcher.getStatistics().get("deferred"));
+        assertEquals(Long.valueOf(1), this.dispatcher.getStatistics().get("delivered"));
+    }
+
+    @Test
+    public void verifyQueueIsBounded() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final HttpClient client = mock(HttpClient.class);
+        when(client.sendMessageToEndPoint(any(HttpMessage.class))).thenAnswer(invocation -> release.await(TIMEOUT_IN_MILLIS, TimeUnit.MILLISECONDS));
+        this.dispatcher = new SingleLogoutMessageDispatcher(client, 2, 1, 1, 0, 10);
+
+        assertTrue(this.dispatcher.dispatch(newMessage("https://app1.example.org/logout", "ST-1"), "ST-1"));
+        assertTrue(this.dispatcher.dispatch(newMessage("https://app2.example.org/logout", "ST-2"), "ST-2"));
+        assertTrue(this.dispatcher.dispatch(newMessage("https://app3.example.org/logout", "ST-3"), "ST-3"));
+        assertFalse(this.dispatcher.dispatch(newMessage("https://app4.example.org/logout", "ST-4"), "ST-4"));
+        release.countDown();
+        waitFor(() -> this.dispatcher.getQueueDepth() == 0);
+
+        assertEquals(Long.valueOf(1), this.dispatcher.getStatistics().get("rejected"));
+        assertEquals(Long.valueOf(3), this.dispatcher.getStatistics().get("delivered"));
+    }
+
+    private static LogoutHttpMessage newMessage(final String url, final String ticketId) throws Exception {
+        return new LogoutHttpMessage(new URL(url), "<samlp:LogoutRequest>" + ticketId + "</samlp:LogoutRequest>", false);
+    }
+
+    private static void waitFor(final BooleanSupplier condition) throws Exception {
+        final long deadline = System.currentTimeMillis() + TIMEOUT_IN_MILLIS;
+        while (!condition.getAsBoolean()) {
+            assertTrue("Timed out waiting for logout messages to be processed", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+}
@@ -101,7 +101,9 @@ public class CasCoreServicesConfiguration {
 
     @Bean
     public ServicesManager servicesManager(@Qualifier("serviceRegistryDao") final ServiceRegistryDao serviceRegistryDao) {
-        return new DefaultServicesManager(serviceRegistryDao);
+        final DefaultServicesManager manager = new DefaultServicesManager(serviceRegistryDao);
+        manager.setFullReloadInterval(casProperties.getServiceRegistry().getFullReloadInterval());
+        return manager;
     }
 
     @ConditionalOnMissingBean(name = BEAN_NAME_SERVICE_REGISTRY_DAO)
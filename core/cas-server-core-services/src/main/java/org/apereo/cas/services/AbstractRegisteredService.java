@@ -22,6 +22,8 @@ import javax.persistence.JoinTable;
 import javax.persistence.Lob;
 import javax.persistence.OneToMany;
 import javax.persistence.PostLoad;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
 import javax.persistence.Table;
 import java.net.URL;
 import java.util.HashMap;
@@ -130,6 +132,14 @@ public abstract class AbstractRegisteredService implements RegisteredService, Co
     @JoinTable(name = "RegisteredServiceImpl_Props")
     private Map<String, DefaultRegisteredServiceProperty> properties = new HashMap<>();
 
+    /**
+     * Time the service was last persisted, in milliseconds since epoch.
+     * Used by service registries to detect modified services.
+     */
+    @JsonIgnore
+    @Column(name = "last_modified", nullable = true)
+    private Long lastModified;
+
     @Override
     public long getId() {
         return this.id;
@@ -204,6 +214,24 @@ public abstract class AbstractRegisteredService implements RegisteredService, Co
         }
     }
 
+    /**
+     * Record the time the service is persisted. Only triggered by JPA.
+     */
+    @PrePersist
+    @PreUpdate
+    public void updateLastModified() {
+        this.lastModified = System.currentTimeMillis();
+    }
+
+    @JsonIgnore
+    public Long getLastModified() {
+        return this.lastModified;
+    }
+
+    public void setLastModified(final Long lastModified) {
+        this.lastModified = lastModified;
+    }
+
     @Override
     public boolean equals(final Object o) {
         if (o == null) {
@@ -370,7 +398,9 @@ public abstract class AbstractRegisteredService implements RegisteredService, Co
         this.setRequiredHandlers(source.getRequiredHandlers());
         this.setProperties(source.getProperties());
         this.setMultifactorPolicy(source.getMultifactorPolicy());
-
+        if (source instanceof AbstractRegisteredService) {
+            this.setLastModified(((AbstractRegisteredService) source).getLastModified());
+        }
     }
 
     /**
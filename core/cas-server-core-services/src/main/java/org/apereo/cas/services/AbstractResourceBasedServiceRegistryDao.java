@@ -25,6 +25,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 /**
  * This is {@link AbstractResourceBasedServiceRegistryDao}.
@@ -46,6 +47,16 @@ public abstract class AbstractResourceBasedServiceRegistryDao implements Resourc
      */
     private Map<Long, RegisteredService> serviceMap = new ConcurrentHashMap<>();
 
+    /**
+     * Map of service definition files to the service they define.
+     */
+    private Map<File, ServiceFile> serviceFiles = new ConcurrentHashMap<>();
+
+    /**
+     * Services parsed by the last pass over service versions, keyed by their definition file.
+     */
+    private final Map<File, RegisteredService> parsedServices = new ConcurrentHashMap<>();
+
     /**
      * The Registered service json serializer.
      */
@@ -151,6 +162,7 @@ public abstract class AbstractResourceBasedServiceRegistryDao implements Resourc
                 LOGGER.warn("Failed to delete service definition file [{}]", f.getCanonicalPath());
             } else {
                 this.serviceMap.remove(service.getId());
+                this.serviceFiles.remove(f);
                 LOGGER.debug("Successfully deleted service definition file [{}]", f.getCanonicalPath());
             }
             return result;
@@ -159,13 +171,20 @@ public abstract class AbstractResourceBasedServiceRegistryDao implements Resourc
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>Definition files that were parsed by the last call to {@link #loadVersions()} and have not
+     * changed since are not parsed again; all other files are.</p>
+     */
     @Override
     public synchronized List<RegisteredService> load() {
         final Map<Long, RegisteredService> temp = new ConcurrentHashMap<>();
+        final Map<File, ServiceFile> tempFiles = new ConcurrentHashMap<>();
         final int[] errorCount = {0};
         final Collection<File> c = FileUtils.listFiles(this.serviceRegistryDirectory.toFile(), new String[]{getExtension()}, true);
         c.stream().filter(file -> file.length() > 0).forEach(file -> {
-            final RegisteredService service = load(file);
+            final long lastModified = file.lastModified();
+            final RegisteredService service = loadUnlessParsed(file, lastModified);
             if (service == null) {
                 LOGGER.warn("Could not load service definition from file [{}]", file);
                 errorCount[0]++;
@@ -177,11 +196,14 @@ public abstract class AbstractResourceBasedServiceRegistryDao implements Resourc
                             service.getServiceId(), service.getId());
                 }
                 temp.put(service.getId(), service);
+                tempFiles.put(file, new ServiceFile(lastModified, service.getId()));
             }
         });
 
+        this.parsedServices.clear();
         if (errorCount[0] == 0) {
             this.serviceMap = temp;
+            this.serviceFiles = tempFiles;
         } else {
             LOGGER.warn("[{}] errors encountered when loading service definitions. New definitions are not loaded until errors are "
                     + "corrected", errorCount[0]);
@@ -189,6 +211,64 @@ public abstract class AbstractResourceBasedServiceRegistryDao implements Resourc
         return new ArrayList(this.serviceMap.values());
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>The version of each service is the last-modified time of its definition file.
+     * Only files that were added or modified since they were last read are parsed again,
+     * and definitions whose files are gone are dropped. Files that fail to parse leave
+     * the previous definition in place.</p>
+     */
+    @Override
+    public synchronized Map<Long, Long> loadVersions() {
+        this.parsedServices.clear();
+        final Map<File, ServiceFile> files = new ConcurrentHashMap<>();
+        final Collection<File> c = FileUtils.listFiles(this.serviceRegistryDirectory.toFile(), new String[]{getExtension()}, true);
+        c.stream().filter(file -> file.length() > 0).forEach(file -> {
+            final long lastModified = file.lastModified();
+            final ServiceFile known = this.serviceFiles.get(file);
+            if (known != null && known.getLastModified() == lastModified) {
+                files.put(file, known);
+                return;
+            }
+            final RegisteredService service = load(file);
+            if (service == null) {
+                LOGGER.warn("Could not load service definition from file [{}]", file);
+                if (known != null) {
+                    files.put(file, known);
+                }
+            } else {
+                if (known != null && known.getServiceId() != service.getId()) {
+                    this.serviceMap.remove(known.getServiceId());
+                }
+                this.serviceMap.put(service.getId(), service);
+                this.parsedServices.put(file, service);
+                files.put(file, new ServiceFile(lastModified, service.getId()));
+            }
+        });
+        this.serviceFiles.forEach((file, known) -> {
+            if (!files.containsKey(file)) {
+                LOGGER.debug("Service definition file [{}] is removed", file);
+                this.serviceMap.remove(known.getServiceId());
+            }
+        });
+        this.serviceFiles = files;
+        return files.values().stream().collect(Collectors.toMap(ServiceFile::getServiceId, ServiceFile::getLastModified, Math::max));
+    }
+
+    /**
+     * Reuse the service parsed from the file by the last pass over service versions
+     * if the file has not changed since, or parse the file otherwise.
+     */
+    private RegisteredService loadUnlessParsed(final File file, final long lastModified) {
+        final RegisteredService parsed = this.parsedServices.get(file);
+        final ServiceFile known = this.serviceFiles.get(file);
+        if (parsed != null && known != null && known.getLastModified() == lastModified) {
+            LOGGER.trace("Reusing service definition [{}] parsed from unchanged file [{}]", parsed.getServiceId(), file);
+            return parsed;
+        }
+        return load(file);
+    }
+
     /**
      * Load registered service from file.
      *
@@ -239,6 +319,7 @@ public abstract class AbstractResourceBasedServiceRegistryDao implements Resourc
         } catch (final IOException e) {
             throw new IllegalArgumentException("IO error opening file stream.", e);
         }
+        this.serviceFiles.put(f, new ServiceFile(f.lastModified(), service.getId()));
         return findServiceById(service.getId());
     }
 
@@ -280,4 +361,25 @@ public abstract class AbstractResourceBasedServiceRegistryDao implements Resourc
     public void update(final RegisteredService service) {
         this.serviceMap.put(service.getId(), service);
     }
+
+    /**
+     * A service definition file, along with the time it was last read.
+     */
+    private static class ServiceFile {
+        private final long lastModified;
+        private final long serviceId;
+
+        ServiceFile(final long lastModified, final long serviceId) {
+            this.lastModified = lastModified;
+            this.serviceId = serviceId;
+        }
+
+        long getLastModified() {
+            return this.lastModified;
+        }
+
+        long getServiceId() {
+            return this.serviceId;
+        }
+    }
 }
@@ -21,6 +21,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -42,6 +43,10 @@ public class DefaultServicesManager implements ServicesManager, Serializable {
 
     private Map<Long, RegisteredService> services = new ConcurrentHashMap<>();
     private Set<RegisteredService> orderedServices = new ConcurrentSkipListSet<>();
+    private transient volatile RegisteredServiceMatchingIndex matchingIndex;
+    private Map<Long, Long> serviceVersions;
+    private long fullReloadInterval = TimeUnit.HOURS.toMillis(1);
+    private transient long lastFullLoadTime;
 
     /**
      * Instantiates a new default services manager impl.
@@ -61,6 +66,8 @@ public class DefaultServicesManager implements ServicesManager, Serializable {
             this.serviceRegistryDao.delete(service);
             this.services.remove(id);
             this.orderedServices.remove(service);
+            forgetServiceVersion(id);
+            this.matchingIndex = new RegisteredServiceMatchingIndex(this.orderedServices);
             publishEvent(new CasRegisteredServiceDeletedEvent(this, service));
         }
         return service;
@@ -68,7 +75,7 @@ public class DefaultServicesManager implements ServicesManager, Serializable {
 
     @Override
     public RegisteredService findServiceBy(final Service service) {
-        return orderedServices.stream().filter(r -> r.matches(service)).findFirst().orElse(null);
+        return getMatchingIndex().find(service == null ? null : service.getId(), r -> r.matches(service));
     }
 
     @Override
@@ -80,13 +87,7 @@ public class DefaultServicesManager implements ServicesManager, Serializable {
 
     @Override
     public RegisteredService findServiceBy(final long id) {
-        final RegisteredService r = this.services.get(id);
-
-        try {
-            return r == null ? null : r.clone();
-        } catch (final CloneNotSupportedException e) {
-            return r;
-        }
+        return this.services.get(id);
     }
 
     @Override
@@ -105,32 +106,125 @@ public class DefaultServicesManager implements ServicesManager, Serializable {
     public synchronized RegisteredService save(final RegisteredService registeredService) {
         final RegisteredService r = this.serviceRegistryDao.save(registeredService);
         this.services.put(r.getId(), r);
+        forgetServiceVersion(r.getId());
         this.orderedServices = new ConcurrentSkipListSet<>(this.services.values());
+        this.matchingIndex = new RegisteredServiceMatchingIndex(this.orderedServices);
         publishEvent(new CasRegisteredServiceSavedEvent(this, r));
         return r;
     }
 
     /**
      * Load services that are provided by the DAO.
+     * If the DAO is able to report service versions, only services that were added,
+     * modified or removed since the previous load are fetched and applied.
+     * All services are still loaded once the full reload interval has passed, so that
+     * definitions changed without a new version are eventually picked up as well.
      */
     @Scheduled(initialDelayString = "${cas.serviceRegistry.startDelay:20000}",
             fixedDelayString = "${cas.serviceRegistry.repeatInterval:60000}")
     @Override
     @PostConstruct
-    public void load() {
+    public synchronized void load() {
         LOGGER.debug("Loading services from [{}]", this.serviceRegistryDao);
+        final Map<Long, Long> versions = this.serviceRegistryDao.loadVersions();
+        if (versions == null || this.serviceVersions == null || isFullReloadDue()) {
+            loadAllServices(versions);
+        } else {
+            loadChangedServices(versions);
+        }
+    }
+
+    private void loadAllServices(final Map<Long, Long> versions) {
         this.services = this.serviceRegistryDao.load().stream()
                 .collect(Collectors.toConcurrentMap(r -> {
                     LOGGER.debug("Adding registered service [{}]", r.getServiceId());
                     return r.getId();
                 }, r -> r, (r, s) -> s == null ? r : s));
         this.orderedServices = new ConcurrentSkipListSet<>(this.services.values());
+        this.matchingIndex = new RegisteredServiceMatchingIndex(this.orderedServices);
+        this.serviceVersions = versions == null ? null : new ConcurrentHashMap<>(versions);
+        this.lastFullLoadTime = System.currentTimeMillis();
         LOGGER.info("Loaded [{}] services from [{}].", this.services.size(), this.serviceRegistryDao);
     }
 
+    private void loadChangedServices(final Map<Long, Long> versions) {
+        final Set<Long> removed = this.services.keySet().stream()
+                .filter(id -> !versions.containsKey(id))
+                .collect(Collectors.toSet());
+        final Set<Long> changed = versions.entrySet().stream()
+                .filter(e -> !e.getValue().equals(this.serviceVersions.get(e.getKey())))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+
+        if (removed.isEmpty() && changed.isEmpty()) {
+            LOGGER.debug("No services have changed in [{}]", this.serviceRegistryDao);
+            return;
+        }
+        if (changed.size() > versions.size() / 2) {
+            LOGGER.debug("[{}] of [{}] services have changed; loading all services", changed.size(), versions.size());
+            loadAllServices(versions);
+            return;
+        }
+
+        final Map<Long, Long> newVersions = new ConcurrentHashMap<>(versions);
+        changed.forEach(id -> {
+            final RegisteredService service = this.serviceRegistryDao.findServiceById(id);
+            if (service == null) {
+                removed.add(id);
+                newVersions.remove(id);
+            } else {
+                final RegisteredService previous = this.services.put(id, service);
+                if (!service.equals(previous)) {
+                    LOGGER.debug("Reloaded modified registered service [{}]", service.getServiceId());
+                    publishEvent(new CasRegisteredServiceSavedEvent(this, service));
+                }
+            }
+        });
+        removed.forEach(id -> {
+            final RegisteredService previous = this.services.remove(id);
+            if (previous != null) {
+                LOGGER.debug("Removed registered service [{}]", previous.getServiceId());
+                publishEvent(new CasRegisteredServiceDeletedEvent(this, previous));
+            }
+        });
+
+        this.orderedServices = new ConcurrentSkipListSet<>(this.services.values());
+        this.matchingIndex = new RegisteredServiceMatchingIndex(this.orderedServices);
+        this.serviceVersions = newVersions;
+        LOGGER.info("Reloaded [{}] changed and [{}] removed services from [{}].", changed.size(), removed.size(),
+                this.serviceRegistryDao);
+    }
+
+    private boolean isFullReloadDue() {
+        return this.fullReloadInterval > 0 && System.currentTimeMillis() - this.lastFullLoadTime >= this.fullReloadInterval;
+    }
+
+    /**
+     * Sets the interval after which all services are loaded again, even when the DAO
+     * reports no changes. Zero or a negative value turns periodic full loads off.
+     *
+     * @param fullReloadInterval the interval in milliseconds
+     */
+    public void setFullReloadInterval(final long fullReloadInterval) {
+        this.fullReloadInterval = fullReloadInterval;
+    }
+
+    /**
+     * Services saved or deleted through this manager are fetched again on the next load,
+     * since the version assigned by the DAO is not known here. Unchanged services
+     * do not produce events when reloaded.
+     *
+     * @param id the service id
+     */
+    private void forgetServiceVersion(final long id) {
+        if (this.serviceVersions != null) {
+            this.serviceVersions.remove(id);
+        }
+    }
+
     @Override
     public RegisteredService findServiceBy(final String serviceId) {
-        return orderedServices.stream().filter(r -> r.matches(serviceId)).findFirst().orElse(null);
+        return getMatchingIndex().find(serviceId, r -> r.matches(serviceId));
     }
 
     @Override
@@ -153,6 +247,22 @@ public class DefaultServicesManager implements ServicesManager, Serializable {
         load();
     }
 
+    /**
+     * Gets the index used to match services. The index is rebuilt whenever
+     * services are loaded or changed, and only needs to be created here
+     * if this instance was deserialized.
+     *
+     * @return the matching index
+     */
+    private RegisteredServiceMatchingIndex getMatchingIndex() {
+        RegisteredServiceMatchingIndex index = this.matchingIndex;
+        if (index == null) {
+            index = new RegisteredServiceMatchingIndex(this.orderedServices);
+            this.matchingIndex = index;
+        }
+        return index;
+    }
+
     private void publishEvent(final ApplicationEvent event) {
         if (this.eventPublisher != null) {
             this.eventPublisher.publishEvent(event);
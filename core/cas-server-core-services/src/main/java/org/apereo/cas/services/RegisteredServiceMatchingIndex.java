@@ -0,0 +1,214 @@
+package org.apereo.cas.services;
+
+import org.apereo.cas.authentication.principal.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * This is {@link RegisteredServiceMatchingIndex} that narrows down the registered services
+ * that could possibly match a given service id, so that only those are evaluated.
+ * <p>The literal prefix of each {@link RegexRegisteredService} pattern is extracted and
+ * recorded in a character trie, or in an exact-match table when the entire pattern is
+ * a literal. Services whose patterns begin with a regular expression construct, and services
+ * that provide their own matching logic, carry no prefix and are always evaluated.</p>
+ * <p>Candidates are evaluated in the order in which services were handed to the index,
+ * so the first match is the same service a linear scan would have found.</p>
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class RegisteredServiceMatchingIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RegisteredServiceMatchingIndex.class);
+
+    private static final String METACHARACTERS = ".[](){}*+?^$|";
+
+    private static final String QUANTIFIERS = "?*+{";
+
+    private final RegisteredService[] services;
+
+    private final Map<String, List<Integer>> exactMatches = new HashMap<>();
+
+    private final Node prefixes = new Node();
+
+    private final BitSet unindexed = new BitSet();
+
+    /**
+     * Instantiates a new index.
+     *
+     * @param orderedServices the registered services, sorted by their evaluation order.
+     */
+    public RegisteredServiceMatchingIndex(final Collection<RegisteredService> orderedServices) {
+        this.services = orderedServices.toArray(new RegisteredService[orderedServices.size()]);
+        final Map<Class<?>, Boolean> indexableTypes = new HashMap<>();
+
+        for (int i = 0; i < this.services.length; i++) {
+            final RegisteredService service = this.services[i];
+            final boolean indexable = service.getServiceId() != null
+                    && indexableTypes.computeIfAbsent(service.getClass(), RegisteredServiceMatchingIndex::isIndexable);
+            final LiteralPrefix prefix = indexable ? LiteralPrefix.of(service.getServiceId()) : LiteralPrefix.NONE;
+
+            if (prefix.isExact()) {
+                this.exactMatches.computeIfAbsent(prefix.getValue(), k -> new ArrayList<>()).add(i);
+            } else if (prefix.getValue().isEmpty()) {
+                this.unindexed.set(i);
+            } else {
+                Node node = this.prefixes;
+                for (int j = 0; j < prefix.getValue().length(); j++) {
+                    node = node.children.computeIfAbsent(prefix.getValue().charAt(j), k -> new Node());
+                }
+                node.services.add(i);
+            }
+        }
+        LOGGER.debug("Indexed [{}] registered services; [{}] exact, [{}] unindexed", this.services.length,
+                this.exactMatches.size(), this.unindexed.cardinality());
+    }
+
+    /**
+     * Find the first registered service, in evaluation order, that matches the given service id.
+     *
+     * @param serviceId the service id used to look up candidates
+     * @param matcher   the test each candidate must pass
+     * @return the registered service, or null
+     */
+    public RegisteredService find(final String serviceId, final Predicate<RegisteredService> matcher) {
+        if (serviceId == null) {
+            for (final RegisteredService service : this.services) {
+                if (matcher.test(service)) {
+                    return service;
+                }
+            }
+            return null;
+        }
+
+        final BitSet candidates = (BitSet) this.unindexed.clone();
+        final String key = toLowerCase(serviceId);
+
+        final List<Integer> exact = this.exactMatches.get(key);
+        if (exact != null) {
+            exact.forEach(candidates::set);
+        }
+        Node node = this.prefixes;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.children.get(key.charAt(i));
+            if (node != null) {
+                node.services.forEach(candidates::set);
+            }
+        }
+
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            if (matcher.test(this.services[i])) {
+                return this.services[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Only services that rely on the default regular expression matching can be indexed;
+     * extensions that override the matching logic may match services outside the pattern's prefix.
+     */
+    private static boolean isIndexable(final Class<?> type) {
+        if (!RegexRegisteredService.class.isAssignableFrom(type)) {
+            return false;
+        }
+        try {
+            return type.getMethod("matches", String.class).getDeclaringClass() == RegexRegisteredService.class
+                    && type.getMethod("matches", Service.class).getDeclaringClass() == RegexRegisteredService.class;
+        } catch (final NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Service patterns are compiled as case-insensitive, which only applies to US-ASCII characters.
+     */
+    private static String toLowerCase(final String value) {
+        final char[] chars = value.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            if (chars[i] >= 'A' && chars[i] <= 'Z') {
+                chars[i] = (char) (chars[i] + ('a' - 'A'));
+            }
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Node of the prefix trie.
+     */
+    private static class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        private final List<Integer> services = new ArrayList<>();
+    }
+
+    /**
+     * The literal text every service id must start with in order to match a pattern.
+     */
+    private static final class LiteralPrefix {
+        private static final LiteralPrefix NONE = new LiteralPrefix("", false);
+
+        private final String value;
+        private final boolean exact;
+
+        private LiteralPrefix(final String value, final boolean exact) {
+            this.value = value;
+            this.exact = exact;
+        }
+
+        String getValue() {
+            return this.value;
+        }
+
+        boolean isExact() {
+            return this.exact;
+        }
+
+        /**
+         * Extract the literal prefix of the pattern. Parsing is deliberately conservative:
+         * it stops at the first construct that is not a plain character, and gives up on patterns
+         * that contain alternations anywhere, since those may apply to the text before them.
+         */
+        static LiteralPrefix of(final String pattern) {
+            if (pattern.indexOf('|') >= 0) {
+                return NONE;
+            }
+            final StringBuilder prefix = new StringBuilder();
+            final int length = pattern.length();
+            int i = pattern.startsWith("^") ? 1 : 0;
+            boolean exact = false;
+
+            while (i < length) {
+                final char c = pattern.charAt(i);
+                final char literal;
+                final int next;
+                if (c == '\\') {
+                    if (i + 1 >= length || Character.isLetterOrDigit(pattern.charAt(i + 1))) {
+                        break;
+                    }
+                    literal = pattern.charAt(i + 1);
+                    next = i + 2;
+                } else if (METACHARACTERS.indexOf(c) >= 0) {
+                    exact = c == '$' && i == length - 1;
+                    break;
+                } else {
+                    literal = c;
+                    next = i + 1;
+                }
+                if (literal > Byte.MAX_VALUE || next < length && QUANTIFIERS.indexOf(pattern.charAt(next)) >= 0) {
+                    break;
+                }
+                prefix.append(literal);
+                i = next;
+            }
+            return new LiteralPrefix(toLowerCase(prefix.toString()), exact || i == length);
+        }
+    }
+}
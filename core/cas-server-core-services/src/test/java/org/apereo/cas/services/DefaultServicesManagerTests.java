@@ -7,7 +7,9 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -95,6 +97,28 @@ public class DefaultServicesManagerTests {
         assertNull(this.defaultServicesManager.findServiceBy(r.getId()));
     }
 
+    @Test
+    public void verifyServiceForUpdateIsCopied() {
+        final RegexRegisteredService r = new RegexRegisteredService();
+        r.setId(1000);
+        r.setName("test");
+        r.setServiceId("test");
+        r.setEvaluationOrder(10);
+        this.defaultServicesManager.save(r);
+
+        final RegisteredService shared = this.defaultServicesManager.findServiceBy(r.getId());
+        assertSame(shared, this.defaultServicesManager.findServiceBy(r.getId()));
+
+        final RegisteredService copy = this.defaultServicesManager.findServiceForUpdate(r.getId());
+        assertNotSame(shared, copy);
+        assertEquals(shared, copy);
+
+        copy.setEvaluationOrder(20);
+        assertEquals(10, this.defaultServicesManager.findServiceBy(r.getId()).getEvaluationOrder());
+        this.defaultServicesManager.save(copy);
+        assertEquals(20, this.defaultServicesManager.findServiceBy(r.getId()).getEvaluationOrder());
+    }
+
     @Test
     public void verifyDeleteNotExistentService() {
         assertNull(this.defaultServicesManager.delete(1500));
@@ -233,6 +257,111 @@ public class DefaultServicesManagerTests {
         assertEquals(description, serviceRetrieved.toArray(new RegisteredService[]{})[0].getDescription());
     }
 
+    @Test
+    public void verifyOnlyChangedServicesAreReloaded() {
+        final RegexRegisteredService r = new RegexRegisteredService();
+        r.setId(100);
+        r.setName("test");
+        r.setServiceId("test");
+        final RegexRegisteredService r2 = new RegexRegisteredService();
+        r2.setId(101);
+        r2.setName("test2");
+        r2.setServiceId("test2");
+        final RegexRegisteredService r3 = new RegexRegisteredService();
+        r3.setId(102);
+        r3.setName("test3");
+        r3.setServiceId("test3");
+
+        final VersionedServiceRegistry registry = new VersionedServiceRegistry(new ArrayList<>(Arrays.asList(r, r2, r3)));
+        final DefaultServicesManager manager = new DefaultServicesManager(registry);
+        manager.load();
+        assertEquals(1, registry.loadCount);
+        assertEquals(3, manager.count());
+
+        manager.load();
+        assertEquals(1, registry.loadCount);
+        assertEquals(0, registry.findCount);
+
+        final RegexRegisteredService changed = new RegexRegisteredService();
+        changed.copyFrom(r2);
+        changed.setServiceId("changed");
+        registry.save(changed);
+        registry.delete(r3);
+        manager.load();
+        assertEquals(1, registry.loadCount);
+        assertEquals(1, registry.findCount);
+        assertEquals(2, manager.count());
+        assertEquals(changed, manager.findServiceBy("changed"));
+        assertNull(manager.findServiceBy("test3"));
+    }
+
+    @Test
+    public void verifyAllServicesAreReloadedPeriodically() throws Exception {
+        final RegexRegisteredService r = new RegexRegisteredService();
+        r.setId(100);
+        r.setName("test");
+        r.setServiceId("test");
+
+        final VersionedServiceRegistry registry = new VersionedServiceRegistry(new ArrayList<>(Arrays.asList(r)));
+        final DefaultServicesManager manager = new DefaultServicesManager(registry);
+        manager.setFullReloadInterval(1);
+        manager.load();
+        assertEquals(1, registry.loadCount);
+
+        final RegexRegisteredService changed = new RegexRegisteredService();
+        changed.copyFrom(r);
+        changed.setServiceId("changed");
+        registry.saveWithoutNewVersion(changed);
+        Thread.sleep(10);
+        manager.load();
+        assertEquals(2, registry.loadCount);
+        assertEquals(changed, manager.findServiceBy("changed"));
+    }
+
+    private static class VersionedServiceRegistry extends InMemoryServiceRegistry {
+        private final Map<Long, Long> versions = new HashMap<>();
+        private int loadCount;
+        private int findCount;
+
+        VersionedServiceRegistry(final List<RegisteredService> services) {
+            super(services);
+            services.forEach(s -> this.versions.put(s.getId(), 1L));
+        }
+
+        @Override
+        public Map<Long, Long> loadVersions() {
+            return new HashMap<>(this.versions);
+        }
+
+        @Override
+        public List<RegisteredService> load() {
+            this.loadCount++;
+            return super.load();
+        }
+
+        @Override
+        public RegisteredService findServiceById(final long id) {
+            this.findCount++;
+            return super.findServiceById(id);
+        }
+
+        @Override
+        public RegisteredService save(final RegisteredService registeredService) {
+            this.versions.merge(registeredService.getId(), 1L, Long::sum);
+            return super.save(registeredService);
+        }
+
+        RegisteredService saveWithoutNewVersion(final RegisteredService registeredService) {
+            return super.save(registeredService);
+        }
+
+        @Override
+        public boolean delete(final RegisteredService registeredService) {
+            this.versions.remove(registeredService.getId());
+            return super.delete(registeredService);
+        }
+    }
+
     private static class SimpleService implements Service {
 
         /**
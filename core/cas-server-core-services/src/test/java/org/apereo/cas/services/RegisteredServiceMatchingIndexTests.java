@@ -0,0 +1,163 @@
+package org.apereo.cas.services;
+
+import org.apereo.cas.authentication.principal.Service;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link RegisteredServiceMatchingIndexTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class RegisteredServiceMatchingIndexTests {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RegisteredServiceMatchingIndexTests.class);
+
+    private static final List<String> PATTERNS = Arrays.asList(
+            "https://app.example.org",
+            "https://app.example.org/.*",
+            "^https://secure\\.example\\.org/path.*",
+            "https?://optional.example.org/.*",
+            "https://(one|two).example.org/.*",
+            "https://alt.example.org/a|https://alt.example.org/b",
+            "^(https?|imaps?)://.*",
+            "https://UPPER.example.org/.*",
+            "https://app.example.org/exact$",
+            "https://digits\\d+.example.org/.*",
+            "[a-z]+://charclass.example.org",
+            "");
+
+    private static final List<String> SERVICE_IDS = Arrays.asList(
+            "https://app.example.org",
+            "HTTPS://APP.EXAMPLE.ORG",
+            "https://app.example.org/",
+            "https://app.example.org/exact",
+            "https://secure.example.org/path/to",
+            "https://secureXexample.org/path",
+            "http://optional.example.org/x",
+            "https://optional.example.org/x",
+            "https://two.example.org/x",
+            "https://alt.example.org/b",
+            "https://upper.example.org/x",
+            "https://digits42.example.org/x",
+            "ftp://charclass.example.org",
+            "imaps://mail.example.org",
+            "ldap://nomatch.example.org",
+            "");
+
+    @Test
+    public void verifyIndexMatchesLinearScan() {
+        for (int evaluationOrder = 0; evaluationOrder < 2; evaluationOrder++) {
+            final Set<RegisteredService> services = new ConcurrentSkipListSet<>();
+            for (int i = 0; i < PATTERNS.size(); i++) {
+                // reverse the evaluation order on the second pass, so that catch-all patterns win
+                services.add(newService(i, PATTERNS.get(i), evaluationOrder == 0 ? i : PATTERNS.size() - i));
+            }
+            final RegisteredServiceMatchingIndex index = new RegisteredServiceMatchingIndex(services);
+            SERVICE_IDS.forEach(id -> assertSame(id, findLinear(services, id), index.find(id, r -> r.matches(id))));
+        }
+    }
+
+    @Test
+    public void verifyEvaluationOrderIsPreserved() {
+        final Set<RegisteredService> services = new ConcurrentSkipListSet<>();
+        services.add(newService(1, "https://app.example.org/.*", 10));
+        services.add(newService(2, "^https://.*", 5));
+        services.add(newService(3, "https://app.example.org/login", 1));
+        final RegisteredServiceMatchingIndex index = new RegisteredServiceMatchingIndex(services);
+
+        assertEquals(3, index.find("https://app.example.org/login", r -> r.matches("https://app.example.org/login")).getId());
+        assertEquals(2, index.find("https://app.example.org/home", r -> r.matches("https://app.example.org/home")).getId());
+    }
+
+    @Test
+    public void verifyServicesWithCustomMatchingAreAlwaysEvaluated() {
+        final Set<RegisteredService> services = new ConcurrentSkipListSet<>();
+        final RegexRegisteredService custom = new RegexRegisteredService() {
+            private static final long serialVersionUID = -6416442404395591024L;
+
+            @Override
+            public boolean matches(final Service service) {
+                return true;
+            }
+        };
+        custom.setId(1);
+        custom.setName("custom");
+        custom.setServiceId("https://custom.example.org");
+        services.add(custom);
+
+        final Service service = RegisteredServiceTestUtils.getService("https://other.example.org");
+        final RegisteredServiceMatchingIndex index = new RegisteredServiceMatchingIndex(services);
+        assertSame(custom, index.find(service.getId(), r -> r.matches(service)));
+    }
+
+    @Test
+    public void verifyTenThousandServices() {
+        final int count = 10_000;
+        final Set<RegisteredService> services = new ConcurrentSkipListSet<>();
+        for (int i = 0; i < count; i++) {
+            final String pattern;
+            if (i % 100 == 0) {
+                pattern = "^https://.*\\.tenant" + i + "\\.example\\.org/.*";
+            } else if (i % 3 == 0) {
+                pattern = "https://app" + i + ".example.org";
+            } else {
+                pattern = "^https://app" + i + "\\.example\\.org(/.*)?";
+            }
+            services.add(newService(i, pattern, i));
+        }
+
+        final Random random = new Random(0);
+        final List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            final int n = random.nextInt(count + 100);
+            ids.add(n % 100 == 0 ? "https://www.tenant" + n + ".example.org/x" : "https://app" + n + ".example.org/p/" + i);
+        }
+
+        long start = System.nanoTime();
+        final RegisteredServiceMatchingIndex index = new RegisteredServiceMatchingIndex(services);
+        final long indexTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        final List<RegisteredService> linear = new ArrayList<>();
+        ids.forEach(id -> linear.add(findLinear(services, id)));
+        final long linearTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        final List<RegisteredService> indexed = new ArrayList<>();
+        ids.forEach(id -> indexed.add(index.find(id, r -> r.matches(id))));
+        final long indexedTime = System.nanoTime() - start;
+
+        for (int i = 0; i < ids.size(); i++) {
+            assertSame(ids.get(i), linear.get(i), indexed.get(i));
+        }
+        LOGGER.info("Matched [{}] service ids against [{}] services: linear scan took [{}] ms, index took [{}] ms to build and [{}] ms to match",
+                ids.size(), count, TimeUnit.NANOSECONDS.toMillis(linearTime), TimeUnit.NANOSECONDS.toMillis(indexTime),
+                TimeUnit.NANOSECONDS.toMillis(indexedTime));
+    }
+
+    private static RegisteredService findLinear(final Set<RegisteredService> services, final String serviceId) {
+        return services.stream().filter(r -> r.matches(serviceId)).findFirst().orElse(null);
+    }
+
+    private static RegexRegisteredService newService(final long id, final String pattern, final int evaluationOrder) {
+        final RegexRegisteredService r = new RegexRegisteredService();
+        r.setId(id);
+        r.setName("service" + id);
+        r.setServiceId(pattern);
+        r.setEvaluationOrder(evaluationOrder);
+        return r;
+    }
+}
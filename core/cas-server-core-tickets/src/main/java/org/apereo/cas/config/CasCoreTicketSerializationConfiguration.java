@@ -0,0 +1,37 @@
+package org.apereo.cas.config;
+
+import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.apereo.cas.configuration.model.core.ticket.registry.TicketRegistryProperties;
+import org.apereo.cas.ticket.serialization.JavaTicketSerializer;
+import org.apereo.cas.ticket.serialization.KryoTicketSerializer;
+import org.apereo.cas.ticket.serialization.TicketSerializer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * This is {@link CasCoreTicketSerializationConfiguration} that defines the serializer
+ * used by ticket registries to convert tickets into their binary form.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+@Configuration("casCoreTicketSerializationConfiguration")
+@EnableConfigurationProperties(CasConfigurationProperties.class)
+public class CasCoreTicketSerializationConfiguration {
+
+    @Autowired
+    private CasConfigurationProperties casProperties;
+
+    @ConditionalOnMissingBean(name = "ticketSerializer")
+    @Bean
+    public TicketSerializer ticketSerializer() {
+        final TicketRegistryProperties.Serializer serializer = casProperties.getTicket().getRegistry().getSerializer();
+        if (serializer.getType() == TicketRegistryProperties.Serializer.SerializerTypes.KRYO) {
+            return new KryoTicketSerializer();
+        }
+        return new JavaTicketSerializer();
+    }
+}
@@ -1,6 +1,8 @@
 package org.apereo.cas.config;
 
+import com.codahale.metrics.MetricRegistry;
 import org.apereo.cas.CipherExecutor;
+import org.apereo.cas.authentication.support.StatisticsGaugeSet;
 import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.configuration.model.core.ticket.TicketGrantingTicketProperties;
 import org.apereo.cas.configuration.model.core.ticket.registry.TicketRegistryProperties;
@@ -21,14 +23,17 @@ import org.apereo.cas.ticket.proxy.ProxyHandler;
 import org.apereo.cas.ticket.proxy.ProxyTicketFactory;
 import org.apereo.cas.ticket.proxy.support.Cas10ProxyHandler;
 import org.apereo.cas.ticket.proxy.support.Cas20ProxyHandler;
+import org.apereo.cas.ticket.registry.AbstractTicketRegistry;
 import org.apereo.cas.ticket.registry.DefaultTicketRegistry;
 import org.apereo.cas.ticket.registry.DefaultTicketRegistryCleaner;
 import org.apereo.cas.ticket.registry.DefaultTicketRegistrySupport;
+import org.apereo.cas.ticket.registry.NearCacheTicketRegistry;
 import org.apereo.cas.ticket.registry.NoOpLockingStrategy;
 import org.apereo.cas.ticket.registry.TicketRegistry;
 import org.apereo.cas.ticket.registry.TicketRegistryCleaner;
 import org.apereo.cas.ticket.registry.TicketRegistrySupport;
 import org.apereo.cas.ticket.registry.support.LockingStrategy;
+import org.apereo.cas.ticket.serialization.TicketSerializer;
 import org.apereo.cas.ticket.support.AlwaysExpiresExpirationPolicy;
 import org.apereo.cas.ticket.support.HardTimeoutExpirationPolicy;
 import org.apereo.cas.ticket.support.MultiTimeUseOrTimeoutExpirationPolicy;
@@ -43,6 +48,7 @@ import org.apereo.cas.util.cipher.ProtocolTicketCipherExecutor;
 import org.apereo.cas.util.http.HttpClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.aop.scope.ScopedObject;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
@@ -51,6 +57,7 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.cloud.context.config.annotation.RefreshScope;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.integration.transaction.PseudoTransactionManager;
 import org.springframework.scheduling.annotation.EnableAsync;
@@ -59,6 +66,8 @@ import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 import org.springframework.transaction.annotation.TransactionManagementConfigurer;
 
+import javax.annotation.PostConstruct;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -73,6 +82,7 @@ import java.util.Map;
 @EnableAsync
 @EnableTransactionManagement(proxyTargetClass = true)
 @AutoConfigureAfter(value = {CasCoreUtilConfiguration.class, CasCoreTicketIdGeneratorsConfiguration.class})
+@Import(CasCoreTicketSerializationConfiguration.class)
 public class CasCoreTicketsConfiguration implements TransactionManagementConfigurer {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(CasCoreTicketsConfiguration.class);
@@ -89,6 +99,10 @@ public class CasCoreTicketsConfiguration implements TransactionManagementConfigu
     @Qualifier("logoutManager")
     private LogoutManager logoutManager;
 
+    @Autowired
+    @Qualifier("ticketSerializer")
+    private TicketSerializer ticketSerializer;
+
     @Autowired
     @Qualifier("ticketRegistry")
     private TicketRegistry ticketRegistry;
@@ -97,6 +111,10 @@ public class CasCoreTicketsConfiguration implements TransactionManagementConfigu
     @Qualifier("supportsTrustStoreSslSocketFactoryHttpClient")
     private HttpClient httpClient;
 
+    @Autowired(required = false)
+    @Qualifier("metrics")
+    private MetricRegistry metrics;
+
     @ConditionalOnMissingBean(name = "defaultProxyGrantingTicketFactory")
     @Bean
     public ProxyGrantingTicketFactory defaultProxyGrantingTicketFactory() {
@@ -179,11 +197,13 @@ public class CasCoreTicketsConfiguration implements TransactionManagementConfigu
     @Bean(name = {"defaultTicketRegistry", "ticketRegistry"})
     public TicketRegistry defaultTicketRegistry() {
         final TicketRegistryProperties.InMemory mem = casProperties.getTicket().getRegistry().getInMemory();
-        return new DefaultTicketRegistry(
+        final DefaultTicketRegistry registry = new DefaultTicketRegistry(
                 mem.getInitialCapacity(),
                 mem.getLoadFactor(),
                 mem.getConcurrency(),
                 Beans.newTicketRegistryCipherExecutor(mem.getCrypto()));
+        registry.setTicketSerializer(this.ticketSerializer);
+        return registry;
     }
 
     @ConditionalOnMissingBean(name = "defaultTicketRegistrySupport")
@@ -230,9 +250,11 @@ public class CasCoreTicketsConfiguration implements TransactionManagementConfigu
 
     @ConditionalOnMissingBean(name = "ticketRegistryCleaner")
     @Bean
-    public TicketRegistryCleaner ticketRegistryCleaner() {
-        final boolean isCleanerEnabled = casProperties.getTicket().getRegistry().getCleaner().isEnabled();
-        return new DefaultTicketRegistryCleaner(lockingStrategy(), logoutManager, ticketRegistry, isCleanerEnabled);
+    public TicketRegistryCleaner ticketRegistryCleaner(@Qualifier("ticketTransactionManager")
+                                                       final PlatformTransactionManager ticketTransactionManager) {
+        final TicketRegistryProperties.Cleaner cleaner = casProperties.getTicket().getRegistry().getCleaner();
+        return new DefaultTicketRegistryCleaner(lockingStrategy(), logoutManager, ticketRegistry,
+                ticketTransactionManager, cleaner.isEnabled(), cleaner.getPageSize());
     }
 
     @ConditionalOnMissingBean(name = "ticketTransactionManager")
@@ -295,4 +317,23 @@ public class CasCoreTicketsConfiguration implements TransactionManagementConfigu
     public PlatformTransactionManager annotationDrivenTransactionManager() {
         return ticketTransactionManager();
     }
+
+    @PostConstruct
+    public void init() {
+        StatisticsGaugeSet.register(this.metrics, "cas.ticket.registry", () -> getCacheStatistics(this.ticketRegistry));
+    }
+
+    /**
+     * Gets the cache statistics of the registry behind the refreshable proxy and the near-cache, if any.
+     */
+    private static Map<String, Long> getCacheStatistics(final TicketRegistry registry) {
+        final Object target = registry instanceof ScopedObject ? ((ScopedObject) registry).getTargetObject() : registry;
+        if (target instanceof NearCacheTicketRegistry) {
+            return getCacheStatistics(((NearCacheTicketRegistry) target).getDelegate());
+        }
+        if (target instanceof AbstractTicketRegistry) {
+            return ((AbstractTicketRegistry) target).getCacheStatistics();
+        }
+        return new LinkedHashMap<>();
+    }
 }
@@ -1,6 +1,7 @@
 package org.apereo.cas.ticket;
 
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
@@ -10,6 +11,8 @@ import javax.persistence.Column;
 import javax.persistence.Id;
 import javax.persistence.Lob;
 import javax.persistence.MappedSuperclass;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 
@@ -74,6 +77,17 @@ public abstract class AbstractTicket implements Ticket, TicketState {
     @Column(name = "NUMBER_OF_TIMES_USED")
     private int countOfUses;
 
+    /**
+     * The time this ticket is expected to expire, as reported by
+     * its expiration policy when the ticket was last stored.
+     * Indexed so that expired tickets may be located without
+     * loading every ticket; it is a hint and is always verified
+     * against {@link #isExpired()}.
+     */
+    @JsonIgnore
+    @Column(name = "EXPIRES_AT")
+    private ZonedDateTime expiresAt;
+
     /**
      * Instantiates a new abstract ticket.
      */
@@ -149,6 +163,26 @@ public abstract class AbstractTicket implements Ticket, TicketState {
         return false;
     }
 
+    /**
+     * Record the expected expiration time of this ticket
+     * before it is persisted. Tickets that are already expired
+     * are recorded as due right away.
+     */
+    @PrePersist
+    @PreUpdate
+    public void updateExpirationTime() {
+        if (this.expirationPolicy.isExpired(this) || isExpiredInternal()) {
+            this.expiresAt = ZonedDateTime.now(ZoneOffset.UTC);
+        } else {
+            this.expiresAt = this.expirationPolicy.getExpirationTime(this);
+        }
+    }
+
+    @JsonIgnore
+    public ZonedDateTime getExpiresAt() {
+        return this.expiresAt;
+    }
+
     @Override
     public int hashCode() {
         return new HashCodeBuilder(13, 133).append(this.getId()).toHashCode();
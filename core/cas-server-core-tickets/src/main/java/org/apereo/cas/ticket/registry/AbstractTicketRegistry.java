@@ -1,6 +1,8 @@
 package org.apereo.cas.ticket.registry;
 
 import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.io.ByteSource;
 import org.apache.commons.lang3.StringUtils;
 import org.apereo.cas.CipherExecutor;
@@ -8,17 +10,32 @@ import org.apereo.cas.authentication.principal.Service;
 import org.apereo.cas.ticket.ServiceTicket;
 import org.apereo.cas.ticket.Ticket;
 import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.TicketState;
 import org.apereo.cas.ticket.proxy.ProxyGrantingTicket;
+import org.apereo.cas.ticket.serialization.JavaTicketSerializer;
+import org.apereo.cas.ticket.serialization.TicketSerializer;
 import org.apereo.cas.util.DigestUtils;
-import org.apereo.cas.util.serialization.SerializationUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.util.Assert;
 
+import java.time.ZonedDateTime;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * @author Scott Battaglia
@@ -32,12 +49,47 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
     private static final String MESSAGE = "Ticket encryption is not enabled. Falling back to default behavior";
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractTicketRegistry.class);
-    
+
+    private static final long TICKET_ID_DIGEST_CACHE_SIZE = 10_000;
+    private static final long TICKET_ID_DIGEST_CACHE_IDLE_MINUTES = 10;
+
+    private static final long DECRYPTED_TICKET_CACHE_SIZE = 1_000;
+    private static final long DECRYPTED_TICKET_CACHE_TTL_SECONDS = 5;
+
     /**
      * The cipher executor for ticket objects.
      */
     protected CipherExecutor cipherExecutor;
 
+    /**
+     * Serializer used to convert tickets into their binary form before they are encoded.
+     */
+    protected TicketSerializer ticketSerializer = new JavaTicketSerializer();
+
+    /**
+     * Digests of recently used ticket ids, keyed by the original ticket id.
+     */
+    private final Cache<String, String> ticketIdDigestCache = CacheBuilder.newBuilder()
+            .maximumSize(TICKET_ID_DIGEST_CACHE_SIZE)
+            .expireAfterAccess(TICKET_ID_DIGEST_CACHE_IDLE_MINUTES, TimeUnit.MINUTES)
+            .build();
+
+    /**
+     * Recently decrypted ticket bytes, keyed by the encoded ticket id. Entries are short-lived,
+     * and are only used when the encoded bytes match those that produced the cached bytes.
+     * Only the decrypted bytes are cached; every lookup deserializes its own copy of the ticket,
+     * so that concurrent requests never share the same mutable ticket instance.
+     */
+    private final Cache<String, DecryptedTicket> decryptedTicketCache = CacheBuilder.newBuilder()
+            .maximumSize(DECRYPTED_TICKET_CACHE_SIZE)
+            .expireAfterWrite(DECRYPTED_TICKET_CACHE_TTL_SECONDS, TimeUnit.SECONDS)
+            .build();
+
+    private final AtomicLong ticketIdDigestCacheHits = new AtomicLong();
+    private final AtomicLong ticketIdDigestCacheMisses = new AtomicLong();
+    private final AtomicLong decryptedTicketCacheHits = new AtomicLong();
+    private final AtomicLong decryptedTicketCacheMisses = new AtomicLong();
+
     /**
      * Default constructor.
      */
@@ -74,8 +126,8 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
 
     @Override
     public long sessionCount() {
-        try {
-            return getTickets().stream().filter(TicketGrantingTicket.class::isInstance).count();
+        try (Stream<Ticket> tickets = getTicketsStream(TicketGrantingTicket.class::isInstance)) {
+            return tickets.count();
         } catch (final Throwable t) {
             LOGGER.trace("sessionCount() operation is not implemented by the ticket registry instance [{}]. "
                             + "Message is: [{}] Returning unknown as [{}]",
@@ -86,8 +138,8 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
 
     @Override
     public long serviceTicketCount() {
-        try {
-            return getTickets().stream().filter(ServiceTicket.class::isInstance).count();
+        try (Stream<Ticket> tickets = getTicketsStream(ServiceTicket.class::isInstance)) {
+            return tickets.count();
         } catch (final Throwable t) {
             LOGGER.trace("serviceTicketCount() operation is not implemented by the ticket registry instance [{}]. "
                             + "Message is: [{}] Returning unknown as [[{}]]",
@@ -138,21 +190,33 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
      * @return the count of tickets that were removed including child tickets and zero if the ticket was not deleted
      */
     public int deleteChildren(final TicketGrantingTicket ticket) {
-        final AtomicInteger count = new AtomicInteger(0);
-
-        // delete service tickets
         final Map<String, Service> services = ticket.getServices();
-        if (services != null && !services.isEmpty()) {
-            services.keySet().stream().forEach(ticketId -> {
-                if (deleteSingleTicket(ticketId)) {
-                    LOGGER.debug("Removed ticket [{}]", ticketId);
-                    count.incrementAndGet();
-                } else {
-                    LOGGER.debug("Unable to remove ticket [{}]", ticketId);
-                }
-            });
+        if (services == null || services.isEmpty()) {
+            return 0;
         }
+        final int count = deleteTickets(services.keySet());
+        LOGGER.debug("Removed [{}] of [{}] service tickets for ticket [{}]", count, services.size(), ticket.getId());
+        return count;
+    }
 
+    /**
+     * Delete a collection of ticket instances from the store.
+     * Registries backed by remote storage should override this method
+     * to remove all tickets in as few round trips as possible.
+     *
+     * @param ticketIds the ticket ids
+     * @return the count of tickets that were removed
+     */
+    public int deleteTickets(final Collection<String> ticketIds) {
+        final AtomicInteger count = new AtomicInteger(0);
+        ticketIds.forEach(ticketId -> {
+            if (deleteSingleTicket(ticketId)) {
+                LOGGER.debug("Removed ticket [{}]", ticketId);
+                count.incrementAndGet();
+            } else {
+                LOGGER.debug("Unable to remove ticket [{}]", ticketId);
+            }
+        });
         return count.intValue();
     }
 
@@ -178,6 +242,10 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
         this.cipherExecutor = cipherExecutor;
     }
 
+    public void setTicketSerializer(final TicketSerializer ticketSerializer) {
+        this.ticketSerializer = ticketSerializer;
+    }
+
     /**
      * Encode ticket id into a SHA-512.
      *
@@ -192,7 +260,14 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
         if (StringUtils.isBlank(ticketId)) {
             return ticketId;
         }
+        final String cachedId = this.ticketIdDigestCache.getIfPresent(ticketId);
+        if (cachedId != null) {
+            this.ticketIdDigestCacheHits.incrementAndGet();
+            return cachedId;
+        }
+        this.ticketIdDigestCacheMisses.incrementAndGet();
         final String encodedId = DigestUtils.sha512(ticketId);
+        this.ticketIdDigestCache.put(ticketId, encodedId);
         LOGGER.debug("Encoded original ticket id [{}] to [{}]", ticketId, encodedId);
         return encodedId;
     }
@@ -215,7 +290,7 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
         }
 
         LOGGER.info("Encoding [{}]", ticket);
-        final byte[] encodedTicketObject = SerializationUtils.serializeAndEncodeObject(this.cipherExecutor, ticket);
+        final byte[] encodedTicketObject = (byte[]) this.cipherExecutor.encode(this.ticketSerializer.serialize(ticket));
         final String encodedTicketId = encodeTicketId(ticket.getId());
         final Ticket encodedTicket = new EncodedTicket(ByteSource.wrap(encodedTicketObject), encodedTicketId);
         LOGGER.info("Created [{}]", encodedTicket);
@@ -242,9 +317,21 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
 
             LOGGER.info("Attempting to decode [{}]", result);
             final EncodedTicket encodedTicket = (EncodedTicket) result;
+            final byte[] encoded = encodedTicket.getEncoded();
+
+            final DecryptedTicket cached = this.decryptedTicketCache.getIfPresent(encodedTicket.getId());
+            final byte[] decrypted;
+            if (cached != null && cached.isDecryptedFrom(encoded)) {
+                this.decryptedTicketCacheHits.incrementAndGet();
+                LOGGER.debug("Found decrypted ticket [{}] in cache", encodedTicket.getId());
+                decrypted = cached.getDecrypted();
+            } else {
+                this.decryptedTicketCacheMisses.incrementAndGet();
+                decrypted = (byte[]) this.cipherExecutor.decode(encoded);
+                this.decryptedTicketCache.put(encodedTicket.getId(), new DecryptedTicket(encoded, decrypted));
+            }
 
-            final Ticket ticket = SerializationUtils.decodeAndDeserializeObject(
-                    encodedTicket.getEncoded(), this.cipherExecutor, Ticket.class);
+            final Ticket ticket = this.ticketSerializer.deserialize(decrypted);
             LOGGER.info("Decoded [{}]", ticket);
             return ticket;
         } catch (final Exception e) {
@@ -267,9 +354,91 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
         return items.stream().map(this::decodeTicket).collect(Collectors.toSet());
     }
 
+    /**
+     * Gets the expected expiration time of the ticket, as calculated by its expiration policy.
+     *
+     * @param ticket the ticket
+     * @return the expiration time, or null if the ticket does not expire or its state is unknown.
+     */
+    protected static ZonedDateTime getExpirationTime(final Ticket ticket) {
+        if (ticket instanceof TicketState && ticket.getExpirationPolicy() != null) {
+            return ticket.getExpirationPolicy().getExpirationTime((TicketState) ticket);
+        }
+        return null;
+    }
+
+    /**
+     * Counters that describe how often ticket id digests and decrypted tickets
+     * were served from cache, as opposed to being computed again.
+     *
+     * @return map of counter names to values
+     */
+    public Map<String, Long> getCacheStatistics() {
+        final Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("ticketIdDigestCacheHits", this.ticketIdDigestCacheHits.get());
+        stats.put("ticketIdDigestCacheMisses", this.ticketIdDigestCacheMisses.get());
+        stats.put("decryptedTicketCacheHits", this.decryptedTicketCacheHits.get());
+        stats.put("decryptedTicketCacheMisses", this.decryptedTicketCacheMisses.get());
+        return stats;
+    }
+
+    /**
+     * Build a lazy stream of items that are fetched page by page.
+     * The page supplier is invoked each time the previous page is exhausted,
+     * and the stream ends once the supplier returns an empty page.
+     *
+     * @param <T>      the type of items
+     * @param nextPage supplier of the next page of items
+     * @return the stream
+     */
+    protected static <T> Stream<T> streamPages(final Supplier<? extends Collection<T>> nextPage) {
+        final Iterator<T> iterator = new Iterator<T>() {
+            private Iterator<T> page = Collections.emptyIterator();
+            private boolean exhausted;
+
+            @Override
+            public boolean hasNext() {
+                while (!this.page.hasNext() && !this.exhausted) {
+                    final Collection<T> results = nextPage.get();
+                    this.exhausted = results == null || results.isEmpty();
+                    this.page = this.exhausted ? Collections.emptyIterator() : results.iterator();
+                }
+                return this.page.hasNext();
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return this.page.next();
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false);
+    }
+
     protected boolean isCipherExecutorEnabled() {
         return this.cipherExecutor != null && this.cipherExecutor.isEnabled();
     }
 
+    /**
+     * Decrypted ticket bytes along with the encoded bytes they were decrypted from.
+     */
+    private static class DecryptedTicket {
+        private final byte[] encoded;
+        private final byte[] decrypted;
+
+        DecryptedTicket(final byte[] encoded, final byte[] decrypted) {
+            this.encoded = encoded;
+            this.decrypted = decrypted;
+        }
 
+        byte[] getDecrypted() {
+            return this.decrypted;
+        }
+
+        boolean isDecryptedFrom(final byte[] bytes) {
+            return this.encoded == bytes || Arrays.equals(this.encoded, bytes);
+        }
+    }
 }
@@ -7,10 +7,16 @@ import org.slf4j.LoggerFactory;
 import org.springframework.util.Assert;
 
 import javax.annotation.PostConstruct;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 /**
  * Implementation of the TicketRegistry that is backed by a ConcurrentHashMap.
@@ -26,6 +32,11 @@ public class DefaultTicketRegistry extends AbstractTicketRegistry {
      */
     private Map<String, Ticket> cache;
 
+    /**
+     * Index of ticket ids by expected expiration time.
+     */
+    private final TicketExpirationWheel expirationWheel = new TicketExpirationWheel();
+
     /**
      * Instantiates a new default ticket registry.
      */
@@ -60,6 +71,7 @@ public class DefaultTicketRegistry extends AbstractTicketRegistry {
 
         LOGGER.debug("Added ticket [{}] to registry.", ticket.getId());
         this.cache.put(ticket.getId(), ticket);
+        this.expirationWheel.schedule(ticket.getId(), getExpirationTime(ticket));
     }
 
     /**
@@ -82,6 +94,7 @@ public class DefaultTicketRegistry extends AbstractTicketRegistry {
 
     @Override
     public boolean deleteSingleTicket(final String ticketId) {
+        this.expirationWheel.remove(ticketId);
         return this.cache.remove(ticketId) != null;
     }
 
@@ -89,6 +102,7 @@ public class DefaultTicketRegistry extends AbstractTicketRegistry {
     public long deleteAll() {
         final int size = this.cache.size();
         this.cache.clear();
+        this.expirationWheel.clear();
         return size;
     }
 
@@ -97,6 +111,44 @@ public class DefaultTicketRegistry extends AbstractTicketRegistry {
         return Collections.unmodifiableCollection(this.cache.values());
     }
 
+    @Override
+    public Stream<Ticket> getTicketsStream(final Predicate<Ticket> predicate, final int pageSize) {
+        return this.cache.values().stream().map(this::decodeTicket).filter(predicate);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Only tickets whose expiration bucket is due are visited. Polled tickets
+     * are placed back onto the expiration wheel so that tickets which are not yet expired,
+     * or could not be removed, are checked again later.</p>
+     */
+    @Override
+    public Stream<Ticket> getExpiredTicketsStream(final int pageSize) {
+        return streamPages(() -> {
+            final ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+            final List<Ticket> expiredTickets = new ArrayList<>();
+            Collection<String> dueTicketIds = this.expirationWheel.poll(now, pageSize);
+            while (!dueTicketIds.isEmpty() && expiredTickets.isEmpty()) {
+                dueTicketIds.forEach(ticketId -> {
+                    final Ticket ticket = decodeTicket(this.cache.get(ticketId));
+                    if (ticket == null) {
+                        return;
+                    }
+                    if (ticket.isExpired()) {
+                        expiredTickets.add(ticket);
+                        this.expirationWheel.reschedule(ticketId, now, now);
+                    } else {
+                        this.expirationWheel.reschedule(ticketId, getExpirationTime(ticket), now);
+                    }
+                });
+                if (expiredTickets.isEmpty()) {
+                    dueTicketIds = this.expirationWheel.poll(now, pageSize);
+                }
+            }
+            return expiredTickets;
+        });
+    }
+
     @Override
     public Ticket updateTicket(final Ticket ticket) {
         addTicket(ticket);
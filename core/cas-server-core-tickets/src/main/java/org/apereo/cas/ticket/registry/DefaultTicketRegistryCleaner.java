@@ -1,5 +1,6 @@
 package org.apereo.cas.ticket.registry;
 
+import com.google.common.collect.Iterators;
 import org.apereo.cas.logout.LogoutManager;
 import org.apereo.cas.ticket.ServiceTicket;
 import org.apereo.cas.ticket.Ticket;
@@ -8,18 +9,24 @@ import org.apereo.cas.ticket.registry.support.LockingStrategy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.Collection;
-import java.util.stream.Collectors;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * This is {@link DefaultTicketRegistryCleaner}.
+ * Expired tickets are processed in bounded batches, each of which is committed in a new
+ * transaction of its own when a transaction manager is available. The cleanup run itself is not
+ * transactional, so a failed batch does not roll back the batches removed before it and locks
+ * are only held for the duration of a batch.
  *
  * @author Misagh Moayyed
  * @since 5.0.0
  */
-@Transactional(transactionManager = "ticketTransactionManager", readOnly = false)
 public class DefaultTicketRegistryCleaner implements TicketRegistryCleaner {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(DefaultTicketRegistryCleaner.class);
@@ -28,16 +35,34 @@ public class DefaultTicketRegistryCleaner implements TicketRegistryCleaner {
     private final TicketRegistry ticketRegistry;
     private final LockingStrategy lockingStrategy;
     private final boolean isCleanerEnabled;
+    private final int pageSize;
+    private final TransactionTemplate transactionTemplate;
 
     public DefaultTicketRegistryCleaner(final LockingStrategy lockingStrategy, 
                                         final LogoutManager logoutManager, 
                                         final TicketRegistry ticketRegistry,
                                         final boolean isCleanerEnabled) {
+        this(lockingStrategy, logoutManager, ticketRegistry, null, isCleanerEnabled, TicketRegistry.DEFAULT_PAGE_SIZE);
+    }
+
+    public DefaultTicketRegistryCleaner(final LockingStrategy lockingStrategy,
+                                        final LogoutManager logoutManager,
+                                        final TicketRegistry ticketRegistry,
+                                        final PlatformTransactionManager transactionManager,
+                                        final boolean isCleanerEnabled,
+                                        final int pageSize) {
 
         this.lockingStrategy = lockingStrategy;
         this.logoutManager = logoutManager;
         this.ticketRegistry = ticketRegistry;
         this.isCleanerEnabled = isCleanerEnabled;
+        this.pageSize = pageSize;
+        if (transactionManager != null) {
+            this.transactionTemplate = new TransactionTemplate(transactionManager);
+            this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        } else {
+            this.transactionTemplate = null;
+        }
     }
 
     @Scheduled(initialDelayString = "${cas.ticket.registry.cleaner.startDelay:20000}",
@@ -74,32 +99,56 @@ public class DefaultTicketRegistryCleaner implements TicketRegistryCleaner {
     }
 
     /**
-     * Clean tickets.
+     * Clean tickets. Tickets that are due for expiration are streamed
+     * from the registry and removed in batches of the configured page size.
      */
     protected void cleanInternal() {
-        final Collection<Ticket> ticketsToRemove = ticketRegistry.getTickets()
-                .stream()
-                .filter(Ticket::isExpired)
-                .collect(Collectors.toSet());
-        LOGGER.debug("[{}] expired tickets found.", ticketsToRemove.size());
-
         int count = 0;
-
-        for (final Ticket ticket : ticketsToRemove) {
-            if (ticket instanceof TicketGrantingTicket) {
-                LOGGER.debug("Cleaning up expired ticket-granting ticket [{}]", ticket.getId());
-                logoutManager.performLogout((TicketGrantingTicket) ticket);
-                count += ticketRegistry.deleteTicket(ticket.getId());
-            } else if (ticket instanceof ServiceTicket) {
-                LOGGER.debug("Cleaning up expired service ticket [{}]", ticket.getId());
-                count += ticketRegistry.deleteTicket(ticket.getId());
-            } else {
-                LOGGER.warn("Unknown ticket type [{}] found to clean", ticket.getClass().getSimpleName());
+        try (Stream<Ticket> ticketsToRemove = ticketRegistry.getExpiredTicketsStream(this.pageSize)) {
+            final Iterator<List<Ticket>> batches = Iterators.partition(ticketsToRemove.iterator(), this.pageSize);
+            while (batches.hasNext()) {
+                final List<Ticket> batch = batches.next();
+                LOGGER.debug("[{}] expired tickets found in batch.", batch.size());
+                count += cleanBatch(batch);
             }
         }
         LOGGER.info("[{}] expired tickets removed.", count);
     }
 
+    /**
+     * Clean a batch of expired tickets as a single unit of work,
+     * committed in a new transaction even if the cleaner is invoked within one.
+     *
+     * @param tickets the tickets
+     * @return the number of tickets removed, including children
+     */
+    protected int cleanBatch(final List<Ticket> tickets) {
+        if (this.transactionTemplate == null) {
+            return tickets.stream().mapToInt(this::cleanTicket).sum();
+        }
+        return this.transactionTemplate.execute(status -> tickets.stream().mapToInt(this::cleanTicket).sum());
+    }
+
+    /**
+     * Clean a single expired ticket.
+     *
+     * @param ticket the ticket
+     * @return the number of tickets removed, including children
+     */
+    protected int cleanTicket(final Ticket ticket) {
+        if (ticket instanceof TicketGrantingTicket) {
+            LOGGER.debug("Cleaning up expired ticket-granting ticket [{}]", ticket.getId());
+            logoutManager.performLogout((TicketGrantingTicket) ticket);
+            return ticketRegistry.deleteTicket(ticket.getId());
+        }
+        if (ticket instanceof ServiceTicket) {
+            LOGGER.debug("Cleaning up expired service ticket [{}]", ticket.getId());
+            return ticketRegistry.deleteTicket(ticket.getId());
+        }
+        LOGGER.warn("Unknown ticket type [{}] found to clean", ticket.getClass().getSimpleName());
+        return 0;
+    }
+
     /**
      * Indicates whether the registry supports automatic ticket cleanup.
      * Generally, a registry that is able to return a collection of available
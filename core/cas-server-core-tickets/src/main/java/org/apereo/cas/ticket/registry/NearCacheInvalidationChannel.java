@@ -0,0 +1,41 @@
+package org.apereo.cas.ticket.registry;
+
+import java.util.function.Consumer;
+
+/**
+ * This is {@link NearCacheInvalidationChannel} that relays ticket invalidation
+ * notices between CAS nodes, so that tickets held in a local near-cache
+ * are dropped once another node modifies or removes them.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public interface NearCacheInvalidationChannel {
+
+    /**
+     * Ticket id that indicates all tickets should be invalidated.
+     */
+    String ALL_TICKETS = "*";
+
+    /**
+     * Notify other nodes that the ticket has changed.
+     *
+     * @param ticketId the ticket id, or {@link #ALL_TICKETS}.
+     */
+    void publish(String ticketId);
+
+    /**
+     * Register a listener that is invoked with ticket ids
+     * published by other nodes.
+     *
+     * @param listener the listener
+     */
+    void subscribe(Consumer<String> listener);
+
+    /**
+     * Remove a listener previously registered via {@link #subscribe(Consumer)}.
+     *
+     * @param listener the listener
+     */
+    void unsubscribe(Consumer<String> listener);
+}
@@ -0,0 +1,236 @@
+package org.apereo.cas.ticket.registry;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.proxy.ProxyGrantingTicket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.util.Assert;
+
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * This is {@link NearCacheTicketRegistry} that decorates a (typically remote) ticket registry
+ * with a bounded local cache of ticket-granting tickets, so that repeated lookups of hot
+ * SSO sessions avoid a network round trip and the cost of decoding the ticket.
+ * <p>Cached entries live no longer than the configured time-to-live, nor past the expiration
+ * time computed by the ticket's own expiration policy. Entries are dropped when the ticket
+ * is updated or deleted through this registry, and the change is broadcast to other nodes
+ * via the {@link NearCacheInvalidationChannel}. Updated tickets are not cached again; the next
+ * lookup reads the current state back from the underlying registry.</p>
+ * <p>Service and proxy tickets are never cached; they are short-lived and a stale copy
+ * on another node could allow them to be used more than once.</p>
+ * <p>The near-cache is only safe when changes can be broadcast to other nodes, so it must be
+ * given a working invalidation channel. Destroying this registry unsubscribes from the channel
+ * and destroys the underlying registry.</p>
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class NearCacheTicketRegistry implements TicketRegistry, DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NearCacheTicketRegistry.class);
+
+    private final TicketRegistry delegate;
+
+    private final NearCacheInvalidationChannel invalidationChannel;
+
+    private final long timeToLiveInMillis;
+
+    private final Cache<String, CachedTicket> cache;
+
+    private final Consumer<String> invalidationListener = this::invalidate;
+
+    /**
+     * Instantiates a new near-cache ticket registry.
+     *
+     * @param delegate            the registry that holds the tickets
+     * @param invalidationChannel the channel used to exchange invalidation notices with other nodes
+     * @param maximumSize         the maximum number of tickets held in the cache
+     * @param timeToLiveInMillis  the maximum time a ticket is kept in the cache
+     */
+    public NearCacheTicketRegistry(final TicketRegistry delegate, final NearCacheInvalidationChannel invalidationChannel,
+                                   final long maximumSize, final long timeToLiveInMillis) {
+        Assert.notNull(delegate, "delegate cannot be null");
+        Assert.notNull(invalidationChannel, "invalidationChannel cannot be null");
+        this.delegate = delegate;
+        this.invalidationChannel = invalidationChannel;
+        this.timeToLiveInMillis = timeToLiveInMillis;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLiveInMillis, TimeUnit.MILLISECONDS)
+                .build();
+        this.invalidationChannel.subscribe(this.invalidationListener);
+    }
+
+    public TicketRegistry getDelegate() {
+        return this.delegate;
+    }
+
+    @Override
+    public void addTicket(final Ticket ticket) {
+        this.delegate.addTicket(ticket);
+        cacheTicket(ticket);
+    }
+
+    @Override
+    public <T extends Ticket> T getTicket(final String ticketId, final Class<T> clazz) {
+        Assert.notNull(clazz, "clazz cannot be null");
+
+        final Ticket ticket = getTicket(ticketId);
+        if (ticket == null) {
+            return null;
+        }
+        if (!clazz.isAssignableFrom(ticket.getClass())) {
+            throw new ClassCastException("Ticket [" + ticket.getId()
+                    + " is of type " + ticket.getClass()
+                    + " when we were expecting " + clazz);
+        }
+        return (T) ticket;
+    }
+
+    @Override
+    public Ticket getTicket(final String ticketId) {
+        if (ticketId == null) {
+            return null;
+        }
+        final CachedTicket cached = this.cache.getIfPresent(ticketId);
+        if (cached != null) {
+            if (cached.isValid()) {
+                LOGGER.trace("Found ticket [{}] in the near-cache", ticketId);
+                return cached.getTicket();
+            }
+            this.cache.invalidate(ticketId);
+        }
+        final Ticket ticket = this.delegate.getTicket(ticketId);
+        cacheTicket(ticket);
+        return ticket;
+    }
+
+    @Override
+    public int deleteTicket(final String ticketId) {
+        this.cache.invalidate(ticketId);
+        final int count = this.delegate.deleteTicket(ticketId);
+        this.invalidationChannel.publish(ticketId);
+        return count;
+    }
+
+    @Override
+    public long deleteAll() {
+        this.cache.invalidateAll();
+        final long count = this.delegate.deleteAll();
+        this.invalidationChannel.publish(NearCacheInvalidationChannel.ALL_TICKETS);
+        return count;
+    }
+
+    @Override
+    public Collection<Ticket> getTickets() {
+        return this.delegate.getTickets();
+    }
+
+    @Override
+    public Stream<Ticket> getTicketsStream(final Predicate<Ticket> predicate, final int pageSize) {
+        return this.delegate.getTicketsStream(predicate, pageSize);
+    }
+
+    @Override
+    public Stream<Ticket> getExpiredTicketsStream(final int pageSize) {
+        return this.delegate.getExpiredTicketsStream(pageSize);
+    }
+
+    @Override
+    public Ticket updateTicket(final Ticket ticket) {
+        this.cache.invalidate(ticket.getId());
+        final Ticket result = this.delegate.updateTicket(ticket);
+        this.invalidationChannel.publish(ticket.getId());
+        return result;
+    }
+
+    @Override
+    public long sessionCount() {
+        return this.delegate.sessionCount();
+    }
+
+    @Override
+    public long serviceTicketCount() {
+        return this.delegate.serviceTicketCount();
+    }
+
+    /**
+     * Drop the ticket from the local cache, without touching the underlying registry.
+     *
+     * @param ticketId the ticket id, or {@link NearCacheInvalidationChannel#ALL_TICKETS}.
+     */
+    public void invalidate(final String ticketId) {
+        if (NearCacheInvalidationChannel.ALL_TICKETS.equals(ticketId)) {
+            LOGGER.debug("Invalidating all tickets in the near-cache");
+            this.cache.invalidateAll();
+        } else {
+            LOGGER.trace("Invalidating ticket [{}] in the near-cache", ticketId);
+            this.cache.invalidate(ticketId);
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        this.invalidationChannel.unsubscribe(this.invalidationListener);
+        this.cache.invalidateAll();
+        if (this.delegate instanceof DisposableBean) {
+            ((DisposableBean) this.delegate).destroy();
+        } else if (this.delegate instanceof AutoCloseable) {
+            ((AutoCloseable) this.delegate).close();
+        }
+    }
+
+    /**
+     * Number of tickets held in the local cache.
+     *
+     * @return the size
+     */
+    public long size() {
+        return this.cache.size();
+    }
+
+    private void cacheTicket(final Ticket ticket) {
+        if (ticket instanceof TicketGrantingTicket && !(ticket instanceof ProxyGrantingTicket) && !ticket.isExpired()) {
+            final ZonedDateTime now = ZonedDateTime.now(ticket.getCreationTime().getZone());
+            ZonedDateTime cacheUntil = now.plusNanos(TimeUnit.MILLISECONDS.toNanos(this.timeToLiveInMillis));
+            final ZonedDateTime expirationTime = AbstractTicketRegistry.getExpirationTime(ticket);
+            if (expirationTime != null && expirationTime.isBefore(cacheUntil)) {
+                cacheUntil = expirationTime;
+            }
+            if (cacheUntil.isAfter(now)) {
+                this.cache.put(ticket.getId(), new CachedTicket(ticket, cacheUntil));
+            }
+        }
+    }
+
+    /**
+     * A ticket held in the cache along with the time it should be evicted.
+     */
+    private static class CachedTicket {
+        private final Ticket ticket;
+        private final ZonedDateTime cacheUntil;
+
+        CachedTicket(final Ticket ticket, final ZonedDateTime cacheUntil) {
+            this.ticket = ticket;
+            this.cacheUntil = cacheUntil;
+        }
+
+        Ticket getTicket() {
+            return this.ticket;
+        }
+
+        boolean isValid() {
+            return ZonedDateTime.now(this.cacheUntil.getZone()).isBefore(this.cacheUntil) && !this.ticket.isExpired();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package org.apereo.cas.ticket.registry;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * This is {@link TicketExpirationWheel} that keeps track of ticket ids grouped
+ * into time buckets by their expected expiration time. It allows the registry
+ * to locate tickets that are due for expiration without walking every ticket.
+ * Bucket boundaries are coarse by design; callers are expected to verify
+ * the actual expiration status of tickets polled from the wheel.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class TicketExpirationWheel {
+
+    /**
+     * Default width of each time bucket in seconds.
+     */
+    public static final long DEFAULT_BUCKET_WIDTH_SECONDS = 10;
+
+    private final long bucketWidthInSeconds;
+
+    private final NavigableMap<Long, Set<String>> buckets = new TreeMap<>();
+
+    private final Map<String, Long> ticketBuckets = new HashMap<>();
+
+    public TicketExpirationWheel() {
+        this(DEFAULT_BUCKET_WIDTH_SECONDS);
+    }
+
+    public TicketExpirationWheel(final long bucketWidthInSeconds) {
+        this.bucketWidthInSeconds = bucketWidthInSeconds;
+    }
+
+    /**
+     * Schedule the ticket for expiration at the given time,
+     * replacing any previously scheduled time.
+     *
+     * @param ticketId       the ticket id
+     * @param expirationTime the expiration time. A null value indicates the ticket never expires.
+     */
+    public synchronized void schedule(final String ticketId, final ZonedDateTime expirationTime) {
+        remove(ticketId);
+        if (expirationTime == null) {
+            return;
+        }
+        final long bucket = getBucket(expirationTime);
+        this.buckets.computeIfAbsent(bucket, k -> new HashSet<>()).add(ticketId);
+        this.ticketBuckets.put(ticketId, bucket);
+    }
+
+    /**
+     * Schedule the ticket for expiration at the given time, making sure the ticket
+     * is not placed in a bucket that is already due at the current time.
+     * This is used to place tickets back onto the wheel once they are polled.
+     *
+     * @param ticketId       the ticket id
+     * @param expirationTime the expiration time. A null value indicates the ticket never expires.
+     * @param now            the current time
+     */
+    public void reschedule(final String ticketId, final ZonedDateTime expirationTime, final ZonedDateTime now) {
+        final ZonedDateTime nextBucket = now.plusSeconds(this.bucketWidthInSeconds);
+        schedule(ticketId, expirationTime != null && expirationTime.isBefore(nextBucket) ? nextBucket : expirationTime);
+    }
+
+    /**
+     * Remove the ticket from the wheel.
+     *
+     * @param ticketId the ticket id
+     */
+    public synchronized void remove(final String ticketId) {
+        final Long bucket = this.ticketBuckets.remove(ticketId);
+        if (bucket != null) {
+            final Set<String> ids = this.buckets.get(bucket);
+            if (ids != null) {
+                ids.remove(ticketId);
+                if (ids.isEmpty()) {
+                    this.buckets.remove(bucket);
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove and return the ids of tickets that are due for expiration
+     * at the given time, up to the given limit.
+     *
+     * @param now   the current time
+     * @param limit the maximum number of ticket ids to return
+     * @return the ticket ids that are due
+     */
+    public synchronized Collection<String> poll(final ZonedDateTime now, final int limit) {
+        final Collection<String> dueTickets = new ArrayList<>();
+        final Iterator<Map.Entry<Long, Set<String>>> it = this.buckets.headMap(getBucket(now), true).entrySet().iterator();
+        while (it.hasNext() && dueTickets.size() < limit) {
+            final Set<String> ids = it.next().getValue();
+            final Iterator<String> idIterator = ids.iterator();
+            while (idIterator.hasNext() && dueTickets.size() < limit) {
+                final String ticketId = idIterator.next();
+                idIterator.remove();
+                this.ticketBuckets.remove(ticketId);
+                dueTickets.add(ticketId);
+            }
+            if (ids.isEmpty()) {
+                it.remove();
+            }
+        }
+        return dueTickets;
+    }
+
+    /**
+     * Remove all tickets from the wheel.
+     */
+    public synchronized void clear() {
+        this.buckets.clear();
+        this.ticketBuckets.clear();
+    }
+
+    /**
+     * Number of tickets tracked by the wheel.
+     *
+     * @return the size
+     */
+    public synchronized int size() {
+        return this.ticketBuckets.size();
+    }
+
+    private long getBucket(final ZonedDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(), this.bucketWidthInSeconds);
+    }
+}
@@ -0,0 +1,164 @@
+package org.apereo.cas.ticket.serialization;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import com.esotericsoftware.kryo.pool.KryoPool;
+import de.javakaffee.kryoserializers.CollectionsEmptyListSerializer;
+import de.javakaffee.kryoserializers.CollectionsEmptyMapSerializer;
+import de.javakaffee.kryoserializers.CollectionsEmptySetSerializer;
+import de.javakaffee.kryoserializers.EnumMapSerializer;
+import de.javakaffee.kryoserializers.EnumSetSerializer;
+import de.javakaffee.kryoserializers.KryoReflectionFactorySupport;
+import de.javakaffee.kryoserializers.RegexSerializer;
+import de.javakaffee.kryoserializers.URISerializer;
+import de.javakaffee.kryoserializers.UUIDSerializer;
+import de.javakaffee.kryoserializers.UnmodifiableCollectionsSerializer;
+import de.javakaffee.kryoserializers.guava.ImmutableListSerializer;
+import de.javakaffee.kryoserializers.guava.ImmutableMapSerializer;
+import de.javakaffee.kryoserializers.guava.ImmutableMultimapSerializer;
+import de.javakaffee.kryoserializers.guava.ImmutableSetSerializer;
+import org.apereo.cas.authentication.BasicCredentialMetaData;
+import org.apereo.cas.authentication.DefaultAuthentication;
+import org.apereo.cas.authentication.DefaultHandlerResult;
+import org.apereo.cas.authentication.RememberMeUsernamePasswordCredential;
+import org.apereo.cas.authentication.UsernamePasswordCredential;
+import org.apereo.cas.authentication.principal.SimplePrincipal;
+import org.apereo.cas.ticket.ProxyGrantingTicketImpl;
+import org.apereo.cas.ticket.ProxyTicketImpl;
+import org.apereo.cas.ticket.ServiceTicketImpl;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.registry.EncodedTicket;
+import org.apereo.cas.ticket.registry.support.kryo.serial.URLSerializer;
+import org.apereo.cas.ticket.registry.support.kryo.serial.ZonedDateTimeTranscoder;
+import org.apereo.cas.ticket.support.AlwaysExpiresExpirationPolicy;
+import org.apereo.cas.ticket.support.HardTimeoutExpirationPolicy;
+import org.apereo.cas.ticket.support.MultiTimeUseOrTimeoutExpirationPolicy;
+import org.apereo.cas.ticket.support.NeverExpiresExpirationPolicy;
+import org.apereo.cas.ticket.support.RememberMeDelegatingExpirationPolicy;
+import org.apereo.cas.ticket.support.ThrottledUseAndTimeoutExpirationPolicy;
+import org.apereo.cas.ticket.support.TicketGrantingTicketExpirationPolicy;
+import org.apereo.cas.ticket.support.TimeoutExpirationPolicy;
+
+import java.net.URI;
+import java.net.URL;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * This is {@link KryoTicketSerializer} that produces a compact binary representation
+ * of tickets using the Kryo serialization framework. Kryo instances are not thread-safe
+ * and are borrowed from a pool for each operation.
+ * <p>Classes are assigned registration ids in the order they are registered,
+ * so all nodes sharing a ticket registry must register the same additional classes
+ * in the same order.</p>
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+@SuppressWarnings("rawtypes")
+public class KryoTicketSerializer implements TicketSerializer {
+
+    private static final int BUFFER_SIZE = 4096;
+
+    private final KryoPool kryoPool;
+
+    public KryoTicketSerializer() {
+        this(Collections.emptyMap());
+    }
+
+    /**
+     * Instantiates a new Kryo ticket serializer.
+     *
+     * @param serializerMap additional types that should be registered with Kryo, mapped to the serializer that handles them.
+     */
+    public KryoTicketSerializer(final Map<Class<?>, Serializer> serializerMap) {
+        this.kryoPool = new KryoPool.Builder(() -> newKryo(serializerMap)).softReferences().build();
+    }
+
+    @Override
+    public byte[] serialize(final Ticket ticket) {
+        return this.kryoPool.run(kryo -> {
+            try (Output output = new Output(BUFFER_SIZE, -1)) {
+                kryo.writeClassAndObject(output, ticket);
+                return output.toBytes();
+            }
+        });
+    }
+
+    @Override
+    public Ticket deserialize(final byte[] data) {
+        return this.kryoPool.run(kryo -> {
+            try (Input input = new Input(data)) {
+                return (Ticket) kryo.readClassAndObject(input);
+            }
+        });
+    }
+
+    private static Kryo newKryo(final Map<Class<?>, Serializer> serializerMap) {
+        final Kryo kryo = new KryoReflectionFactorySupport();
+
+        kryo.register(EncodedTicket.class);
+        kryo.register(TicketGrantingTicketImpl.class);
+        kryo.register(ServiceTicketImpl.class);
+        kryo.register(ProxyGrantingTicketImpl.class);
+        kryo.register(ProxyTicketImpl.class);
+
+        kryo.register(AlwaysExpiresExpirationPolicy.class);
+        kryo.register(HardTimeoutExpirationPolicy.class);
+        kryo.register(MultiTimeUseOrTimeoutExpirationPolicy.class);
+        kryo.register(NeverExpiresExpirationPolicy.class);
+        kryo.register(RememberMeDelegatingExpirationPolicy.class);
+        kryo.register(ThrottledUseAndTimeoutExpirationPolicy.class);
+        kryo.register(TicketGrantingTicketExpirationPolicy.class);
+        kryo.register(TimeoutExpirationPolicy.class);
+
+        kryo.register(DefaultAuthentication.class);
+        kryo.register(BasicCredentialMetaData.class);
+        kryo.register(DefaultHandlerResult.class);
+        kryo.register(SimplePrincipal.class);
+        kryo.register(UsernamePasswordCredential.class);
+        kryo.register(RememberMeUsernamePasswordCredential.class);
+
+        kryo.register(ArrayList.class);
+        kryo.register(HashMap.class);
+        kryo.register(LinkedHashMap.class);
+        kryo.register(HashSet.class);
+        kryo.register(ZonedDateTime.class, new ZonedDateTimeTranscoder());
+        kryo.register(URL.class, new URLSerializer());
+        kryo.register(URI.class, new URISerializer());
+        kryo.register(Pattern.class, new RegexSerializer());
+        kryo.register(UUID.class, new UUIDSerializer());
+        kryo.register(EnumMap.class, new EnumMapSerializer());
+        kryo.register(EnumSet.class, new EnumSetSerializer());
+        kryo.register(Collections.EMPTY_LIST.getClass(), new CollectionsEmptyListSerializer());
+        kryo.register(Collections.EMPTY_MAP.getClass(), new CollectionsEmptyMapSerializer());
+        kryo.register(Collections.EMPTY_SET.getClass(), new CollectionsEmptySetSerializer());
+
+        // from the kryo-serializers library (https://github.com/magro/kryo-serializers)
+        UnmodifiableCollectionsSerializer.registerSerializers(kryo);
+        ImmutableListSerializer.registerSerializers(kryo);
+        ImmutableSetSerializer.registerSerializers(kryo);
+        ImmutableMapSerializer.registerSerializers(kryo);
+        ImmutableMultimapSerializer.registerSerializers(kryo);
+
+        serializerMap.forEach(kryo::register);
+
+        // tickets reference their parent tickets, so object graphs must be preserved
+        kryo.setReferences(true);
+        // catchall for any classes not explicitly registered, such as services and custom credentials
+        kryo.setRegistrationRequired(false);
+        return kryo;
+    }
+}
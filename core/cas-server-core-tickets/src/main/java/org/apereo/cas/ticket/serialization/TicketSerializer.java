@@ -0,0 +1,29 @@
+package org.apereo.cas.ticket.serialization;
+
+import org.apereo.cas.ticket.Ticket;
+
+/**
+ * This is {@link TicketSerializer} that converts tickets to and from
+ * the binary representation kept by ticket registries.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public interface TicketSerializer {
+
+    /**
+     * Serialize the ticket.
+     *
+     * @param ticket the ticket
+     * @return the serialized ticket
+     */
+    byte[] serialize(Ticket ticket);
+
+    /**
+     * Deserialize the ticket.
+     *
+     * @param data the serialized ticket
+     * @return the ticket
+     */
+    Ticket deserialize(byte[] data);
+}
@@ -7,6 +7,8 @@ import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apereo.cas.ticket.TicketState;
 
+import java.time.ZonedDateTime;
+
 /**
  * NeverExpiresExpirationPolicy always answers false when asked if a Ticket is
  * expired. Use this policy when you want a Ticket to live forever, or at least
@@ -32,6 +34,11 @@ public class NeverExpiresExpirationPolicy extends AbstractCasExpirationPolicy {
         return false;
     }
 
+    @Override
+    public ZonedDateTime getExpirationTime(final TicketState ticketState) {
+        return null;
+    }
+
     @JsonIgnore
     @Override
     public Long getTimeToLive() {
@@ -12,6 +12,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.PostConstruct;
+import java.time.ZonedDateTime;
 
 /**
  * Delegates to different expiration policies depending on whether remember me
@@ -70,6 +71,28 @@ public class RememberMeDelegatingExpirationPolicy extends AbstractCasExpirationP
 
     @Override
     public boolean isExpired(final TicketState ticketState) {
+        final ExpirationPolicy policy = getExpirationPolicyFor(ticketState);
+        if (policy == null) {
+            LOGGER.warn("No expiration policy settings are defined");
+            return false;
+        }
+        return policy.isExpired(ticketState);
+    }
+
+    @Override
+    public ZonedDateTime getExpirationTime(final TicketState ticketState) {
+        final ExpirationPolicy policy = getExpirationPolicyFor(ticketState);
+        return policy == null ? null : policy.getExpirationTime(ticketState);
+    }
+
+    /**
+     * Gets the expiration policy that applies to the given ticket state,
+     * based on whether it is associated with a remember-me authentication.
+     *
+     * @param ticketState the ticket state
+     * @return the expiration policy, or null if policies are not defined
+     */
+    protected ExpirationPolicy getExpirationPolicyFor(final TicketState ticketState) {
         if (this.rememberMeExpirationPolicy != null && this.sessionExpirationPolicy != null) {
 
             final Boolean b = (Boolean) ticketState.getAuthentication().getAttributes().
@@ -77,14 +100,13 @@ public class RememberMeDelegatingExpirationPolicy extends AbstractCasExpirationP
 
             if (b == null || b.equals(Boolean.FALSE)) {
                 LOGGER.debug("Ticket is not associated with a remember-me authentication. Invoking [{}]", this.sessionExpirationPolicy);
-                return this.sessionExpirationPolicy.isExpired(ticketState);
+                return this.sessionExpirationPolicy;
             }
 
             LOGGER.debug("Ticket is associated with a remember-me authentication. Invoking [{}]", this.rememberMeExpirationPolicy);
-            return this.rememberMeExpirationPolicy.isExpired(ticketState);
+            return this.rememberMeExpirationPolicy;
         }
-        LOGGER.warn("No expiration policy settings are defined");
-        return false;
+        return null;
     }
 
     @JsonIgnore
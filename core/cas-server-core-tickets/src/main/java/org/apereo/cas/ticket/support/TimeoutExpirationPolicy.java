@@ -66,6 +66,11 @@ public class TimeoutExpirationPolicy extends AbstractCasExpirationPolicy {
         return now.isAfter(expirationTime);
     }
 
+    @Override
+    public ZonedDateTime getExpirationTime(final TicketState ticketState) {
+        return ticketState.getLastTimeUsed().plus(this.timeToKillInSeconds, ChronoUnit.SECONDS);
+    }
+
     @JsonIgnore
     @Override
     public Long getTimeToLive() {
@@ -6,8 +6,13 @@ import org.apereo.cas.ticket.TicketGrantingTicketImplTests;
 import org.apereo.cas.ticket.UnrecognizableServiceForServiceTicketValidationExceptionTests;
 import org.apereo.cas.ticket.proxy.support.Cas10ProxyHandlerTests;
 import org.apereo.cas.ticket.proxy.support.Cas20ProxyHandlerTests;
+import org.apereo.cas.ticket.registry.DefaultTicketRegistryCleanerTests;
 import org.apereo.cas.ticket.registry.DefaultTicketRegistryTests;
 import org.apereo.cas.ticket.registry.DistributedTicketRegistryTests;
+import org.apereo.cas.ticket.registry.EncodedTicketCacheTests;
+import org.apereo.cas.ticket.registry.NearCacheTicketRegistryTests;
+import org.apereo.cas.ticket.registry.TicketExpirationWheelTests;
+import org.apereo.cas.ticket.serialization.KryoTicketSerializerTests;
 import org.apereo.cas.ticket.support.MultiTimeUseOrTimeoutExpirationPolicyTests;
 import org.apereo.cas.ticket.support.RememberMeDelegatingExpirationPolicyTests;
 import org.apereo.cas.ticket.support.ThrottledUseAndTimeoutExpirationPolicyTests;
@@ -29,6 +34,8 @@ import org.junit.runners.Suite;
         ThrottledUseAndTimeoutExpirationPolicyTests.class, TicketGrantingTicketExpirationPolicyTests.class,
         TimeoutExpirationPolicyTests.class, DefaultTicketRegistryTests.class,
         DistributedTicketRegistryTests.class, Cas10ProxyHandlerTests.class,
-        Cas20ProxyHandlerTests.class})
+        Cas20ProxyHandlerTests.class, TicketExpirationWheelTests.class,
+        DefaultTicketRegistryCleanerTests.class, KryoTicketSerializerTests.class,
+        NearCacheTicketRegistryTests.class, EncodedTicketCacheTests.class})
 public class AllTestsSuite {
 }
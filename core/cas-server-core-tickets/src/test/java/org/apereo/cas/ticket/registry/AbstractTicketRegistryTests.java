@@ -14,6 +14,7 @@ import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.stream.Stream;
 
 import static org.junit.Assert.*;
 
@@ -219,6 +220,26 @@ public abstract class AbstractTicketRegistryTests {
         }
     }
 
+    @Test
+    public void verifyStreamTicketsInPages() {
+        for (int i = 0; i < TICKETS_IN_REGISTRY; i++) {
+            final TicketGrantingTicket ticketGrantingTicket = new TicketGrantingTicketImpl("TEST" + i,
+                    CoreAuthenticationTestUtils.getAuthentication(), new NeverExpiresExpirationPolicy());
+            final ServiceTicket st = ticketGrantingTicket.grantServiceTicket("tests" + i,
+                    RegisteredServiceTestUtils.getService(),
+                    new NeverExpiresExpirationPolicy(), false, true);
+            this.ticketRegistry.addTicket(ticketGrantingTicket);
+            this.ticketRegistry.addTicket(st);
+        }
+
+        try (Stream<Ticket> tickets = this.ticketRegistry.getTicketsStream(TicketGrantingTicket.class::isInstance, 3)) {
+            assertEquals(TICKETS_IN_REGISTRY, tickets.count());
+        }
+        try (Stream<Ticket> tickets = this.ticketRegistry.getTicketsStream(t -> true, 3)) {
+            assertEquals(TICKETS_IN_REGISTRY * 2, tickets.count());
+        }
+    }
+
     @Test
     public void verifyDeleteTicketWithChildren() {
         try {
@@ -0,0 +1,109 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.authentication.CoreAuthenticationTestUtils;
+import org.apereo.cas.logout.LogoutManager;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.support.AlwaysExpiresExpirationPolicy;
+import org.junit.Test;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * This is {@link DefaultTicketRegistryCleanerTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class DefaultTicketRegistryCleanerTests {
+
+    @Test
+    public void verifyFailedBatchDoesNotRollBackEarlierBatches() {
+        final AtomicInteger deletions = new AtomicInteger();
+        final DefaultTicketRegistry registry = new DefaultTicketRegistry() {
+            @Override
+            public int deleteTicket(final String ticketId) {
+                if (deletions.incrementAndGet() == 5) {
+                    throw new IllegalStateException("Unable to delete " + ticketId);
+                }
+                return super.deleteTicket(ticketId);
+            }
+        };
+        for (int i = 0; i < 6; i++) {
+            registry.addTicket(new TicketGrantingTicketImpl("TGT-" + i, CoreAuthenticationTestUtils.getAuthentication(),
+                    new AlwaysExpiresExpirationPolicy()));
+        }
+
+        final RecordingTransactionManager transactionManager = new RecordingTransactionManager();
+        final DefaultTicketRegistryCleaner cleaner = new DefaultTicketRegistryCleaner(new NoOpLockingStrategy(),
+                mock(LogoutManager.class), registry, transactionManager, true, 2);
+
+        new TransactionTemplate(transactionManager).execute(status -> {
+            cleaner.clean();
+            assertEquals(2, transactionManager.commits.get());
+            assertEquals(1, transactionManager.rollbacks.get());
+            return null;
+        });
+        assertEquals(2, registry.getTickets().size());
+    }
+
+    /**
+     * Counts commits and rollbacks, and supports suspending an outer transaction.
+     */
+    private static class RecordingTransactionManager extends AbstractPlatformTransactionManager {
+        private static final long serialVersionUID = -2296124958203736487L;
+
+        private final AtomicInteger commits = new AtomicInteger();
+        private final AtomicInteger rollbacks = new AtomicInteger();
+
+        private transient Object active;
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object[]{this.active};
+        }
+
+        @Override
+        protected boolean isExistingTransaction(final Object transaction) {
+            return ((Object[]) transaction)[0] != null;
+        }
+
+        @Override
+        protected void doBegin(final Object transaction, final TransactionDefinition definition) {
+            this.active = transaction;
+        }
+
+        @Override
+        protected Object doSuspend(final Object transaction) {
+            final Object suspended = this.active;
+            this.active = null;
+            return suspended;
+        }
+
+        @Override
+        protected void doResume(final Object transaction, final Object suspendedResources) {
+            this.active = suspendedResources;
+        }
+
+        @Override
+        protected void doCommit(final DefaultTransactionStatus status) {
+            this.commits.incrementAndGet();
+        }
+
+        @Override
+        protected void doRollback(final DefaultTransactionStatus status) {
+            this.rollbacks.incrementAndGet();
+        }
+
+        @Override
+        protected void doCleanupAfterCompletion(final Object transaction) {
+            this.active = null;
+        }
+    }
+}
@@ -1,8 +1,15 @@
 package org.apereo.cas.ticket.registry;
 
+import org.apereo.cas.authentication.CoreAuthenticationTestUtils;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.support.AlwaysExpiresExpirationPolicy;
+import org.apereo.cas.ticket.support.NeverExpiresExpirationPolicy;
 import org.apereo.cas.util.cipher.NoOpCipherExecutor;
 import org.junit.Test;
 
+import java.util.stream.Stream;
+
 import static org.junit.Assert.*;
 
 /**
@@ -23,4 +30,20 @@ public class DefaultTicketRegistryTests extends AbstractTicketRegistryTests {
     public void verifyOtherConstructor() {
         assertNotNull(new DefaultTicketRegistry(10, 10F, 5, NoOpCipherExecutor.getInstance()));
     }
+
+    @Test
+    public void verifyStreamExpiredTickets() {
+        final DefaultTicketRegistry registry = new DefaultTicketRegistry();
+        for (int i = 0; i < 10; i++) {
+            registry.addTicket(new TicketGrantingTicketImpl("TEST" + i, CoreAuthenticationTestUtils.getAuthentication(),
+                    i % 2 == 0 ? new AlwaysExpiresExpirationPolicy() : new NeverExpiresExpirationPolicy()));
+        }
+        try (Stream<Ticket> tickets = registry.getExpiredTicketsStream(3)) {
+            assertEquals(5, tickets.count());
+        }
+        registry.deleteSingleTicket("TEST0");
+        try (Stream<Ticket> tickets = registry.getExpiredTicketsStream(3)) {
+            assertEquals(0, tickets.count());
+        }
+    }
 }
@@ -0,0 +1,102 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.authentication.CoreAuthenticationTestUtils;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.support.NeverExpiresExpirationPolicy;
+import org.apereo.cas.util.cipher.BinaryCipherExecutor;
+import org.junit.Test;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link EncodedTicketCacheTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class EncodedTicketCacheTests {
+
+    @Test
+    public void verifyEncodedTicketsAreCached() {
+        final EncodingTicketRegistry registry = new EncodingTicketRegistry();
+        final Ticket tgt = new TicketGrantingTicketImpl("TGT-1", CoreAuthenticationTestUtils.getAuthentication(),
+                new NeverExpiresExpirationPolicy());
+        registry.addTicket(tgt);
+        final Ticket first = registry.getTicket(tgt.getId());
+        assertEquals(tgt, first);
+        final Ticket second = registry.getTicket(tgt.getId());
+        assertEquals(first, second);
+        assertNotSame(first, second);
+
+        final Map<String, Long> stats = registry.getCacheStatistics();
+        assertEquals(1, stats.get("ticketIdDigestCacheMisses").longValue());
+        assertEquals(2, stats.get("ticketIdDigestCacheHits").longValue());
+        assertEquals(1, stats.get("decryptedTicketCacheMisses").longValue());
+        assertEquals(1, stats.get("decryptedTicketCacheHits").longValue());
+    }
+
+    @Test
+    public void verifyUpdatedTicketIsDecodedAgain() {
+        final EncodingTicketRegistry registry = new EncodingTicketRegistry();
+        final Ticket tgt = new TicketGrantingTicketImpl("TGT-1", CoreAuthenticationTestUtils.getAuthentication(),
+                new NeverExpiresExpirationPolicy());
+        registry.addTicket(tgt);
+        final Ticket first = registry.getTicket(tgt.getId());
+        registry.updateTicket(first);
+        final Ticket second = registry.getTicket(tgt.getId());
+        assertEquals(first, second);
+        assertNotSame(first, second);
+        assertEquals(2, registry.getCacheStatistics().get("decryptedTicketCacheMisses").longValue());
+    }
+
+    /**
+     * Registry that keeps encoded tickets in memory.
+     */
+    private static class EncodingTicketRegistry extends AbstractTicketRegistry {
+        private final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+
+        EncodingTicketRegistry() {
+            setCipherExecutor(new BinaryCipherExecutor("1234567890123456",
+                    "szxK-5_eJjs-aUj-64MpUZ-GPPzGLhYPLGl0wrYjYNVAGva2P0lLe6UGKGM7k8dWxsOVGutZWgvmY3l5oVPO3w", 512, 16));
+        }
+
+        @Override
+        public void addTicket(final Ticket ticket) {
+            final Ticket encoded = encodeTicket(ticket);
+            this.tickets.put(encoded.getId(), encoded);
+        }
+
+        @Override
+        public Ticket getTicket(final String ticketId) {
+            return decodeTicket(this.tickets.get(encodeTicketId(ticketId)));
+        }
+
+        @Override
+        public boolean deleteSingleTicket(final String ticketId) {
+            return this.tickets.remove(encodeTicketId(ticketId)) != null;
+        }
+
+        @Override
+        public long deleteAll() {
+            final int size = this.tickets.size();
+            this.tickets.clear();
+            return size;
+        }
+
+        @Override
+        public Collection<Ticket> getTickets() {
+            return decodeTickets(this.tickets.values());
+        }
+
+        @Override
+        public Ticket updateTicket(final Ticket ticket) {
+            addTicket(ticket);
+            return ticket;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.authentication.CoreAuthenticationTestUtils;
+import org.apereo.cas.services.RegisteredServiceTestUtils;
+import org.apereo.cas.ticket.ServiceTicket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.support.HardTimeoutExpirationPolicy;
+import org.apereo.cas.ticket.support.NeverExpiresExpirationPolicy;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link NearCacheTicketRegistryTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class NearCacheTicketRegistryTests {
+
+    private DefaultTicketRegistry delegate;
+
+    private RecordingChannel channel;
+
+    private NearCacheTicketRegistry registry;
+
+    @Before
+    public void setUp() {
+        this.delegate = new DefaultTicketRegistry();
+        this.channel = new RecordingChannel();
+        this.registry = new NearCacheTicketRegistry(this.delegate, this.channel, 100, 60_000);
+    }
+
+    @Test
+    public void verifyTicketGrantingTicketServedFromCache() {
+        final TicketGrantingTicket tgt = newTicketGrantingTicket("TGT-1");
+        this.registry.addTicket(tgt);
+        this.delegate.deleteSingleTicket(tgt.getId());
+        assertSame(tgt, this.registry.getTicket(tgt.getId(), TicketGrantingTicket.class));
+        assertEquals(1, this.registry.size());
+    }
+
+    @Test
+    public void verifyServiceTicketNotCached() {
+        final TicketGrantingTicket tgt = newTicketGrantingTicket("TGT-1");
+        this.registry.addTicket(tgt);
+        final ServiceTicket st = tgt.grantServiceTicket("ST-1", RegisteredServiceTestUtils.getService(),
+                new NeverExpiresExpirationPolicy(), false, true);
+        this.registry.addTicket(st);
+        assertNotNull(this.registry.getTicket(st.getId()));
+        this.delegate.deleteSingleTicket(st.getId());
+        assertNull(this.registry.getTicket(st.getId()));
+        assertEquals(1, this.registry.size());
+    }
+
+    @Test
+    public void verifyCacheAlignedToExpirationPolicy() {
+        final TicketGrantingTicket tgt = new TicketGrantingTicketImpl("TGT-1",
+                CoreAuthenticationTestUtils.getAuthentication(), new HardTimeoutExpirationPolicy(0));
+        this.registry.addTicket(tgt);
+        assertEquals(0, this.registry.size());
+    }
+
+    @Test
+    public void verifyUpdateAndDeletePublishInvalidation() {
+        final TicketGrantingTicket tgt = newTicketGrantingTicket("TGT-1");
+        this.registry.addTicket(tgt);
+        this.registry.updateTicket(tgt);
+        assertEquals(0, this.registry.size());
+        assertNotNull(this.registry.getTicket(tgt.getId()));
+        assertEquals(1, this.registry.size());
+        assertEquals(1, this.registry.deleteTicket(tgt.getId()));
+        assertEquals(0, this.registry.size());
+        assertNull(this.registry.getTicket(tgt.getId()));
+
+        this.registry.deleteAll();
+        assertEquals(3, this.channel.published.size());
+        assertEquals(NearCacheInvalidationChannel.ALL_TICKETS, this.channel.published.get(2));
+    }
+
+    @Test
+    public void verifyRemoteInvalidation() {
+        final TicketGrantingTicket tgt = newTicketGrantingTicket("TGT-1");
+        this.registry.addTicket(tgt);
+        this.registry.addTicket(newTicketGrantingTicket("TGT-2"));
+        this.channel.listener.accept(tgt.getId());
+        assertEquals(1, this.registry.size());
+        this.channel.listener.accept(NearCacheInvalidationChannel.ALL_TICKETS);
+        assertEquals(0, this.registry.size());
+    }
+
+    @Test
+    public void verifyUpdatedTicketReadFromDelegate() {
+        final TicketGrantingTicket tgt = newTicketGrantingTicket("TGT-1");
+        this.registry.addTicket(tgt);
+        this.registry.updateTicket(tgt);
+        final TicketGrantingTicket current = newTicketGrantingTicket("TGT-1");
+        this.delegate.addTicket(current);
+        assertSame(current, this.registry.getTicket(tgt.getId()));
+    }
+
+    @Test
+    public void verifyDestroyUnsubscribesAndDestroysDelegate() throws Exception {
+        final DisposableTicketRegistry disposable = new DisposableTicketRegistry();
+        final NearCacheTicketRegistry nearCache = new NearCacheTicketRegistry(disposable, this.channel, 100, 60_000);
+        assertNotNull(this.channel.listener);
+        nearCache.destroy();
+        assertNull(this.channel.listener);
+        assertTrue(disposable.destroyed);
+    }
+
+    private static TicketGrantingTicket newTicketGrantingTicket(final String id) {
+        return new TicketGrantingTicketImpl(id, CoreAuthenticationTestUtils.getAuthentication(), new NeverExpiresExpirationPolicy());
+    }
+
+    private static class RecordingChannel implements NearCacheInvalidationChannel {
+        private final List<String> published = new ArrayList<>();
+        private Consumer<String> listener;
+
+        @Override
+        public void publish(final String ticketId) {
+            this.published.add(ticketId);
+        }
+
+        @Override
+        public void subscribe(final Consumer<String> listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void unsubscribe(final Consumer<String> listener) {
+            if (listener == this.listener) {
+                this.listener = null;
+            }
+        }
+    }
+
+    private static class DisposableTicketRegistry extends DefaultTicketRegistry implements DisposableBean {
+        private boolean destroyed;
+
+        @Override
+        public void destroy() {
+            this.destroyed = true;
+        }
+    }
+}
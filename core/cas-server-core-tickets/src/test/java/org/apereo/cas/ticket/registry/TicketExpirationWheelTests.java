@@ -0,0 +1,66 @@
+package org.apereo.cas.ticket.registry;
+
+import org.junit.Test;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link TicketExpirationWheelTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class TicketExpirationWheelTests {
+
+    @Test
+    public void verifyOnlyDueTicketsArePolled() {
+        final TicketExpirationWheel wheel = new TicketExpirationWheel();
+        final ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+        wheel.schedule("TGT-1", now.minusSeconds(30));
+        wheel.schedule("TGT-2", now.minusSeconds(60));
+        wheel.schedule("TGT-3", now.plusHours(1));
+        wheel.schedule("TGT-4", null);
+        assertEquals(3, wheel.size());
+
+        final Collection<String> due = wheel.poll(now, 10);
+        assertEquals(2, due.size());
+        assertTrue(due.contains("TGT-1"));
+        assertTrue(due.contains("TGT-2"));
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    public void verifyPollHonorsLimit() {
+        final TicketExpirationWheel wheel = new TicketExpirationWheel();
+        final ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+        for (int i = 0; i < 5; i++) {
+            wheel.schedule("ST-" + i, now.minusMinutes(i + 1));
+        }
+        assertEquals(2, wheel.poll(now, 2).size());
+        assertEquals(3, wheel.poll(now, 10).size());
+        assertTrue(wheel.poll(now, 10).isEmpty());
+    }
+
+    @Test
+    public void verifyRescheduledTicketIsNotDueImmediately() {
+        final TicketExpirationWheel wheel = new TicketExpirationWheel();
+        final ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+        wheel.reschedule("TGT-1", now.minusMinutes(1), now);
+        assertTrue(wheel.poll(now, 10).isEmpty());
+        assertEquals(1, wheel.poll(now.plusMinutes(1), 10).size());
+    }
+
+    @Test
+    public void verifyRemovedTicketIsNotPolled() {
+        final TicketExpirationWheel wheel = new TicketExpirationWheel();
+        final ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+        wheel.schedule("TGT-1", now.minusMinutes(1));
+        wheel.remove("TGT-1");
+        assertEquals(0, wheel.size());
+        assertTrue(wheel.poll(now, 10).isEmpty());
+    }
+}
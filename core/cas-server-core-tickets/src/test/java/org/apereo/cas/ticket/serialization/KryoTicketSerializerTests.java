@@ -0,0 +1,64 @@
+package org.apereo.cas.ticket.serialization;
+
+import org.apereo.cas.authentication.CoreAuthenticationTestUtils;
+import org.apereo.cas.services.RegisteredServiceTestUtils;
+import org.apereo.cas.ticket.ServiceTicket;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.support.MultiTimeUseOrTimeoutExpirationPolicy;
+import org.apereo.cas.ticket.support.TicketGrantingTicketExpirationPolicy;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link KryoTicketSerializerTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class KryoTicketSerializerTests {
+
+    private final TicketSerializer serializer = new KryoTicketSerializer();
+
+    @Test
+    public void verifyTicketGrantingTicket() {
+        final TicketGrantingTicket tgt = newTicketGrantingTicket();
+        final Ticket result = serializer.deserialize(serializer.serialize(tgt));
+        assertTrue(result instanceof TicketGrantingTicket);
+        final TicketGrantingTicket decoded = (TicketGrantingTicket) result;
+        assertEquals(tgt, decoded);
+        assertEquals(tgt.getAuthentication().getPrincipal(), decoded.getAuthentication().getPrincipal());
+        assertEquals(tgt.getCreationTime(), decoded.getCreationTime());
+        assertEquals(tgt.getServices().keySet(), decoded.getServices().keySet());
+        assertFalse(decoded.isExpired());
+    }
+
+    @Test
+    public void verifyServiceTicketKeepsParent() {
+        final TicketGrantingTicket tgt = newTicketGrantingTicket();
+        final ServiceTicket st = tgt.grantServiceTicket("ST-2", RegisteredServiceTestUtils.getService(),
+                new MultiTimeUseOrTimeoutExpirationPolicy(1, 10), false, false);
+        final ServiceTicket decoded = (ServiceTicket) serializer.deserialize(serializer.serialize(st));
+        assertEquals(st, decoded);
+        assertEquals(st.getService(), decoded.getService());
+        assertEquals(tgt, decoded.getGrantingTicket());
+    }
+
+    @Test
+    public void verifyMoreCompactThanJavaSerialization() {
+        final TicketGrantingTicket tgt = newTicketGrantingTicket();
+        final int kryoSize = serializer.serialize(tgt).length;
+        final int javaSize = new JavaTicketSerializer().serialize(tgt).length;
+        assertTrue("Kryo size " + kryoSize + " is not smaller than " + javaSize, kryoSize < javaSize);
+    }
+
+    private static TicketGrantingTicket newTicketGrantingTicket() {
+        final TicketGrantingTicket tgt = new TicketGrantingTicketImpl("TGT-1", CoreAuthenticationTestUtils.getAuthentication(),
+                new TicketGrantingTicketExpirationPolicy(100, 100));
+        tgt.grantServiceTicket("ST-1", RegisteredServiceTestUtils.getService(),
+                new MultiTimeUseOrTimeoutExpirationPolicy(1, 10), false, true);
+        return tgt;
+    }
+}
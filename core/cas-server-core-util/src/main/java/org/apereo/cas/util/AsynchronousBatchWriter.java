@@ -0,0 +1,279 @@
+package org.apereo.cas.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * This is {@link AsynchronousBatchWriter} that hands items over to a background writer, so that callers
+ * do not wait for items to be stored. Items are held in a bounded queue and are written by a single thread
+ * in batches, in the order they were received. When a batch cannot be written, its items are written one
+ * at a time so that a single bad item does not take the rest of the batch down with it.
+ * <p>When the queue is full, new items either wait for room or are rejected, depending on the
+ * {@link OverflowPolicy}. Rejected items, as well as items that cannot be written, are passed to the
+ * rejection handler if one is defined, and are otherwise discarded. On shutdown, items that are still
+ * queued are written before the writer stops; items that arrive afterwards are written directly.</p>
+ *
+ * @param <T> the type of items written
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class AsynchronousBatchWriter<T> implements DisposableBean {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsynchronousBatchWriter.class);
+
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 30_000;
+
+    /**
+     * What to do with items when the queue is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Wait for room in the queue.
+         */
+        BLOCK,
+        /**
+         * Reject the item.
+         */
+        DROP
+    }
+
+    private final String name;
+    private final Consumer<List<T>> batchWriter;
+    private final Consumer<T> itemWriter;
+    private final Consumer<List<T>> rejectionHandler;
+    private final BlockingQueue<QueuedItem<T>> queue;
+    private final int batchSize;
+    private final long flushIntervalInMillis;
+    private final OverflowPolicy overflowPolicy;
+    private final Thread writer;
+
+    private volatile boolean running = true;
+
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong lastBatchSize = new AtomicLong();
+    private final AtomicLong maximumBatchSize = new AtomicLong();
+    private final AtomicLong lastLag = new AtomicLong();
+    private final AtomicLong maximumLag = new AtomicLong();
+    private final AtomicLong blocked = new AtomicLong();
+    private final AtomicLong blockedTime = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong batchFailures = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    /**
+     * Instantiates a new Asynchronous batch writer.
+     *
+     * @param name                  the name of the writer, used for its thread and in logs
+     * @param batchWriter           writes a batch of items
+     * @param itemWriter            writes a single item, when a batch cannot be written
+     * @param queueCapacity         the maximum number of items waiting to be written
+     * @param batchSize             the maximum number of items written at once
+     * @param flushIntervalInMillis how long the writer waits for a batch to fill up
+     * @param overflowPolicy        what to do with items when the queue is full
+     * @param rejectionHandler      receives items that are rejected or cannot be written; may be {@code null}
+     */
+    public AsynchronousBatchWriter(final String name, final Consumer<List<T>> batchWriter, final Consumer<T> itemWriter,
+                                   final int queueCapacity, final int batchSize, final long flushIntervalInMillis,
+                                   final OverflowPolicy overflowPolicy, final Consumer<List<T>> rejectionHandler) {
+        this.name = name;
+        this.batchWriter = batchWriter;
+        this.itemWriter = itemWriter;
+        this.rejectionHandler = rejectionHandler;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalInMillis = flushIntervalInMillis;
+        this.overflowPolicy = overflowPolicy;
+        this.writer = new Thread(this::writeItems, name);
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Queue the item to be written.
+     *
+     * @param item the item
+     */
+    public void write(final T item) {
+        this.received.incrementAndGet();
+        final QueuedItem<T> queued = new QueuedItem<>(item);
+        if (!this.running) {
+            LOGGER.debug("[{}] is stopped; writing item directly", this.name);
+            writeBatch(Collections.singletonList(queued));
+            return;
+        }
+        if (this.queue.offer(queued)) {
+            return;
+        }
+        if (this.overflowPolicy == OverflowPolicy.BLOCK) {
+            this.blocked.incrementAndGet();
+            final long start = System.currentTimeMillis();
+            try {
+                this.queue.put(queued);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                LOGGER.warn("Interrupted while waiting to queue an item in [{}]", this.name);
+                reject(Collections.singletonList(item));
+            } finally {
+                this.blockedTime.addAndGet(System.currentTimeMillis() - start);
+            }
+        } else {
+            LOGGER.warn("Queue of [{}] is full; rejecting item", this.name);
+            reject(Collections.singletonList(item));
+        }
+    }
+
+    /**
+     * Gets statistics such as the queue depth, the number of items written or dropped, the size of batches,
+     * how often and how long callers waited for room in the queue, and how long items waited before they were written.
+     *
+     * @return the statistics
+     */
+    public Map<String, Long> getStatistics() {
+        final Map<String, Long> stats = new LinkedHashMap<>();
+        final long batchCount = this.batches.get();
+        stats.put("queueDepth", (long) this.queue.size());
+        stats.put("received", this.received.get());
+        stats.put("written", this.written.get());
+        stats.put("batches", batchCount);
+        stats.put("averageBatchSize", batchCount == 0 ? 0 : this.written.get() / batchCount);
+        stats.put("lastBatchSize", this.lastBatchSize.get());
+        stats.put("maximumBatchSize", this.maximumBatchSize.get());
+        stats.put("lastLagMillis", this.lastLag.get());
+        stats.put("maximumLagMillis", this.maximumLag.get());
+        stats.put("blocked", this.blocked.get());
+        stats.put("blockedMillis", this.blockedTime.get());
+        stats.put("dropped", this.dropped.get());
+        stats.put("batchFailures", this.batchFailures.get());
+        stats.put("failures", this.failures.get());
+        return stats;
+    }
+
+    /**
+     * Stop accepting items into the queue, and wait for queued items to be written.
+     *
+     * @throws Exception the exception
+     */
+    @Override
+    public void destroy() throws Exception {
+        this.running = false;
+        this.writer.join(SHUTDOWN_TIMEOUT_MILLIS);
+        if (this.writer.isAlive()) {
+            LOGGER.warn("[{}] did not finish within [{}] ms; [{}] item(s) remain queued",
+                    this.name, SHUTDOWN_TIMEOUT_MILLIS, this.queue.size());
+            return;
+        }
+        final List<QueuedItem<T>> remaining = new ArrayList<>();
+        this.queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            writeBatch(remaining);
+        }
+    }
+
+    private void writeItems() {
+        final List<QueuedItem<T>> batch = new ArrayList<>(this.batchSize);
+        while (this.running || !this.queue.isEmpty()) {
+            try {
+                final QueuedItem<T> first = this.running
+                        ? this.queue.poll(this.flushIntervalInMillis, TimeUnit.MILLISECONDS)
+                        : this.queue.poll();
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                this.queue.drainTo(batch, this.batchSize - 1);
+                writeBatch(batch);
+            } catch (final InterruptedException e) {
+                LOGGER.warn("[{}] is interrupted with [{}] queued item(s)", this.name, this.queue.size());
+                Thread.currentThread().interrupt();
+                return;
+            } catch (final Exception e) {
+                LOGGER.error("Unexpected error in [{}]: [{}]", this.name, e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+        LOGGER.debug("[{}] has stopped", this.name);
+    }
+
+    private void writeBatch(final List<QueuedItem<T>> batch) {
+        final List<T> items = new ArrayList<>(batch.size());
+        batch.forEach(i -> items.add(i.item));
+        try {
+            this.batchWriter.accept(items);
+            recordWritten(items.size(), batch.get(0).queuedAt);
+        } catch (final Exception e) {
+            if (items.size() == 1) {
+                fail(items, e);
+                return;
+            }
+            this.batchFailures.incrementAndGet();
+            LOGGER.warn("[{}] is unable to write a batch of [{}] item(s): [{}]; writing items one at a time",
+                    this.name, items.size(), e.getMessage());
+            int count = 0;
+            for (final T item : items) {
+                try {
+                    this.itemWriter.accept(item);
+                    count++;
+                } catch (final Exception ex) {
+                    fail(Collections.singletonList(item), ex);
+                }
+            }
+            if (count > 0) {
+                recordWritten(count, batch.get(0).queuedAt);
+            }
+        }
+    }
+
+    private void recordWritten(final int count, final long queuedAt) {
+        final long lag = System.currentTimeMillis() - queuedAt;
+        this.written.addAndGet(count);
+        this.batches.incrementAndGet();
+        this.lastBatchSize.set(count);
+        this.maximumBatchSize.accumulateAndGet(count, Math::max);
+        this.lastLag.set(lag);
+        this.maximumLag.accumulateAndGet(lag, Math::max);
+    }
+
+    private void fail(final List<T> items, final Exception e) {
+        this.failures.addAndGet(items.size());
+        LOGGER.error("[{}] is unable to write [{}] item(s): [{}]", this.name, items.size(), e.getMessage(), e);
+        if (this.rejectionHandler != null) {
+            this.rejectionHandler.accept(items);
+        }
+    }
+
+    private void reject(final List<T> items) {
+        if (this.rejectionHandler != null) {
+            this.rejectionHandler.accept(items);
+        } else {
+            this.dropped.addAndGet(items.size());
+        }
+    }
+
+    /**
+     * An item along with the time it was queued.
+     *
+     * @param <T> the type of the item
+     */
+    private static class QueuedItem<T> {
+        private final T item;
+        private final long queuedAt = System.currentTimeMillis();
+
+        QueuedItem(final T item) {
+            this.item = item;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package org.apereo.cas.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link AsynchronousBatchWriterTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class AsynchronousBatchWriterTests {
+
+    private final List<Integer> written = Collections.synchronizedList(new ArrayList<>());
+    private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+    private final List<Integer> rejected = Collections.synchronizedList(new ArrayList<>());
+
+    @Test
+    public void verifyItemsAreWrittenInBatchesAndInOrder() throws Exception {
+        final AsynchronousBatchWriter<Integer> writer = new AsynchronousBatchWriter<>("test-writer", this::writeBatch,
+                this::writeItem, 100, 10, 50, AsynchronousBatchWriter.OverflowPolicy.BLOCK, null);
+        for (int i = 0; i < 25; i++) {
+            writer.write(i);
+        }
+        writer.destroy();
+
+        assertEquals(25, this.written.size());
+        for (int i = 0; i < 25; i++) {
+            assertEquals(Integer.valueOf(i), this.written.get(i));
+        }
+        assertTrue(this.batchSizes.stream().allMatch(size -> size <= 10));
+        assertEquals(Long.valueOf(25), writer.getStatistics().get("written"));
+    }
+
+    @Test
+    public void verifyFailedBatchIsWrittenItemByItem() throws Exception {
+        final AsynchronousBatchWriter<Integer> writer = new AsynchronousBatchWriter<>("test-writer", items -> {
+            if (items.contains(3)) {
+                throw new IllegalArgumentException("Unable to write batch");
+            }
+            writeBatch(items);
+        }, this::writeItem, 100, 10, 50, AsynchronousBatchWriter.OverflowPolicy.BLOCK, this.rejected::addAll);
+        for (int i = 0; i < 5; i++) {
+            writer.write(i);
+        }
+        writer.destroy();
+
+        assertEquals(4, this.written.size());
+        assertFalse(this.written.contains(3));
+        assertEquals(Collections.singletonList(3), this.rejected);
+        assertEquals(Long.valueOf(4), writer.getStatistics().get("written"));
+        assertEquals(Long.valueOf(1), writer.getStatistics().get("failures"));
+    }
+
+    @Test
+    public void verifyItemsAreRejectedWhenQueueIsFull() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AsynchronousBatchWriter<Integer> writer = new AsynchronousBatchWriter<>("test-writer", items -> {
+            try {
+                latch.await(5, TimeUnit.SECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            writeBatch(items);
+        }, this::writeItem, 2, 1, 10, AsynchronousBatchWriter.OverflowPolicy.DROP, this.rejected::addAll);
+        for (int i = 0; i < 10; i++) {
+            writer.write(i);
+        }
+        latch.countDown();
+        writer.destroy();
+
+        assertFalse(this.rejected.isEmpty());
+        assertEquals(10, this.written.size() + this.rejected.size());
+        assertEquals(Long.valueOf(0), writer.getStatistics().get("dropped"));
+    }
+
+    private void writeBatch(final List<Integer> items) {
+        this.batchSizes.add(items.size());
+        this.written.addAll(items);
+    }
+
+    private void writeItem(final Integer item) {
+        if (item == 3) {
+            throw new IllegalArgumentException("Unable to write item " + item);
+        }
+        this.written.add(item);
+    }
+}
@@ -38,6 +38,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * An abstract implementation of the {@link CentralAuthenticationService} that provides access to
@@ -184,9 +185,14 @@ public abstract class AbstractCentralAuthenticationService implements CentralAut
     @Counted(name = "GET_TICKETS_COUNTER", monotonic = true)
     @Override
     public Collection<Ticket> getTickets(final Predicate<Ticket> predicate) {
-        return this.ticketRegistry.getTickets().stream()
-                .filter(predicate)
-                .collect(Collectors.toSet());
+        try (Stream<Ticket> tickets = getTicketsStream(predicate)) {
+            return tickets.collect(Collectors.toSet());
+        }
+    }
+
+    @Override
+    public Stream<Ticket> getTicketsStream(final Predicate<Ticket> predicate) {
+        return this.ticketRegistry.getTicketsStream(predicate);
     }
 
     /**
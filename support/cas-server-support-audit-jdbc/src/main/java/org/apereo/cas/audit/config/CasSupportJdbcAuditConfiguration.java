@@ -1,9 +1,13 @@
 package org.apereo.cas.audit.config;
 
+import com.codahale.metrics.MetricRegistry;
 import org.apache.commons.lang3.StringUtils;
 import org.apereo.cas.audit.entity.AuditTrailEntity;
+import org.apereo.cas.audit.spi.AsynchronousAuditTrailManager;
 import org.apereo.cas.audit.spi.DefaultDelegatingAuditTrailManager;
 import org.apereo.cas.audit.spi.DelegatingAuditTrailManager;
+import org.apereo.cas.audit.spi.JdbcBatchAuditTrailManager;
+import org.apereo.cas.authentication.support.StatisticsGaugeSet;
 import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.configuration.model.core.audit.AuditProperties;
 import org.apereo.cas.configuration.model.support.jpa.JpaConfigDataHolder;
@@ -11,7 +15,9 @@ import org.apereo.cas.configuration.support.Beans;
 import org.apereo.inspektr.audit.support.JdbcAuditTrailManager;
 import org.apereo.inspektr.audit.support.MaxAgeWhereClauseMatchCriteria;
 import org.apereo.inspektr.audit.support.WhereClauseMatchCriteria;
+import org.springframework.beans.factory.BeanCreationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.context.config.annotation.RefreshScope;
 import org.springframework.context.annotation.Bean;
@@ -25,6 +31,7 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
 import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.sql.DataSource;
+import java.io.IOException;
 
 /**
  * This is {@link CasSupportJdbcAuditConfiguration}.
@@ -41,12 +48,13 @@ public class CasSupportJdbcAuditConfiguration {
     @Autowired
     private CasConfigurationProperties casProperties;
 
+    @Autowired(required = false)
+    @Qualifier("metrics")
+    private MetricRegistry metrics;
+
     @Bean(name = {"jdbcAuditTrailManager", "auditTrailManager"})
     public DelegatingAuditTrailManager jdbcAuditTrailManager() {
         final AuditProperties.Jdbc jdbc = casProperties.getAudit().getJdbc();
-        final JdbcAuditTrailManager t = new JdbcAuditTrailManager(inspektrAuditTransactionTemplate());
-        t.setCleanupCriteria(auditCleanupCriteria());
-        t.setDataSource(inspektrAuditTrailDataSource());
         String tableName = AuditTrailEntity.AUDIT_TRAIL_TABLE_NAME;
         if (StringUtils.isNotBlank(jdbc.getDefaultSchema())) {
             tableName = jdbc.getDefaultSchema() + '.' + tableName;
@@ -54,6 +62,26 @@ public class CasSupportJdbcAuditConfiguration {
         if (StringUtils.isNotBlank(jdbc.getDefaultCatalog())) {
             tableName = jdbc.getDefaultCatalog() + '.' + tableName;
         }
+
+        final AuditProperties.Asynchronous async = jdbc.getAsynchronous();
+        if (async.isEnabled()) {
+            final JdbcBatchAuditTrailManager t = new JdbcBatchAuditTrailManager(inspektrAuditTransactionTemplate(),
+                    inspektrAuditTrailDataSource(), tableName);
+            try {
+                final AsynchronousAuditTrailManager manager = new AsynchronousAuditTrailManager(t,
+                        async.getQueueCapacity(), async.getBatchSize(), async.getFlushInterval(),
+                        AsynchronousAuditTrailManager.OverflowPolicy.valueOf(async.getOverflowPolicy().toUpperCase()),
+                        async.getSpillFile().getFile());
+                StatisticsGaugeSet.register(this.metrics, "cas.audit.jdbc.asynchronous", manager::getStatistics);
+                return new DefaultDelegatingAuditTrailManager(manager);
+            } catch (final IOException e) {
+                throw new BeanCreationException("Unable to locate audit spill file " + async.getSpillFile(), e);
+            }
+        }
+
+        final JdbcAuditTrailManager t = new JdbcAuditTrailManager(inspektrAuditTransactionTemplate());
+        t.setCleanupCriteria(auditCleanupCriteria());
+        t.setDataSource(inspektrAuditTrailDataSource());
         t.setTableName(tableName);
         return new DefaultDelegatingAuditTrailManager(t);
     }
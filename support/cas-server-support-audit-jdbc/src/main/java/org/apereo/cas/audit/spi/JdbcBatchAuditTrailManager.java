@@ -0,0 +1,67 @@
+package org.apereo.cas.audit.spi;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apereo.inspektr.audit.AuditActionContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This is {@link JdbcBatchAuditTrailManager} that inserts audit records into the audit trail table
+ * using JDBC batch inserts, one transaction per batch. Records are stored in the same columns
+ * and with the same column length limits as {@link org.apereo.inspektr.audit.support.JdbcAuditTrailManager}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class JdbcBatchAuditTrailManager implements BatchAuditTrailManager {
+
+    private static final int DEFAULT_COLUMN_LENGTH = 100;
+
+    private static final String INSERT_SQL_TEMPLATE = "INSERT INTO %s "
+            + "(AUD_USER, AUD_CLIENT_IP, AUD_SERVER_IP, AUD_RESOURCE, AUD_ACTION, APPLIC_CD, AUD_DATE) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final String insertSql;
+
+    private int columnLength = DEFAULT_COLUMN_LENGTH;
+
+    public JdbcBatchAuditTrailManager(final TransactionTemplate transactionTemplate, final DataSource dataSource,
+                                      final String tableName) {
+        this.transactionTemplate = transactionTemplate;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.insertSql = String.format(INSERT_SQL_TEMPLATE, tableName);
+    }
+
+    @Override
+    public void record(final AuditActionContext auditActionContext) {
+        record(Collections.singletonList(auditActionContext));
+    }
+
+    @Override
+    public void record(final List<AuditActionContext> auditActionContexts) {
+        final List<Object[]> rows = new ArrayList<>(auditActionContexts.size());
+        for (final AuditActionContext ctx : auditActionContexts) {
+            rows.add(new Object[]{
+                    StringUtils.substring(ctx.getPrincipal(), 0, this.columnLength),
+                    ctx.getClientIpAddress(),
+                    ctx.getServerIpAddress(),
+                    StringUtils.substring(ctx.getResourceOperatedUpon(), 0, this.columnLength),
+                    ctx.getActionPerformed(),
+                    ctx.getApplicationCode(),
+                    new Timestamp(ctx.getWhenActionWasPerformed().getTime())});
+        }
+        this.transactionTemplate.execute(status -> this.jdbcTemplate.batchUpdate(this.insertSql, rows));
+    }
+
+    public void setColumnLength(final int columnLength) {
+        this.columnLength = columnLength;
+    }
+}
@@ -1,5 +1,6 @@
 package org.apereo.cas.ticket.registry;
 
+import com.couchbase.client.java.AsyncBucket;
 import com.couchbase.client.java.document.SerializableDocument;
 import com.couchbase.client.java.view.DefaultView;
 import com.couchbase.client.java.view.View;
@@ -18,6 +19,7 @@ import org.apereo.cas.ticket.proxy.ProxyTicket;
 import org.apereo.cas.ticket.refreshtoken.RefreshToken;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import rx.Observable;
 
 import javax.annotation.PreDestroy;
 import java.util.ArrayList;
@@ -161,6 +163,30 @@ public class CouchbaseTicketRegistry extends AbstractTicketRegistry {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>Removal requests for all tickets are issued through the asynchronous
+     * bucket API so they share the network round trip.</p>
+     */
+    @Override
+    public int deleteTickets(final Collection<String> ticketIds) {
+        LOGGER.debug("Deleting tickets [{}]", ticketIds);
+        try {
+            final AsyncBucket bucket = this.couchbase.bucket().async();
+            return Observable.from(ticketIds)
+                    .flatMap(ticketId -> bucket.remove(ticketId).onErrorResumeNext(e -> {
+                        LOGGER.debug("Unable to remove ticket [{}]: [{}]", ticketId, e.getMessage());
+                        return Observable.empty();
+                    }))
+                    .count()
+                    .toBlocking()
+                    .single();
+        } catch (final Exception e) {
+            LOGGER.error("Failed deleting [{}]: [{}]", ticketIds, e);
+            return 0;
+        }
+    }
+
     @Override
     public long deleteAll() {
         final Iterator<ViewRow> grantingTicketsIt = getViewResultIteratorForPrefixedTickets(TicketGrantingTicket.PREFIX + '-').iterator();
@@ -11,6 +11,7 @@ import org.apereo.cas.configuration.model.support.ehcache.EhcacheProperties;
 import org.apereo.cas.configuration.support.Beans;
 import org.apereo.cas.ticket.registry.EhCacheTicketRegistry;
 import org.apereo.cas.ticket.registry.TicketRegistry;
+import org.apereo.cas.ticket.serialization.TicketSerializer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -35,6 +36,10 @@ public class EhcacheTicketRegistryConfiguration {
 
     @Autowired
     private CasConfigurationProperties casProperties;
+
+    @Autowired
+    @Qualifier("ticketSerializer")
+    private TicketSerializer ticketSerializer;
     
     @RefreshScope
     @Bean
@@ -96,6 +101,8 @@ public class EhcacheTicketRegistryConfiguration {
     @Bean(name = {"ehcacheTicketRegistry", "ticketRegistry"})
     public TicketRegistry ehcacheTicketRegistry(@Qualifier("ehcacheTicketsCache") final Cache ehcacheTicketsCache) {
         final CryptographyProperties crypto = casProperties.getTicket().getRegistry().getEhcache().getCrypto();
-        return new EhCacheTicketRegistry(ehcacheTicketsCache, Beans.newTicketRegistryCipherExecutor(crypto));
+        final EhCacheTicketRegistry r = new EhCacheTicketRegistry(ehcacheTicketsCache, Beans.newTicketRegistryCipherExecutor(crypto));
+        r.setTicketSerializer(this.ticketSerializer);
+        return r;
     }
 }
@@ -1,5 +1,6 @@
 package org.apereo.cas.ticket.registry;
 
+import org.apereo.cas.config.CasCoreTicketSerializationConfiguration;
 import org.apereo.cas.config.EhcacheTicketRegistryConfiguration;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,7 +17,7 @@ import org.springframework.test.context.junit4.SpringRunner;
  * @since 3.0.0
  */
 @RunWith(SpringRunner.class)
-@SpringBootTest(classes = {EhcacheTicketRegistryConfiguration.class, RefreshAutoConfiguration.class})
+@SpringBootTest(classes = {EhcacheTicketRegistryConfiguration.class, RefreshAutoConfiguration.class, CasCoreTicketSerializationConfiguration.class})
 @ContextConfiguration(locations = "classpath:ticketRegistry.xml")
 public class EhCacheTicketRegistryTests extends AbstractTicketRegistryTests {
 
@@ -0,0 +1,156 @@
+package org.apereo.cas.impl.calcs;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apereo.cas.authentication.adaptive.geo.GeoLocationRequest;
+import org.apereo.cas.support.events.dao.CasEvent;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * This is {@link PrincipalAuthenticationHistory} that keeps a rolling summary of the recent
+ * authentication events of a single principal. Events are counted by client ip address,
+ * user agent, geolocation and hour of day as they are added, and are subtracted again once
+ * they fall out of the recent history window, so that risk calculators can look up how often
+ * a value was seen without scanning through every event.
+ * <p>Ip addresses and user agents are compared regardless of case.</p>
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class PrincipalAuthenticationHistory {
+    private static final int HOURS_IN_DAY = 24;
+
+    private final long daysInRecentHistory;
+    private final Deque<Entry> entries = new ArrayDeque<>();
+    private final Map<String, Long> clientIpAddresses = new HashMap<>();
+    private final Map<String, Long> agents = new HashMap<>();
+    private final Map<GeoLocationRequest, Long> geoLocations = new HashMap<>();
+    private final long[] hours = new long[HOURS_IN_DAY];
+
+    /**
+     * Instantiates a new Principal authentication history.
+     *
+     * @param events              the events found for the principal
+     * @param daysInRecentHistory the number of days events are kept for
+     */
+    public PrincipalAuthenticationHistory(final Collection<CasEvent> events, final long daysInRecentHistory) {
+        this.daysInRecentHistory = daysInRecentHistory;
+        events.stream()
+                .map(Entry::new)
+                .sorted(Comparator.comparing(e -> e.creationTime))
+                .collect(Collectors.toList())
+                .forEach(this::add);
+    }
+
+    /**
+     * Add an event to the history.
+     *
+     * @param event the event
+     */
+    public synchronized void add(final CasEvent event) {
+        add(new Entry(event));
+    }
+
+    /**
+     * Gets the number of events in the recent history.
+     *
+     * @return the count
+     */
+    public synchronized long getCount() {
+        expire();
+        return this.entries.size();
+    }
+
+    /**
+     * Gets the number of events recorded from the given client ip address.
+     *
+     * @param clientIpAddress the client ip address
+     * @return the count
+     */
+    public synchronized long getCountForClientIpAddress(final String clientIpAddress) {
+        expire();
+        return clientIpAddress == null ? 0 : this.clientIpAddresses.getOrDefault(StringUtils.lowerCase(clientIpAddress), 0L);
+    }
+
+    /**
+     * Gets the number of events recorded from the given user agent.
+     *
+     * @param agent the agent
+     * @return the count
+     */
+    public synchronized long getCountForAgent(final String agent) {
+        expire();
+        return agent == null ? 0 : this.agents.getOrDefault(StringUtils.lowerCase(agent), 0L);
+    }
+
+    /**
+     * Gets the number of events recorded from the given geolocation.
+     *
+     * @param location the location
+     * @return the count
+     */
+    public synchronized long getCountForGeoLocation(final GeoLocationRequest location) {
+        expire();
+        return this.geoLocations.getOrDefault(location, 0L);
+    }
+
+    /**
+     * Gets the number of events recorded within the given hour of day.
+     *
+     * @param hour the hour of day
+     * @return the count
+     */
+    public synchronized long getCountForHour(final int hour) {
+        expire();
+        return this.hours[Math.floorMod(hour, HOURS_IN_DAY)];
+    }
+
+    private void add(final Entry entry) {
+        this.entries.addLast(entry);
+        increment(this.clientIpAddresses, entry.clientIpAddress, 1);
+        increment(this.agents, entry.agent, 1);
+        increment(this.geoLocations, entry.geoLocation, 1);
+        this.hours[entry.creationTime.getHour()]++;
+    }
+
+    private void expire() {
+        final ZonedDateTime cutoff = ZonedDateTime.now().minusDays(this.daysInRecentHistory);
+        while (!this.entries.isEmpty() && this.entries.peekFirst().creationTime.isBefore(cutoff)) {
+            final Entry entry = this.entries.removeFirst();
+            increment(this.clientIpAddresses, entry.clientIpAddress, -1);
+            increment(this.agents, entry.agent, -1);
+            increment(this.geoLocations, entry.geoLocation, -1);
+            this.hours[entry.creationTime.getHour()]--;
+        }
+    }
+
+    private static <K> void increment(final Map<K, Long> counts, final K key, final long delta) {
+        if (key != null) {
+            counts.merge(key, delta, (a, b) -> a + b == 0 ? null : a + b);
+        }
+    }
+
+    /**
+     * The parts of an event that are counted.
+     */
+    private static class Entry {
+        private final ZonedDateTime creationTime;
+        private final String clientIpAddress;
+        private final String agent;
+        private final GeoLocationRequest geoLocation;
+
+        Entry(final CasEvent event) {
+            this.creationTime = event.getCreationTime();
+            this.clientIpAddress = StringUtils.lowerCase(event.getClientIpAddress());
+            this.agent = StringUtils.lowerCase(event.getAgent());
+            this.geoLocation = event.getGeoLocation();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package org.apereo.cas.impl.calcs;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import org.apereo.cas.support.events.CasTicketGrantingTicketCreatedEvent;
+import org.apereo.cas.support.events.dao.CasEvent;
+import org.apereo.cas.support.events.dao.CasEventRepository;
+import org.apereo.cas.web.support.WebUtils;
+import org.apereo.inspektr.common.web.ClientInfo;
+import org.apereo.inspektr.common.web.ClientInfoHolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This is {@link PrincipalAuthenticationHistoryCache} that holds the {@link PrincipalAuthenticationHistory}
+ * of recently seen principals. The history of a principal is fetched from the event repository once,
+ * and is shared by all risk calculators that evaluate the same authentication request.
+ * Ticket-granting ticket events published while the history is cached are added to it as they happen.
+ * Cached histories expire after a while, so that events recorded by other CAS nodes are eventually picked up.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class PrincipalAuthenticationHistoryCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PrincipalAuthenticationHistoryCache.class);
+
+    private final CasEventRepository casEventRepository;
+    private final long daysInRecentHistory;
+    private final LoadingCache<String, PrincipalAuthenticationHistory> cache;
+
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong updates = new AtomicLong();
+
+    /**
+     * Instantiates a new Principal authentication history cache.
+     *
+     * @param casEventRepository    the cas event repository
+     * @param daysInRecentHistory   the number of days of events to examine
+     * @param expirationInMillis    how long a history is cached for
+     * @param maximumSize           the maximum number of principals cached
+     */
+    public PrincipalAuthenticationHistoryCache(final CasEventRepository casEventRepository, final long daysInRecentHistory,
+                                               final long expirationInMillis, final long maximumSize) {
+        this.casEventRepository = casEventRepository;
+        this.daysInRecentHistory = daysInRecentHistory;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expirationInMillis, TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build(new CacheLoader<String, PrincipalAuthenticationHistory>() {
+                    @Override
+                    public PrincipalAuthenticationHistory load(final String principal) throws Exception {
+                        return loadHistory(principal);
+                    }
+                });
+    }
+
+    /**
+     * Gets the authentication history of the principal.
+     *
+     * @param principal the principal
+     * @return the history
+     */
+    public PrincipalAuthenticationHistory get(final String principal) {
+        return this.cache.getUnchecked(principal);
+    }
+
+    /**
+     * Add the event to the history of its principal, if the history is cached.
+     *
+     * @param event the event
+     */
+    @EventListener
+    public void handleCasTicketGrantingTicketCreatedEvent(final CasTicketGrantingTicketCreatedEvent event) {
+        final String principal = event.getTicketGrantingTicket().getAuthentication().getPrincipal().getId();
+        final PrincipalAuthenticationHistory history = this.cache.getIfPresent(principal);
+        if (history != null) {
+            final CasEvent dto = new CasEvent();
+            dto.setType(event.getClass().getName());
+            dto.putCreationTime(event.getTicketGrantingTicket().getCreationTime());
+            dto.setPrincipalId(principal);
+
+            final ClientInfo clientInfo = ClientInfoHolder.getClientInfo();
+            if (clientInfo != null) {
+                dto.putClientIpAddress(clientInfo.getClientIpAddress());
+            }
+            dto.putAgent(WebUtils.getHttpServletRequestUserAgent());
+            dto.putGeoLocation(WebUtils.getHttpServletRequestGeoLocation());
+
+            history.add(dto);
+            this.updates.incrementAndGet();
+        }
+    }
+
+    /**
+     * Remove all cached histories.
+     */
+    public void invalidateAll() {
+        this.cache.invalidateAll();
+    }
+
+    /**
+     * Gets statistics about the number of histories loaded from the event repository,
+     * the number of events added to cached histories, and cache hits and misses.
+     *
+     * @return the statistics
+     */
+    public Map<String, Long> getStatistics() {
+        final Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("size", this.cache.size());
+        stats.put("loads", this.loads.get());
+        stats.put("updates", this.updates.get());
+        stats.put("hits", this.cache.stats().hitCount());
+        stats.put("misses", this.cache.stats().missCount());
+        stats.put("evictions", this.cache.stats().evictionCount());
+        return stats;
+    }
+
+    private PrincipalAuthenticationHistory loadHistory(final String principal) {
+        final String type = CasTicketGrantingTicketCreatedEvent.class.getName();
+        LOGGER.debug("Retrieving events of type [{}] for [{}]", type, principal);
+        final ZonedDateTime date = ZonedDateTime.now().minusDays(this.daysInRecentHistory);
+        final Collection<CasEvent> events = this.casEventRepository.getEventsOfTypeForPrincipal(type, principal, date);
+        this.loads.incrementAndGet();
+        LOGGER.debug("Found [{}] recent authentication event(s) for [{}]", events.size(), principal);
+        return new PrincipalAuthenticationHistory(events, this.daysInRecentHistory);
+    }
+}
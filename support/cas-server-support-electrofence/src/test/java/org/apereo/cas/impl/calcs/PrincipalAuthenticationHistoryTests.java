@@ -0,0 +1,66 @@
+package org.apereo.cas.impl.calcs;
+
+import org.apereo.cas.authentication.adaptive.geo.GeoLocationRequest;
+import org.apereo.cas.support.events.CasTicketGrantingTicketCreatedEvent;
+import org.apereo.cas.support.events.dao.CasEvent;
+import org.junit.Test;
+
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link PrincipalAuthenticationHistoryTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class PrincipalAuthenticationHistoryTests {
+
+    @Test
+    public void verifyEventsAreCounted() {
+        final ZonedDateTime now = ZonedDateTime.now();
+        final PrincipalAuthenticationHistory history = new PrincipalAuthenticationHistory(Arrays.asList(
+                getEvent(now.minusDays(2), "10.0.0.1", "Firefox", 40.71, -74.005),
+                getEvent(now.minusDays(1), "10.0.0.1", "firefox", 48.85, 2.35),
+                getEvent(now.minusHours(1), "10.0.0.2", "Chrome", 40.71, -74.005)), 30);
+
+        assertEquals(3, history.getCount());
+        assertEquals(2, history.getCountForClientIpAddress("10.0.0.1"));
+        assertEquals(0, history.getCountForClientIpAddress("10.0.0.3"));
+        assertEquals(2, history.getCountForAgent("FIREFOX"));
+        assertEquals(2, history.getCountForGeoLocation(new GeoLocationRequest(40.71, -74.005)));
+        assertEquals(2, history.getCountForHour(now.getHour()));
+
+        history.add(getEvent(now, "10.0.0.3", "Chrome", 45.46, 9.18));
+        assertEquals(4, history.getCount());
+        assertEquals(1, history.getCountForClientIpAddress("10.0.0.3"));
+        assertEquals(2, history.getCountForAgent("chrome"));
+    }
+
+    @Test
+    public void verifyOldEventsExpire() {
+        final ZonedDateTime now = ZonedDateTime.now();
+        final PrincipalAuthenticationHistory history = new PrincipalAuthenticationHistory(Arrays.asList(
+                getEvent(now.minusDays(10), "10.0.0.1", "Firefox", 40.71, -74.005),
+                getEvent(now.minusDays(1), "10.0.0.2", "Chrome", 48.85, 2.35)), 5);
+
+        assertEquals(1, history.getCount());
+        assertEquals(0, history.getCountForClientIpAddress("10.0.0.1"));
+        assertEquals(0, history.getCountForAgent("Firefox"));
+        assertEquals(1, history.getCountForClientIpAddress("10.0.0.2"));
+    }
+
+    private static CasEvent getEvent(final ZonedDateTime creationTime, final String clientIp, final String agent,
+                                     final double latitude, final double longitude) {
+        final CasEvent event = new CasEvent();
+        event.setType(CasTicketGrantingTicketCreatedEvent.class.getName());
+        event.setPrincipalId("casuser");
+        event.putCreationTime(creationTime);
+        event.putClientIpAddress(clientIp);
+        event.putAgent(agent);
+        event.putGeoLocation(new GeoLocationRequest(latitude, longitude));
+        return event;
+    }
+}
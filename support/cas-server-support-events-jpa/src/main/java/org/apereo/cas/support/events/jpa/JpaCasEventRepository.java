@@ -35,6 +35,11 @@ public class JpaCasEventRepository extends AbstractCasEventRepository {
         this.entityManager.merge(event);
     }
 
+    @Override
+    public void save(final Collection<CasEvent> events) {
+        events.forEach(this.entityManager::merge);
+    }
+
     @Override
     public Collection<CasEvent> load() {
         return this.entityManager.createQuery(SELECT_QUERY.trim(), CasEvent.class).getResultList();
@@ -0,0 +1,129 @@
+package org.apereo.cas.adaptors.gauth;
+
+import com.warrenstrange.googleauth.GoogleAuthenticator;
+import org.apereo.cas.adaptors.gauth.repository.credentials.JsonGoogleAuthenticatorTokenCredentialRepository;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link JsonGoogleAuthenticatorTokenCredentialRepositoryTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class JsonGoogleAuthenticatorTokenCredentialRepositoryTests {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void verifyAccountsAreJournaledAndCompacted() throws Exception {
+        final File file = new File(folder.getRoot(), "accounts.json");
+        final File journal = new File(folder.getRoot(), "accounts.json.journal");
+        final JsonGoogleAuthenticatorTokenCredentialRepository repository =
+                new JsonGoogleAuthenticatorTokenCredentialRepository(new FileSystemResource(file), new GoogleAuthenticator());
+        repository.setCompactionThreshold(3);
+
+        repository.save("casuser1", "secret1", 123456, Arrays.asList(1, 2, 3));
+        repository.save("casuser2", "secret2", 123456, Arrays.asList(1, 2, 3));
+        assertTrue(journal.exists());
+        assertFalse(file.exists());
+        assertEquals("secret1", repository.getSecret("casuser1"));
+
+        repository.save("casuser3", "secret3", 123456, Arrays.asList(1, 2, 3));
+        assertEquals(0, journal.length());
+        assertTrue(file.exists());
+
+        final JsonGoogleAuthenticatorTokenCredentialRepository other =
+                new JsonGoogleAuthenticatorTokenCredentialRepository(new FileSystemResource(file), new GoogleAuthenticator());
+        assertEquals("secret2", other.getSecret("casuser2"));
+        assertEquals("secret3", other.getSecret("casuser3"));
+        assertNull(other.getSecret("unknown"));
+    }
+
+    @Test
+    public void verifyAccountsAreReloadedWhenChanged() throws Exception {
+        final File file = new File(folder.getRoot(), "accounts.json");
+        final JsonGoogleAuthenticatorTokenCredentialRepository first =
+                new JsonGoogleAuthenticatorTokenCredentialRepository(new FileSystemResource(file), new GoogleAuthenticator());
+        final JsonGoogleAuthenticatorTokenCredentialRepository second =
+                new JsonGoogleAuthenticatorTokenCredentialRepository(new FileSystemResource(file), new GoogleAuthenticator());
+
+        first.save("casuser", "secret1", 123456, Arrays.asList(1, 2, 3));
+        assertEquals("secret1", second.getSecret("casuser"));
+
+        first.save("casuser", "secret2", 123456, Arrays.asList(1, 2, 3));
+        first.compact();
+        assertEquals("secret2", second.getSecret("casuser"));
+    }
+
+    @Test
+    public void verifyCompactionKeepsAccountsSavedByOthers() throws Exception {
+        final File file = new File(folder.getRoot(), "accounts.json");
+        final JsonGoogleAuthenticatorTokenCredentialRepository first =
+                new JsonGoogleAuthenticatorTokenCredentialRepository(new FileSystemResource(file), new GoogleAuthenticator());
+        final JsonGoogleAuthenticatorTokenCredentialRepository second =
+                new JsonGoogleAuthenticatorTokenCredentialRepository(new FileSystemResource(file), new GoogleAuthenticator());
+
+        first.save("casuser1", "secret1", 123456, Arrays.asList(1, 2, 3));
+        second.save("casuser2", "secret2", 123456, Arrays.asList(1, 2, 3));
+        first.compact();
+        second.save("casuser3", "secret3", 123456, Arrays.asList(1, 2, 3));
+
+        final JsonGoogleAuthenticatorTokenCredentialRepository other =
+                new JsonGoogleAuthenticatorTokenCredentialRepository(new FileSystemResource(file), new GoogleAuthenticator());
+        assertEquals("secret1", other.getSecret("casuser1"));
+        assertEquals("secret2", other.getSecret("casuser2"));
+        assertEquals("secret3", other.getSecret("casuser3"));
+    }
+
+    @Test
+    public void verifyIncompleteJournalEntryIsSkippedAndRepaired() throws Exception {
+        final File file = new File(folder.getRoot(), "accounts.json");
+        final File journal = new File(folder.getRoot(), "accounts.json.journal");
+        final JsonGoogleAuthenticatorTokenCredentialRepository first =
+                new JsonGoogleAuthenticatorTokenCredentialRepository(new FileSystemResource(file), new GoogleAuthenticator());
+        first.save("casuser1", "secret1", 123456, Arrays.asList(1, 2, 3));
+        Files.write(journal.toPath(), "{\"username\":\"casuser2\",\"secretK".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+
+        final JsonGoogleAuthenticatorTokenCredentialRepository second =
+                new JsonGoogleAuthenticatorTokenCredentialRepository(new FileSystemResource(file), new GoogleAuthenticator());
+        assertEquals("secret1", second.getSecret("casuser1"));
+        assertNull(second.getSecret("casuser2"));
+
+        second.save("casuser3", "secret3", 123456, Arrays.asList(1, 2, 3));
+        assertFalse(new String(Files.readAllBytes(journal.toPath()), StandardCharsets.UTF_8).contains("secretK\""));
+
+        final JsonGoogleAuthenticatorTokenCredentialRepository other =
+                new JsonGoogleAuthenticatorTokenCredentialRepository(new FileSystemResource(file), new GoogleAuthenticator());
+        assertEquals("secret1", other.getSecret("casuser1"));
+        assertEquals("secret3", other.getSecret("casuser3"));
+    }
+
+    @Test
+    public void verifyLookupsDoNotCreateJournal() throws Exception {
+        final File file = new File(folder.getRoot(), "accounts.json");
+        final File journal = new File(folder.getRoot(), "accounts.json.journal");
+        final JsonGoogleAuthenticatorTokenCredentialRepository first =
+                new JsonGoogleAuthenticatorTokenCredentialRepository(new FileSystemResource(file), new GoogleAuthenticator());
+        first.save("casuser", "secret", 123456, Arrays.asList(1, 2, 3));
+        first.compact();
+        assertTrue(journal.delete());
+
+        final JsonGoogleAuthenticatorTokenCredentialRepository other =
+                new JsonGoogleAuthenticatorTokenCredentialRepository(new FileSystemResource(file), new GoogleAuthenticator());
+        assertEquals("secret", other.getSecret("casuser"));
+        assertFalse(journal.exists());
+    }
+}
@@ -64,6 +64,11 @@ public class FileAuthenticationHandler extends AbstractUsernamePasswordAuthentic
         }
         throw new FailedLoginException();
     }
+
+    @Override
+    protected boolean isPasswordEncodedBeforeAuthentication() {
+        return false;
+    }
     
     /**
      * Gets the password on record.
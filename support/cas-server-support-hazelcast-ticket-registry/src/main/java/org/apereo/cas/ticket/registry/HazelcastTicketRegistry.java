@@ -1,5 +1,6 @@
 package org.apereo.cas.ticket.registry;
 
+import com.google.common.collect.Lists;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.IMap;
 import com.hazelcast.query.PagingPredicate;
@@ -12,11 +13,18 @@ import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Hazelcast-based implementation of a {@link TicketRegistry}.
@@ -88,6 +96,29 @@ public class HazelcastTicketRegistry extends AbstractTicketRegistry implements C
         return this.registry.remove(ticketId) != null;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>Removal requests for all tickets are dispatched asynchronously
+     * to their owning partitions before waiting on any of the results.</p>
+     */
+    @Override
+    public int deleteTickets(final Collection<String> ticketIds) {
+        final List<Future<Ticket>> removals = ticketIds.stream()
+                .map(ticketId -> (Future<Ticket>) this.registry.removeAsync(ticketId))
+                .collect(Collectors.toList());
+        int count = 0;
+        for (final Future<Ticket> removal : removals) {
+            try {
+                if (removal.get() != null) {
+                    count++;
+                }
+            } catch (final Exception e) {
+                LOGGER.error("Failed deleting ticket: [{}]", e.getMessage(), e);
+            }
+        }
+        return count;
+    }
+
     @Override
     public long deleteAll() {
         final int size = this.registry.size();
@@ -126,6 +157,37 @@ public class HazelcastTicketRegistry extends AbstractTicketRegistry implements C
         return collection;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>The keys of the map are taken as a snapshot while holding the same cluster-wide lock
+     * as {@link #getTickets()}. Tickets are then fetched lazily by key, one page at a time, so
+     * tickets removed while the stream is consumed are skipped without shifting later pages.</p>
+     */
+    @Override
+    public Stream<Ticket> getTicketsStream(final Predicate<Ticket> predicate, final int pageSize) {
+        final List<String> keys;
+        LOGGER.debug("Attempting to acquire lock from Hazelcast instance...");
+        final Lock lock = this.hazelcastInstance.getLock(getClass().getName());
+        lock.lock();
+        try {
+            keys = new ArrayList<>(this.registry.keySet());
+        } finally {
+            lock.unlock();
+        }
+        LOGGER.debug("Streaming [{}] tickets from Hazelcast with page size of [{}]", keys.size(), pageSize);
+
+        final Iterator<List<String>> pages = Lists.partition(keys, Math.max(1, pageSize)).iterator();
+        return streamPages(() -> {
+            while (pages.hasNext()) {
+                final Collection<Ticket> tickets = this.registry.getAll(new HashSet<>(pages.next())).values();
+                if (!tickets.isEmpty()) {
+                    return tickets;
+                }
+            }
+            return Collections.<Ticket>emptyList();
+        }).map(this::decodeTicket).filter(predicate);
+    }
+
     /**
      * Make sure we shutdown HazelCast when the context is destroyed.
      */
@@ -1,5 +1,6 @@
 package org.apereo.cas.ticket.registry;
 
+import org.apereo.cas.config.CasCoreTicketSerializationConfiguration;
 import org.apereo.cas.config.HazelcastTicketRegistryConfiguration;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,7 +17,7 @@ import org.springframework.test.context.junit4.SpringRunner;
  * @since 4.1.0
  */
 @RunWith(SpringRunner.class)
-@SpringBootTest(classes = {RefreshAutoConfiguration.class, HazelcastTicketRegistryConfiguration.class})
+@SpringBootTest(classes = {RefreshAutoConfiguration.class, HazelcastTicketRegistryConfiguration.class, CasCoreTicketSerializationConfiguration.class})
 @TestPropertySource(properties = {"cas.ticket.registry.hazelcast.cluster.instanceName=testlocalhostinstance"})
 public class HazelcastTicketRegistryTests extends AbstractTicketRegistryTests {
     @Autowired
@@ -22,6 +22,9 @@ import javax.cache.expiry.Duration;
 import javax.cache.expiry.ExpiryPolicy;
 import java.util.Collection;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static java.util.stream.Collectors.toList;
 
@@ -125,6 +128,18 @@ public class IgniteTicketRegistry extends AbstractTicketRegistry {
         return decodeTickets(cursor.getAll().stream().map(Cache.Entry::getValue).collect(toList()));
     }
 
+    @Override
+    public Stream<Ticket> getTicketsStream(final Predicate<Ticket> predicate, final int pageSize) {
+        final ScanQuery<String, Ticket> query = new ScanQuery<>();
+        query.setPageSize(pageSize);
+        final QueryCursor<Cache.Entry<String, Ticket>> cursor = this.ticketIgniteCache.query(query);
+        return StreamSupport.stream(cursor.spliterator(), false)
+                .onClose(cursor::close)
+                .map(Cache.Entry::getValue)
+                .map(this::decodeTicket)
+                .filter(predicate);
+    }
+
     public void setTicketIgniteCache(final IgniteCache<String, Ticket> ticketIgniteCache) {
         this.ticketIgniteCache = ticketIgniteCache;
     }
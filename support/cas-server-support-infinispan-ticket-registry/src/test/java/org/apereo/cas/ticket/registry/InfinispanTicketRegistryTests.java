@@ -1,5 +1,6 @@
 package org.apereo.cas.ticket.registry;
 
+import org.apereo.cas.config.CasCoreTicketSerializationConfiguration;
 import org.apereo.cas.ticket.registry.config.InfinispanTicketRegistryConfiguration;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,7 +15,7 @@ import org.springframework.test.context.junit4.SpringRunner;
  * @since 4.2.0
  */
 @RunWith(SpringRunner.class)
-@SpringBootTest(classes = {RefreshAutoConfiguration.class, InfinispanTicketRegistryConfiguration.class})
+@SpringBootTest(classes = {RefreshAutoConfiguration.class, InfinispanTicketRegistryConfiguration.class, CasCoreTicketSerializationConfiguration.class})
 public class InfinispanTicketRegistryTests extends AbstractTicketRegistryTests {
 
     @Autowired
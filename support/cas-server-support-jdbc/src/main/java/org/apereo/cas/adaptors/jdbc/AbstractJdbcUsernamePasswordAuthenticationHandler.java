@@ -1,9 +1,11 @@
 package org.apereo.cas.adaptors.jdbc;
 
+import org.apereo.cas.authentication.PreventedException;
 import org.apereo.cas.authentication.handler.support.AbstractUsernamePasswordAuthenticationHandler;
 import org.springframework.jdbc.core.JdbcTemplate;
 
 import javax.sql.DataSource;
+import java.util.concurrent.Callable;
 
 /**
  * Abstract class for database authentication handlers.
@@ -17,6 +19,10 @@ public abstract class AbstractJdbcUsernamePasswordAuthenticationHandler extends
 
     private DataSource dataSource;
 
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    private CredentialVerificationCache credentialVerificationCache;
+
     /**
      * Method to set the datasource and generate a JdbcTemplate.
      *
@@ -39,4 +45,47 @@ public abstract class AbstractJdbcUsernamePasswordAuthenticationHandler extends
     protected DataSource getDataSource() {
         return this.dataSource;
     }
+
+    public void setPasswordHashingExecutor(final PasswordHashingExecutor passwordHashingExecutor) {
+        this.passwordHashingExecutor = passwordHashingExecutor;
+    }
+
+    public void setCredentialVerificationCache(final CredentialVerificationCache credentialVerificationCache) {
+        this.credentialVerificationCache = credentialVerificationCache;
+    }
+
+    /**
+     * Verify the password against the password on record. The verification is skipped if the same credentials
+     * were verified successfully a moment ago, and otherwise runs on the password hashing executor, if one is defined.
+     *
+     * @param username       the username
+     * @param password       the password
+     * @param storedPassword the password on record, along with anything else the verification depends on
+     * @param verification   the verification, which may hash the password
+     * @return true if the password matches
+     * @throws PreventedException if the hashing executor could not carry out the verification
+     */
+    protected boolean verifyPassword(final String username, final CharSequence password, final String storedPassword,
+                                     final Callable<Boolean> verification) throws PreventedException {
+        if (this.credentialVerificationCache != null
+                && this.credentialVerificationCache.contains(username, password, storedPassword)) {
+            return true;
+        }
+        final boolean matches;
+        if (this.passwordHashingExecutor != null) {
+            matches = this.passwordHashingExecutor.execute(verification);
+        } else {
+            try {
+                matches = verification.call();
+            } catch (final RuntimeException e) {
+                throw e;
+            } catch (final Exception e) {
+                throw new PreventedException(e);
+            }
+        }
+        if (matches && this.credentialVerificationCache != null) {
+            this.credentialVerificationCache.put(username, password, storedPassword);
+        }
+        return matches;
+    }
 }
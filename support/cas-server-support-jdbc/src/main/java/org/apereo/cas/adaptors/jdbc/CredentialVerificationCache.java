@@ -0,0 +1,100 @@
+package org.apereo.cas.adaptors.jdbc;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This is {@link CredentialVerificationCache}. It remembers, for a short while, that a password
+ * was verified successfully against the password on record, so that retries with the same
+ * credentials do not have to hash the password again. Entries are keyed by an HMAC of the username,
+ * the password and the password on record, computed with a random key that is generated when
+ * the cache is created and never leaves memory. The password itself is never kept, and
+ * changing the password on record makes earlier entries useless.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class CredentialVerificationCache {
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int KEY_SIZE = 32;
+
+    private final Cache<String, Boolean> verifications;
+    private final SecretKeySpec key;
+
+    public CredentialVerificationCache(final long expirationInMillis, final long maximumSize) {
+        this.verifications = CacheBuilder.newBuilder()
+                .expireAfterWrite(expirationInMillis, TimeUnit.MILLISECONDS)
+                .maximumSize(maximumSize)
+                .build();
+        final byte[] secret = new byte[KEY_SIZE];
+        new SecureRandom().nextBytes(secret);
+        this.key = new SecretKeySpec(secret, ALGORITHM);
+    }
+
+    /**
+     * Determine whether the credentials were verified successfully before and the entry has not expired yet.
+     *
+     * @param username       the username
+     * @param password       the password
+     * @param storedPassword the password on record
+     * @return true if the credentials were verified before
+     */
+    public boolean contains(final String username, final CharSequence password, final String storedPassword) {
+        if (storedPassword == null) {
+            return false;
+        }
+        return this.verifications.getIfPresent(getKey(username, password, storedPassword)) != null;
+    }
+
+    /**
+     * Remember that the credentials were verified successfully.
+     *
+     * @param username       the username
+     * @param password       the password
+     * @param storedPassword the password on record
+     */
+    public void put(final String username, final CharSequence password, final String storedPassword) {
+        if (storedPassword != null) {
+            this.verifications.put(getKey(username, password, storedPassword), Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Forget all verifications.
+     */
+    public void invalidateAll() {
+        this.verifications.invalidateAll();
+    }
+
+    public long size() {
+        return this.verifications.size();
+    }
+
+    private String getKey(final String username, final CharSequence password, final String storedPassword) {
+        try {
+            final Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(this.key);
+            update(mac, username);
+            update(mac, password);
+            update(mac, storedPassword);
+            return Base64.getEncoder().encodeToString(mac.doFinal());
+        } catch (final GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to compute the credential verification key", e);
+        }
+    }
+
+    private static void update(final Mac mac, final CharSequence value) {
+        final byte[] bytes = value == null ? new byte[0] : value.toString().getBytes(StandardCharsets.UTF_8);
+        mac.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+        mac.update(bytes);
+    }
+}
@@ -0,0 +1,118 @@
+package org.apereo.cas.adaptors.jdbc;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apereo.cas.authentication.PreventedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This is {@link PasswordHashingExecutor}. It runs password hashing for database authentication
+ * handlers on a fixed pool of threads with a bounded queue, so that hashing under load does not
+ * take over the threads that serve requests. A request is rejected right away when the pool and
+ * its queue are full, and gives up once it has waited longer than the timeout; in both cases
+ * authentication is prevented rather than failed.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class PasswordHashingExecutor implements DisposableBean {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PasswordHashingExecutor.class);
+
+    private final ThreadPoolExecutor executor;
+    private final long timeoutInMillis;
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+
+    public PasswordHashingExecutor(final int poolSize, final int queueCapacity, final long timeoutInMillis) {
+        final int threads = Math.max(1, poolSize);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("jdbc-password-hashing-%d").build(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeoutInMillis = timeoutInMillis;
+    }
+
+    /**
+     * Run the hashing task on the pool and wait for its result.
+     *
+     * @param <T>  the result type
+     * @param task the task
+     * @return the result of the task
+     * @throws PreventedException if the task is rejected, times out or fails with a checked exception
+     */
+    public <T> T execute(final Callable<T> task) throws PreventedException {
+        final Future<T> future;
+        try {
+            future = this.executor.submit(task);
+            this.submitted.incrementAndGet();
+        } catch (final RejectedExecutionException e) {
+            this.rejected.incrementAndGet();
+            LOGGER.warn("Password hashing request is rejected; [{}] requests are already queued", this.executor.getQueue().size());
+            throw new PreventedException("Password hashing capacity is exhausted", e);
+        }
+
+        try {
+            final T result = this.timeoutInMillis > 0
+                    ? future.get(this.timeoutInMillis, TimeUnit.MILLISECONDS)
+                    : future.get();
+            this.completed.incrementAndGet();
+            return result;
+        } catch (final TimeoutException e) {
+            future.cancel(true);
+            this.timedOut.incrementAndGet();
+            LOGGER.warn("Password hashing did not complete within [{}] ms", this.timeoutInMillis);
+            throw new PreventedException("Password hashing timed out", e);
+        } catch (final InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PreventedException("Password hashing was interrupted", e);
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new PreventedException(cause);
+        }
+    }
+
+    /**
+     * Gets statistics about the hashing requests seen so far.
+     *
+     * @return the statistics
+     */
+    public Map<String, Long> getStatistics() {
+        final Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("poolSize", (long) this.executor.getMaximumPoolSize());
+        stats.put("active", (long) this.executor.getActiveCount());
+        stats.put("queueDepth", (long) this.executor.getQueue().size());
+        stats.put("submitted", this.submitted.get());
+        stats.put("completed", this.completed.get());
+        stats.put("rejected", this.rejected.get());
+        stats.put("timedOut", this.timedOut.get());
+        return stats;
+    }
+
+    @Override
+    public void destroy() {
+        this.executor.shutdownNow();
+    }
+}
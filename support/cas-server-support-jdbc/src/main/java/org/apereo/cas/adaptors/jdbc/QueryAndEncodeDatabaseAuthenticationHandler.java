@@ -111,9 +111,13 @@ public class QueryAndEncodeDatabaseAuthenticationHandler extends AbstractJdbcUse
         final String username = transformedCredential.getUsername();
         try {
             final Map<String, Object> values = getJdbcTemplate().queryForMap(this.sql, username);
-            final String digestedPassword = digestEncodedPassword(transformedCredential.getPassword(), values);
+            final String password = transformedCredential.getPassword();
+            final Object storedPassword = values.get(this.passwordFieldName);
+            final String recordedValues = String.join(":", String.valueOf(storedPassword),
+                    String.valueOf(values.get(this.saltFieldName)), String.valueOf(values.get(this.numberOfIterationsFieldName)));
 
-            if (!values.get(this.passwordFieldName).equals(digestedPassword)) {
+            if (!verifyPassword(username, password, recordedValues,
+                    () -> storedPassword.equals(digestEncodedPassword(password, values)))) {
                 throw new FailedLoginException("Password does not match value on record.");
             }
             return createHandlerResult(transformedCredential, this.principalFactory.createPrincipal(username), null);
@@ -44,7 +44,8 @@ public class QueryDatabaseAuthenticationHandler extends AbstractJdbcUsernamePass
         try {
             final String dbPassword = getJdbcTemplate().queryForObject(this.sql, String.class, username);
 
-            if (StringUtils.isNotBlank(originalPassword) && !matches(originalPassword, dbPassword)
+            if (StringUtils.isNotBlank(originalPassword)
+                && !verifyPassword(username, originalPassword, dbPassword, () -> matches(originalPassword, dbPassword))
                 || StringUtils.isBlank(originalPassword) && !StringUtils.equals(password, dbPassword)) {
                 throw new FailedLoginException("Password does not match value on record.");
             }
@@ -58,4 +59,9 @@ public class QueryDatabaseAuthenticationHandler extends AbstractJdbcUsernamePass
         }
         return createHandlerResult(credential, this.principalFactory.createPrincipal(username), null);
     }
+
+    @Override
+    protected boolean isPasswordEncodedBeforeAuthentication() {
+        return false;
+    }
 }
@@ -1,7 +1,11 @@
 package org.apereo.cas.adaptors.jdbc.config;
 
+import com.codahale.metrics.MetricRegistry;
 import org.apache.commons.lang3.StringUtils;
+import org.apereo.cas.adaptors.jdbc.AbstractJdbcUsernamePasswordAuthenticationHandler;
 import org.apereo.cas.adaptors.jdbc.BindModeSearchDatabaseAuthenticationHandler;
+import org.apereo.cas.adaptors.jdbc.CredentialVerificationCache;
+import org.apereo.cas.adaptors.jdbc.PasswordHashingExecutor;
 import org.apereo.cas.adaptors.jdbc.QueryAndEncodeDatabaseAuthenticationHandler;
 import org.apereo.cas.adaptors.jdbc.QueryDatabaseAuthenticationHandler;
 import org.apereo.cas.adaptors.jdbc.SearchModeSearchDatabaseAuthenticationHandler;
@@ -10,6 +14,7 @@ import org.apereo.cas.authentication.AuthenticationHandler;
 import org.apereo.cas.authentication.principal.DefaultPrincipalFactory;
 import org.apereo.cas.authentication.principal.PrincipalFactory;
 import org.apereo.cas.authentication.principal.PrincipalResolver;
+import org.apereo.cas.authentication.support.StatisticsGaugeSet;
 import org.apereo.cas.authentication.support.password.PasswordPolicyConfiguration;
 import org.apereo.cas.config.support.authentication.AuthenticationEventExecutionPlanConfigurer;
 import org.apereo.cas.configuration.CasConfigurationProperties;
@@ -21,6 +26,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -64,6 +70,10 @@ public class CasJdbcAuthenticationConfiguration {
     @Autowired
     private CasConfigurationProperties casProperties;
 
+    @Autowired(required = false)
+    @Qualifier("metrics")
+    private MetricRegistry metrics;
+
     @Bean
     public Collection<AuthenticationHandler> jdbcAuthenticationHandlers() {
         final Collection<AuthenticationHandler> handlers = new HashSet<>();
@@ -118,6 +128,7 @@ public class CasJdbcAuthenticationConfiguration {
         }
 
         h.setPrincipalNameTransformer(Beans.newPrincipalNameTransformer(b.getPrincipalTransformation()));
+        configurePasswordVerification(h);
 
         h.setPrincipalFactory(jdbcPrincipalFactory());
         h.setServicesManager(servicesManager);
@@ -144,6 +155,7 @@ public class CasJdbcAuthenticationConfiguration {
         }
 
         h.setPrincipalNameTransformer(Beans.newPrincipalNameTransformer(b.getPrincipalTransformation()));
+        configurePasswordVerification(h);
         h.setPrincipalFactory(jdbcPrincipalFactory());
         h.setServicesManager(servicesManager);
 
@@ -186,6 +198,33 @@ public class CasJdbcAuthenticationConfiguration {
         return h;
     }
 
+    private void configurePasswordVerification(final AbstractJdbcUsernamePasswordAuthenticationHandler h) {
+        final JdbcAuthenticationProperties jdbc = casProperties.getAuthn().getJdbc();
+        if (jdbc.getHashing().isEnabled()) {
+            h.setPasswordHashingExecutor(jdbcPasswordHashingExecutor());
+        }
+        if (jdbc.getVerificationCache().isEnabled()) {
+            h.setCredentialVerificationCache(jdbcCredentialVerificationCache());
+        }
+    }
+
+    @ConditionalOnProperty(prefix = "cas.authn.jdbc.hashing", name = "enabled", havingValue = "true")
+    @Bean
+    public PasswordHashingExecutor jdbcPasswordHashingExecutor() {
+        final JdbcAuthenticationProperties.Hashing hashing = casProperties.getAuthn().getJdbc().getHashing();
+        final PasswordHashingExecutor executor = new PasswordHashingExecutor(hashing.getPoolSize(),
+                hashing.getQueueCapacity(), hashing.getTimeout());
+        StatisticsGaugeSet.register(this.metrics, "cas.authn.jdbc.hashing", executor::getStatistics);
+        return executor;
+    }
+
+    @ConditionalOnProperty(prefix = "cas.authn.jdbc.verificationCache", name = "enabled", havingValue = "true")
+    @Bean
+    public CredentialVerificationCache jdbcCredentialVerificationCache() {
+        final JdbcAuthenticationProperties.VerificationCache cache = casProperties.getAuthn().getJdbc().getVerificationCache();
+        return new CredentialVerificationCache(cache.getExpiration(), cache.getMaximumSize());
+    }
+
     @ConditionalOnMissingBean(name = "jdbcPrincipalFactory")
     @Bean
     public PrincipalFactory jdbcPrincipalFactory() {
@@ -1,5 +1,7 @@
 package org.apereo.cas;
 
+import org.apereo.cas.adaptors.jdbc.CredentialVerificationCacheTests;
+import org.apereo.cas.adaptors.jdbc.PasswordHashingExecutorTests;
 import org.apereo.cas.adaptors.jdbc.QueryAndEncodeDatabaseAuthenticationHandlerTests;
 import org.apereo.cas.adaptors.jdbc.QueryDatabaseAuthenticationHandlerTests;
 import org.apereo.cas.adaptors.jdbc.SearchModeSearchDatabaseAuthenticationHandlerTests;
@@ -16,6 +18,8 @@ import org.junit.runners.Suite;
 @RunWith(Suite.class)
 @Suite.SuiteClasses({QueryAndEncodeDatabaseAuthenticationHandlerTests.class, 
         QueryDatabaseAuthenticationHandlerTests.class,
-        SearchModeSearchDatabaseAuthenticationHandlerTests.class})
+        SearchModeSearchDatabaseAuthenticationHandlerTests.class,
+        PasswordHashingExecutorTests.class,
+        CredentialVerificationCacheTests.class})
 public class AllTestsSuite {
 }
@@ -0,0 +1,39 @@
+package org.apereo.cas.adaptors.jdbc;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link CredentialVerificationCacheTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class CredentialVerificationCacheTests {
+
+    @Test
+    public void verifyCredentialsAreRemembered() {
+        final CredentialVerificationCache cache = new CredentialVerificationCache(60_000, 100);
+        cache.put("casuser", "Mellon", "stored");
+        assertTrue(cache.contains("casuser", "Mellon", "stored"));
+    }
+
+    @Test
+    public void verifyChangedCredentialsAreNotRemembered() {
+        final CredentialVerificationCache cache = new CredentialVerificationCache(60_000, 100);
+        cache.put("casuser", "Mellon", "stored");
+        assertFalse(cache.contains("casuser", "Mellon", "changed"));
+        assertFalse(cache.contains("casuser", "mellon", "stored"));
+        assertFalse(cache.contains("otheruser", "Mellon", "stored"));
+        assertFalse(cache.contains("casuser", "Mellon", null));
+    }
+
+    @Test
+    public void verifyEntriesExpire() throws Exception {
+        final CredentialVerificationCache cache = new CredentialVerificationCache(50, 100);
+        cache.put("casuser", "Mellon", "stored");
+        Thread.sleep(100);
+        assertFalse(cache.contains("casuser", "Mellon", "stored"));
+    }
+}
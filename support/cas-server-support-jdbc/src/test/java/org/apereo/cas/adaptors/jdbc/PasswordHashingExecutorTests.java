@@ -0,0 +1,66 @@
+package org.apereo.cas.adaptors.jdbc;
+
+import org.apereo.cas.authentication.PreventedException;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link PasswordHashingExecutorTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class PasswordHashingExecutorTests {
+
+    @Test
+    public void verifyRequestsAreRejectedWhenFull() throws Exception {
+        final PasswordHashingExecutor executor = new PasswordHashingExecutor(1, 1, 10_000);
+        final ExecutorService callers = Executors.newFixedThreadPool(2);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        try {
+            callers.submit(() -> executor.execute(() -> {
+                started.countDown();
+                return release.await(10, TimeUnit.SECONDS);
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            callers.submit(() -> executor.execute(() -> Boolean.TRUE));
+            while (executor.getStatistics().get("queueDepth") < 1) {
+                Thread.sleep(10);
+            }
+
+            try {
+                executor.execute(() -> Boolean.TRUE);
+                fail("Request should have been rejected");
+            } catch (final PreventedException e) {
+                assertEquals(1L, executor.getStatistics().get("rejected").longValue());
+            }
+        } finally {
+            release.countDown();
+            callers.shutdown();
+            executor.destroy();
+        }
+    }
+
+    @Test
+    public void verifyRequestsTimeOut() throws Exception {
+        final PasswordHashingExecutor executor = new PasswordHashingExecutor(1, 1, 50);
+        try {
+            executor.execute(() -> {
+                Thread.sleep(5_000);
+                return Boolean.TRUE;
+            });
+            fail("Request should have timed out");
+        } catch (final PreventedException e) {
+            assertEquals(1L, executor.getStatistics().get("timedOut").longValue());
+        } finally {
+            executor.destroy();
+        }
+    }
+}
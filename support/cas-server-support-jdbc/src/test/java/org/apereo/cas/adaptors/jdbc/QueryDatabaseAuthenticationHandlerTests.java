@@ -28,6 +28,7 @@ import java.nio.charset.StandardCharsets;
 import java.security.SecureRandom;
 import java.sql.Connection;
 import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
 
@@ -166,4 +167,64 @@ public class QueryDatabaseAuthenticationHandlerTests {
         q.setPasswordEncoder(encoder);
         assertNotNull(q.authenticate(CoreAuthenticationTestUtils.getCredentialsWithDifferentUsernameAndPassword("user3", "pswbc2")));
     }
+
+    @Test
+    public void verifyCachedVerificationDoesNoHashing() throws Exception {
+        final AtomicInteger hashes = new AtomicInteger();
+        final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(6, new SecureRandom("secret4".getBytes(StandardCharsets.UTF_8))) {
+            @Override
+            public String encode(final CharSequence rawPassword) {
+                hashes.incrementAndGet();
+                return super.encode(rawPassword);
+            }
+
+            @Override
+            public boolean matches(final CharSequence rawPassword, final String encodedPassword) {
+                hashes.incrementAndGet();
+                return super.matches(rawPassword, encodedPassword);
+            }
+        };
+        final String sql = SQL.replace("password", "'" + encoder.encode("pswbc5") + "' password");
+        final QueryDatabaseAuthenticationHandler q = new QueryDatabaseAuthenticationHandler(sql);
+        q.setDataSource(this.dataSource);
+        q.setPasswordEncoder(encoder);
+        q.setCredentialVerificationCache(new CredentialVerificationCache(60_000, 100));
+
+        hashes.set(0);
+        assertNotNull(q.authenticate(CoreAuthenticationTestUtils.getCredentialsWithDifferentUsernameAndPassword("user3", "pswbc5")));
+        assertEquals(1, hashes.get());
+        assertNotNull(q.authenticate(CoreAuthenticationTestUtils.getCredentialsWithDifferentUsernameAndPassword("user3", "pswbc5")));
+        assertEquals(1, hashes.get());
+    }
+
+    @Test
+    public void verifyBCryptSuccessWithHashingExecutorAndVerificationCache() throws Exception {
+        final AtomicInteger verifications = new AtomicInteger();
+        final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(6, new SecureRandom("secret3".getBytes(StandardCharsets.UTF_8))) {
+            @Override
+            public boolean matches(final CharSequence rawPassword, final String encodedPassword) {
+                verifications.incrementAndGet();
+                return super.matches(rawPassword, encodedPassword);
+            }
+        };
+        final String sql = SQL.replace("password", "'" + encoder.encode("pswbc3") + "' password");
+        final QueryDatabaseAuthenticationHandler q = new QueryDatabaseAuthenticationHandler(sql);
+        q.setDataSource(this.dataSource);
+        q.setPasswordEncoder(encoder);
+
+        final PasswordHashingExecutor executor = new PasswordHashingExecutor(1, 1, 5000);
+        q.setPasswordHashingExecutor(executor);
+        q.setCredentialVerificationCache(new CredentialVerificationCache(60_000, 100));
+        try {
+            assertNotNull(q.authenticate(CoreAuthenticationTestUtils.getCredentialsWithDifferentUsernameAndPassword("user3", "pswbc3")));
+            assertNotNull(q.authenticate(CoreAuthenticationTestUtils.getCredentialsWithDifferentUsernameAndPassword("user3", "pswbc3")));
+            assertEquals(1, verifications.get());
+            assertEquals(1L, executor.getStatistics().get("completed").longValue());
+
+            this.thrown.expect(FailedLoginException.class);
+            q.authenticate(CoreAuthenticationTestUtils.getCredentialsWithDifferentUsernameAndPassword("user3", "pswbc4"));
+        } finally {
+            executor.destroy();
+        }
+    }
 }
@@ -6,6 +6,8 @@ import org.springframework.transaction.annotation.Transactional;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * Implementation of the ServiceRegistryDao based on JPA.
@@ -36,6 +38,14 @@ public class JpaServiceRegistryDaoImpl implements ServiceRegistryDao {
         return this.entityManager.createQuery("select r from AbstractRegisteredService r", RegisteredService.class).getResultList();
     }
 
+    @Override
+    public Map<Long, Long> loadVersions() {
+        return this.entityManager.createQuery("select r.id, coalesce(r.lastModified, 0) from AbstractRegisteredService r", Object[].class)
+                .getResultList()
+                .stream()
+                .collect(Collectors.toMap(r -> ((Number) r[0]).longValue(), r -> ((Number) r[1]).longValue()));
+    }
+
     @Override
     public RegisteredService save(final RegisteredService registeredService) {
         final boolean isNew = registeredService.getId() == RegisteredService.INITIAL_IDENTIFIER_VALUE;
@@ -10,6 +10,7 @@ import org.apereo.cas.ticket.registry.JpaTicketRegistry;
 import org.apereo.cas.ticket.registry.TicketRegistry;
 import org.apereo.cas.ticket.registry.support.JpaLockingStrategy;
 import org.apereo.cas.ticket.registry.support.LockingStrategy;
+import org.apereo.cas.ticket.serialization.TicketSerializer;
 import org.apereo.cas.util.InetAddressUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -39,6 +40,10 @@ public class JpaTicketRegistryConfiguration {
 
     @Autowired
     private CasConfigurationProperties casProperties;
+
+    @Autowired
+    @Qualifier("ticketSerializer")
+    private TicketSerializer ticketSerializer;
         
     /**
      * Jpa packages to scan string [].
@@ -97,10 +102,12 @@ public class JpaTicketRegistryConfiguration {
 
     @Bean(name = {"jpaTicketRegistry", "ticketRegistry"})
     @RefreshScope
-    public TicketRegistry jpaTicketRegistry() {
+    public TicketRegistry jpaTicketRegistry(@Qualifier("ticketTransactionManager") final PlatformTransactionManager ticketTransactionManager) {
         final JpaTicketRegistryProperties jpa = casProperties.getTicket().getRegistry().getJpa();
         final JpaTicketRegistry bean = new JpaTicketRegistry(jpa.isJpaLockingTgtEnabled());
+        bean.setTransactionManager(ticketTransactionManager);
         bean.setCipherExecutor(Beans.newTicketRegistryCipherExecutor(jpa.getCrypto()));
+        bean.setTicketSerializer(this.ticketSerializer);
         return bean;
     }
 
@@ -1,5 +1,8 @@
 package org.apereo.cas.ticket.registry;
 
+import com.google.common.collect.Lists;
+import org.apache.commons.lang3.StringUtils;
+import org.apereo.cas.ticket.AbstractTicket;
 import org.apereo.cas.ticket.OAuthToken;
 import org.apereo.cas.ticket.ServiceTicket;
 import org.apereo.cas.ticket.ServiceTicketImpl;
@@ -13,16 +16,26 @@ import org.apereo.cas.ticket.proxy.ProxyGrantingTicket;
 import org.apereo.cas.ticket.refreshtoken.RefreshToken;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.persistence.EntityManager;
 import javax.persistence.LockModeType;
 import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * JPA implementation of a CAS {@link TicketRegistry}. This implementation of
@@ -46,10 +59,24 @@ public class JpaTicketRegistry extends AbstractTicketRegistry {
     @PersistenceContext(unitName = "ticketEntityManagerFactory")
     private EntityManager entityManager;
 
+    private TransactionTemplate transactionTemplate;
+
+    private volatile boolean expirationTimesBackfilled;
+
     public JpaTicketRegistry(final boolean lockingTgtEnabled) {
         this.lockTgt = lockingTgtEnabled;
     }
 
+    /**
+     * Sets the transaction manager used to read pages of ticket streams,
+     * which are consumed after the method that created the stream has returned.
+     *
+     * @param transactionManager the transaction manager
+     */
+    public void setTransactionManager(final PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
     @Override
     public Ticket updateTicket(final Ticket ticket) {
         this.entityManager.merge(ticket);
@@ -139,6 +166,139 @@ public class JpaTicketRegistry extends AbstractTicketRegistry {
         return tickets;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>Tickets are read from each ticket table in pages using keyset pagination on the ticket id,
+     * so that tickets removed while the stream is consumed do not shift the pages. Each page is read
+     * in the transaction of the caller, if there is one, or otherwise in a transaction of its own.
+     * When reading in the transaction of the caller, pending changes are flushed and the persistence
+     * context is cleared between pages to keep memory usage bounded.</p>
+     */
+    @Override
+    public Stream<Ticket> getTicketsStream(final Predicate<Ticket> predicate, final int pageSize) {
+        return Stream.of(
+                streamTicketsByPage(TABLE_TICKET_GRANTING_TICKETS, TicketGrantingTicketImpl.class, pageSize),
+                streamTicketsByPage(TABLE_SERVICE_TICKETS, ServiceTicketImpl.class, pageSize),
+                streamTicketsByPage(TABLE_OAUTH_TICKETS, OAuthCodeImpl.class, pageSize))
+                .flatMap(Function.identity())
+                .filter(predicate);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Only tickets whose recorded expiration time has passed are read from each ticket table,
+     * in order of expiration time and ticket id so that the index on both columns serves the query.
+     * Tickets stored before the expiration time was recorded are backfilled once, on the first call.
+     * Each candidate is verified against its expiration policy.</p>
+     */
+    @Override
+    public Stream<Ticket> getExpiredTicketsStream(final int pageSize) {
+        if (!this.expirationTimesBackfilled) {
+            backfillExpirationTimes(TABLE_TICKET_GRANTING_TICKETS, TicketGrantingTicketImpl.class, pageSize);
+            backfillExpirationTimes(TABLE_SERVICE_TICKETS, ServiceTicketImpl.class, pageSize);
+            backfillExpirationTimes(TABLE_OAUTH_TICKETS, OAuthCodeImpl.class, pageSize);
+            this.expirationTimesBackfilled = true;
+        }
+        final ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+        return Stream.of(
+                streamExpiredTicketsByPage(TABLE_TICKET_GRANTING_TICKETS, TicketGrantingTicketImpl.class, pageSize, now),
+                streamExpiredTicketsByPage(TABLE_SERVICE_TICKETS, ServiceTicketImpl.class, pageSize, now),
+                streamExpiredTicketsByPage(TABLE_OAUTH_TICKETS, OAuthCodeImpl.class, pageSize, now))
+                .flatMap(Function.identity())
+                .filter(Ticket::isExpired);
+    }
+
+    private <T extends Ticket> Stream<Ticket> streamTicketsByPage(final String table, final Class<T> clazz, final int pageSize) {
+        final AtomicReference<String> lastTicketId = new AtomicReference<>(StringUtils.EMPTY);
+        final String query = "select t from " + table + " t where t.id > :id order by t.id";
+        return streamPages(() -> inTransaction(() -> {
+            clearPersistenceContext();
+            final List<T> page = this.entityManager.createQuery(query, clazz)
+                    .setParameter("id", lastTicketId.get())
+                    .setMaxResults(pageSize)
+                    .getResultList();
+            if (!page.isEmpty()) {
+                lastTicketId.set(page.get(page.size() - 1).getId());
+            }
+            LOGGER.trace("Fetched [{}] tickets from [{}] after [{}]", page.size(), table, lastTicketId.get());
+            return new ArrayList<Ticket>(page);
+        }));
+    }
+
+    private <T extends AbstractTicket> Stream<Ticket> streamExpiredTicketsByPage(final String table, final Class<T> clazz,
+                                                                                 final int pageSize, final ZonedDateTime now) {
+        final AtomicReference<T> lastTicket = new AtomicReference<>();
+        final String firstPageQuery = "select t from " + table + " t where t.expiresAt <= :now order by t.expiresAt, t.id";
+        final String nextPageQuery = "select t from " + table + " t where t.expiresAt <= :now and (t.expiresAt > :expiresAt "
+                + "or (t.expiresAt = :expiresAt and t.id > :id)) order by t.expiresAt, t.id";
+        return streamPages(() -> inTransaction(() -> {
+            clearPersistenceContext();
+            final T last = lastTicket.get();
+            final TypedQuery<T> pageQuery;
+            if (last == null) {
+                pageQuery = this.entityManager.createQuery(firstPageQuery, clazz);
+            } else {
+                pageQuery = this.entityManager.createQuery(nextPageQuery, clazz)
+                        .setParameter("expiresAt", last.getExpiresAt())
+                        .setParameter("id", last.getId());
+            }
+            final List<T> page = pageQuery.setParameter("now", now).setMaxResults(pageSize).getResultList();
+            if (!page.isEmpty()) {
+                lastTicket.set(page.get(page.size() - 1));
+            }
+            LOGGER.trace("Fetched [{}] tickets due for expiration from [{}]", page.size(), table);
+            return new ArrayList<Ticket>(page);
+        }));
+    }
+
+    /**
+     * Record the expiration time of tickets that were stored without one. Tickets that never expire
+     * are left without an expiration time and are not visited by the cleaner.
+     */
+    private <T extends AbstractTicket> void backfillExpirationTimes(final String table, final Class<T> clazz, final int pageSize) {
+        final String query = "select t from " + table + " t where t.expiresAt is null and t.id > :id order by t.id";
+        final AtomicReference<String> lastTicketId = new AtomicReference<>(StringUtils.EMPTY);
+        int count = 0;
+        List<T> page;
+        do {
+            page = inTransaction(() -> {
+                final List<T> tickets = this.entityManager.createQuery(query, clazz)
+                        .setParameter("id", lastTicketId.get())
+                        .setMaxResults(pageSize)
+                        .getResultList();
+                tickets.forEach(AbstractTicket::updateExpirationTime);
+                clearPersistenceContext();
+                return tickets;
+            });
+            if (!page.isEmpty()) {
+                lastTicketId.set(page.get(page.size() - 1).getId());
+                count += page.stream().filter(t -> t.getExpiresAt() != null).count();
+            }
+        } while (!page.isEmpty());
+        LOGGER.debug("Recorded the expiration time of [{}] tickets in [{}]", count, table);
+    }
+
+    private void clearPersistenceContext() {
+        if (this.entityManager.isJoinedToTransaction()) {
+            this.entityManager.flush();
+            this.entityManager.clear();
+        }
+    }
+
+    /**
+     * Run the given work in the transaction of the caller, or in a new transaction if the caller holds none.
+     */
+    private <T> T inTransaction(final Supplier<T> work) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return work.get();
+        }
+        if (this.transactionTemplate == null) {
+            throw new IllegalStateException("Ticket streams must be consumed within a transaction "
+                    + "when no transaction manager is defined for the ticket registry");
+        }
+        return this.transactionTemplate.execute(status -> work.get());
+    }
+
     @Override
     public long sessionCount() {
         return countToLong(this.entityManager.createQuery(
@@ -171,6 +331,31 @@ public class JpaTicketRegistry extends AbstractTicketRegistry {
         return failureCount == 0;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>Service tickets and OAuth tokens are removed using bulk delete statements,
+     * issued in batches to keep the size of the {@code IN} clause bounded.
+     * Ticket-granting tickets are removed individually along with their children.</p>
+     */
+    @Override
+    public int deleteTickets(final Collection<String> ticketIds) {
+        int count = 0;
+        for (final List<String> ids : Lists.partition(new ArrayList<>(ticketIds), DEFAULT_PAGE_SIZE)) {
+            count += this.entityManager.createQuery("delete from " + TABLE_SERVICE_TICKETS + " s where s.id in :ids")
+                    .setParameter("ids", ids)
+                    .executeUpdate();
+            count += this.entityManager.createQuery("delete from " + TABLE_OAUTH_TICKETS + " o where o.id in :ids")
+                    .setParameter("ids", ids)
+                    .executeUpdate();
+            final List<String> tgtIds = this.entityManager
+                    .createQuery("select t.id from " + TABLE_TICKET_GRANTING_TICKETS + " t where t.id in :ids", String.class)
+                    .setParameter("ids", ids)
+                    .getResultList();
+            count += tgtIds.stream().filter(id -> deleteTicketGrantingTickets(id) == 0).count();
+        }
+        return count;
+    }
+
     /**
      * Gets ticket query result list.
      *
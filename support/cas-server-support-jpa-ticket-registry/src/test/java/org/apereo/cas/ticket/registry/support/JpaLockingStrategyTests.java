@@ -1,6 +1,7 @@
 package org.apereo.cas.ticket.registry.support;
 
 import com.google.common.base.Throwables;
+import org.apereo.cas.config.CasCoreTicketSerializationConfiguration;
 import org.apereo.cas.config.JpaTicketRegistryConfiguration;
 import org.apereo.cas.configuration.model.support.jpa.ticketregistry.JpaTicketRegistryProperties;
 import org.apereo.cas.configuration.support.Beans;
@@ -44,7 +45,7 @@ import static org.junit.Assert.*;
  * @since 3.0.0
  */
 @RunWith(SpringRunner.class)
-@SpringBootTest(classes = {RefreshAutoConfiguration.class, JpaTicketRegistryConfiguration.class})
+@SpringBootTest(classes = {RefreshAutoConfiguration.class, JpaTicketRegistryConfiguration.class, CasCoreTicketSerializationConfiguration.class})
 public class JpaLockingStrategyTests {
     /**
      * Number of clients contending for lock in concurrent test.
@@ -6,6 +6,9 @@ import org.junit.Test;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.io.ClassPathResource;
 
+import java.io.File;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
@@ -33,4 +36,33 @@ public class JsonServiceRegistryDaoTests extends AbstractResourceBasedServiceReg
         final RegisteredService service = serializer.from(resource.getInputStream());
         assertNotNull(service);
     }
+
+    @Test
+    public void verifyFilesParsedForVersionsAreNotParsedAgainOnLoad() throws Exception {
+        prepTests();
+        for (int i = 0; i < 2; i++) {
+            final RegexRegisteredService r = new RegexRegisteredService();
+            r.setName("verifyFilesParsedForVersions" + i);
+            r.setServiceId("^https://service" + i + ".example.org");
+            this.dao.save(r);
+        }
+
+        final AtomicInteger parses = new AtomicInteger();
+        final JsonServiceRegistryDao countingDao = new JsonServiceRegistryDao(RESOURCE, false, mock(ApplicationEventPublisher.class)) {
+            @Override
+            public RegisteredService load(final File file) {
+                parses.incrementAndGet();
+                return super.load(file);
+            }
+        };
+        assertEquals(2, countingDao.loadVersions().size());
+        assertEquals(2, parses.get());
+        assertEquals(2, countingDao.load().size());
+        assertEquals(2, parses.get());
+
+        assertEquals(2, countingDao.loadVersions().size());
+        assertEquals(2, parses.get());
+        assertEquals(2, countingDao.load().size());
+        assertEquals(4, parses.get());
+    }
 }
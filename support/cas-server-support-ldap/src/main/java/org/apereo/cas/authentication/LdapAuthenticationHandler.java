@@ -3,6 +3,8 @@ package org.apereo.cas.authentication;
 import org.apache.commons.lang3.StringUtils;
 import org.apereo.cas.authentication.handler.support.AbstractUsernamePasswordAuthenticationHandler;
 import org.apereo.cas.authentication.principal.Principal;
+import org.apereo.cas.authentication.support.CachingDnResolver;
+import org.apereo.cas.authentication.support.InstrumentedPooledConnectionFactory;
 import org.apereo.cas.authentication.support.LdapPasswordPolicyConfiguration;
 import org.ldaptive.LdapAttribute;
 import org.ldaptive.LdapEntry;
@@ -82,6 +84,17 @@ public class LdapAuthenticationHandler extends AbstractUsernamePasswordAuthentic
      */
     private String[] authenticatedEntryAttributes = ReturnAttributes.NONE.value();
 
+    /**
+     * Connection factories of the authenticator whose pool wait times are reported, keyed by their role.
+     */
+    private Map<String, InstrumentedPooledConnectionFactory> connectionFactories = Collections.emptyMap();
+
+    /**
+     * Flag to indicate that the principal built from the authenticated entry carries all attributes
+     * and does not need to be resolved again from attribute repositories.
+     */
+    private boolean principalAttributesComplete;
+
     /**
      * Creates a new authentication handler that delegates to the given authenticator.
      *
@@ -180,6 +193,11 @@ public class LdapAuthenticationHandler extends AbstractUsernamePasswordAuthentic
             return createHandlerResult(upc, createPrincipal(upc.getUsername(), response.getLdapEntry()), messageList);
         }
 
+        if (authenticator.getDnResolver() instanceof CachingDnResolver) {
+            LOGGER.debug("Removing the cached DN of [{}] after failed authentication", upc.getUsername());
+            ((CachingDnResolver) authenticator.getDnResolver()).invalidate(upc.getUsername());
+        }
+
         if (AuthenticationResultCode.DN_RESOLUTION_FAILURE == response.getAuthenticationResultCode()) {
             LOGGER.warn("DN resolution failed. [{}]", response.getMessage());
             throw new AccountNotFoundException(upc.getUsername() + " not found.");
@@ -271,6 +289,36 @@ public class LdapAuthenticationHandler extends AbstractUsernamePasswordAuthentic
         this.allowMissingPrincipalAttributeValue = allowMissingPrincipalAttributeValue;
     }
 
+    public boolean isPrincipalAttributesComplete() {
+        return principalAttributesComplete;
+    }
+
+    public void setPrincipalAttributesComplete(final boolean principalAttributesComplete) {
+        this.principalAttributesComplete = principalAttributesComplete;
+    }
+
+    public void setConnectionFactories(final Map<String, InstrumentedPooledConnectionFactory> connectionFactories) {
+        this.connectionFactories = connectionFactories;
+    }
+
+    /**
+     * Gets statistics about the DN cache and the connection pools used by the authenticator.
+     * Keys are prefixed with the component they describe, such as {@code dnCache.hits}
+     * or {@code authentication.averageWaitMillis}.
+     *
+     * @return the statistics
+     */
+    public Map<String, Long> getStatistics() {
+        final Map<String, Long> stats = new LinkedHashMap<>();
+        if (authenticator.getDnResolver() instanceof CachingDnResolver) {
+            ((CachingDnResolver) authenticator.getDnResolver()).getStatistics()
+                    .forEach((key, value) -> stats.put("dnCache.".concat(key), value));
+        }
+        this.connectionFactories.forEach((role, factory) ->
+                factory.getStatistics().forEach((key, value) -> stats.put(role.concat(".").concat(key), value)));
+        return stats;
+    }
+
     /**
      * Initialize the handler, setup the authentication entry attributes.
      */
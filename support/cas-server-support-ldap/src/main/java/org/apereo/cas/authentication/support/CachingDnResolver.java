@@ -0,0 +1,103 @@
+package org.apereo.cas.authentication.support;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.commons.lang3.StringUtils;
+import org.ldaptive.LdapException;
+import org.ldaptive.auth.DnResolver;
+import org.ldaptive.auth.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This is {@link CachingDnResolver}. It remembers the DN that the wrapped resolver found for a username
+ * for a short while, so that repeated logins of the same user skip the search for the DN and go
+ * straight to the bind. Only DNs that were actually found are remembered; a username that cannot be
+ * resolved is searched again on every attempt. Entries should be invalidated when authentication with
+ * the cached DN fails, so that a DN that changed in the directory is picked up on the next attempt.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class CachingDnResolver implements DnResolver {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CachingDnResolver.class);
+
+    private final DnResolver delegate;
+    private final Cache<String, String> dns;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public CachingDnResolver(final DnResolver delegate, final long expirationInMillis, final long maximumSize) {
+        this.delegate = delegate;
+        this.dns = CacheBuilder.newBuilder()
+                .expireAfterWrite(expirationInMillis, TimeUnit.MILLISECONDS)
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    @Override
+    public String resolve(final User user) throws LdapException {
+        final String identifier = user == null ? null : user.getIdentifier();
+        if (StringUtils.isBlank(identifier)) {
+            return this.delegate.resolve(user);
+        }
+        final String cachedDn = this.dns.getIfPresent(identifier);
+        if (cachedDn != null) {
+            this.hits.incrementAndGet();
+            LOGGER.trace("Found cached DN [{}] for [{}]", cachedDn, identifier);
+            return cachedDn;
+        }
+        this.misses.incrementAndGet();
+        final String dn = this.delegate.resolve(user);
+        if (StringUtils.isNotBlank(dn)) {
+            this.dns.put(identifier, dn);
+        }
+        return dn;
+    }
+
+    /**
+     * Forget the DN cached for the given username.
+     *
+     * @param username the username
+     */
+    public void invalidate(final String username) {
+        if (username != null) {
+            this.dns.invalidate(username);
+        }
+    }
+
+    /**
+     * Forget all cached DNs.
+     */
+    public void invalidateAll() {
+        this.dns.invalidateAll();
+    }
+
+    public DnResolver getDelegate() {
+        return this.delegate;
+    }
+
+    /**
+     * Gets statistics about the DN lookups seen so far.
+     *
+     * @return the statistics
+     */
+    public Map<String, Long> getStatistics() {
+        final Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("size", this.dns.size());
+        stats.put("hits", this.hits.get());
+        stats.put("misses", this.misses.get());
+        return stats;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[delegate=" + this.delegate + ']';
+    }
+}
@@ -0,0 +1,67 @@
+package org.apereo.cas.authentication.support;
+
+import org.ldaptive.Connection;
+import org.ldaptive.pool.ConnectionPool;
+import org.ldaptive.pool.PoolException;
+import org.ldaptive.pool.PooledConnectionFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This is {@link InstrumentedPooledConnectionFactory}. It hands out connections from the same pool
+ * as a regular {@link PooledConnectionFactory} and records how long callers wait to check out a
+ * connection, so that an undersized or exhausted pool shows up as growing wait times rather than
+ * as slow logins with no obvious cause.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class InstrumentedPooledConnectionFactory extends PooledConnectionFactory {
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maximumWaitNanos = new AtomicLong();
+
+    public InstrumentedPooledConnectionFactory(final ConnectionPool pool) {
+        super(pool);
+    }
+
+    @Override
+    public Connection getConnection() throws PoolException {
+        final long start = System.nanoTime();
+        try {
+            return getConnectionPool().getConnection();
+        } catch (final PoolException e) {
+            this.failures.incrementAndGet();
+            throw e;
+        } finally {
+            final long wait = System.nanoTime() - start;
+            this.requests.incrementAndGet();
+            this.totalWaitNanos.addAndGet(wait);
+            this.maximumWaitNanos.accumulateAndGet(wait, Math::max);
+        }
+    }
+
+    /**
+     * Gets statistics about the connection checkouts seen so far.
+     *
+     * @return the statistics
+     */
+    public Map<String, Long> getStatistics() {
+        final long count = this.requests.get();
+        final long total = TimeUnit.NANOSECONDS.toMillis(this.totalWaitNanos.get());
+        final Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("poolSize", (long) getConnectionPool().activeCount() + getConnectionPool().availableCount());
+        stats.put("active", (long) getConnectionPool().activeCount());
+        stats.put("requests", count);
+        stats.put("failures", this.failures.get());
+        stats.put("totalWaitMillis", total);
+        stats.put("averageWaitMillis", count == 0 ? 0 : total / count);
+        stats.put("maximumWaitMillis", TimeUnit.NANOSECONDS.toMillis(this.maximumWaitNanos.get()));
+        return stats;
+    }
+}
@@ -1,5 +1,6 @@
 package org.apereo.cas.config;
 
+import com.codahale.metrics.MetricRegistry;
 import org.apache.commons.lang3.StringUtils;
 import org.apereo.cas.authentication.AuthenticationEventExecutionPlan;
 import org.apereo.cas.authentication.AuthenticationHandler;
@@ -9,22 +10,34 @@ import org.apereo.cas.authentication.principal.PrincipalFactory;
 import org.apereo.cas.authentication.principal.PrincipalResolver;
 import org.apereo.cas.authentication.principal.resolvers.ChainingPrincipalResolver;
 import org.apereo.cas.authentication.principal.resolvers.EchoingPrincipalResolver;
+import org.apereo.cas.authentication.principal.resolvers.PersonDirectoryPrincipalResolver;
+import org.apereo.cas.authentication.support.CachingDnResolver;
 import org.apereo.cas.authentication.support.DefaultAccountStateHandler;
+import org.apereo.cas.authentication.support.InstrumentedPooledConnectionFactory;
 import org.apereo.cas.authentication.support.LdapPasswordPolicyConfiguration;
 import org.apereo.cas.authentication.support.OptionalWarningAccountStateHandler;
+import org.apereo.cas.authentication.support.StatisticsGaugeSet;
 import org.apereo.cas.config.support.authentication.AuthenticationEventExecutionPlanConfigurer;
 import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.apereo.cas.configuration.model.core.authentication.PrincipalAttributesProperties;
 import org.apereo.cas.configuration.model.support.ldap.LdapAuthenticationProperties;
 import org.apereo.cas.configuration.support.Beans;
 import org.apereo.cas.services.ServicesManager;
 import org.apereo.services.persondir.IPersonAttributeDao;
+import org.apereo.services.persondir.support.MergingPersonAttributeDaoImpl;
+import org.apereo.services.persondir.support.ldap.LdaptivePersonAttributeDao;
+import org.ldaptive.auth.AbstractSearchEntryResolver;
 import org.ldaptive.auth.AuthenticationResponseHandler;
 import org.ldaptive.auth.Authenticator;
+import org.ldaptive.auth.FormatDnResolver;
+import org.ldaptive.auth.SearchEntryResolver;
 import org.ldaptive.auth.ext.ActiveDirectoryAuthenticationResponseHandler;
 import org.ldaptive.auth.ext.EDirectoryAuthenticationResponseHandler;
 import org.ldaptive.auth.ext.FreeIPAAuthenticationResponseHandler;
 import org.ldaptive.auth.ext.PasswordExpirationAuthenticationResponseHandler;
 import org.ldaptive.auth.ext.PasswordPolicyAuthenticationResponseHandler;
+import org.ldaptive.pool.PooledConnectionFactory;
+import org.ldaptive.pool.PooledConnectionFactoryManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -35,10 +48,15 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.time.Period;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -72,6 +90,12 @@ public class LdapAuthenticationConfiguration {
     @Qualifier("servicesManager")
     private ServicesManager servicesManager;
 
+    @Autowired(required = false)
+    @Qualifier("metrics")
+    private MetricRegistry metrics;
+
+    private final Map<AuthenticationHandler, LdapAuthenticationProperties> combinedModeHandlers = new IdentityHashMap<>();
+
     @ConditionalOnMissingBean(name = "ldapPrincipalFactory")
     @Bean
     public PrincipalFactory ldapPrincipalFactory() {
@@ -92,6 +116,10 @@ public class LdapAuthenticationConfiguration {
                     authenticator.setReturnAttributes(attributes.keySet().toArray(new String[]{}));
                     LOGGER.debug("Ldap authenticator configured with return attributes [{}] for [{}] and baseDn [{}]",
                             attributes.keySet(), l.getLdapUrl(), l.getBaseDn());
+                    final Map<String, InstrumentedPooledConnectionFactory> connectionFactories = instrumentConnectionFactories(authenticator);
+                    if (l.isCombinedMode()) {
+                        configureCombinedMode(l, authenticator);
+                    }
 
                     LOGGER.debug("Creating ldap authentication handler for [{}]", l.getLdapUrl());
                     final LdapAuthenticationHandler handler = new LdapAuthenticationHandler(authenticator);
@@ -99,6 +127,8 @@ public class LdapAuthenticationConfiguration {
                     handler.setName(l.getName());
                     handler.setOrder(l.getOrder());
                     handler.setPrincipalFactory(ldapPrincipalFactory());
+                    handler.setConnectionFactories(connectionFactories);
+                    handler.setPrincipalAttributesComplete(l.isCombinedMode());
 
                     final List<String> additionalAttrs = l.getAdditionalAttributes();
                     if (StringUtils.isNotBlank(l.getPrincipalAttributeId())) {
@@ -132,6 +162,11 @@ public class LdapAuthenticationConfiguration {
 
                     LOGGER.debug("Initializing ldap authentication handler for [{}]", l.getLdapUrl());
                     handler.initialize();
+                    final int index = casProperties.getAuthn().getLdap().indexOf(l);
+                    StatisticsGaugeSet.register(this.metrics, "cas.authn.ldap." + index + '.' + handler.getName(), handler::getStatistics);
+                    if (l.isCombinedMode()) {
+                        combinedModeHandlers.put(handler, l);
+                    }
                     handlers.add(handler);
                 });
         return handlers;
@@ -163,6 +198,97 @@ public class LdapAuthenticationConfiguration {
         return attributes;
     }
 
+    /**
+     * Swap the pooled connection factories of the authenticator components for factories that
+     * record pool wait times. Components that share a pool keep sharing it.
+     */
+    private static Map<String, InstrumentedPooledConnectionFactory> instrumentConnectionFactories(final Authenticator authenticator) {
+        final Map<PooledConnectionFactory, InstrumentedPooledConnectionFactory> instrumented = new IdentityHashMap<>();
+        final Map<String, InstrumentedPooledConnectionFactory> factories = new LinkedHashMap<>();
+        instrumentConnectionFactory("dnResolution", authenticator.getDnResolver(), instrumented, factories);
+        instrumentConnectionFactory("authentication", authenticator.getAuthenticationHandler(), instrumented, factories);
+        instrumentConnectionFactory("entryResolution", authenticator.getEntryResolver(), instrumented, factories);
+        return factories;
+    }
+
+    private static void instrumentConnectionFactory(final String role, final Object component,
+                                                    final Map<PooledConnectionFactory, InstrumentedPooledConnectionFactory> instrumented,
+                                                    final Map<String, InstrumentedPooledConnectionFactory> factories) {
+        if (!(component instanceof PooledConnectionFactoryManager)) {
+            return;
+        }
+        final PooledConnectionFactoryManager manager = (PooledConnectionFactoryManager) component;
+        final PooledConnectionFactory factory = manager.getConnectionFactory();
+        if (factory == null) {
+            return;
+        }
+        final InstrumentedPooledConnectionFactory wrapper = factory instanceof InstrumentedPooledConnectionFactory
+                ? (InstrumentedPooledConnectionFactory) factory
+                : instrumented.computeIfAbsent(factory, f -> new InstrumentedPooledConnectionFactory(f.getConnectionPool()));
+        manager.setConnectionFactory(wrapper);
+        factories.put(role, wrapper);
+    }
+
+    /**
+     * Cache resolved DNs and read the authenticated entry on the connection that performed the bind,
+     * instead of searching for it again on a separate pooled connection.
+     */
+    private static void configureCombinedMode(final LdapAuthenticationProperties l, final Authenticator authenticator) {
+        if (authenticator.getDnResolver() instanceof FormatDnResolver) {
+            LOGGER.debug("DNs for [{}] are built from a format and are not cached", l.getLdapUrl());
+        } else {
+            LOGGER.debug("Caching resolved DNs for [{}] for [{}] ms", l.getLdapUrl(), l.getDnCacheExpiration());
+            authenticator.setDnResolver(new CachingDnResolver(authenticator.getDnResolver(),
+                    l.getDnCacheExpiration(), l.getDnCacheMaximumSize()));
+        }
+
+        final SearchEntryResolver entryResolver = new SearchEntryResolver();
+        if (authenticator.getEntryResolver() instanceof AbstractSearchEntryResolver) {
+            entryResolver.setSearchEntryHandlers(((AbstractSearchEntryResolver) authenticator.getEntryResolver()).getSearchEntryHandlers());
+        }
+        authenticator.setEntryResolver(entryResolver);
+        LOGGER.debug("Ldap authentication for [{}] reads the authenticated entry on the bound connection", l.getLdapUrl());
+    }
+
+    /**
+     * Select the attribute repositories that principals authenticated in combined mode are still passed through,
+     * leaving out the LDAP repositories that search the same directory and base DN as the authentication handler.
+     * LDAP repositories are matched to their settings in the order in which they are created and sorted.
+     */
+    private List<IPersonAttributeDao> getAttributeRepositoriesNotCoveredBy(final LdapAuthenticationProperties l) {
+        final Iterator<PrincipalAttributesProperties.Ldap> ldapSources = casProperties.getAuthn().getAttributeRepository().getLdap()
+                .stream()
+                .filter(ldap -> StringUtils.isNotBlank(ldap.getBaseDn()) && StringUtils.isNotBlank(ldap.getLdapUrl()))
+                .sorted(Comparator.comparingInt(PrincipalAttributesProperties.Ldap::getOrder))
+                .iterator();
+
+        final List<IPersonAttributeDao> repositories = new ArrayList<>();
+        attributeRepositories.forEach(dao -> {
+            if (dao instanceof LdaptivePersonAttributeDao && ldapSources.hasNext()) {
+                final PrincipalAttributesProperties.Ldap ldap = ldapSources.next();
+                if (StringUtils.equalsIgnoreCase(ldap.getLdapUrl(), l.getLdapUrl()) && StringUtils.equalsIgnoreCase(ldap.getBaseDn(), l.getBaseDn())) {
+                    LOGGER.debug("Ldap attribute repository for [{}] and baseDn [{}] is covered by combined mode authentication",
+                            ldap.getLdapUrl(), ldap.getBaseDn());
+                    return;
+                }
+            }
+            repositories.add(dao);
+        });
+        return repositories;
+    }
+
+    private PrincipalResolver newCombinedModePrincipalResolver(final List<IPersonAttributeDao> repositories) {
+        final MergingPersonAttributeDaoImpl dao = new MergingPersonAttributeDaoImpl();
+        dao.setPersonAttributeDaos(repositories);
+
+        final PersonDirectoryPrincipalResolver resolver = new PersonDirectoryPrincipalResolver();
+        resolver.setAttributeRepository(dao);
+        resolver.setPrincipalAttributeName(casProperties.getPersonDirectory().getPrincipalAttribute());
+        resolver.setReturnNullIfNoAttributes(casProperties.getPersonDirectory().isReturnNull());
+        resolver.setPrincipalFactory(ldapPrincipalFactory());
+        return resolver;
+    }
+
     private Predicate<LdapAuthenticationProperties> ldapInstanceConfigurationPredicate() {
         return l -> {
             if (l.getType() == null) {
@@ -245,7 +371,18 @@ public class LdapAuthenticationConfiguration {
         public void configureAuthenticationExecutionPlan(final AuthenticationEventExecutionPlan plan) {
             ldapAuthenticationHandlers().forEach(handler -> {
                 final ChainingPrincipalResolver resolver = new ChainingPrincipalResolver();
-                if (isAttributeRepositorySourceDefined()) {
+                if (combinedModeHandlers.containsKey(handler)) {
+                    final List<IPersonAttributeDao> repositories = getAttributeRepositoriesNotCoveredBy(combinedModeHandlers.get(handler));
+                    if (repositories.isEmpty()) {
+                        LOGGER.debug("Ldap authentication for [{}] runs in combined mode; the principal and attributes read during "
+                                + "authentication are used as is since no other attribute repository sources are defined", handler.getName());
+                        resolver.setChain(Arrays.asList(new EchoingPrincipalResolver()));
+                    } else {
+                        LOGGER.debug("Ldap authentication for [{}] runs in combined mode; attribute repository sources [{}] that are not "
+                                + "covered by authentication are available for the principal resolution chain", handler.getName(), repositories);
+                        resolver.setChain(Arrays.asList(newCombinedModePrincipalResolver(repositories), new EchoingPrincipalResolver()));
+                    }
+                } else if (isAttributeRepositorySourceDefined()) {
                     LOGGER.debug("Attribute repository sources are defined and available for the principal resolution chain");
                     resolver.setChain(Arrays.asList(personDirectoryPrincipalResolver, new EchoingPrincipalResolver()));
                 } else {
@@ -1,7 +1,9 @@
 package org.apereo.cas;
 
+import org.apereo.cas.authentication.LdapAuthenticationHandlerCombinedModeTests;
 import org.apereo.cas.authentication.LdapAuthenticationHandlerTests;
 import org.apereo.cas.authentication.principal.PersonDirectoryPrincipalResolverLdaptiveTests;
+import org.apereo.cas.authentication.support.CachingDnResolverTests;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
@@ -12,6 +14,8 @@ import org.junit.runners.Suite;
  */
 @RunWith(Suite.class)
 @Suite.SuiteClasses({LdapAuthenticationHandlerTests.class, 
-        PersonDirectoryPrincipalResolverLdaptiveTests.class})
+        PersonDirectoryPrincipalResolverLdaptiveTests.class,
+        CachingDnResolverTests.class,
+        LdapAuthenticationHandlerCombinedModeTests.class})
 public class AllTestsSuite {
 }
@@ -0,0 +1,175 @@
+package org.apereo.cas.authentication;
+
+import com.codahale.metrics.MetricRegistry;
+import org.apereo.cas.adaptors.ldap.AbstractLdapTests;
+import org.apereo.cas.authentication.principal.Principal;
+import org.apereo.cas.authentication.principal.PrincipalResolver;
+import org.apereo.cas.authentication.principal.resolvers.EchoingPrincipalResolver;
+import org.apereo.cas.authentication.principal.resolvers.PersonDirectoryPrincipalResolver;
+import org.apereo.cas.config.CasCoreAuthenticationConfiguration;
+import org.apereo.cas.config.CasCoreAuthenticationHandlersConfiguration;
+import org.apereo.cas.config.CasCoreAuthenticationMetadataConfiguration;
+import org.apereo.cas.config.CasCoreAuthenticationPolicyConfiguration;
+import org.apereo.cas.config.CasCoreAuthenticationPrincipalConfiguration;
+import org.apereo.cas.config.CasCoreAuthenticationSupportConfiguration;
+import org.apereo.cas.config.CasCoreHttpConfiguration;
+import org.apereo.cas.config.CasCoreServicesConfiguration;
+import org.apereo.cas.config.CasPersonDirectoryConfiguration;
+import org.apereo.cas.config.LdapAuthenticationConfiguration;
+import org.apereo.cas.config.support.CasWebApplicationServiceFactoryConfiguration;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.apereo.services.persondir.IPersonAttributeDao;
+import org.ldaptive.LdapEntry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.autoconfigure.RefreshAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.security.auth.login.FailedLoginException;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link LdapAuthenticationHandler} running in combined mode.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = {RefreshAutoConfiguration.class,
+        LdapAuthenticationHandlerCombinedModeTests.LdapAuthenticationMetricsTestConfiguration.class,
+        CasCoreAuthenticationPrincipalConfiguration.class,
+        CasCoreAuthenticationPolicyConfiguration.class,
+        CasCoreAuthenticationMetadataConfiguration.class,
+        CasCoreAuthenticationSupportConfiguration.class,
+        CasCoreAuthenticationHandlersConfiguration.class,
+        CasWebApplicationServiceFactoryConfiguration.class,
+        CasCoreHttpConfiguration.class,
+        CasPersonDirectoryConfiguration.class,
+        CasCoreAuthenticationConfiguration.class,
+        CasCoreServicesConfiguration.class,
+        LdapAuthenticationConfiguration.class})
+@TestPropertySource(locations = {"classpath:/ldap.properties"},
+        properties = {"cas.authn.ldap[0].name=combined", "cas.authn.ldap[0].combinedMode=true",
+                "cas.authn.attributeRepository.ldap[1].baseDn=dc=example,dc=org",
+                "cas.authn.attributeRepository.ldap[1].ldapUrl=ldap://localhost:1389",
+                "cas.authn.attributeRepository.ldap[1].userFilter=sAMAccountName={0}",
+                "cas.authn.attributeRepository.ldap[1].useSsl=false"})
+public class LdapAuthenticationHandlerCombinedModeTests extends AbstractLdapTests {
+
+    @Autowired
+    @Qualifier("ldapAuthenticationHandlers")
+    private Collection<AuthenticationHandler> handlers;
+
+    @Autowired
+    @Qualifier("authenticationEventExecutionPlan")
+    private AuthenticationEventExecutionPlan authenticationEventExecutionPlan;
+
+    @Autowired
+    @Qualifier("metrics")
+    private MetricRegistry metrics;
+
+    @BeforeClass
+    public static void bootstrap() throws Exception {
+        initDirectoryServer();
+    }
+
+    @AfterClass
+    public static void shutdown() throws Exception {
+        DIRECTORY.close();
+    }
+
+    @Test
+    public void verifyAuthenticateReturnsAttributes() throws Exception {
+        final LdapAuthenticationHandler handler = getHandler();
+        assertTrue(handler.isPrincipalAttributesComplete());
+        for (final LdapEntry entry : getEntries()) {
+            final String username = entry.getAttribute("sAMAccountName").getStringValue();
+            final String password = entry.getAttribute("userPassword").getStringValue();
+            final HandlerResult result = handler.authenticate(new UsernamePasswordCredential(username, password));
+            assertEquals(username, result.getPrincipal().getId());
+            assertEquals(entry.getAttribute("displayName").getStringValue(),
+                    result.getPrincipal().getAttributes().get("displayName"));
+            assertEquals(entry.getAttribute("mail").getStringValue(),
+                    result.getPrincipal().getAttributes().get("mail"));
+        }
+    }
+
+    @Test
+    public void verifyUncoveredAttributeRepositoriesAreResolved() throws Exception {
+        final LdapAuthenticationHandler handler = getHandler();
+        final LdapEntry entry = getEntries().iterator().next();
+        final UsernamePasswordCredential credential = new UsernamePasswordCredential(
+                entry.getAttribute("sAMAccountName").getStringValue(), entry.getAttribute("userPassword").getStringValue());
+
+        final PrincipalResolver resolver = this.authenticationEventExecutionPlan.getPrincipalResolverForAuthenticationTransaction(handler,
+                AuthenticationTransaction.wrap(credential));
+        final List<PrincipalResolver> chain = (List<PrincipalResolver>) ReflectionTestUtils.getField(resolver, "chain");
+        assertEquals(2, chain.size());
+        assertTrue(chain.get(0) instanceof PersonDirectoryPrincipalResolver);
+        assertTrue(chain.get(1) instanceof EchoingPrincipalResolver);
+        final List<IPersonAttributeDao> repositories = (List<IPersonAttributeDao>)
+                ReflectionTestUtils.getField(chain.get(0).getAttributeRepository(), "personAttributeDaos");
+        assertEquals(1, repositories.size());
+
+        final Principal principal = resolver.resolve(credential, handler.authenticate(credential).getPrincipal());
+        assertEquals(credential.getId(), principal.getId());
+        assertEquals(entry.getAttribute("mail").getStringValue(), principal.getAttributes().get("mail"));
+    }
+
+    @Test
+    public void verifyFailedAuthenticationEvictsCachedDn() throws Exception {
+        final LdapAuthenticationHandler handler = getHandler();
+        final LdapEntry entry = getEntries().iterator().next();
+        final String username = entry.getAttribute("sAMAccountName").getStringValue();
+        final String password = entry.getAttribute("userPassword").getStringValue();
+
+        handler.authenticate(new UsernamePasswordCredential(username, password));
+        final long hits = handler.getStatistics().get("dnCache.hits");
+        handler.authenticate(new UsernamePasswordCredential(username, password));
+        assertEquals(hits + 1, handler.getStatistics().get("dnCache.hits").longValue());
+
+        try {
+            handler.authenticate(new UsernamePasswordCredential(username, "badpassword"));
+            fail("Authentication should have failed");
+        } catch (final FailedLoginException e) {
+            final long misses = handler.getStatistics().get("dnCache.misses");
+            handler.authenticate(new UsernamePasswordCredential(username, password));
+            assertEquals(misses + 1, handler.getStatistics().get("dnCache.misses").longValue());
+        }
+    }
+
+    @Test
+    public void verifyStatisticsAreRegisteredAsGauges() throws Exception {
+        final LdapAuthenticationHandler handler = getHandler();
+        handler.getStatistics().forEach((key, value) ->
+                assertTrue(this.metrics.getGauges().containsKey("cas.authn.ldap.0.combined.".concat(key))));
+        assertTrue(this.metrics.getGauges().containsKey("cas.authn.ldap.0.combined.dnCache.hits"));
+    }
+
+    private LdapAuthenticationHandler getHandler() {
+        assertEquals(1, this.handlers.size());
+        return (LdapAuthenticationHandler) this.handlers.iterator().next();
+    }
+
+    /**
+     * Provides the registry that the ldap configuration publishes its statistics to.
+     */
+    @Configuration("ldapAuthenticationMetricsTestConfiguration")
+    public static class LdapAuthenticationMetricsTestConfiguration {
+        @Bean
+        public MetricRegistry metrics() {
+            return new MetricRegistry();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package org.apereo.cas.authentication.support;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ldaptive.auth.DnResolver;
+import org.ldaptive.auth.User;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link CachingDnResolverTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class CachingDnResolverTests {
+
+    private final AtomicInteger searches = new AtomicInteger();
+
+    private CachingDnResolver resolver;
+
+    @Before
+    public void setup() {
+        final DnResolver delegate = user -> {
+            searches.incrementAndGet();
+            return "unknown".equals(user.getIdentifier()) ? null : "uid=" + user.getIdentifier() + ",ou=people,dc=example,dc=org";
+        };
+        this.resolver = new CachingDnResolver(delegate, 60_000, 100);
+    }
+
+    @Test
+    public void verifyResolvedDnIsCached() throws Exception {
+        assertEquals("uid=casuser,ou=people,dc=example,dc=org", this.resolver.resolve(new User("casuser")));
+        assertEquals("uid=casuser,ou=people,dc=example,dc=org", this.resolver.resolve(new User("casuser")));
+        assertEquals(1, searches.get());
+        assertEquals(Long.valueOf(1), this.resolver.getStatistics().get("hits"));
+        assertEquals(Long.valueOf(1), this.resolver.getStatistics().get("misses"));
+    }
+
+    @Test
+    public void verifyUnresolvedDnIsNotCached() throws Exception {
+        assertNull(this.resolver.resolve(new User("unknown")));
+        assertNull(this.resolver.resolve(new User("unknown")));
+        assertEquals(2, searches.get());
+        assertEquals(Long.valueOf(0), this.resolver.getStatistics().get("size"));
+    }
+
+    @Test
+    public void verifyInvalidatedDnIsResolvedAgain() throws Exception {
+        this.resolver.resolve(new User("casuser"));
+        this.resolver.invalidate("casuser");
+        this.resolver.resolve(new User("casuser"));
+        assertEquals(2, searches.get());
+    }
+}
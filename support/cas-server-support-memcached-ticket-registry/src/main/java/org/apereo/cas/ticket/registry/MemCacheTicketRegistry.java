@@ -4,11 +4,14 @@ import net.spy.memcached.MemcachedClientIF;
 import org.apereo.cas.ticket.Ticket;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.util.Assert;
 
-import javax.annotation.PreDestroy;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Future;
 
 /**
  * Key-value ticket registry implementation that stores tickets in memcached keyed on the ticket ID.
@@ -17,7 +20,7 @@ import java.util.Collection;
  * @author Marvin S. Addison
  * @since 3.3
  */
-public class MemCacheTicketRegistry extends AbstractTicketRegistry {
+public class MemCacheTicketRegistry extends AbstractTicketRegistry implements DisposableBean {
     private static final Logger LOGGER = LoggerFactory.getLogger(MemCacheTicketRegistry.class);
     
     /**
@@ -99,6 +102,32 @@ public class MemCacheTicketRegistry extends AbstractTicketRegistry {
         return true;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>Delete operations for all tickets are queued on the client before waiting
+     * on any of the results, so that they are pipelined to the memcached servers.</p>
+     */
+    @Override
+    public int deleteTickets(final Collection<String> ticketIds) {
+        Assert.notNull(this.client, "No memcached client is defined.");
+        final Map<String, Future<Boolean>> removals = new LinkedHashMap<>();
+        ticketIds.forEach(ticketId -> removals.put(ticketId, this.client.delete(ticketId)));
+        int count = 0;
+        for (final Map.Entry<String, Future<Boolean>> removal : removals.entrySet()) {
+            try {
+                if (removal.getValue().get()) {
+                    LOGGER.debug("Removed ticket [{}] from the cache", removal.getKey());
+                    count++;
+                } else {
+                    LOGGER.info("Ticket [{}] not found or is already removed.", removal.getKey());
+                }
+            } catch (final Exception e) {
+                LOGGER.error("Ticket not found or is already removed. Failed deleting [{}]", removal.getKey(), e);
+            }
+        }
+        return count;
+    }
+
     @Override
     public Ticket getTicket(final String ticketIdToGet) {
         Assert.notNull(this.client, "No memcached client is defined.");
@@ -124,7 +153,7 @@ public class MemCacheTicketRegistry extends AbstractTicketRegistry {
     /**
      * Destroy the client and shut down.
      */
-    @PreDestroy
+    @Override
     public void destroy() {
         if (this.client == null) {
             return;
@@ -1,5 +1,8 @@
 package org.apereo.cas.services;
 
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.mongodb.core.MongoOperations;
@@ -8,7 +11,9 @@ import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.util.Assert;
 
 import javax.annotation.PostConstruct;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Pattern;
 
 /**
@@ -25,6 +30,9 @@ public class MongoServiceRegistryDao implements ServiceRegistryDao {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(MongoServiceRegistryDao.class);
 
+    private static final String FIELD_NAME_ID = "_id";
+    private static final String FIELD_NAME_LAST_MODIFIED = "lastModified";
+
     private String collectionName;
 
     private boolean dropCollection;
@@ -95,11 +103,24 @@ public class MongoServiceRegistryDao implements ServiceRegistryDao {
         return this.mongoTemplate.findAll(RegisteredService.class, this.collectionName);
     }
 
+    @Override
+    public Map<Long, Long> loadVersions() {
+        final Map<Long, Long> versions = new HashMap<>();
+        try (DBCursor cursor = this.mongoTemplate.getCollection(this.collectionName)
+                .find(new BasicDBObject(), new BasicDBObject(FIELD_NAME_LAST_MODIFIED, 1))) {
+            cursor.forEach(doc -> versions.put(((Number) doc.get(FIELD_NAME_ID)).longValue(), getLastModified(doc)));
+        }
+        return versions;
+    }
+
     @Override
     public RegisteredService save(final RegisteredService svc) {
         if (svc.getId() == AbstractRegisteredService.INITIAL_IDENTIFIER_VALUE) {
             ((AbstractRegisteredService) svc).setId(svc.hashCode());
         }
+        if (svc instanceof AbstractRegisteredService) {
+            ((AbstractRegisteredService) svc).updateLastModified();
+        }
         this.mongoTemplate.save(svc, this.collectionName);
         LOGGER.debug("Saved registered service: [{}]", svc);
         return this.findServiceById(svc.getId());
@@ -114,4 +135,9 @@ public class MongoServiceRegistryDao implements ServiceRegistryDao {
     public long size() {
         return this.mongoTemplate.count(new Query(), RegisteredService.class, this.collectionName);
     }
+
+    private static long getLastModified(final DBObject doc) {
+        final Object lastModified = doc.get(FIELD_NAME_LAST_MODIFIED);
+        return lastModified instanceof Number ? ((Number) lastModified).longValue() : 0;
+    }
 }
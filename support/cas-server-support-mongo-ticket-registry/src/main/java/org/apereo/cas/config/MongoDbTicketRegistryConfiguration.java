@@ -4,14 +4,9 @@ import com.mongodb.Mongo;
 import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.configuration.model.support.mongo.ticketregistry.MongoTicketRegistryProperties;
 import org.apereo.cas.configuration.support.Beans;
-import org.apereo.cas.logout.LogoutManager;
 import org.apereo.cas.ticket.registry.MongoDbTicketRegistry;
-import org.apereo.cas.ticket.registry.NoOpLockingStrategy;
-import org.apereo.cas.ticket.registry.NoOpTicketRegistryCleaner;
 import org.apereo.cas.ticket.registry.TicketRegistry;
-import org.apereo.cas.ticket.registry.TicketRegistryCleaner;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.context.config.annotation.RefreshScope;
 import org.springframework.context.annotation.Bean;
@@ -31,10 +26,6 @@ public class MongoDbTicketRegistryConfiguration extends AbstractMongoConfigurati
     @Autowired
     private CasConfigurationProperties casProperties;
 
-    @Autowired
-    @Qualifier("logoutManager")
-    private LogoutManager logoutManager;
-
     @RefreshScope
     @Bean(name = {"mongoTicketRegistry", "ticketRegistry"})
     public TicketRegistry mongoTicketRegistry() throws Exception {
@@ -42,11 +33,6 @@ public class MongoDbTicketRegistryConfiguration extends AbstractMongoConfigurati
         return new MongoDbTicketRegistry(mongo.getCollectionName(), mongo.isDropCollection(), mongoTemplate());
     }
 
-    @Bean
-    public TicketRegistryCleaner ticketRegistryCleaner() throws Exception {
-        return new NoOpTicketRegistryCleaner(new NoOpLockingStrategy(), logoutManager, mongoTicketRegistry(), false);
-    }
-
     @Override
     protected String getDatabaseName() {
         final MongoTicketRegistryProperties mongo = casProperties.getTicket().getRegistry().getMongo();
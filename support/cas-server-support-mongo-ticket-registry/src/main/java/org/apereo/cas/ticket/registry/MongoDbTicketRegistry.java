@@ -2,8 +2,11 @@ package org.apereo.cas.ticket.registry;
 
 import com.mongodb.BasicDBObject;
 import com.mongodb.DBCollection;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
 import org.apereo.cas.ticket.BaseTicketSerializers;
 import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.util.DateTimeUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.mongodb.core.MongoOperations;
@@ -13,8 +16,16 @@ import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.util.Assert;
 
 import javax.annotation.PostConstruct;
+import java.time.ZonedDateTime;
 import java.util.Collection;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A Ticket Registry storage backend based on MongoDB.
@@ -62,6 +73,7 @@ public class MongoDbTicketRegistry extends AbstractTicketRegistry {
         final DBCollection collection = mongoTemplate.getCollection(this.collectionName);
         collection.createIndex(new BasicDBObject(TicketHolder.FIELD_NAME_EXPIRE_AT, 1),
                 new BasicDBObject("expireAfterSeconds", 0));
+        collection.createIndex(new BasicDBObject(TicketHolder.FIELD_NAME_EXPIRES_AT, 1));
 
         LOGGER.info("Configured MongoDb Ticket Registry instance [{}]", this.collectionName);
     }
@@ -72,7 +84,8 @@ public class MongoDbTicketRegistry extends AbstractTicketRegistry {
         try {
             final TicketHolder holder = buildTicketAsDocument(ticket);
             this.mongoTemplate.updateFirst(new Query(Criteria.where(TicketHolder.FIELD_NAME_ID).is(holder.getTicketId())),
-                    Update.update(TicketHolder.FIELD_NAME_JSON, holder.getJson()), this.collectionName);
+                    Update.update(TicketHolder.FIELD_NAME_JSON, holder.getJson())
+                            .set(TicketHolder.FIELD_NAME_EXPIRES_AT, holder.getExpiresAt()), this.collectionName);
         } catch (final Exception e) {
             LOGGER.error("Failed updating [{}]: [{}]", ticket, e);
         }
@@ -115,6 +128,32 @@ public class MongoDbTicketRegistry extends AbstractTicketRegistry {
         return c.stream().map(this::deserializeTicketFromMongoDocument).collect(Collectors.toSet());
     }
 
+    @Override
+    public Stream<Ticket> getTicketsStream(final Predicate<Ticket> predicate, final int pageSize) {
+        final DBCursor cursor = this.mongoTemplate.getCollection(this.collectionName).find().batchSize(pageSize);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize((Iterator<DBObject>) cursor, Spliterator.ORDERED), false)
+                .onClose(cursor::close)
+                .map(document -> this.mongoTemplate.getConverter().read(TicketHolder.class, document))
+                .map(this::deserializeTicketFromMongoDocument)
+                .filter(predicate);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Only documents whose recorded expiration time has passed are read, using the index
+     * on the expiration field. Each candidate is verified against its expiration policy.</p>
+     */
+    @Override
+    public Stream<Ticket> getExpiredTicketsStream(final int pageSize) {
+        final DBObject query = new BasicDBObject(TicketHolder.FIELD_NAME_EXPIRES_AT, new BasicDBObject("$lte", new Date()));
+        final DBCursor cursor = this.mongoTemplate.getCollection(this.collectionName).find(query).batchSize(pageSize);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize((Iterator<DBObject>) cursor, Spliterator.ORDERED), false)
+                .onClose(cursor::close)
+                .map(document -> this.mongoTemplate.getConverter().read(TicketHolder.class, document))
+                .map(this::deserializeTicketFromMongoDocument)
+                .filter(Ticket::isExpired);
+    }
+
     @Override
     public long sessionCount() {
         return 0;
@@ -137,6 +176,24 @@ public class MongoDbTicketRegistry extends AbstractTicketRegistry {
         return false;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>All tickets are removed with a single {@code $in} query.</p>
+     */
+    @Override
+    public int deleteTickets(final Collection<String> ticketIds) {
+        LOGGER.debug("Deleting tickets [{}]", ticketIds);
+        if (ticketIds.isEmpty()) {
+            return 0;
+        }
+        try {
+            return this.mongoTemplate.remove(new Query(Criteria.where(TicketHolder.FIELD_NAME_ID).in(ticketIds)), this.collectionName).getN();
+        } catch (final Exception e) {
+            LOGGER.error("Failed deleting [{}]: [{}]", ticketIds, e);
+        }
+        return 0;
+    }
+
     @Override
     public long deleteAll() {
         final Query query = new Query(Criteria.where(TicketHolder.FIELD_NAME_ID).regex(".+"));
@@ -159,7 +216,9 @@ public class MongoDbTicketRegistry extends AbstractTicketRegistry {
 
     private TicketHolder buildTicketAsDocument(final Ticket ticket) {
         final String json = serializeTicketForMongoDocument(ticket);
-        return new TicketHolder(json, ticket.getId(), ticket.getClass().getName(), getTimeToLive(ticket));
+        final ZonedDateTime expirationTime = getExpirationTime(ticket);
+        return new TicketHolder(json, ticket.getId(), ticket.getClass().getName(), getTimeToLive(ticket),
+                expirationTime != null ? DateTimeUtils.dateOf(expirationTime) : null);
     }
 }
 
@@ -3,6 +3,7 @@ package org.apereo.cas.ticket.registry;
 import org.springframework.data.mongodb.core.index.Indexed;
 
 import java.io.Serializable;
+import java.util.Date;
 
 /**
  * This is {@link TicketHolder}.
@@ -17,6 +18,9 @@ public class TicketHolder implements Serializable {
     /** Field name to hold ticket expiration time. */
     public static final String FIELD_NAME_EXPIRE_AT = "expireAt";
 
+    /** Field name to hold the time the ticket is expected to expire. */
+    public static final String FIELD_NAME_EXPIRES_AT = "expiresAt";
+
     /** Field name to hold ticket id. */
     public static final String FIELD_NAME_ID= "ticketId";
     
@@ -31,12 +35,17 @@ public class TicketHolder implements Serializable {
     @Indexed
     private final long expireAt;
 
+    @Indexed
+    private final Date expiresAt;
+
     public TicketHolder(final String json, final String ticketId,
-                        final String type, final long expireAt) {
+                        final String type, final long expireAt,
+                        final Date expiresAt) {
         this.json = json;
         this.ticketId = ticketId;
         this.type = type;
         this.expireAt = expireAt;
+        this.expiresAt = expiresAt;
     }
 
     public String getJson() {
@@ -55,4 +64,8 @@ public class TicketHolder implements Serializable {
         return expireAt;
     }
 
+    public Date getExpiresAt() {
+        return expiresAt;
+    }
+
 }
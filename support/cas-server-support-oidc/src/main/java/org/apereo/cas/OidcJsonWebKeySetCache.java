@@ -0,0 +1,288 @@
+package org.apereo.cas;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.jose4j.jwk.JsonWebKey;
+import org.jose4j.jwk.JsonWebKeySet;
+import org.jose4j.jwk.RsaJsonWebKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.io.Resource;
+import org.springframework.util.ResourceUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This is {@link OidcJsonWebKeySetCache} that holds parsed JSON web key sets, along with the key
+ * used for signing, keyed by the URI of the resource they are loaded from. At most a configured
+ * number of keystores are held; the least recently used ones are dropped beyond that.
+ * <p>Keystores on the local file system are reloaded as soon as the file changes. Other keystores,
+ * such as those fetched from a client's URL, are reloaded in the background once they expire
+ * while the cached keys continue to be used. When such a keystore is not yet cached, callers wait
+ * no longer than the fetch timeout for it to load.</p>
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class OidcJsonWebKeySetCache implements DisposableBean {
+    private static final Logger LOGGER = LoggerFactory.getLogger(OidcJsonWebKeySetCache.class);
+
+    private final Cache<String, CachedJsonWebKeySet> cache;
+    private final Map<String, CompletableFuture<CachedJsonWebKeySet>> pendingLoads = new ConcurrentHashMap<>();
+
+    private final long timeToLiveInMillis;
+    private final long fetchTimeoutInMillis;
+    private final ExecutorService executorService;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong loadFailures = new AtomicLong();
+    private final AtomicLong fetchTimeouts = new AtomicLong();
+
+    /**
+     * Instantiates a new Json web key set cache.
+     *
+     * @param timeToLiveInMillis   how long keystores that are not on the local file system are used before they are reloaded
+     * @param fetchTimeoutInMillis how long to wait for a keystore that is not yet cached
+     * @param poolSize             the number of threads used to load keystores
+     * @param maximumSize          the maximum number of keystores held in the cache
+     */
+    public OidcJsonWebKeySetCache(final long timeToLiveInMillis, final long fetchTimeoutInMillis,
+                                  final int poolSize, final long maximumSize) {
+        this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+        this.timeToLiveInMillis = timeToLiveInMillis;
+        this.fetchTimeoutInMillis = fetchTimeoutInMillis;
+        this.executorService = Executors.newFixedThreadPool(poolSize,
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("oidc-jwks-loader-%d").build());
+    }
+
+    /**
+     * Gets the cached keystore loaded from the given resource.
+     *
+     * @param resource the resource
+     * @return the keystore, or {@code null} if it cannot be loaded or is not available in time
+     */
+    public CachedJsonWebKeySet get(final Resource resource) {
+        final CachedJsonWebKeySet cached = this.cache.getIfPresent(getKey(resource));
+        if (cached != null) {
+            if (cached.local) {
+                if (cached.lastModified == lastModified(resource)) {
+                    this.hits.incrementAndGet();
+                    return cached;
+                }
+                return await(resource, load(resource));
+            }
+            this.hits.incrementAndGet();
+            if (System.currentTimeMillis() - cached.loadTime >= this.timeToLiveInMillis) {
+                LOGGER.debug("Cached JSON web keys from [{}] have expired and will be reloaded", resource);
+                load(resource);
+            }
+            return cached;
+        }
+        return await(resource, load(resource));
+    }
+
+    /**
+     * Remove all cached keystores.
+     */
+    public void invalidateAll() {
+        this.cache.invalidateAll();
+    }
+
+    /**
+     * Gets cache statistics, such as hit counts and the number of keystores loaded.
+     *
+     * @return the statistics
+     */
+    public Map<String, Long> getStatistics() {
+        final Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("size", this.cache.size());
+        stats.put("hits", this.hits.get());
+        stats.put("loads", this.loads.get());
+        stats.put("loadFailures", this.loadFailures.get());
+        stats.put("fetchTimeouts", this.fetchTimeouts.get());
+        return stats;
+    }
+
+    public long getTimeToLiveInMillis() {
+        return this.timeToLiveInMillis;
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        this.executorService.shutdownNow();
+    }
+
+    /**
+     * Load the keystore in the background, unless a load from the same resource is already underway.
+     */
+    private CompletableFuture<CachedJsonWebKeySet> load(final Resource resource) {
+        final String key = getKey(resource);
+        final CompletableFuture<CachedJsonWebKeySet> future = new CompletableFuture<>();
+        final CompletableFuture<CachedJsonWebKeySet> pending = this.pendingLoads.putIfAbsent(key, future);
+        if (pending != null) {
+            return pending;
+        }
+        try {
+            this.executorService.execute(() -> {
+                CachedJsonWebKeySet result = null;
+                try {
+                    result = loadJsonWebKeySet(resource);
+                    this.cache.put(key, result);
+                    this.loads.incrementAndGet();
+                } catch (final Exception e) {
+                    this.loadFailures.incrementAndGet();
+                    LOGGER.warn("Unable to load JSON web keys from [{}]: [{}]", resource, e.getMessage());
+                    LOGGER.debug(e.getMessage(), e);
+                    result = this.cache.getIfPresent(key);
+                } finally {
+                    this.pendingLoads.remove(key, future);
+                    future.complete(result);
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            this.pendingLoads.remove(key, future);
+            future.complete(this.cache.getIfPresent(key));
+        }
+        return future;
+    }
+
+    private CachedJsonWebKeySet await(final Resource resource, final CompletableFuture<CachedJsonWebKeySet> future) {
+        try {
+            return future.get(this.fetchTimeoutInMillis, TimeUnit.MILLISECONDS);
+        } catch (final TimeoutException e) {
+            this.fetchTimeouts.incrementAndGet();
+            LOGGER.warn("JSON web keys from [{}] could not be loaded within [{}] ms", resource, this.fetchTimeoutInMillis);
+            return this.cache.getIfPresent(getKey(resource));
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return this.cache.getIfPresent(getKey(resource));
+        } catch (final ExecutionException e) {
+            LOGGER.warn("Unable to load JSON web keys from [{}]: [{}]", resource, e.getMessage());
+            return this.cache.getIfPresent(getKey(resource));
+        }
+    }
+
+    private static CachedJsonWebKeySet loadJsonWebKeySet(final Resource resource) throws Exception {
+        final boolean local = isLocal(resource);
+        final long lastModified = local ? lastModified(resource) : 0;
+        try (InputStream in = resource.getInputStream()) {
+            final String json = IOUtils.toString(in, StandardCharsets.UTF_8);
+            LOGGER.debug("Retrieved JSON web key from [{}] as [{}]", resource, json);
+            final JsonWebKeySet jsonWebKeySet = new JsonWebKeySet(json);
+            return new CachedJsonWebKeySet(jsonWebKeySet, getSigningKey(jsonWebKeySet), local, lastModified);
+        }
+    }
+
+    private static RsaJsonWebKey getSigningKey(final JsonWebKeySet jwks) {
+        if (jwks.getJsonWebKeys().isEmpty()) {
+            LOGGER.warn("No JSON web keys are available in the keystore");
+            return null;
+        }
+
+        final JsonWebKey jsonWebKey = jwks.getJsonWebKeys().get(0);
+        if (!(jsonWebKey instanceof RsaJsonWebKey)) {
+            LOGGER.warn("Located JSON web key [{}] is not an RSA key", jsonWebKey);
+            return null;
+        }
+        final RsaJsonWebKey key = (RsaJsonWebKey) jsonWebKey;
+        if (StringUtils.isBlank(key.getAlgorithm())) {
+            LOGGER.warn("Located JSON web key [{}] has no algorithm defined", key);
+        }
+        if (StringUtils.isBlank(key.getKeyId())) {
+            LOGGER.warn("Located JSON web key [{}] has no key id defined", key);
+        }
+
+        if (key.getPrivateKey() == null) {
+            LOGGER.warn("Located JSON web key [{}] has no private key", key);
+            return null;
+        }
+        return key;
+    }
+
+    /**
+     * Key keystores on the URI string of their resource, rather than on the resource itself whose
+     * equality may need to resolve host names.
+     */
+    private static String getKey(final Resource resource) {
+        try {
+            return resource.getURI().toString();
+        } catch (final IOException e) {
+            return resource.getDescription();
+        }
+    }
+
+    private static boolean isLocal(final Resource resource) {
+        try {
+            return ResourceUtils.isFileURL(resource.getURL());
+        } catch (final Exception e) {
+            return false;
+        }
+    }
+
+    private static long lastModified(final Resource resource) {
+        try {
+            return resource.lastModified();
+        } catch (final Exception e) {
+            return 0;
+        }
+    }
+
+    /**
+     * A parsed keystore, along with the key used for signing and the details needed to tell whether it is current.
+     */
+    public static class CachedJsonWebKeySet {
+        private final JsonWebKeySet jsonWebKeySet;
+        private final RsaJsonWebKey signingKey;
+        private final boolean local;
+        private final long lastModified;
+        private final long loadTime = System.currentTimeMillis();
+
+        CachedJsonWebKeySet(final JsonWebKeySet jsonWebKeySet, final RsaJsonWebKey signingKey,
+                            final boolean local, final long lastModified) {
+            this.jsonWebKeySet = jsonWebKeySet;
+            this.signingKey = signingKey;
+            this.local = local;
+            this.lastModified = lastModified;
+        }
+
+        /**
+         * Gets the parsed keystore. The keystore is shared and must not be modified.
+         *
+         * @return the json web key set
+         */
+        public JsonWebKeySet getJsonWebKeySet() {
+            return this.jsonWebKeySet;
+        }
+
+        /**
+         * Gets the first key of the keystore, if it is an RSA key with a private key.
+         *
+         * @return the signing key, or {@code null}
+         */
+        public RsaJsonWebKey getSigningKey() {
+            return this.signingKey;
+        }
+
+        public long getLoadTime() {
+            return this.loadTime;
+        }
+    }
+}
@@ -1,12 +1,10 @@
 package org.apereo.cas;
 
 import com.google.common.base.Throwables;
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apereo.cas.services.OidcRegisteredService;
 import org.jose4j.jwa.AlgorithmConstraints;
 import org.jose4j.jwk.JsonWebKey;
-import org.jose4j.jwk.JsonWebKeySet;
 import org.jose4j.jwk.RsaJsonWebKey;
 import org.jose4j.jws.AlgorithmIdentifiers;
 import org.jose4j.jws.JsonWebSignature;
@@ -18,12 +16,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
 
-import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 import java.util.UUID;
 
 /**
  * This is {@link OidcTokenSigningService}.
+ * <p>Keystores and their signing keys are obtained from an {@link OidcJsonWebKeySetCache},
+ * rather than read and parsed for each token.</p>
  *
  * @author Misagh Moayyed
  * @since 5.1.0
@@ -36,32 +35,13 @@ public class OidcTokenSigningService {
 
     private final Resource jwksFile;
 
-    public OidcTokenSigningService(final Resource jwksFile) {
-        this.jwksFile = jwksFile;
-    }
-
-    private RsaJsonWebKey getJsonSigningWebKeyFromJwks(final JsonWebKeySet jwks) {
-        if (jwks.getJsonWebKeys().isEmpty()) {
-            LOGGER.warn("No JSON web keys are available in the keystore");
-            return null;
-        }
+    private final OidcJsonWebKeySetCache jsonWebKeySetCache;
 
-        final RsaJsonWebKey key = (RsaJsonWebKey) jwks.getJsonWebKeys().get(0);
-        if (StringUtils.isNotBlank(key.getAlgorithm())) {
-            LOGGER.warn("Located JSON web key [{}] has no algorithm defined", key);
-        }
-        if (StringUtils.isNotBlank(key.getKeyId())) {
-            LOGGER.warn("Located JSON web key [{}] has no key id defined", key);
-        }
-
-        if (key.getPrivateKey() == null) {
-            LOGGER.warn("Located JSON web key [{}] has no private key", key);
-            return null;
-        }
-        return key;
+    public OidcTokenSigningService(final Resource jwksFile, final OidcJsonWebKeySetCache jsonWebKeySetCache) {
+        this.jwksFile = jwksFile;
+        this.jsonWebKeySetCache = jsonWebKeySetCache;
     }
 
-
     /**
      * Sign id token claim string.
      *
@@ -82,17 +62,17 @@ public class OidcTokenSigningService {
             jws.setAlgorithmHeaderValue(AlgorithmIdentifiers.NONE);
             jws.setAlgorithmConstraints(AlgorithmConstraints.NO_CONSTRAINTS);
 
-            final Optional<JsonWebKeySet> jwks = buildJsonWebKeySet(svc);
-            if (svc.isSignIdToken() && (!jwks.isPresent() || jwks.get().getJsonWebKeys().isEmpty())) {
-                throw new IllegalArgumentException("Service " + svc.getServiceId()
-                        + " with client id " + svc.getClientId()
-                        + " is configured to signn id tokens, yet no JSON web key is available");
-            }
-
             if (svc.isSignIdToken()) {
                 LOGGER.debug("Service [{}] is set to sign id tokens", svc);
 
-                final RsaJsonWebKey jsonWebKey = getJsonSigningWebKeyFromJwks(jwks.get());
+                final Optional<OidcJsonWebKeySetCache.CachedJsonWebKeySet> jwks = buildJsonWebKeySet(svc);
+                if (!jwks.isPresent()) {
+                    throw new IllegalArgumentException("Service " + svc.getServiceId()
+                            + " with client id " + svc.getClientId()
+                            + " is configured to signn id tokens, yet no JSON web key is available");
+                }
+
+                final RsaJsonWebKey jsonWebKey = jwks.get().getSigningKey();
                 LOGGER.debug("Found JSON web key to sign the id token: [{}]", jsonWebKey);
                 if (jsonWebKey == null || jsonWebKey.getPrivateKey() == null) {
                     throw new IllegalArgumentException("JSON web key used to sign the id token has no associated private key");
@@ -130,9 +110,9 @@ public class OidcTokenSigningService {
      */
     public JsonWebKey getJsonWebKey(final OidcRegisteredService svc) {
         try {
-            final Optional<JsonWebKeySet> jwks = buildJsonWebKeySet(svc);
-            if (jwks.isPresent() && !jwks.get().getJsonWebKeys().isEmpty()) {
-                return getJsonSigningWebKeyFromJwks(jwks.get());
+            final Optional<OidcJsonWebKeySetCache.CachedJsonWebKeySet> jwks = buildJsonWebKeySet(svc);
+            if (jwks.isPresent()) {
+                return jwks.get().getSigningKey();
             }
         } catch (final Exception e) {
             LOGGER.error(e.getMessage(), e);
@@ -141,17 +121,10 @@ public class OidcTokenSigningService {
 
     }
 
-    private JsonWebKeySet buildJsonWebKeySet(final Resource resource) throws Exception {
-        final String json = IOUtils.toString(resource.getInputStream(), StandardCharsets.UTF_8);
-        LOGGER.debug("Retrieved JSON web key from [{}] as [{}]", resource, json);
-        return buildJsonWebKeySet(json);
-    }
-
-    private JsonWebKeySet buildJsonWebKeySet(final String json) throws Exception {
-        final JsonWebKeySet jsonWebKeySet = new JsonWebKeySet(json);
-        final RsaJsonWebKey webKey = getJsonSigningWebKeyFromJwks(jsonWebKeySet);
-        if (webKey == null || webKey.getPrivateKey() == null) {
-            LOGGER.warn("JSON web key retrieved [{}] is not found or has no associated private key", webKey);
+    private OidcJsonWebKeySetCache.CachedJsonWebKeySet getJsonWebKeySet(final Resource resource) {
+        final OidcJsonWebKeySetCache.CachedJsonWebKeySet jsonWebKeySet = this.jsonWebKeySetCache.get(resource);
+        if (jsonWebKeySet == null || jsonWebKeySet.getSigningKey() == null) {
+            LOGGER.warn("JSON web key retrieved from [{}] is not found or has no associated private key", resource);
             return null;
         }
         return jsonWebKeySet;
@@ -162,15 +135,14 @@ public class OidcTokenSigningService {
      *
      * @param service the service
      * @return the json web key set
-     * @throws Exception the exception
      */
-    private Optional<JsonWebKeySet> buildJsonWebKeySet(final OidcRegisteredService service) throws Exception {
-        JsonWebKeySet jsonWebKeySet = null;
+    private Optional<OidcJsonWebKeySetCache.CachedJsonWebKeySet> buildJsonWebKeySet(final OidcRegisteredService service) {
+        OidcJsonWebKeySetCache.CachedJsonWebKeySet jsonWebKeySet = null;
         try {
             if (StringUtils.isNotBlank(service.getJwks())) {
                 LOGGER.debug("Loading JSON web key from [{}]", service.getJwks());
                 final Resource resource = this.resourceLoader.getResource(service.getJwks());
-                jsonWebKeySet = buildJsonWebKeySet(resource);
+                jsonWebKeySet = getJsonWebKeySet(resource);
             }
         } catch (final Exception e) {
             LOGGER.debug(e.getMessage(), e);
@@ -179,30 +151,24 @@ public class OidcTokenSigningService {
                 LOGGER.debug("Loading default JSON web key from [{}]", this.jwksFile);
                 if (this.jwksFile != null) {
                     LOGGER.debug("Retrieving default JSON web key from [{}]", this.jwksFile);
-                    jsonWebKeySet = buildJsonWebKeySet(this.jwksFile);
+                    jsonWebKeySet = getJsonWebKeySet(this.jwksFile);
                 }
             }
         }
-        if (jsonWebKeySet == null || jsonWebKeySet.getJsonWebKeys().isEmpty()) {
+        if (jsonWebKeySet == null || jsonWebKeySet.getJsonWebKeySet().getJsonWebKeys().isEmpty()) {
             LOGGER.warn("No JSON web keys could be found for [{}]", service);
             return Optional.empty();
         }
 
-        final long badKeysCount = jsonWebKeySet.getJsonWebKeys().stream().filter(k ->
+        final long badKeysCount = jsonWebKeySet.getJsonWebKeySet().getJsonWebKeys().stream().filter(k ->
                 StringUtils.isNotBlank(k.getAlgorithm())
                         && StringUtils.isNotBlank(k.getKeyId())
                         && StringUtils.isNotBlank(k.getKeyType())).count();
 
-        if (badKeysCount == jsonWebKeySet.getJsonWebKeys().size()) {
+        if (badKeysCount == jsonWebKeySet.getJsonWebKeySet().getJsonWebKeys().size()) {
             LOGGER.warn("No valid JSON web keys could be found for [{}]", service);
             return Optional.empty();
         }
-
-        final RsaJsonWebKey webKey = getJsonSigningWebKeyFromJwks(jsonWebKeySet);
-        if (webKey.getPrivateKey() == null) {
-            LOGGER.warn("JSON web key retrieved [{}] has no associated private key", webKey.getKeyId());
-            return Optional.empty();
-        }
         return Optional.of(jsonWebKeySet);
     }
 }
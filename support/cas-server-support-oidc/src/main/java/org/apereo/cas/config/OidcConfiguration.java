@@ -7,6 +7,7 @@ import org.apereo.cas.OidcClientRegistrationRequest;
 import org.apereo.cas.OidcClientRegistrationRequestSerializer;
 import org.apereo.cas.OidcConstants;
 import org.apereo.cas.OidcIdTokenGeneratorService;
+import org.apereo.cas.OidcJsonWebKeySetCache;
 import org.apereo.cas.OidcJsonWebKeystoreGeneratorService;
 import org.apereo.cas.OidcServerDiscoverySettings;
 import org.apereo.cas.OidcTokenSigningService;
@@ -270,7 +271,8 @@ public class OidcConfiguration extends WebMvcConfigurerAdapter {
     @Bean
     public OidcJwksEndpointController oidcJwksController() {
         return new OidcJwksEndpointController(servicesManager, ticketRegistry, oAuth20Validator, defaultAccessTokenFactory,
-                oidcPrincipalFactory(), webApplicationServiceFactory, casProperties.getAuthn().getOidc().getJwksFile());
+                oidcPrincipalFactory(), webApplicationServiceFactory, casProperties.getAuthn().getOidc().getJwksFile(),
+                oidcJsonWebKeySetCache());
     }
 
     @RefreshScope
@@ -321,9 +323,17 @@ public class OidcConfiguration extends WebMvcConfigurerAdapter {
         return new OidcRegisteredServiceUIAction(this.servicesManager, oauth20AuthenticationRequestServiceSelectionStrategy);
     }
 
+    @ConditionalOnMissingBean(name = "oidcJsonWebKeySetCache")
+    @Bean
+    public OidcJsonWebKeySetCache oidcJsonWebKeySetCache() {
+        final OidcProperties oidc = casProperties.getAuthn().getOidc();
+        return new OidcJsonWebKeySetCache(oidc.getJwksCacheExpiration(), oidc.getJwksFetchTimeout(),
+                oidc.getJwksFetchPoolSize(), oidc.getJwksCacheMaximumSize());
+    }
+
     @Bean
     public OidcTokenSigningService oidcTokenSigningService() {
-        return new OidcTokenSigningService(casProperties.getAuthn().getOidc().getJwksFile());
+        return new OidcTokenSigningService(casProperties.getAuthn().getOidc().getJwksFile(), oidcJsonWebKeySetCache());
     }
 
     @RefreshScope
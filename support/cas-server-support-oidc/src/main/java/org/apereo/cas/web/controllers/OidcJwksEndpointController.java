@@ -2,9 +2,9 @@ package org.apereo.cas.web.controllers;
 
 
 import com.stormpath.sdk.lang.Assert;
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apereo.cas.OidcConstants;
+import org.apereo.cas.OidcJsonWebKeySetCache;
 import org.apereo.cas.authentication.principal.PrincipalFactory;
 import org.apereo.cas.authentication.principal.ServiceFactory;
 import org.apereo.cas.authentication.principal.WebApplicationService;
@@ -14,7 +14,6 @@ import org.apereo.cas.support.oauth.validator.OAuth20Validator;
 import org.apereo.cas.support.oauth.web.BaseOAuthWrapperController;
 import org.apereo.cas.ticket.accesstoken.AccessTokenFactory;
 import org.apereo.cas.ticket.registry.TicketRegistry;
-import org.jooq.lambda.Unchecked;
 import org.jose4j.jwk.JsonWebKey;
 import org.jose4j.jwk.JsonWebKeySet;
 import org.slf4j.Logger;
@@ -22,18 +21,24 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.ui.Model;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.GetMapping;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This is {@link OidcJwksEndpointController}.
+ * <p>Keystores are served from the {@link OidcJsonWebKeySetCache}. Responses carry an entity tag
+ * and may be cached by clients for as long as keystores are cached by the server.</p>
  *
  * @author Misagh Moayyed
  * @since 5.0.0
@@ -46,15 +51,19 @@ public class OidcJwksEndpointController extends BaseOAuthWrapperController {
 
     private Resource jwksFile;
 
+    private final OidcJsonWebKeySetCache jsonWebKeySetCache;
+
     public OidcJwksEndpointController(final ServicesManager servicesManager,
                                       final TicketRegistry ticketRegistry,
                                       final OAuth20Validator validator,
                                       final AccessTokenFactory accessTokenFactory,
                                       final PrincipalFactory principalFactory,
                                       final ServiceFactory<WebApplicationService> webApplicationServiceServiceFactory,
-                                      final Resource jwksFile) {
+                                      final Resource jwksFile,
+                                      final OidcJsonWebKeySetCache jsonWebKeySetCache) {
         super(servicesManager, ticketRegistry, validator, accessTokenFactory, principalFactory, webApplicationServiceServiceFactory);
         this.jwksFile = jwksFile;
+        this.jsonWebKeySetCache = jsonWebKeySetCache;
     }
 
     /**
@@ -74,22 +83,34 @@ public class OidcJwksEndpointController extends BaseOAuthWrapperController {
         Assert.notNull(this.jwksFile, "JWKS file cannot be undefined or null.");
 
         try {
-            final String jsonJwks = IOUtils.toString(this.jwksFile.getInputStream(), StandardCharsets.UTF_8);
-            final JsonWebKeySet jsonWebKeySet = new JsonWebKeySet(jsonJwks);
+            final OidcJsonWebKeySetCache.CachedJsonWebKeySet defaultJwks = this.jsonWebKeySetCache.get(this.jwksFile);
+            if (defaultJwks == null) {
+                throw new IllegalArgumentException("JSON web keys could not be loaded from " + this.jwksFile);
+            }
+            final JsonWebKeySet jsonWebKeySet = new JsonWebKeySet(defaultJwks.getJsonWebKeySet().getJsonWebKeys());
 
             getServicesManager().getAllServices()
                     .stream()
                     .filter(s -> s instanceof OidcRegisteredService && StringUtils.isNotBlank(((OidcRegisteredService) s).getJwks()))
-                    .forEach(
-                            Unchecked.consumer(s -> {
-                                final OidcRegisteredService service = (OidcRegisteredService) s;
-                                final Resource resource = this.resourceLoader.getResource(service.getJwks());
-                                final JsonWebKeySet set = new JsonWebKeySet(IOUtils.toString(resource.getInputStream(), StandardCharsets.UTF_8));
-                                set.getJsonWebKeys().forEach(jsonWebKeySet::addJsonWebKey);
-                            }));
+                    .forEach(s -> {
+                        final OidcRegisteredService service = (OidcRegisteredService) s;
+                        final Resource resource = this.resourceLoader.getResource(service.getJwks());
+                        final OidcJsonWebKeySetCache.CachedJsonWebKeySet set = this.jsonWebKeySetCache.get(resource);
+                        if (set == null) {
+                            LOGGER.warn("JSON web keys for [{}] could not be loaded from [{}]", service.getName(), service.getJwks());
+                        } else {
+                            set.getJsonWebKeySet().getJsonWebKeys().forEach(jsonWebKeySet::addJsonWebKey);
+                        }
+                    });
             final String body = jsonWebKeySet.toJson(JsonWebKey.OutputControlLevel.PUBLIC_ONLY);
+            final String eTag = '"' + DigestUtils.md5DigestAsHex(body.getBytes(StandardCharsets.UTF_8)) + '"';
+            final CacheControl cacheControl = CacheControl.maxAge(this.jsonWebKeySetCache.getTimeToLiveInMillis(),
+                    TimeUnit.MILLISECONDS).cachePublic();
+            if (eTag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(cacheControl).build();
+            }
             response.setContentType(MediaType.APPLICATION_JSON_VALUE);
-            return new ResponseEntity<>(body, HttpStatus.OK);
+            return ResponseEntity.ok().eTag(eTag).cacheControl(cacheControl).body(body);
         } catch (final Exception e) {
             LOGGER.error(e.getMessage(), e);
             return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
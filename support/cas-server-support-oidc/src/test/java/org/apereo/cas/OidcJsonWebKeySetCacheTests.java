@@ -0,0 +1,81 @@
+package org.apereo.cas;
+
+import org.apache.commons.io.FileUtils;
+import org.jose4j.jwk.JsonWebKey;
+import org.jose4j.jwk.JsonWebKeySet;
+import org.jose4j.jwk.RsaJsonWebKey;
+import org.jose4j.jwk.RsaJwkGenerator;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link OidcJsonWebKeySetCacheTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class OidcJsonWebKeySetCacheTests {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final OidcJsonWebKeySetCache cache = new OidcJsonWebKeySetCache(60_000, 5_000, 1, 1);
+
+    @After
+    public void tearDown() throws Exception {
+        this.cache.destroy();
+    }
+
+    @Test
+    public void verifyKeystoreIsParsedOnce() throws Exception {
+        final File file = writeKeystore(folder.newFile("keystore.jwks"), "key1");
+
+        final OidcJsonWebKeySetCache.CachedJsonWebKeySet jwks = this.cache.get(new FileSystemResource(file));
+        assertNotNull(jwks);
+        assertEquals("key1", jwks.getSigningKey().getKeyId());
+        assertNotNull(jwks.getSigningKey().getPrivateKey());
+        assertSame(jwks, this.cache.get(new FileSystemResource(file)));
+        assertEquals(Long.valueOf(1), this.cache.getStatistics().get("loads"));
+    }
+
+    @Test
+    public void verifyKeystoreIsReloadedWhenModified() throws Exception {
+        final File file = writeKeystore(folder.newFile("keystore.jwks"), "key1");
+        assertEquals("key1", this.cache.get(new FileSystemResource(file)).getSigningKey().getKeyId());
+
+        writeKeystore(file, "key2");
+        assertTrue(file.setLastModified(file.lastModified() + 10_000));
+        assertEquals("key2", this.cache.get(new FileSystemResource(file)).getSigningKey().getKeyId());
+    }
+
+    @Test
+    public void verifyCacheIsBounded() throws Exception {
+        final File file1 = writeKeystore(folder.newFile("keystore1.jwks"), "key1");
+        final File file2 = writeKeystore(folder.newFile("keystore2.jwks"), "key2");
+        assertEquals("key1", this.cache.get(new FileSystemResource(file1)).getSigningKey().getKeyId());
+        assertEquals("key2", this.cache.get(new FileSystemResource(file2)).getSigningKey().getKeyId());
+        assertEquals(Long.valueOf(1), this.cache.getStatistics().get("size"));
+    }
+
+    @Test
+    public void verifyMissingKeystore() {
+        assertNull(this.cache.get(new FileSystemResource(new File(folder.getRoot(), "missing.jwks"))));
+        assertEquals(Long.valueOf(1), this.cache.getStatistics().get("loadFailures"));
+    }
+
+    private static File writeKeystore(final File file, final String keyId) throws Exception {
+        final RsaJsonWebKey key = RsaJwkGenerator.generateJwk(2048);
+        key.setKeyId(keyId);
+        final String json = new JsonWebKeySet(key).toJson(JsonWebKey.OutputControlLevel.INCLUDE_PRIVATE);
+        FileUtils.write(file, json, StandardCharsets.UTF_8);
+        return file;
+    }
+}
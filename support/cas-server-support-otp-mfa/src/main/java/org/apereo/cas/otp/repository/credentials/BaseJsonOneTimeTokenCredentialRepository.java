@@ -1,5 +1,7 @@
 package org.apereo.cas.otp.repository.credentials;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.commons.lang3.StringUtils;
 import org.apereo.cas.util.serialization.AbstractJacksonBackedStringSerializer;
 import org.apereo.cas.util.serialization.StringSerializer;
@@ -7,21 +9,58 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.io.Resource;
 
-import java.util.Collection;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
+import java.util.Map;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * This is {@link BaseJsonOneTimeTokenCredentialRepository}.
+ * This is {@link BaseJsonOneTimeTokenCredentialRepository} that keeps accounts in a JSON file.
+ * Accounts are loaded once into an in-memory index keyed by username, and the index is reloaded
+ * when the file is changed by someone else. New accounts are appended to a journal file next to
+ * the JSON file, one account per line, and the journal is folded back into the JSON file once it
+ * grows past the compaction threshold. The JSON file is always replaced through an atomic rename,
+ * so readers never see a partially written file.
+ * <p>Appending to the journal and compaction happen while holding an exclusive lock on the journal file,
+ * so that several processes may share the same files without losing each other's accounts. Lookups reload
+ * under a shared lock and never create the journal, so that accounts may be read from a read-only location.
+ * The journal is truncated rather than removed after compaction, so that every process keeps locking the
+ * same file. An entry is only complete once its line separator is written; an incomplete entry left at the
+ * end of the journal, such as by a crash, is skipped and removed by the next save.</p>
  *
  * @author Misagh Moayyed
  * @since 5.1.0
  */
 public abstract class BaseJsonOneTimeTokenCredentialRepository extends BaseOneTimeTokenCredentialRepository {
     private static final Logger LOGGER = LoggerFactory.getLogger(BaseJsonOneTimeTokenCredentialRepository.class);
-    
+
+    private static final int DEFAULT_COMPACTION_THRESHOLD = 1000;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .findAndRegisterModules();
+
     private final Resource location;
     private final StringSerializer<TreeSet<OneTimeTokenAccount>> serializer = new OneTimeAccountSerializer();
+    private volatile Map<String, OneTimeTokenAccount> accounts = new ConcurrentHashMap<>();
+
+    private int compactionThreshold = DEFAULT_COMPACTION_THRESHOLD;
+    private int journalSize;
+    private volatile boolean loaded;
+    private volatile long lastModified;
+    private volatile long length;
+    private volatile long journalLength;
+    private volatile boolean journalIncomplete;
 
     public BaseJsonOneTimeTokenCredentialRepository(final Resource location) {
         this.location = location;
@@ -30,22 +69,19 @@ public abstract class BaseJsonOneTimeTokenCredentialRepository extends BaseOneTi
     @Override
     public String getSecret(final String username) {
         try {
-            if (!this.location.getFile().exists()) {
-                LOGGER.warn("JSON account repository file [{}] is not found.", this.location.getFile());
+            final File file = this.location.getFile();
+            if (!file.exists() && !getJournalFile(file).exists()) {
+                LOGGER.warn("JSON account repository file [{}] is not found.", file);
                 return null;
             }
-
-            if (this.location.getFile().length() <= 0) {
-                LOGGER.warn("JSON account repository file [{}] is empty.", this.location.getFile());
+            if (!this.loaded || isModified(file)) {
+                reload(file);
+            }
+            if (StringUtils.isBlank(username)) {
                 return null;
             }
-
-            final Collection<OneTimeTokenAccount> c = this.serializer.from(this.location.getFile());
-            return c.stream()
-                    .filter(a -> StringUtils.isNotBlank(a.getUsername()) && a.getUsername().equals(username))
-                    .map(OneTimeTokenAccount::getSecretKey)
-                    .findAny()
-                    .orElse(null);
+            final OneTimeTokenAccount account = this.accounts.get(username);
+            return account != null ? account.getSecretKey() : null;
         } catch (final Exception e) {
             LOGGER.error(e.getMessage(), e);
         }
@@ -53,34 +89,187 @@ public abstract class BaseJsonOneTimeTokenCredentialRepository extends BaseOneTi
     }
 
     @Override
-    public void save(final String userName, final String secretKey,
-                                    final int validationCode,
-                                    final List<Integer> scratchCodes) {
+    public synchronized void save(final String userName, final String secretKey,
+                                  final int validationCode,
+                                  final List<Integer> scratchCodes) {
         try {
             LOGGER.debug("Storing google authenticator account for [{}]", userName);
             final OneTimeTokenAccount account = new OneTimeTokenAccount(userName, secretKey, validationCode, scratchCodes);
 
-            LOGGER.debug("Ensuring JSON repository file exists at [{}]", this.location.getFile());
-            this.location.getFile().createNewFile();
+            final File file = this.location.getFile();
+            doWithJournalLock(file, journal -> {
+                reload(file, journal, true);
+                LOGGER.debug("Appending google authenticator account for [{}] to [{}]", userName, getJournalFile(file));
+                final ByteBuffer line = ByteBuffer.wrap((MAPPER.writeValueAsString(account) + System.lineSeparator())
+                        .getBytes(StandardCharsets.UTF_8));
+                long position = journal.size();
+                while (line.hasRemaining()) {
+                    position += journal.write(line, position);
+                }
+                journal.force(true);
+                this.accounts.put(userName, account);
+                this.journalSize++;
+                this.journalLength = journal.size();
 
-            final TreeSet<OneTimeTokenAccount> c;
-            if (this.location.getFile().length() > 0) {
-                LOGGER.debug("Reading JSON repository file at [{}]", this.location.getFile());
-                c = this.serializer.from(this.location.getFile());
-            } else {
-                c = new TreeSet<>();
-            }
-            
-            LOGGER.debug("Found [{}] account(s) and added google authenticator account for [{}]", c.size(), userName);
-            c.add(account);
+                if (this.journalSize >= this.compactionThreshold) {
+                    compact(file, journal);
+                }
+            });
+        } catch (final Exception e) {
+            LOGGER.error(e.getMessage(), e);
+        }
+    }
 
-            LOGGER.debug("Saving google authenticator accounts back to the JSON file at [{}]", this.location.getFile());
-            this.serializer.to(this.location.getFile(), c);
+    /**
+     * Write all accounts back into the JSON file and clear the journal.
+     */
+    public synchronized void compact() {
+        try {
+            final File file = this.location.getFile();
+            doWithJournalLock(file, journal -> {
+                reload(file, journal, true);
+                compact(file, journal);
+            });
         } catch (final Exception e) {
             LOGGER.error(e.getMessage(), e);
         }
     }
 
+    public void setCompactionThreshold(final int compactionThreshold) {
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    private boolean isModified(final File file) {
+        return file.lastModified() != this.lastModified || file.length() != this.length
+                || getJournalFile(file).length() != this.journalLength;
+    }
+
+    /**
+     * Run the action while holding an exclusive lock on the journal. The monitor is always taken before
+     * the file lock, since the file lock cannot be held twice within the same process.
+     */
+    private synchronized void doWithJournalLock(final File file, final JournalAction action) throws IOException {
+        try (FileChannel journal = FileChannel.open(getJournalFile(file).toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+             FileLock lock = journal.lock()) {
+            action.execute(journal);
+        }
+    }
+
+    /**
+     * Reload accounts for a lookup while holding a shared lock on the journal, if there is one.
+     * The journal is opened for reading only, so lookups work against read-only locations.
+     */
+    private synchronized void reload(final File file) throws IOException {
+        final File journalFile = getJournalFile(file);
+        if (!journalFile.exists()) {
+            reload(file, null, false);
+            return;
+        }
+        try (FileChannel journal = FileChannel.open(journalFile.toPath(), StandardOpenOption.READ);
+             FileLock lock = journal.lock(0, Long.MAX_VALUE, true)) {
+            reload(file, journal, false);
+        }
+    }
+
+    /**
+     * Load accounts from the JSON file, then replay the journal on top. The journal is read through
+     * the locked channel, since opening and closing the file again would release the lock.
+     * An incomplete entry at the end of the journal is skipped, and when repairing, truncated
+     * so that the next entry is appended after the last complete one.
+     */
+    private void reload(final File file, final FileChannel journal, final boolean repair) throws IOException {
+        if (this.loaded && !isModified(file) && !(repair && this.journalIncomplete)) {
+            return;
+        }
+        final Map<String, OneTimeTokenAccount> results = new ConcurrentHashMap<>();
+        if (file.exists() && file.length() > 0) {
+            LOGGER.debug("Reading JSON repository file at [{}]", file);
+            this.serializer.from(file).stream()
+                    .filter(a -> StringUtils.isNotBlank(a.getUsername()))
+                    .forEach(a -> results.put(a.getUsername(), a));
+        }
+        int replayed = 0;
+        long size = 0;
+        boolean incomplete = false;
+        if (journal != null) {
+            size = journal.size();
+            final ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining()) {
+                if (journal.read(buffer, buffer.position()) < 0) {
+                    break;
+                }
+            }
+            final byte[] bytes = buffer.array();
+            int complete = buffer.position();
+            while (complete > 0 && bytes[complete - 1] != '\n') {
+                complete--;
+            }
+            if (complete < buffer.position()) {
+                LOGGER.warn("Skipping incomplete entry of [{}] byte(s) at the end of journal [{}]",
+                        buffer.position() - complete, getJournalFile(file));
+                if (repair) {
+                    journal.truncate(complete);
+                    journal.force(true);
+                    size = complete;
+                } else {
+                    incomplete = true;
+                }
+            }
+            for (final String line : new String(bytes, 0, complete, StandardCharsets.UTF_8).split("\\R")) {
+                if (StringUtils.isNotBlank(line)) {
+                    final OneTimeTokenAccount account = MAPPER.readValue(line, OneTimeTokenAccount.class);
+                    results.put(account.getUsername(), account);
+                    replayed++;
+                }
+            }
+        }
+        this.accounts = results;
+        this.journalSize = replayed;
+        this.journalLength = size;
+        this.journalIncomplete = incomplete;
+        this.lastModified = file.lastModified();
+        this.length = file.length();
+        this.loaded = true;
+        LOGGER.debug("Loaded [{}] account(s) from [{}], including [{}] journal entries", results.size(), file, replayed);
+    }
+
+    private void compact(final File file, final FileChannel journal) throws IOException {
+        final File parent = file.getAbsoluteFile().getParentFile();
+        final File temp = File.createTempFile(file.getName(), ".tmp", parent);
+        try {
+            LOGGER.debug("Saving [{}] google authenticator account(s) back to the JSON file at [{}]", this.accounts.size(), file);
+            this.serializer.to(temp, new TreeSet<>(this.accounts.values()));
+            try {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (final AtomicMoveNotSupportedException e) {
+                LOGGER.debug("Atomic move is not supported for [{}]; replacing the file instead", file);
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp.toPath());
+        }
+        journal.truncate(0);
+        journal.force(true);
+        this.journalSize = 0;
+        this.journalLength = 0;
+        this.journalIncomplete = false;
+        this.lastModified = file.lastModified();
+        this.length = file.length();
+    }
+
+    private static File getJournalFile(final File file) {
+        return new File(file.getAbsoluteFile().getParentFile(), file.getName() + ".journal");
+    }
+
+    /**
+     * An action run against the locked journal.
+     */
+    @FunctionalInterface
+    private interface JournalAction {
+        void execute(FileChannel journal) throws IOException;
+    }
+
     private static class OneTimeAccountSerializer extends AbstractJacksonBackedStringSerializer<TreeSet<OneTimeTokenAccount>> {
         private static final long serialVersionUID = 1466569521275630254L;
 
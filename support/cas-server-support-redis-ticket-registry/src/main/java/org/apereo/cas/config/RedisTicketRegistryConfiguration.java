@@ -1,11 +1,17 @@
 package org.apereo.cas.config;
 
 import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.apereo.cas.configuration.model.core.ticket.registry.TicketRegistryProperties;
 import org.apereo.cas.configuration.model.support.redis.RedisTicketRegistryProperties;
+import org.apereo.cas.ticket.registry.NearCacheInvalidationChannel;
+import org.apereo.cas.ticket.registry.NearCacheTicketRegistry;
+import org.apereo.cas.ticket.registry.RedisNearCacheInvalidationChannel;
 import org.apereo.cas.ticket.registry.RedisTicketRegistry;
 import org.apereo.cas.ticket.registry.TicketRedisTemplate;
 import org.apereo.cas.ticket.registry.TicketRegistry;
+import org.apereo.cas.ticket.serialization.TicketSerializer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.context.config.annotation.RefreshScope;
 import org.springframework.context.annotation.Bean;
@@ -27,6 +33,10 @@ public class RedisTicketRegistryConfiguration {
     @Autowired
     private CasConfigurationProperties casProperties;
 
+    @Autowired
+    @Qualifier("ticketSerializer")
+    private TicketSerializer ticketSerializer;
+
     private RedisTicketRegistryProperties redisProperties() {
         return casProperties.getTicket().getRegistry().getRedis();
     }
@@ -64,12 +74,24 @@ public class RedisTicketRegistryConfiguration {
     @Bean
     @RefreshScope
     public TicketRedisTemplate ticketRedisTemplate() {
-        return new TicketRedisTemplate(redisConnectionFactory());
+        return new TicketRedisTemplate(redisConnectionFactory(), this.ticketSerializer);
     }
 
     @Bean(name = {"redisTicketRegistry", "ticketRegistry"})
     @RefreshScope
     public TicketRegistry redisTicketRegistry() {
-        return new RedisTicketRegistry(ticketRedisTemplate());
+        final RedisTicketRegistry r = new RedisTicketRegistry(ticketRedisTemplate(), casProperties.getTicket().getRegistry().getRedis().getBatchSize());
+        r.setTicketSerializer(this.ticketSerializer);
+
+        final TicketRegistryProperties.NearCache nearCache = casProperties.getTicket().getRegistry().getNearCache();
+        if (nearCache.isEnabled()) {
+            return new NearCacheTicketRegistry(r, nearCacheInvalidationChannel(), nearCache.getMaxSize(), nearCache.getTimeToLive());
+        }
+        return r;
+    }
+
+    @Bean
+    public NearCacheInvalidationChannel nearCacheInvalidationChannel() {
+        return new RedisNearCacheInvalidationChannel(redisConnectionFactory());
     }
 }
@@ -0,0 +1,104 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * This is {@link RedisNearCacheInvalidationChannel} that exchanges ticket invalidation
+ * notices between CAS nodes using Redis pub/sub. Each message carries the id of the
+ * node that sent it, so nodes ignore their own notices.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class RedisNearCacheInvalidationChannel implements NearCacheInvalidationChannel, DisposableBean {
+
+    /**
+     * Default name of the channel.
+     */
+    public static final String DEFAULT_CHANNEL = "CAS_TICKET_NEAR_CACHE";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RedisNearCacheInvalidationChannel.class);
+
+    private static final String SEPARATOR = "|";
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final RedisConnectionFactory connectionFactory;
+
+    private final StringRedisTemplate template;
+
+    private final ChannelTopic topic;
+
+    private final Map<Consumer<String>, MessageListener> listeners = new HashMap<>();
+
+    private RedisMessageListenerContainer container;
+
+    public RedisNearCacheInvalidationChannel(final RedisConnectionFactory connectionFactory) {
+        this(connectionFactory, DEFAULT_CHANNEL);
+    }
+
+    public RedisNearCacheInvalidationChannel(final RedisConnectionFactory connectionFactory, final String channel) {
+        this.connectionFactory = connectionFactory;
+        this.template = new StringRedisTemplate(connectionFactory);
+        this.topic = new ChannelTopic(channel);
+    }
+
+    @Override
+    public void publish(final String ticketId) {
+        try {
+            this.template.convertAndSend(this.topic.getTopic(), this.nodeId + SEPARATOR + ticketId);
+        } catch (final Exception e) {
+            LOGGER.warn("Unable to publish near-cache invalidation for [{}]: [{}]", ticketId, e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void subscribe(final Consumer<String> listener) {
+        if (this.container == null) {
+            this.container = new RedisMessageListenerContainer();
+            this.container.setConnectionFactory(this.connectionFactory);
+            this.container.afterPropertiesSet();
+            this.container.start();
+        }
+        final MessageListener messageListener = (message, pattern) -> {
+            final String body = new String(message.getBody(), StandardCharsets.UTF_8);
+            final String sender = StringUtils.substringBefore(body, SEPARATOR);
+            if (!this.nodeId.equals(sender)) {
+                listener.accept(StringUtils.substringAfter(body, SEPARATOR));
+            }
+        };
+        this.listeners.put(listener, messageListener);
+        this.container.addMessageListener(messageListener, this.topic);
+    }
+
+    @Override
+    public synchronized void unsubscribe(final Consumer<String> listener) {
+        final MessageListener messageListener = this.listeners.remove(listener);
+        if (messageListener != null && this.container != null) {
+            this.container.removeMessageListener(messageListener, this.topic);
+        }
+    }
+
+    @Override
+    public synchronized void destroy() throws Exception {
+        if (this.container != null) {
+            this.container.destroy();
+            this.container = null;
+        }
+        this.listeners.clear();
+    }
+}
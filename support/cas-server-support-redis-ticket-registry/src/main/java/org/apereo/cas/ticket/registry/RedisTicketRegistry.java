@@ -1,18 +1,46 @@
 package org.apereo.cas.ticket.registry;
 
+import com.google.common.collect.Iterators;
+import org.apache.commons.lang3.StringUtils;
+import org.apereo.cas.ticket.ServiceTicket;
 import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.proxy.ProxyGrantingTicket;
+import org.apereo.cas.ticket.proxy.ProxyTicket;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.util.Assert;
 
 import javax.validation.constraints.NotNull;
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Key-value ticket registry implementation that stores tickets in redis keyed on the ticket ID.
+ * Ticket ids are also tracked in per-type sorted sets, keyed on the ticket id prefix,
+ * so that ticket counts do not require walking the keyspace. Each id is scored by the time
+ * its ticket key expires in redis, so that entries of tickets evicted by redis are pruned
+ * from the index, and from the expiration index, before the index is counted or added to.
  *
  * @author serv
  * @since 5.1.0
@@ -22,19 +50,45 @@ public class RedisTicketRegistry extends AbstractTicketRegistry {
     
     private static final String CAS_TICKET_PREFIX = "CAS_TICKET:";
 
+    /**
+     * Prefix of the sorted sets that index ticket ids by ticket type,
+     * scored by the time the ticket key expires in milliseconds.
+     */
+    private static final String CAS_TICKET_INDEX_PREFIX = "CAS_TICKET_INDEX:";
+
+    /**
+     * Sorted set that indexes ticket ids by their expected expiration time in milliseconds.
+     */
+    private static final String CAS_TICKET_EXPIRATION_KEY = "CAS_TICKET_EXPIRATION";
+
+    /**
+     * Delay before an expired ticket that could not be removed is checked again.
+     */
+    private static final long EXPIRED_TICKET_RETRY_DELAY_MILLIS = 10_000;
+
     @NotNull
     private final TicketRedisTemplate client;
 
+    /**
+     * Number of keys to scan, fetch or delete per round trip.
+     */
+    private final int batchSize;
+
     public RedisTicketRegistry(final TicketRedisTemplate client) {
+        this(client, DEFAULT_PAGE_SIZE);
+    }
+
+    public RedisTicketRegistry(final TicketRedisTemplate client, final int batchSize) {
         this.client = client;
+        this.batchSize = batchSize;
     }
 
     @Override
     public long deleteAll() {
-        final Set<String> redisKeys = this.client.keys(getPatternTicketRedisKey());
-        final int size = redisKeys.size();
-        this.client.delete(redisKeys);
-        return size;
+        final long count = deleteKeysMatching(getPatternTicketRedisKey());
+        deleteKeysMatching(CAS_TICKET_INDEX_PREFIX + '*');
+        this.client.delete(CAS_TICKET_EXPIRATION_KEY);
+        return count;
     }
     
     @Override
@@ -43,6 +97,7 @@ public class RedisTicketRegistry extends AbstractTicketRegistry {
         try {
             final String redisKey = getTicketRedisKey(ticketId);
             this.client.delete(redisKey);
+            removeTicketIndexes(Collections.singleton(ticketId));
             return true;
         } catch (final Exception e) {
             LOGGER.error("Ticket not found or is already removed. Failed deleting [{}]", ticketId, e);
@@ -50,6 +105,31 @@ public class RedisTicketRegistry extends AbstractTicketRegistry {
         return false;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>All tickets are removed with a single multi-key {@code DEL} command.</p>
+     */
+    @Override
+    public int deleteTickets(final Collection<String> ticketIds) {
+        Assert.notNull(this.client, "No redis client is defined.");
+        if (ticketIds.isEmpty()) {
+            return 0;
+        }
+        try {
+            final RedisSerializer<String> serializer = this.client.getStringSerializer();
+            final byte[][] redisKeys = ticketIds.stream().map(id -> serializer.serialize(getTicketRedisKey(id))).toArray(byte[][]::new);
+            final Long count = this.client.execute((RedisCallback<Long>) connection -> {
+                final Long removed = connection.del(redisKeys);
+                removeTicketIndexes(connection, ticketIds);
+                return removed;
+            });
+            return count != null ? count.intValue() : 0;
+        } catch (final Exception e) {
+            LOGGER.error("Failed deleting tickets [{}]", ticketIds, e);
+        }
+        return 0;
+    }
+
 
     @Override
     public void addTicket(final Ticket ticket) {
@@ -61,6 +141,8 @@ public class RedisTicketRegistry extends AbstractTicketRegistry {
             final Ticket encodeTicket = this.encodeTicket(ticket);
             this.client.boundValueOps(redisKey)
                     .set(encodeTicket, getTimeout(ticket), TimeUnit.SECONDS);
+            indexTicket(ticket);
+            scheduleExpiration(ticket.getId(), getExpirationTime(ticket));
         } catch (final Exception e) {
             LOGGER.error("Failed to add [{}]", ticket);
         }
@@ -84,20 +166,82 @@ public class RedisTicketRegistry extends AbstractTicketRegistry {
 
     @Override
     public Collection<Ticket> getTickets() {
+        try (Stream<Ticket> tickets = getTicketsStream(t -> true, this.batchSize)) {
+            return tickets.collect(Collectors.toSet());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Keys are walked incrementally via {@code SCAN} rather than {@code KEYS}
+     * so that the redis server is not blocked for the duration of the iteration.
+     * Tickets are then fetched with a single {@code MGET} per page of keys.</p>
+     */
+    @Override
+    public Stream<Ticket> getTicketsStream(final Predicate<Ticket> predicate, final int pageSize) {
         Assert.notNull(this.client, "No redis client is defined.");
+        final Stream<String> redisKeys = scanKeys(getPatternTicketRedisKey(), pageSize);
+        final Iterator<List<String>> pages = Iterators.partition(redisKeys.iterator(), pageSize);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(pages, Spliterator.ORDERED), false)
+                .onClose(redisKeys::close)
+                .flatMap(page -> this.client.opsForValue().multiGet(page).stream())
+                .filter(Objects::nonNull)
+                .map(this::decodeTicket)
+                .filter(predicate);
+    }
+
+    @Override
+    public long sessionCount() {
+        return countIndexedTickets(TicketGrantingTicket.PREFIX, ProxyGrantingTicket.PROXY_GRANTING_TICKET_PREFIX);
+    }
+
+    @Override
+    public long serviceTicketCount() {
+        return countIndexedTickets(ServiceTicket.PREFIX, ProxyTicket.PROXY_TICKET_PREFIX);
+    }
 
-        final Set<Ticket> tickets = new HashSet<>();
-        final Set<String> redisKeys = this.client.keys(this.getPatternTicketRedisKey());
-        redisKeys.forEach(redisKey -> {
-            final Ticket ticket = this.client.boundValueOps(redisKey).get();
-            if (ticket == null) {
-                this.client.delete(redisKey);
-            } else {
-                // Decoding add first
-                tickets.add(this.decodeTicket(ticket));
+    /**
+     * {@inheritDoc}
+     * <p>Only ticket ids whose score in the expiration index has passed are visited.
+     * Polled tickets are scored again so that tickets which are not yet expired,
+     * or could not be removed, are checked again later.</p>
+     */
+    @Override
+    public Stream<Ticket> getExpiredTicketsStream(final int pageSize) {
+        Assert.notNull(this.client, "No redis client is defined.");
+        return streamPages(() -> {
+            final long now = System.currentTimeMillis();
+            final List<Ticket> expiredTickets = new ArrayList<>();
+            Set<byte[]> dueTicketIds = getDueTicketIds(now, pageSize);
+            while (!dueTicketIds.isEmpty() && expiredTickets.isEmpty()) {
+                dueTicketIds.stream()
+                        .map(id -> this.client.getStringSerializer().deserialize(id))
+                        .forEach(ticketId -> {
+                            final Ticket ticket = this.client.boundValueOps(getTicketRedisKey(ticketId)).get();
+                            if (ticket == null) {
+                                removeTicketIndexes(Collections.singleton(ticketId));
+                                return;
+                            }
+                            final Ticket decodedTicket = decodeTicket(ticket);
+                            if (decodedTicket.isExpired()) {
+                                expiredTickets.add(decodedTicket);
+                                scheduleExpiration(ticketId, now + EXPIRED_TICKET_RETRY_DELAY_MILLIS);
+                            } else {
+                                final ZonedDateTime expirationTime = getExpirationTime(decodedTicket);
+                                if (expirationTime == null) {
+                                    removeExpiration(ticketId);
+                                } else {
+                                    scheduleExpiration(ticketId,
+                                            Math.max(expirationTime.toInstant().toEpochMilli(), now + EXPIRED_TICKET_RETRY_DELAY_MILLIS));
+                                }
+                            }
+                        });
+                if (expiredTickets.isEmpty()) {
+                    dueTicketIds = getDueTicketIds(now, pageSize);
+                }
             }
+            return expiredTickets;
         });
-        return tickets;
     }
 
     @Override
@@ -108,6 +252,8 @@ public class RedisTicketRegistry extends AbstractTicketRegistry {
             final Ticket encodeTicket = this.encodeTicket(ticket);
             final String redisKey = this.getTicketRedisKey(ticket.getId());
             this.client.boundValueOps(redisKey).set(encodeTicket, getTimeout(ticket), TimeUnit.SECONDS);
+            indexTicket(ticket);
+            scheduleExpiration(ticket.getId(), getExpirationTime(ticket));
             return encodeTicket;
         } catch (final Exception e) {
             LOGGER.error("Failed to update [{}]", ticket);
@@ -129,11 +275,129 @@ public class RedisTicketRegistry extends AbstractTicketRegistry {
         return ttl;
     }
 
+    private Set<byte[]> getDueTicketIds(final long now, final int pageSize) {
+        final byte[] key = this.client.getStringSerializer().serialize(CAS_TICKET_EXPIRATION_KEY);
+        final Set<byte[]> ids = this.client.execute((RedisCallback<Set<byte[]>>) connection ->
+                connection.zRangeByScore(key, 0, now, 0, pageSize));
+        return ids != null ? ids : Collections.emptySet();
+    }
+
+    private void scheduleExpiration(final String ticketId, final ZonedDateTime expirationTime) {
+        if (expirationTime == null) {
+            removeExpiration(ticketId);
+        } else {
+            scheduleExpiration(ticketId, expirationTime.toInstant().toEpochMilli());
+        }
+    }
+
+    private void scheduleExpiration(final String ticketId, final long expirationTime) {
+        final RedisSerializer<String> serializer = this.client.getStringSerializer();
+        this.client.execute((RedisCallback<Boolean>) connection ->
+                connection.zAdd(serializer.serialize(CAS_TICKET_EXPIRATION_KEY), expirationTime, serializer.serialize(ticketId)));
+    }
+
+    private void removeExpiration(final String ticketId) {
+        final RedisSerializer<String> serializer = this.client.getStringSerializer();
+        this.client.execute((RedisCallback<Long>) connection ->
+                connection.zRem(serializer.serialize(CAS_TICKET_EXPIRATION_KEY), serializer.serialize(ticketId)));
+    }
+
+    private Stream<String> scanKeys(final String pattern, final int count) {
+        final Cursor<byte[]> cursor = this.client.executeWithStickyConnection(connection ->
+                connection.scan(ScanOptions.scanOptions().match(pattern).count(count).build()));
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(cursor, Spliterator.ORDERED), false)
+                .onClose(() -> closeCursor(cursor))
+                .map(key -> this.client.getStringSerializer().deserialize(key));
+    }
+
+    private long deleteKeysMatching(final String pattern) {
+        long count = 0;
+        try (Stream<String> redisKeys = scanKeys(pattern, this.batchSize)) {
+            final Iterator<List<String>> pages = Iterators.partition(redisKeys.iterator(), this.batchSize);
+            while (pages.hasNext()) {
+                final byte[][] keys = pages.next().stream().map(this.client.getStringSerializer()::serialize).toArray(byte[][]::new);
+                final Long removed = this.client.execute((RedisCallback<Long>) connection -> connection.del(keys));
+                count += removed != null ? removed : 0;
+            }
+        }
+        return count;
+    }
+
+    private long countIndexedTickets(final String... ticketPrefixes) {
+        final RedisSerializer<String> serializer = this.client.getStringSerializer();
+        final long now = System.currentTimeMillis();
+        final Long count = this.client.execute((RedisCallback<Long>) connection -> {
+            long total = 0;
+            for (final String prefix : ticketPrefixes) {
+                final byte[] indexKey = serializer.serialize(CAS_TICKET_INDEX_PREFIX + prefix);
+                pruneTicketIndex(connection, indexKey, now);
+                final Long size = connection.zCard(indexKey);
+                total += size != null ? size : 0;
+            }
+            return total;
+        });
+        return count != null ? count : 0;
+    }
+
+    private void indexTicket(final Ticket ticket) {
+        final RedisSerializer<String> serializer = this.client.getStringSerializer();
+        final long now = System.currentTimeMillis();
+        final long keyExpirationTime = now + TimeUnit.SECONDS.toMillis(getTimeout(ticket));
+        final byte[] indexKey = serializer.serialize(getTicketIndexKey(ticket.getId()));
+        this.client.execute((RedisCallback<Object>) connection -> {
+            pruneTicketIndex(connection, indexKey, now);
+            connection.zAdd(indexKey, keyExpirationTime, serializer.serialize(ticket.getId()));
+            return null;
+        });
+    }
+
+    /**
+     * Remove ids of tickets whose keys have already expired in redis from the type index
+     * and from the expiration index.
+     */
+    private void pruneTicketIndex(final RedisConnection connection, final byte[] indexKey, final long now) {
+        final Set<byte[]> evictedIds = connection.zRangeByScore(indexKey, 0, now);
+        if (evictedIds != null && !evictedIds.isEmpty()) {
+            final byte[][] ids = evictedIds.toArray(new byte[evictedIds.size()][]);
+            connection.zRem(indexKey, ids);
+            connection.zRem(this.client.getStringSerializer().serialize(CAS_TICKET_EXPIRATION_KEY), ids);
+            LOGGER.debug("Pruned [{}] evicted tickets from the ticket index", ids.length);
+        }
+    }
+
+    private void removeTicketIndexes(final Collection<String> ticketIds) {
+        this.client.execute((RedisCallback<Object>) connection -> {
+            removeTicketIndexes(connection, ticketIds);
+            return null;
+        });
+    }
+
+    private void removeTicketIndexes(final RedisConnection connection, final Collection<String> ticketIds) {
+        final RedisSerializer<String> serializer = this.client.getStringSerializer();
+        final Map<String, List<String>> ticketIdsByIndex = ticketIds.stream().collect(Collectors.groupingBy(this::getTicketIndexKey));
+        ticketIdsByIndex.forEach((indexKey, ids) ->
+                connection.zRem(serializer.serialize(indexKey), ids.stream().map(serializer::serialize).toArray(byte[][]::new)));
+        connection.zRem(serializer.serialize(CAS_TICKET_EXPIRATION_KEY), ticketIds.stream().map(serializer::serialize).toArray(byte[][]::new));
+    }
+
+    private static void closeCursor(final Cursor<byte[]> cursor) {
+        try {
+            cursor.close();
+        } catch (final IOException e) {
+            LOGGER.warn("Failed to close redis scan cursor: [{}]", e.getMessage());
+        }
+    }
+
     // Add a prefix as the key of redis
     private String getTicketRedisKey(final String ticketId) {
         return CAS_TICKET_PREFIX + ticketId;
     }
 
+    // Sorted set holding ids of tickets of the same type
+    private String getTicketIndexKey(final String ticketId) {
+        return CAS_TICKET_INDEX_PREFIX + StringUtils.substringBefore(ticketId, "-");
+    }
+
     // pattern all ticket redisKey
     private String getPatternTicketRedisKey() {
         return CAS_TICKET_PREFIX + "*";
@@ -0,0 +1,46 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.serialization.TicketSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/**
+ * This is {@link TicketRedisSerializer} that delegates the conversion
+ * of ticket values to a {@link TicketSerializer}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class TicketRedisSerializer implements RedisSerializer<Ticket> {
+
+    private final TicketSerializer ticketSerializer;
+
+    public TicketRedisSerializer(final TicketSerializer ticketSerializer) {
+        this.ticketSerializer = ticketSerializer;
+    }
+
+    @Override
+    public byte[] serialize(final Ticket ticket) throws SerializationException {
+        if (ticket == null) {
+            return new byte[0];
+        }
+        try {
+            return this.ticketSerializer.serialize(ticket);
+        } catch (final Exception e) {
+            throw new SerializationException("Unable to serialize ticket " + ticket.getId(), e);
+        }
+    }
+
+    @Override
+    public Ticket deserialize(final byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try {
+            return this.ticketSerializer.deserialize(bytes);
+        } catch (final Exception e) {
+            throw new SerializationException("Unable to deserialize ticket", e);
+        }
+    }
+}
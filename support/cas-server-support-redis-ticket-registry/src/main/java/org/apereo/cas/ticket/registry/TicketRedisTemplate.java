@@ -1,6 +1,7 @@
 package org.apereo.cas.ticket.registry;
 
 import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.serialization.TicketSerializer;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
@@ -29,4 +30,13 @@ public class TicketRedisTemplate extends RedisTemplate<String, Ticket> {
         setConnectionFactory(connectionFactory);
         afterPropertiesSet();
     }
+
+    public TicketRedisTemplate(final RedisConnectionFactory connectionFactory, final TicketSerializer ticketSerializer) {
+        this();
+        final TicketRedisSerializer serializer = new TicketRedisSerializer(ticketSerializer);
+        setValueSerializer(serializer);
+        setHashValueSerializer(serializer);
+        setConnectionFactory(connectionFactory);
+        afterPropertiesSet();
+    }
 }
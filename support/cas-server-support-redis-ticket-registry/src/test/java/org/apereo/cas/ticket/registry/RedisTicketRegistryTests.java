@@ -1,5 +1,6 @@
 package org.apereo.cas.ticket.registry;
 
+import org.apereo.cas.config.CasCoreTicketSerializationConfiguration;
 import org.apereo.cas.config.RedisTicketRegistryConfiguration;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
@@ -19,7 +20,7 @@ import redis.embedded.RedisServer;
  * @since 3.0.0
  */
 @RunWith(SpringRunner.class)
-@SpringBootTest(classes = {RedisTicketRegistryConfiguration.class, RefreshAutoConfiguration.class})
+@SpringBootTest(classes = {RedisTicketRegistryConfiguration.class, RefreshAutoConfiguration.class, CasCoreTicketSerializationConfiguration.class})
 @TestPropertySource(locations={"classpath:/redis.properties"})
 public class RedisTicketRegistryTests extends AbstractTicketRegistryTests {
 
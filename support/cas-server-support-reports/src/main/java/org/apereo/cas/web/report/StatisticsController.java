@@ -19,9 +19,10 @@ import javax.servlet.http.HttpServletResponse;
 import java.time.Duration;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
-import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * @author Scott Battaglia
@@ -103,20 +104,22 @@ public class StatisticsController extends AbstractNamedMvcEndpoint implements Se
         int expiredTgts = 0;
         int expiredSts = 0;
 
-        final Collection<Ticket> tickets = this.centralAuthenticationService.getTickets(ticket -> true);
-
-        for (final Ticket ticket : tickets) {
-            if (ticket instanceof ServiceTicket) {
-                if (ticket.isExpired()) {
-                    expiredSts++;
-                } else {
-                    unexpiredSts++;
-                }
-            } else {
-                if (ticket.isExpired()) {
-                    expiredTgts++;
+        try (Stream<Ticket> tickets = this.centralAuthenticationService.getTicketsStream(ticket -> true)) {
+            final Iterator<Ticket> iterator = tickets.iterator();
+            while (iterator.hasNext()) {
+                final Ticket ticket = iterator.next();
+                if (ticket instanceof ServiceTicket) {
+                    if (ticket.isExpired()) {
+                        expiredSts++;
+                    } else {
+                        unexpiredSts++;
+                    }
                 } else {
-                    unexpiredTgts++;
+                    if (ticket.isExpired()) {
+                        expiredTgts++;
+                    } else {
+                        unexpiredTgts++;
+                    }
                 }
             }
         }
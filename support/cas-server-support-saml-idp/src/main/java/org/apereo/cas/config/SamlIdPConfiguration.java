@@ -1,8 +1,10 @@
 package org.apereo.cas.config;
 
+import com.codahale.metrics.MetricRegistry;
 import org.apereo.cas.authentication.AuthenticationSystemSupport;
 import org.apereo.cas.authentication.principal.ServiceFactory;
 import org.apereo.cas.authentication.principal.WebApplicationService;
+import org.apereo.cas.authentication.support.StatisticsGaugeSet;
 import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.configuration.model.support.saml.idp.SamlIdPProperties;
 import org.apereo.cas.logout.SingleLogoutServiceLogoutUrlBuilder;
@@ -103,6 +105,10 @@ public class SamlIdPConfiguration {
     @Qualifier("defaultAuthenticationSystemSupport")
     private AuthenticationSystemSupport authenticationSystemSupport;
 
+    @Autowired(required = false)
+    @Qualifier("metrics")
+    private MetricRegistry metrics;
+
     @Autowired(required = false)
     @Qualifier("loginFlowRegistry")
     private FlowDefinitionRegistry loginFlowDefinitionRegistry;
@@ -154,10 +160,16 @@ public class SamlIdPConfiguration {
     @Bean
     @RefreshScope
     public SamlRegisteredServiceCachingMetadataResolver defaultSamlRegisteredServiceCachingMetadataResolver() {
-        return new DefaultSamlRegisteredServiceCachingMetadataResolver(
-                casProperties.getAuthn().getSamlIdp().getMetadata().getCacheExpirationMinutes(),
+        final SamlIdPProperties.Metadata md = casProperties.getAuthn().getSamlIdp().getMetadata();
+        final DefaultSamlRegisteredServiceCachingMetadataResolver resolver = new DefaultSamlRegisteredServiceCachingMetadataResolver(
+                md.getCacheExpirationMinutes(),
+                md.getCacheMaximumAgeMinutes(),
+                md.getCacheMaximumSize(),
+                md.getCacheRefreshPoolSize(),
                 chainingMetadataResolverCacheLoader()
         );
+        StatisticsGaugeSet.register(this.metrics, "cas.authn.samlIdp.metadata.cache", resolver::getStatistics);
+        return resolver;
     }
 
     @Bean
@@ -51,7 +51,9 @@ import java.io.File;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -76,7 +78,7 @@ public class ChainingMetadataResolverCacheLoader extends CacheLoader<SamlRegiste
      */
     protected HttpClient httpClient;
 
-    private transient Object lock = new Object();
+    private final Map<String, Object> locks = new ConcurrentHashMap<>();
 
     @Autowired
     private CasConfigurationProperties casProperties;
@@ -87,31 +89,38 @@ public class ChainingMetadataResolverCacheLoader extends CacheLoader<SamlRegiste
         this.httpClient = httpClient;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>Services that share the same metadata location are loaded one at a time, so that the same
+     * metadata source is not downloaded or backed up concurrently. Services whose metadata comes from
+     * different sources load independently of one another.</p>
+     */
     @Override
     public ChainingMetadataResolver load(final SamlRegisteredService service) throws Exception {
-        try {
-            final ChainingMetadataResolver metadataResolver = new ChainingMetadataResolver();
-
-            final List<MetadataResolver> metadataResolvers = new ArrayList<>();
-            if (isDynamicMetadataQueryConfigured(service)) {
-                resolveMetadataDynamically(service, metadataResolvers);
-            } else {
-                resolveMetadataFromResource(service, metadataResolvers);
-            }
+        final Object lock = this.locks.computeIfAbsent(service.getMetadataLocation(), location -> new Object());
+        synchronized (lock) {
+            try {
+                final ChainingMetadataResolver metadataResolver = new ChainingMetadataResolver();
+
+                final List<MetadataResolver> metadataResolvers = new ArrayList<>();
+                if (isDynamicMetadataQueryConfigured(service)) {
+                    resolveMetadataDynamically(service, metadataResolvers);
+                } else {
+                    resolveMetadataFromResource(service, metadataResolvers);
+                }
 
-            if (metadataResolvers.isEmpty()) {
-                throw new SamlException("No metadata resolvers could be configured for service " + service.getName()
-                        + " with metadata location " + service.getMetadataLocation());
-            }
+                if (metadataResolvers.isEmpty()) {
+                    throw new SamlException("No metadata resolvers could be configured for service " + service.getName()
+                            + " with metadata location " + service.getMetadataLocation());
+                }
 
-            synchronized (this.lock) {
                 metadataResolver.setId(ChainingMetadataResolver.class.getCanonicalName());
                 metadataResolver.setResolvers(metadataResolvers);
                 metadataResolver.initialize();
+                return metadataResolver;
+            } catch (final Exception e) {
+                throw new SamlException(e.getMessage(), e);
             }
-            return metadataResolver;
-        } catch (final Exception e) {
-            throw new SamlException(e.getMessage(), e);
         }
     }
 
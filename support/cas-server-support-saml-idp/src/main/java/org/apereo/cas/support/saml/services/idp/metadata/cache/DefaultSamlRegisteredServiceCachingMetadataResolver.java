@@ -1,37 +1,101 @@
 package org.apereo.cas.support.saml.services.idp.metadata.cache;
 
 import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.cache.RemovalCause;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apereo.cas.support.saml.services.SamlRegisteredService;
 import org.opensaml.saml.metadata.resolver.ChainingMetadataResolver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * An adaptation of metadata resolver which handles the resolution of metadata resources
  * inside a Guava cache. It basically is a fancy wrapper around Guava, and constructs the cache
  * semantics before processing the resolution of metadata for a SAML service.
+ * <p>Metadata is cached for each SAML service. Once the cache expiration has passed, the next request
+ * for the service triggers a reload of its metadata in the background, while the request continues
+ * with the metadata that is already cached. If the reload fails, the cached metadata remains in use,
+ * but never past the maximum age; after that, the next request has to load the metadata again.</p>
  *
  * @author Misagh Moayyed
  * @since 5.0.0
  */
-public class DefaultSamlRegisteredServiceCachingMetadataResolver implements SamlRegisteredServiceCachingMetadataResolver {
+public class DefaultSamlRegisteredServiceCachingMetadataResolver implements SamlRegisteredServiceCachingMetadataResolver, DisposableBean {
     private static final Logger LOGGER = LoggerFactory.getLogger(DefaultSamlRegisteredServiceCachingMetadataResolver.class);
 
+    private static final long DEFAULT_MAXIMUM_SIZE = 1000;
+    private static final int DEFAULT_REFRESH_POOL_SIZE = 2;
+    private static final int DEFAULT_MAXIMUM_AGE_FACTOR = 3;
+
     private long metadataCacheExpirationMinutes;
 
     private ChainingMetadataResolverCacheLoader chainingMetadataResolverCacheLoader;
 
-    private LoadingCache<SamlRegisteredService, ChainingMetadataResolver> cache;
+    private final LoadingCache<SamlRegisteredService, CachedMetadataResolver> cache;
+
+    private final ExecutorService refreshExecutor;
+
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong loadFailures = new AtomicLong();
+    private final AtomicLong totalLoadTime = new AtomicLong();
+    private final AtomicLong maximumLoadTime = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public DefaultSamlRegisteredServiceCachingMetadataResolver(final long metadataCacheExpirationMinutes,
+                                                               final ChainingMetadataResolverCacheLoader chainingMetadataResolverCacheLoader) {
+        this(metadataCacheExpirationMinutes, metadataCacheExpirationMinutes * DEFAULT_MAXIMUM_AGE_FACTOR,
+                DEFAULT_MAXIMUM_SIZE, DEFAULT_REFRESH_POOL_SIZE, chainingMetadataResolverCacheLoader);
+    }
 
+    /**
+     * Instantiates a new caching metadata resolver.
+     *
+     * @param metadataCacheExpirationMinutes      how long metadata is used before it is reloaded in the background
+     * @param metadataCacheMaximumAgeMinutes     how long metadata may be used at most, when it cannot be reloaded
+     * @param maximumSize                         the maximum number of services whose metadata is cached
+     * @param refreshPoolSize                     the number of threads used to reload metadata
+     * @param chainingMetadataResolverCacheLoader the chaining metadata resolver cache loader
+     */
     public DefaultSamlRegisteredServiceCachingMetadataResolver(final long metadataCacheExpirationMinutes,
+                                                               final long metadataCacheMaximumAgeMinutes,
+                                                               final long maximumSize,
+                                                               final int refreshPoolSize,
                                                                final ChainingMetadataResolverCacheLoader chainingMetadataResolverCacheLoader) {
         this.metadataCacheExpirationMinutes = metadataCacheExpirationMinutes;
         this.chainingMetadataResolverCacheLoader = chainingMetadataResolverCacheLoader;
-        this.cache = CacheBuilder.newBuilder().maximumSize(1)
-                .expireAfterWrite(this.metadataCacheExpirationMinutes, TimeUnit.MINUTES).build(this.chainingMetadataResolverCacheLoader);
+        this.refreshExecutor = Executors.newFixedThreadPool(refreshPoolSize,
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("saml-metadata-refresh-%d").build());
+        final CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder().maximumSize(maximumSize);
+        if (this.metadataCacheExpirationMinutes > 0) {
+            builder.refreshAfterWrite(this.metadataCacheExpirationMinutes, TimeUnit.MINUTES)
+                    .expireAfterWrite(Math.max(metadataCacheMaximumAgeMinutes, this.metadataCacheExpirationMinutes), TimeUnit.MINUTES);
+        } else {
+            builder.expireAfterWrite(0, TimeUnit.MINUTES);
+        }
+        this.cache = builder
+                .<SamlRegisteredService, CachedMetadataResolver>removalListener(notification -> {
+                    if (notification.getCause() == RemovalCause.SIZE) {
+                        this.evictions.incrementAndGet();
+                        LOGGER.warn("Cached metadata for [{}] is evicted; consider increasing the metadata cache size beyond [{}]",
+                                notification.getKey(), maximumSize);
+                    }
+                })
+                .build(CacheLoader.asyncReloading(new CacheLoader<SamlRegisteredService, CachedMetadataResolver>() {
+                    @Override
+                    public CachedMetadataResolver load(final SamlRegisteredService service) throws Exception {
+                        return loadMetadataResolver(service);
+                    }
+                }, this.refreshExecutor));
     }
 
     @Override
@@ -39,7 +103,7 @@ public class DefaultSamlRegisteredServiceCachingMetadataResolver implements Saml
         ChainingMetadataResolver resolver = null;
         try {
             LOGGER.debug("Resolving metadata for [{}] at [{}].", service.getName(), service.getMetadataLocation());
-            resolver = this.cache.get(service);
+            resolver = this.cache.get(service).resolver;
             return resolver;
         } catch (final Exception e) {
             throw new IllegalArgumentException("Metadata resolver could not be located from metadata "
@@ -54,6 +118,37 @@ public class DefaultSamlRegisteredServiceCachingMetadataResolver implements Saml
         }
     }
 
+    /**
+     * Gets cache statistics, such as the number of cached services, the time spent loading metadata
+     * and the age of the oldest cached metadata.
+     *
+     * @return the statistics
+     */
+    public Map<String, Long> getStatistics() {
+        final long now = System.currentTimeMillis();
+        final long oldestLoadTime = this.cache.asMap().values().stream()
+                .mapToLong(entry -> entry.loadTime)
+                .min()
+                .orElse(now);
+
+        final Map<String, Long> stats = new LinkedHashMap<>();
+        final long loadCount = this.loads.get();
+        stats.put("size", this.cache.size());
+        stats.put("loads", loadCount);
+        stats.put("loadFailures", this.loadFailures.get());
+        stats.put("evictions", this.evictions.get());
+        stats.put("totalLoadTimeMillis", this.totalLoadTime.get());
+        stats.put("averageLoadTimeMillis", loadCount == 0 ? 0 : this.totalLoadTime.get() / loadCount);
+        stats.put("maximumLoadTimeMillis", this.maximumLoadTime.get());
+        stats.put("maximumStalenessMillis", now - oldestLoadTime);
+        return stats;
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        this.refreshExecutor.shutdownNow();
+    }
+
     public void setChainingMetadataResolverCacheLoader(final ChainingMetadataResolverCacheLoader chainingMetadataResolverCacheLoader) {
         this.chainingMetadataResolverCacheLoader = chainingMetadataResolverCacheLoader;
     }
@@ -61,4 +156,36 @@ public class DefaultSamlRegisteredServiceCachingMetadataResolver implements Saml
     public void setMetadataCacheExpirationMinutes(final long metadataCacheExpirationMinutes) {
         this.metadataCacheExpirationMinutes = metadataCacheExpirationMinutes;
     }
+
+    private CachedMetadataResolver loadMetadataResolver(final SamlRegisteredService service) throws Exception {
+        final long start = System.currentTimeMillis();
+        try {
+            final ChainingMetadataResolver resolver = this.chainingMetadataResolverCacheLoader.load(service);
+            final long now = System.currentTimeMillis();
+            final long loadTime = now - start;
+            this.loads.incrementAndGet();
+            this.totalLoadTime.addAndGet(loadTime);
+            this.maximumLoadTime.accumulateAndGet(loadTime, Math::max);
+            LOGGER.debug("Loaded SAML metadata from [{}] for [{}] in [{}] ms", service.getMetadataLocation(), service.getName(), loadTime);
+            return new CachedMetadataResolver(resolver, now);
+        } catch (final Exception e) {
+            this.loadFailures.incrementAndGet();
+            LOGGER.warn("Unable to load SAML metadata from [{}] for [{}]: [{}]", service.getMetadataLocation(),
+                    service.getName(), e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * A metadata resolver along with the time it was loaded.
+     */
+    private static class CachedMetadataResolver {
+        private final ChainingMetadataResolver resolver;
+        private final long loadTime;
+
+        CachedMetadataResolver(final ChainingMetadataResolver resolver, final long loadTime) {
+            this.resolver = resolver;
+            this.loadTime = loadTime;
+        }
+    }
 }
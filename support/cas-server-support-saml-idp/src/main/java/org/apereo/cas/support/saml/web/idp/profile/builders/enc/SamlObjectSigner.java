@@ -1,6 +1,8 @@
 package org.apereo.cas.support.saml.web.idp.profile.builders.enc;
 
 import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import net.shibboleth.utilities.java.support.resolver.CriteriaSet;
 import org.apache.commons.lang3.StringUtils;
 import org.apereo.cas.configuration.CasConfigurationProperties;
@@ -62,13 +64,18 @@ import org.springframework.core.io.FileSystemResource;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.io.File;
 import java.security.PrivateKey;
 import java.security.cert.X509Certificate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 /**
  * This is {@link SamlObjectSigner}.
+ * <p>The signing credential and the signature signing configuration built from it are loaded once
+ * and reused until the signing key or certificate files change on disk. Signature signing parameters
+ * resolved for a service provider's role descriptor are cached alongside them.</p>
  *
  * @author Misagh Moayyed
  * @since 5.0.0
@@ -100,6 +107,10 @@ public class SamlObjectSigner {
     @Autowired
     private CasConfigurationProperties casProperties;
 
+    private final Object signingConfigurationLock = new Object();
+
+    private volatile SigningConfiguration signingConfiguration;
+
     public SamlObjectSigner(final List overrideSignatureReferenceDigestMethods, final List overrideSignatureAlgorithms,
                             final List overrideBlackListedSignatureAlgorithms, final List overrideWhiteListedAlgorithms) {
         this.overrideSignatureReferenceDigestMethods = overrideSignatureReferenceDigestMethods;
@@ -227,9 +238,29 @@ public class SamlObjectSigner {
      * @throws SAMLException the saml exception
      */
     protected SignatureSigningParameters buildSignatureSigningParameters(final RoleDescriptor descriptor) throws SAMLException {
+        try {
+            final SigningConfiguration current = getCachedSigningConfiguration();
+            return current.signingParameters.get(descriptor, () -> resolveSignatureSigningParameters(current.configuration, descriptor));
+        } catch (final ExecutionException e) {
+            throw new SAMLException(e.getCause().getMessage(), e.getCause());
+        } catch (final Exception e) {
+            throw new SAMLException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Resolve signature signing parameters for the given role descriptor.
+     *
+     * @param configuration the signature signing configuration
+     * @param descriptor    the descriptor
+     * @return the signature signing parameters
+     * @throws SAMLException the saml exception
+     */
+    protected SignatureSigningParameters resolveSignatureSigningParameters(final SignatureSigningConfiguration configuration,
+                                                                           final RoleDescriptor descriptor) throws SAMLException {
         try {
             final CriteriaSet criteria = new CriteriaSet();
-            criteria.add(new SignatureSigningConfigurationCriterion(getSignatureSigningConfiguration()));
+            criteria.add(new SignatureSigningConfigurationCriterion(configuration));
             criteria.add(new RoleDescriptorCriterion(descriptor));
             final SAMLMetadataSignatureSigningParametersResolver resolver = new SAMLMetadataSignatureSigningParametersResolver();
             LOGGER.debug("Resolving signature signing parameters for [{}]", descriptor.getElementQName().getLocalPart());
@@ -252,6 +283,35 @@ public class SamlObjectSigner {
         }
     }
 
+    /**
+     * Gets the signature signing configuration, along with the signing parameters resolved from it,
+     * rebuilding them when the signing key or certificate files have changed since they were loaded.
+     *
+     * @return the signing configuration
+     * @throws Exception the exception
+     */
+    private SigningConfiguration getCachedSigningConfiguration() throws Exception {
+        final SamlIdPProperties.Metadata metadata = casProperties.getAuthn().getSamlIdp().getMetadata();
+        final File keyFile = metadata.getSigningKeyFile().getFile();
+        final File certFile = metadata.getSigningCertFile().getFile();
+        final long keyLastModified = keyFile.lastModified();
+        final long certLastModified = certFile.lastModified();
+
+        SigningConfiguration current = this.signingConfiguration;
+        if (current == null || !current.isLoadedFrom(keyFile, keyLastModified, certFile, certLastModified)) {
+            synchronized (this.signingConfigurationLock) {
+                current = this.signingConfiguration;
+                if (current == null || !current.isLoadedFrom(keyFile, keyLastModified, certFile, certLastModified)) {
+                    LOGGER.debug("Loading signature signing credentials from [{}] and [{}]", keyFile, certFile);
+                    current = new SigningConfiguration(getSignatureSigningConfiguration(),
+                            keyFile, keyLastModified, certFile, certLastModified);
+                    this.signingConfiguration = current;
+                }
+            }
+        }
+        return current;
+    }
+
     /**
      * Gets signature validation configuration.
      *
@@ -463,4 +523,33 @@ public class SamlObjectSigner {
             throw Throwables.propagate(e);
         }
     }
+
+    /**
+     * The signature signing configuration, the files its credentials were loaded from,
+     * and the signing parameters resolved from it for each role descriptor. Role descriptors
+     * are compared by identity, so entries are dropped once the metadata they belong to is discarded.
+     */
+    private static class SigningConfiguration {
+        private final SignatureSigningConfiguration configuration;
+        private final File keyFile;
+        private final long keyLastModified;
+        private final File certFile;
+        private final long certLastModified;
+        private final Cache<RoleDescriptor, SignatureSigningParameters> signingParameters =
+                CacheBuilder.newBuilder().weakKeys().build();
+
+        SigningConfiguration(final SignatureSigningConfiguration configuration, final File keyFile, final long keyLastModified,
+                             final File certFile, final long certLastModified) {
+            this.configuration = configuration;
+            this.keyFile = keyFile;
+            this.keyLastModified = keyLastModified;
+            this.certFile = certFile;
+            this.certLastModified = certLastModified;
+        }
+
+        boolean isLoadedFrom(final File keyFile, final long keyLastModified, final File certFile, final long certLastModified) {
+            return this.keyFile.equals(keyFile) && this.keyLastModified == keyLastModified
+                    && this.certFile.equals(certFile) && this.certLastModified == certLastModified;
+        }
+    }
 }
@@ -1,7 +1,9 @@
 package org.apereo.cas;
 
 import org.apereo.cas.support.saml.SamlIdPConfigurationTests;
+import org.apereo.cas.support.saml.SamlRegisteredServiceCachingMetadataResolverTests;
 import org.apereo.cas.support.saml.SamlRegisteredServiceTests;
+import org.apereo.cas.support.saml.web.idp.profile.builders.enc.SamlObjectSignerTests;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
@@ -13,7 +15,8 @@ import org.junit.runners.Suite;
  */
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
-        SamlRegisteredServiceTests.class, SamlIdPConfigurationTests.class
+        SamlRegisteredServiceTests.class, SamlIdPConfigurationTests.class,
+        SamlRegisteredServiceCachingMetadataResolverTests.class, SamlObjectSignerTests.class
 })
 public class AllTestsSuite {
 }
@@ -0,0 +1,90 @@
+package org.apereo.cas.support.saml;
+
+import org.apereo.cas.support.saml.services.SamlRegisteredService;
+import org.apereo.cas.support.saml.services.idp.metadata.cache.ChainingMetadataResolverCacheLoader;
+import org.apereo.cas.support.saml.services.idp.metadata.cache.DefaultSamlRegisteredServiceCachingMetadataResolver;
+import org.junit.After;
+import org.junit.Test;
+import org.opensaml.saml.metadata.resolver.ChainingMetadataResolver;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link SamlRegisteredServiceCachingMetadataResolverTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class SamlRegisteredServiceCachingMetadataResolverTests {
+
+    private DefaultSamlRegisteredServiceCachingMetadataResolver resolver;
+
+    @After
+    public void tearDown() throws Exception {
+        this.resolver.destroy();
+    }
+
+    @Test
+    public void verifyMetadataIsCachedForEachService() {
+        final CountingCacheLoader loader = new CountingCacheLoader();
+        this.resolver = new DefaultSamlRegisteredServiceCachingMetadataResolver(30, 90, 10, 1, loader);
+
+        final SamlRegisteredService service1 = getService(1, "classpath:/sample-idp-metadata.xml");
+        final SamlRegisteredService service2 = getService(2, "classpath:/sample-sp-metadata.xml");
+        for (int i = 0; i < 3; i++) {
+            assertNotNull(this.resolver.resolve(service1));
+            assertNotNull(this.resolver.resolve(service2));
+        }
+        assertEquals(2, loader.count.get());
+        assertSame(this.resolver.resolve(service1), this.resolver.resolve(service1));
+
+        final Map<String, Long> stats = this.resolver.getStatistics();
+        assertEquals(Long.valueOf(2), stats.get("size"));
+        assertEquals(Long.valueOf(2), stats.get("loads"));
+        assertEquals(Long.valueOf(0), stats.get("evictions"));
+    }
+
+    @Test
+    public void verifyFailedLoadIsReported() {
+        final CountingCacheLoader loader = new CountingCacheLoader();
+        this.resolver = new DefaultSamlRegisteredServiceCachingMetadataResolver(30, 90, 10, 1, loader);
+        try {
+            this.resolver.resolve(getService(1, "classpath:/missing-metadata.xml"));
+            fail("Metadata should not have been resolved");
+        } catch (final IllegalArgumentException e) {
+            assertEquals(Long.valueOf(1), this.resolver.getStatistics().get("loadFailures"));
+            assertEquals(Long.valueOf(0), this.resolver.getStatistics().get("size"));
+        }
+    }
+
+    private static SamlRegisteredService getService(final long id, final String metadataLocation) {
+        final SamlRegisteredService service = new SamlRegisteredService();
+        service.setId(id);
+        service.setName("SAMLService" + id);
+        service.setServiceId("https://sp" + id + ".example.org");
+        service.setMetadataLocation(metadataLocation);
+        return service;
+    }
+
+    private static class CountingCacheLoader extends ChainingMetadataResolverCacheLoader {
+        private final AtomicInteger count = new AtomicInteger();
+
+        CountingCacheLoader() {
+            super(null, null);
+        }
+
+        @Override
+        public ChainingMetadataResolver load(final SamlRegisteredService service) throws Exception {
+            if (service.getMetadataLocation().contains("missing")) {
+                throw new SamlException("Metadata could not be found at " + service.getMetadataLocation());
+            }
+            this.count.incrementAndGet();
+            final ChainingMetadataResolver resolver = new ChainingMetadataResolver();
+            resolver.setId(service.getName());
+            return resolver;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package org.apereo.cas.support.saml.web.idp.profile.builders.enc;
+
+import org.apache.commons.io.FileUtils;
+import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.opensaml.saml.saml2.metadata.RoleDescriptor;
+import org.opensaml.xmlsec.SignatureSigningConfiguration;
+import org.opensaml.xmlsec.SignatureSigningParameters;
+import org.opensaml.xmlsec.impl.BasicSignatureSigningConfiguration;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * This is {@link SamlObjectSignerTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class SamlObjectSignerTests {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File keyFile;
+
+    private File certFile;
+
+    private CountingSamlObjectSigner signer;
+
+    @Before
+    public void setUp() throws Exception {
+        this.keyFile = folder.newFile("idp-signing.key");
+        this.certFile = folder.newFile("idp-signing.crt");
+        FileUtils.write(this.keyFile, "key", StandardCharsets.UTF_8);
+        FileUtils.write(this.certFile, "certificate", StandardCharsets.UTF_8);
+
+        final CasConfigurationProperties casProperties = new CasConfigurationProperties();
+        casProperties.getAuthn().getSamlIdp().getMetadata().setLocation(new FileSystemResource(folder.getRoot()));
+        this.signer = new CountingSamlObjectSigner();
+        ReflectionTestUtils.setField(this.signer, "casProperties", casProperties);
+    }
+
+    @Test
+    public void verifySigningConfigurationIsReused() throws Exception {
+        final RoleDescriptor descriptor = mock(RoleDescriptor.class);
+        final SignatureSigningParameters params = this.signer.buildSignatureSigningParameters(descriptor);
+        assertSame(params, this.signer.buildSignatureSigningParameters(descriptor));
+        assertEquals(1, this.signer.configurationsLoaded);
+        assertEquals(1, this.signer.parametersResolved);
+
+        assertNotSame(params, this.signer.buildSignatureSigningParameters(mock(RoleDescriptor.class)));
+        assertEquals(1, this.signer.configurationsLoaded);
+        assertEquals(2, this.signer.parametersResolved);
+    }
+
+    @Test
+    public void verifySigningConfigurationIsReloadedWhenKeyChanges() throws Exception {
+        final RoleDescriptor descriptor = mock(RoleDescriptor.class);
+        final SignatureSigningParameters params = this.signer.buildSignatureSigningParameters(descriptor);
+        assertTrue(this.keyFile.setLastModified(this.keyFile.lastModified() + 10_000));
+
+        assertNotSame(params, this.signer.buildSignatureSigningParameters(descriptor));
+        assertEquals(2, this.signer.configurationsLoaded);
+        assertEquals(2, this.signer.parametersResolved);
+    }
+
+    @Test
+    public void verifySigningConfigurationIsReloadedWhenCertificateChanges() throws Exception {
+        final RoleDescriptor descriptor = mock(RoleDescriptor.class);
+        final SignatureSigningParameters params = this.signer.buildSignatureSigningParameters(descriptor);
+        assertTrue(this.certFile.setLastModified(this.certFile.lastModified() + 10_000));
+
+        assertNotSame(params, this.signer.buildSignatureSigningParameters(descriptor));
+        assertEquals(2, this.signer.configurationsLoaded);
+        assertEquals(2, this.signer.parametersResolved);
+
+        assertSame(this.signer.buildSignatureSigningParameters(descriptor), this.signer.buildSignatureSigningParameters(descriptor));
+        assertEquals(2, this.signer.configurationsLoaded);
+    }
+
+    /**
+     * Signer that counts how often the signing configuration is loaded and parameters are resolved,
+     * without reading the key and certificate files.
+     */
+    private static class CountingSamlObjectSigner extends SamlObjectSigner {
+        private int configurationsLoaded;
+        private int parametersResolved;
+
+        CountingSamlObjectSigner() {
+            super(null, null, null, null);
+        }
+
+        @Override
+        protected SignatureSigningConfiguration getSignatureSigningConfiguration() throws Exception {
+            this.configurationsLoaded++;
+            return new BasicSignatureSigningConfiguration();
+        }
+
+        @Override
+        protected SignatureSigningParameters resolveSignatureSigningParameters(final SignatureSigningConfiguration configuration,
+                                                                               final RoleDescriptor descriptor) {
+            this.parametersResolved++;
+            return new SignatureSigningParameters();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package org.apereo.cas.trusted.authentication.storage;
 
+import org.apache.commons.lang3.StringUtils;
 import org.apereo.cas.trusted.authentication.api.MultifactorAuthenticationTrustRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -75,7 +76,8 @@ public class JpaMultifactorAuthenticationTrustStorage extends BaseMultifactorAut
         try {
             final List<MultifactorAuthenticationTrustRecord> results =
                     this.entityManager.createQuery("SELECT r FROM " + TABLE_NAME + " r where r.principal = :principal",
-                            MultifactorAuthenticationTrustRecord.class).setParameter("principal", principal).getResultList();
+                            MultifactorAuthenticationTrustRecord.class).setParameter("principal", StringUtils.lowerCase(principal))
+                            .getResultList();
             return new HashSet<>(results);
         } catch (final NoResultException e) {
             LOGGER.info("No trusted authentication records could be found for [{}]", principal);
@@ -1,10 +1,14 @@
 package org.apereo.cas.trusted.authentication.storage;
 
 import com.mongodb.WriteResult;
+import org.apache.commons.lang3.StringUtils;
 import org.apereo.cas.trusted.authentication.api.MultifactorAuthenticationTrustRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.util.Assert;
@@ -49,6 +53,12 @@ public class MongoDbMultifactorAuthenticationTrustStorage extends BaseMultifacto
             LOGGER.debug("Creating database collection: [{}]", this.collectionName);
             this.mongoTemplate.createCollection(this.collectionName);
         }
+
+        LOGGER.debug("Ensuring indexes on principal, date and key exist for collection [{}]", this.collectionName);
+        final IndexOperations indexes = this.mongoTemplate.indexOps(this.collectionName);
+        indexes.ensureIndex(new Index().on("principal", Sort.Direction.ASC));
+        indexes.ensureIndex(new Index().on("date", Sort.Direction.ASC));
+        indexes.ensureIndex(new Index().on("key", Sort.Direction.ASC));
     }
 
     @Override
@@ -87,7 +97,7 @@ public class MongoDbMultifactorAuthenticationTrustStorage extends BaseMultifacto
     @Override
     public Set<MultifactorAuthenticationTrustRecord> get(final String principal) {
         final Query query = new Query();
-        query.addCriteria(Criteria.where("principal").is(principal));
+        query.addCriteria(Criteria.where("principal").is(StringUtils.lowerCase(principal)));
         final List<MultifactorAuthenticationTrustRecord> results =
                 this.mongoTemplate.find(query, MultifactorAuthenticationTrustRecord.class, this.collectionName);
         return new HashSet<>(results);
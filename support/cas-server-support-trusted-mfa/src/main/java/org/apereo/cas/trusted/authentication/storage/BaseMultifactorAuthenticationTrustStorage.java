@@ -33,6 +33,7 @@ public abstract class BaseMultifactorAuthenticationTrustStorage implements Multi
     @Override
     public MultifactorAuthenticationTrustRecord set(final MultifactorAuthenticationTrustRecord record) {
         LOGGER.debug("Stored authentication trust record for [{}]", record);
+        record.setPrincipal(StringUtils.lowerCase(record.getPrincipal()));
         record.setKey(generateKey(record));
         return setInternal(record);
     }
@@ -1,47 +1,76 @@
 package org.apereo.cas.trusted.authentication.storage;
 
-import com.google.common.cache.LoadingCache;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import org.apache.commons.lang3.StringUtils;
 import org.apereo.cas.trusted.authentication.api.MultifactorAuthenticationTrustRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 
 /**
  * This is {@link InMemoryMultifactorAuthenticationTrustStorage}.
+ * Records are kept in the cache by their key. Two indexes point at those keys:
+ * one by principal, ignoring case, and one by record date in sorted order. Lookups by principal
+ * only touch the records of that principal, and expiring records by date only touches the
+ * records that are due. Records that leave the cache, whether they are evicted, expire or are
+ * replaced, are removed from the indexes by a removal listener on the cache.
  *
  * @author Misagh Moayyed
  * @since 5.0.0
  */
 public class InMemoryMultifactorAuthenticationTrustStorage extends BaseMultifactorAuthenticationTrustStorage {
     private static final Logger LOGGER = LoggerFactory.getLogger(InMemoryMultifactorAuthenticationTrustStorage.class);
-    
-    private LoadingCache<String, MultifactorAuthenticationTrustRecord> storage;
 
-    public InMemoryMultifactorAuthenticationTrustStorage(final LoadingCache<String, MultifactorAuthenticationTrustRecord> st) {
-        this.storage = st;
+    private final Cache<String, MultifactorAuthenticationTrustRecord> storage;
+
+    private final ConcurrentMap<String, Set<String>> principalIndex = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<DateIndexEntry> dateIndex = new ConcurrentSkipListSet<>();
+
+    /**
+     * Instantiates a new In memory multifactor authentication trust storage.
+     *
+     * @param cacheBuilder the builder for the cache that holds records; a removal listener is added to it
+     */
+    public InMemoryMultifactorAuthenticationTrustStorage(final CacheBuilder<Object, Object> cacheBuilder) {
+        this.storage = cacheBuilder.<String, MultifactorAuthenticationTrustRecord>removalListener(this::onRemoval).build();
     }
 
     @Override
     public void expire(final String key) {
+        if (storage.getIfPresent(key) != null) {
+            storage.invalidate(key);
+            return;
+        }
         storage.asMap().keySet().removeIf(k -> k.equalsIgnoreCase(key));
     }
 
     @Override
     public void expire(final LocalDate onOrBefore) {
-        final Set<MultifactorAuthenticationTrustRecord> results = storage.asMap()
-                .values()
-                .stream()
-                .filter(entry -> entry.getDate().isEqual(onOrBefore) || entry.getDate().isBefore(onOrBefore))
-                .sorted()
-                .distinct()
-                .collect(Collectors.toSet());
+        final Set<String> results = new HashSet<>();
+        final Iterator<DateIndexEntry> it = this.dateIndex
+                .headSet(new DateIndexEntry(onOrBefore.plusDays(1), StringUtils.EMPTY)).iterator();
+        while (it.hasNext()) {
+            final DateIndexEntry entry = it.next();
+            final MultifactorAuthenticationTrustRecord record = storage.getIfPresent(entry.key);
+            if (record != null && entry.date.equals(record.getDate())) {
+                results.add(entry.key);
+            } else {
+                it.remove();
+            }
+        }
 
         LOGGER.info("Found [{}] expired records", results.size());
         if (!results.isEmpty()) {
-            results.forEach(entry -> storage.invalidate(entry.getKey()));
+            storage.invalidateAll(results);
             LOGGER.info("Invalidated and removed [{}] expired records", results.size());
         }
     }
@@ -49,30 +78,115 @@ public class InMemoryMultifactorAuthenticationTrustStorage extends BaseMultifact
     @Override
     public Set<MultifactorAuthenticationTrustRecord> get(final LocalDate onOrAfterDate) {
         expire(onOrAfterDate);
-        return storage.asMap()
-                .values()
-                .stream()
-                .filter(entry -> entry.getDate().isEqual(onOrAfterDate) || entry.getDate().isAfter(onOrAfterDate))
-                .sorted()
-                .distinct()
-                .collect(Collectors.toSet());
+        final Set<MultifactorAuthenticationTrustRecord> results = new HashSet<>();
+        final Iterator<DateIndexEntry> it = this.dateIndex
+                .tailSet(new DateIndexEntry(onOrAfterDate, StringUtils.EMPTY)).iterator();
+        while (it.hasNext()) {
+            final DateIndexEntry entry = it.next();
+            final MultifactorAuthenticationTrustRecord record = storage.getIfPresent(entry.key);
+            if (record != null && entry.date.equals(record.getDate())) {
+                results.add(record);
+            } else {
+                it.remove();
+            }
+        }
+        return results;
     }
 
     @Override
     public Set<MultifactorAuthenticationTrustRecord> get(final String principal) {
-        return storage.asMap()
-                .values()
-                .stream()
-                .filter(entry -> entry.getPrincipal().equalsIgnoreCase(principal))
-                .sorted()
-                .distinct()
-                .collect(Collectors.toSet());
+        final String indexKey = StringUtils.lowerCase(principal);
+        if (indexKey == null) {
+            return new HashSet<>();
+        }
+        final Set<String> keys = this.principalIndex.get(indexKey);
+        if (keys == null) {
+            return new HashSet<>();
+        }
+        final Set<MultifactorAuthenticationTrustRecord> results = new HashSet<>();
+        for (final String key : keys) {
+            final MultifactorAuthenticationTrustRecord record = storage.getIfPresent(key);
+            if (record != null && StringUtils.equalsIgnoreCase(record.getPrincipal(), principal)) {
+                results.add(record);
+            } else {
+                removeFromPrincipalIndex(indexKey, key);
+            }
+        }
+        return results;
     }
 
-
     @Override
     public MultifactorAuthenticationTrustRecord setInternal(final MultifactorAuthenticationTrustRecord record) {
-        this.storage.put(record.getKey(), record);
+        final String key = record.getKey();
+        this.storage.put(key, record);
+        if (record.getPrincipal() != null) {
+            this.principalIndex.compute(record.getPrincipal().toLowerCase(), (k, keys) -> {
+                final Set<String> results = keys == null ? ConcurrentHashMap.newKeySet() : keys;
+                if (this.storage.getIfPresent(key) == record) {
+                    results.add(key);
+                }
+                return results.isEmpty() ? null : results;
+            });
+        }
+        if (record.getDate() != null) {
+            this.dateIndex.add(new DateIndexEntry(record.getDate(), key));
+        }
         return record;
     }
+
+    /**
+     * Remove the record from the indexes once it leaves the cache, unless the record that replaced it
+     * is indexed under the same principal or date.
+     */
+    private void onRemoval(final RemovalNotification<String, MultifactorAuthenticationTrustRecord> notification) {
+        final String key = notification.getKey();
+        final MultifactorAuthenticationTrustRecord removed = notification.getValue();
+        if (key == null || removed == null) {
+            return;
+        }
+        final MultifactorAuthenticationTrustRecord current = this.storage.getIfPresent(key);
+        if (removed.getPrincipal() != null
+                && (current == null || !removed.getPrincipal().equalsIgnoreCase(current.getPrincipal()))) {
+            removeFromPrincipalIndex(removed.getPrincipal().toLowerCase(), key);
+        }
+        if (removed.getDate() != null && (current == null || !removed.getDate().equals(current.getDate()))) {
+            this.dateIndex.remove(new DateIndexEntry(removed.getDate(), key));
+        }
+    }
+
+    private void removeFromPrincipalIndex(final String indexKey, final String key) {
+        this.principalIndex.computeIfPresent(indexKey, (k, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    /**
+     * A record key along with its date, sorted by date first.
+     */
+    private static class DateIndexEntry implements Comparable<DateIndexEntry> {
+        private final LocalDate date;
+        private final String key;
+
+        DateIndexEntry(final LocalDate date, final String key) {
+            this.date = date;
+            this.key = key;
+        }
+
+        @Override
+        public int compareTo(final DateIndexEntry other) {
+            final int result = this.date.compareTo(other.date);
+            return result != 0 ? result : this.key.compareTo(other.key);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return obj instanceof DateIndexEntry && compareTo((DateIndexEntry) obj) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * this.date.hashCode() + this.key.hashCode();
+        }
+    }
 }
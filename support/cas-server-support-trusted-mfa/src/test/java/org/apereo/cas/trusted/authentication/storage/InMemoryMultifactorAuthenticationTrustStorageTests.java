@@ -0,0 +1,110 @@
+package org.apereo.cas.trusted.authentication.storage;
+
+import com.google.common.cache.CacheBuilder;
+import org.apereo.cas.trusted.authentication.api.MultifactorAuthenticationTrustRecord;
+import org.apereo.cas.util.cipher.NoOpCipherExecutor;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link InMemoryMultifactorAuthenticationTrustStorageTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class InMemoryMultifactorAuthenticationTrustStorageTests {
+
+    private InMemoryMultifactorAuthenticationTrustStorage storage;
+
+    @Before
+    public void setup() {
+        this.storage = new InMemoryMultifactorAuthenticationTrustStorage(CacheBuilder.newBuilder());
+        this.storage.setCipherExecutor(NoOpCipherExecutor.getInstance());
+    }
+
+    @Test
+    public void verifyRecordsAreFoundByPrincipal() {
+        this.storage.set(getRecord("casuser", "London", LocalDate.now()));
+        this.storage.set(getRecord("CASUSER", "Paris", LocalDate.now()));
+        this.storage.set(getRecord("someone", "Rome", LocalDate.now()));
+
+        assertEquals(2, this.storage.get("casuser").size());
+        assertEquals(1, this.storage.get("someone").size());
+        assertTrue(this.storage.get("nobody").isEmpty());
+    }
+
+    @Test
+    public void verifyRecordsExpireByDate() {
+        final LocalDate today = LocalDate.now();
+        this.storage.set(getRecord("casuser", "London", today.minusDays(10)));
+        this.storage.set(getRecord("casuser", "Paris", today.minusDays(5)));
+        final MultifactorAuthenticationTrustRecord current = this.storage.set(getRecord("casuser", "Rome", today));
+
+        this.storage.expire(today.minusDays(5));
+        final Set<MultifactorAuthenticationTrustRecord> records = this.storage.get("casuser");
+        assertEquals(1, records.size());
+        assertEquals(current.getKey(), records.iterator().next().getKey());
+        assertEquals(1, this.storage.get(today.minusDays(30)).size());
+    }
+
+    @Test
+    public void verifyRecordExpiresByKey() {
+        final MultifactorAuthenticationTrustRecord record = this.storage.set(getRecord("casuser", "London", LocalDate.now()));
+        this.storage.expire(record.getKey());
+        assertTrue(this.storage.get("casuser").isEmpty());
+        assertTrue(this.storage.get(LocalDate.now()).isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void verifyEvictedRecordsAreRemovedFromIndexes() {
+        final InMemoryMultifactorAuthenticationTrustStorage bounded =
+                new InMemoryMultifactorAuthenticationTrustStorage(CacheBuilder.newBuilder().maximumSize(1));
+        bounded.setCipherExecutor(NoOpCipherExecutor.getInstance());
+        bounded.set(getRecord("casuser", "London", LocalDate.now().minusDays(1)));
+        bounded.set(getRecord("someone", "Paris", LocalDate.now()));
+
+        final Map<String, Set<String>> principalIndex =
+                (Map<String, Set<String>>) ReflectionTestUtils.getField(bounded, "principalIndex");
+        final Set<?> dateIndex = (Set<?>) ReflectionTestUtils.getField(bounded, "dateIndex");
+        assertFalse(principalIndex.containsKey("casuser"));
+        assertEquals(1, principalIndex.get("someone").size());
+        assertEquals(1, dateIndex.size());
+    }
+
+    @Test
+    public void verifyReplacedRecordIsIndexedUnderNewDate() {
+        final MultifactorAuthenticationTrustRecord record = getRecord("casuser", "London", LocalDate.now().minusDays(10));
+        this.storage.set(record);
+        final MultifactorAuthenticationTrustRecord replacement = getRecord("casuser", "London", LocalDate.now());
+        this.storage.set(replacement);
+
+        this.storage.expire(LocalDate.now().minusDays(5));
+        assertEquals(1, this.storage.get("casuser").size());
+        assertEquals(1, this.storage.get(LocalDate.now().minusDays(30)).size());
+    }
+
+    @Test
+    public void verifyPrincipalIsStoredInLowerCase() {
+        final MultifactorAuthenticationTrustRecord record = this.storage.set(getRecord("CasUser", "London", LocalDate.now()));
+        assertEquals("casuser", record.getPrincipal());
+
+        final Set<MultifactorAuthenticationTrustRecord> records = this.storage.get("CASUSER", LocalDate.now());
+        assertEquals(1, records.size());
+        assertEquals(record.getKey(), records.iterator().next().getKey());
+    }
+
+    private static MultifactorAuthenticationTrustRecord getRecord(final String principal, final String geography,
+                                                                 final LocalDate date) {
+        final MultifactorAuthenticationTrustRecord record = MultifactorAuthenticationTrustRecord.newInstance(principal, geography);
+        record.setDate(date);
+        return record;
+    }
+}
@@ -2,32 +2,53 @@ package org.apereo.cas.adaptors.x509.authentication.revocation.checker;
 
 
 import com.google.common.base.Throwables;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import net.sf.ehcache.Cache;
 import net.sf.ehcache.Element;
 import org.apereo.cas.adaptors.x509.authentication.CRLFetcher;
 import org.apereo.cas.adaptors.x509.authentication.ResourceCRLFetcher;
 import org.apereo.cas.adaptors.x509.authentication.revocation.policy.RevocationPolicy;
 import org.apereo.cas.adaptors.x509.util.CertUtils;
+import org.apereo.cas.util.DigestUtils;
 import org.bouncycastle.asn1.ASN1Sequence;
 import org.bouncycastle.asn1.DERIA5String;
+import org.bouncycastle.asn1.x509.CRLDistPoint;
 import org.bouncycastle.asn1.x509.DistributionPoint;
 import org.bouncycastle.asn1.x509.DistributionPointName;
+import org.bouncycastle.asn1.x509.Extension;
 import org.bouncycastle.asn1.x509.GeneralName;
+import org.bouncycastle.cert.jcajce.JcaX509ExtensionUtils;
 import org.cryptacular.x509.ExtensionReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
 
+import java.io.File;
+import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URL;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.security.cert.X509CRL;
 import java.security.cert.X509Certificate;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Performs CRL-based revocation checking by consulting resources defined in
@@ -37,16 +58,41 @@ import java.util.List;
  * implementation.  This implementation caches CRL resources fetched from remote
  * URLs to improve performance by avoiding CRL fetching on every revocation
  * check.
+ * <p>
+ * Fetched CRLs are parsed once and kept in memory as {@link IndexedX509CRL} instances,
+ * which index revoked serial numbers per issuer and apply the delta CRL advertised by the
+ * FreshestCRL extension of the CRL, if any. Once a CRL drops out of the cache or gets close to its
+ * next update, it is fetched again on a background thread while the current copy keeps being used.
+ * The cache holds the encoded CRL along with its delta CRL, so that a CRL rebuilt from the cache
+ * still applies the delta.
+ * If a storage directory is defined, fetched CRLs are also written to disk and are read back
+ * from there after a restart instead of being fetched again. No more CRLs are kept in memory than the
+ * cache itself may hold; the least recently used ones are dropped beyond that.
  *
  * @author Marvin S. Addison
  * @since 3.4.6
  */
-public class CRLDistributionPointRevocationChecker extends AbstractCRLRevocationChecker {
+public class CRLDistributionPointRevocationChecker extends AbstractCRLRevocationChecker implements DisposableBean {
     private static final Logger LOGGER = LoggerFactory.getLogger(CRLDistributionPointRevocationChecker.class);
-    
+
+    private static final long DEFAULT_REFRESH_AHEAD_SECONDS = TimeUnit.MINUTES.toSeconds(15);
+    private static final long DEFAULT_REFRESH_INTERVAL_SECONDS = TimeUnit.MINUTES.toSeconds(5);
+    private static final long DEFAULT_MAXIMUM_CRLS = 100;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+    private static final String CRL_FILE_EXTENSION = ".crl";
+    private static final String DELTA_CRL_FILE_EXTENSION = ".delta.crl";
+
     private final Cache crlCache;
     private final CRLFetcher fetcher;
     private final boolean throwOnFetchFailure;
+    private final long refreshAheadSeconds;
+    private final long refreshIntervalSeconds;
+    private final File storageDirectory;
+
+    private final ConcurrentMap<Object, IndexedX509CRL> crls;
+    private final ConcurrentMap<URI, Long> lastRefreshAttempts;
+    private final Set<URI> refreshing = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService refreshExecutor;
 
     /**
      * Creates a new instance that uses the given cache instance for CRL caching.
@@ -100,10 +146,53 @@ public class CRLDistributionPointRevocationChecker extends AbstractCRLRevocation
     public CRLDistributionPointRevocationChecker(final boolean checkAll, final RevocationPolicy<Void> unavailableCRLPolicy,
                                                  final RevocationPolicy<X509CRL> expiredCRLPolicy, final Cache crlCache,
                                                  final CRLFetcher fetcher, final boolean throwOnFetchFailure) {
+        this(checkAll, unavailableCRLPolicy, expiredCRLPolicy, crlCache, fetcher, throwOnFetchFailure,
+                DEFAULT_REFRESH_AHEAD_SECONDS, DEFAULT_REFRESH_INTERVAL_SECONDS, null);
+    }
+
+    /**
+     * Instantiates a new CRL distribution point revocation checker.
+     *
+     * @param checkAll               the check all
+     * @param unavailableCRLPolicy   the unavailable crl policy
+     * @param expiredCRLPolicy       the expired crl policy
+     * @param crlCache               the crl cache
+     * @param fetcher                the fetcher
+     * @param throwOnFetchFailure    the throw on fetch failure
+     * @param refreshAheadSeconds    how long before the next update of a CRL it should be refreshed
+     * @param refreshIntervalSeconds how often CRLs are checked for refresh, and the minimum time between
+     *                               two refresh attempts of the same CRL
+     * @param storageDirectory       the directory where fetched CRLs are stored, or null to keep them in memory only
+     */
+    public CRLDistributionPointRevocationChecker(final boolean checkAll, final RevocationPolicy<Void> unavailableCRLPolicy,
+                                                 final RevocationPolicy<X509CRL> expiredCRLPolicy, final Cache crlCache,
+                                                 final CRLFetcher fetcher, final boolean throwOnFetchFailure,
+                                                 final long refreshAheadSeconds, final long refreshIntervalSeconds,
+                                                 final File storageDirectory) {
         super(checkAll, unavailableCRLPolicy, expiredCRLPolicy);
         this.crlCache = crlCache;
         this.fetcher = fetcher;
         this.throwOnFetchFailure = throwOnFetchFailure;
+        this.refreshAheadSeconds = refreshAheadSeconds;
+        this.refreshIntervalSeconds = refreshIntervalSeconds;
+        this.storageDirectory = storageDirectory;
+        this.crls = CacheBuilder.newBuilder()
+                .maximumSize(getMaximumCRLs(crlCache))
+                .<Object, IndexedX509CRL>build()
+                .asMap();
+        this.lastRefreshAttempts = CacheBuilder.newBuilder()
+                .maximumSize(getMaximumCRLs(crlCache))
+                .<URI, Long>build()
+                .asMap();
+        if (storageDirectory != null && !storageDirectory.exists() && !storageDirectory.mkdirs()) {
+            LOGGER.warn("Unable to create the CRL storage directory [{}]", storageDirectory);
+        }
+        this.refreshExecutor = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("crl-refresh-%d").build());
+        if (refreshIntervalSeconds > 0) {
+            this.refreshExecutor.scheduleWithFixedDelay(this::refreshDueCRLs,
+                    refreshIntervalSeconds, refreshIntervalSeconds, TimeUnit.SECONDS);
+        }
     }
 
     @Override
@@ -130,33 +219,9 @@ public class CRLDistributionPointRevocationChecker extends AbstractCRLRevocation
         try {
             for (int index = 0; !stopFetching && index < urls.length; index++) {
                 final URI url = urls[index];
-                final Element item = this.crlCache.get(url);
-
-                if (item != null) {
-                    LOGGER.debug("Found CRL in cache for [{}]", CertUtils.toString(cert));
-                    final byte[] encodedCrl = (byte[]) item.getObjectValue();
-                    final X509CRL crlFetched = this.fetcher.fetch(new ByteArrayResource(encodedCrl));
-
-                    if (crlFetched != null) {
-                        listOfLocations.add(crlFetched);
-                    } else {
-                        LOGGER.warn("Could fetch X509 CRL for [{}]. Returned value is null", url);
-                    }
-                } else {
-                    LOGGER.debug("CRL for [{}] is not cached. Fetching and caching...", CertUtils.toString(cert));
-                    try {
-                        final X509CRL crl = this.fetcher.fetch(url);
-                        if (crl != null) {
-                            LOGGER.info("Success. Caching fetched CRL at [{}].", url);
-                            addCRL(url, crl);
-                            listOfLocations.add(crl);
-                        }
-                    } catch (final Exception e) {
-                        LOGGER.error("Error fetching CRL at [{}]", url, e);
-                        if (this.throwOnFetchFailure) {
-                            throw Throwables.propagate(e);
-                        }
-                    }
+                final X509CRL crl = getCRL(url);
+                if (crl != null) {
+                    listOfLocations.add(crl);
                 }
 
                 if (!this.checkAll && !listOfLocations.isEmpty()) {
@@ -177,10 +242,16 @@ public class CRLDistributionPointRevocationChecker extends AbstractCRLRevocation
         try {
             if (crl == null) {
                 LOGGER.debug("No CRL was passed. Removing [{}] from cache...", id);
+                this.crls.remove(id);
                 return this.crlCache.remove(id);
             }
 
-            this.crlCache.put(new Element(id, crl.getEncoded()));
+            final IndexedX509CRL indexed = crl instanceof IndexedX509CRL ? (IndexedX509CRL) crl : new IndexedX509CRL(crl);
+            this.crls.put(id, indexed);
+            final byte[][] encoded = indexed.getDeltaCrl() != null
+                    ? new byte[][]{indexed.getCrl().getEncoded(), indexed.getDeltaCrl().getEncoded()}
+                    : new byte[][]{indexed.getCrl().getEncoded()};
+            this.crlCache.put(new Element(id, encoded));
             return this.crlCache.get(id) != null;
 
         } catch (final Exception e) {
@@ -189,6 +260,293 @@ public class CRLDistributionPointRevocationChecker extends AbstractCRLRevocation
         }
     }
 
+    @Override
+    public void destroy() throws Exception {
+        this.refreshExecutor.shutdown();
+        if (!this.refreshExecutor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            LOGGER.warn("CRL refresh tasks did not finish in time; interrupting them");
+            this.refreshExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Gets the CRL published at the given location.
+     * CRLs that are already indexed in memory, or stored on disk, are returned right away and refreshed
+     * in the background once the cache entry has expired or the CRL is about to reach its next update.
+     * The CRL is only fetched by the calling thread when there is no copy of it at all,
+     * or when the only copy has expired and has dropped out of the cache.
+     *
+     * @param url the url
+     * @return the crl, or null if none could be found
+     * @throws Exception the exception
+     */
+    private X509CRL getCRL(final URI url) throws Exception {
+        IndexedX509CRL crl = this.crls.get(url);
+        final Element item = this.crlCache.get(url);
+
+        if (crl == null && item != null) {
+            LOGGER.debug("Found CRL in cache for [{}]", url);
+            crl = readCachedCRL(item);
+            if (crl != null) {
+                this.crls.put(url, crl);
+            } else {
+                LOGGER.warn("Could fetch X509 CRL for [{}]. Returned value is null", url);
+            }
+        }
+        if (crl == null) {
+            crl = readStoredCRL(url);
+        }
+
+        if (crl == null || (item == null && CertUtils.isExpired(crl))) {
+            LOGGER.debug("CRL for [{}] is not cached. Fetching and caching...", url);
+            try {
+                final IndexedX509CRL crlFetched = fetchCRL(url);
+                if (crlFetched != null) {
+                    this.lastRefreshAttempts.put(url, System.currentTimeMillis());
+                    storeCRLInBackground(url, crlFetched);
+                    return crlFetched;
+                }
+            } catch (final Exception e) {
+                LOGGER.error("Error fetching CRL at [{}]", url, e);
+                if (this.throwOnFetchFailure) {
+                    throw Throwables.propagate(e);
+                }
+            }
+            return crl;
+        }
+
+        if (item == null || isDueForRefresh(crl)) {
+            scheduleRefresh(url);
+        }
+        return crl;
+    }
+
+    /**
+     * Fetch and index the CRL at the given location, along with its delta CRL if the CRL
+     * advertises one, and put the result in the cache.
+     *
+     * @param url the url
+     * @return the indexed crl, or null if nothing was fetched
+     * @throws Exception the exception
+     */
+    private IndexedX509CRL fetchCRL(final URI url) throws Exception {
+        final X509CRL crl = this.fetcher.fetch(url);
+        if (crl == null) {
+            LOGGER.warn("Could fetch X509 CRL for [{}]. Returned value is null", url);
+            return null;
+        }
+        final IndexedX509CRL indexed = new IndexedX509CRL(crl, fetchDeltaCRL(crl));
+        LOGGER.info("Success. Caching fetched CRL at [{}].", url);
+        addCRL(url, indexed);
+        return indexed;
+    }
+
+    /**
+     * Rebuild the indexed CRL from the cache entry, which holds the encoded CRL followed by its
+     * delta CRL, if any. Entries holding only the encoded CRL are read as a CRL without delta.
+     *
+     * @param item the cache entry
+     * @return the indexed crl, or null if the entry holds no CRL
+     * @throws Exception the exception
+     */
+    private IndexedX509CRL readCachedCRL(final Element item) throws Exception {
+        final Object value = item.getObjectValue();
+        final byte[][] encoded = value instanceof byte[][] ? (byte[][]) value : new byte[][]{(byte[]) value};
+        final X509CRL crl = this.fetcher.fetch(new ByteArrayResource(encoded[0]));
+        if (crl == null) {
+            return null;
+        }
+        X509CRL deltaCrl = null;
+        if (encoded.length > 1) {
+            deltaCrl = this.fetcher.fetch(new ByteArrayResource(encoded[1]));
+            if (!IndexedX509CRL.isDeltaFor(deltaCrl, crl)) {
+                deltaCrl = null;
+            }
+        }
+        return new IndexedX509CRL(crl, deltaCrl);
+    }
+
+    private X509CRL fetchDeltaCRL(final X509CRL crl) {
+        for (final URI url : getFreshestCRLPoints(crl)) {
+            try {
+                final X509CRL deltaCrl = this.fetcher.fetch(url);
+                if (IndexedX509CRL.isDeltaFor(deltaCrl, crl)) {
+                    LOGGER.debug("Fetched delta CRL at [{}]", url);
+                    return deltaCrl;
+                }
+                LOGGER.warn("CRL fetched from [{}] is not a delta CRL that applies to [{}]", url, crl.getIssuerX500Principal());
+            } catch (final Exception e) {
+                LOGGER.warn("Error fetching delta CRL at [{}]: [{}]", url, e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    private boolean isDueForRefresh(final IndexedX509CRL crl) {
+        final Date nextUpdate = crl.getEarliestNextUpdate();
+        return nextUpdate != null
+                && System.currentTimeMillis() >= nextUpdate.getTime() - TimeUnit.SECONDS.toMillis(this.refreshAheadSeconds);
+    }
+
+    /**
+     * Refresh the CRL at the given location on the background thread, unless a refresh is already
+     * underway or the last attempt was made less than the refresh interval ago.
+     *
+     * @param url the url
+     */
+    private void scheduleRefresh(final URI url) {
+        final long now = System.currentTimeMillis();
+        final Long lastAttempt = this.lastRefreshAttempts.get(url);
+        if (lastAttempt != null && now - lastAttempt < TimeUnit.SECONDS.toMillis(this.refreshIntervalSeconds)) {
+            return;
+        }
+        if (!this.refreshing.add(url)) {
+            return;
+        }
+        this.lastRefreshAttempts.put(url, now);
+        try {
+            this.refreshExecutor.execute(() -> {
+                try {
+                    LOGGER.debug("Refreshing CRL at [{}] in the background", url);
+                    final IndexedX509CRL crl = fetchCRL(url);
+                    if (crl != null) {
+                        storeCRL(url, crl);
+                    }
+                } catch (final Exception e) {
+                    LOGGER.error("Error refreshing CRL at [{}]", url, e);
+                } finally {
+                    this.refreshing.remove(url);
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            this.refreshing.remove(url);
+            LOGGER.debug("CRL refresh for [{}] was rejected", url);
+        }
+    }
+
+    private void refreshDueCRLs() {
+        this.crls.forEach((url, crl) -> {
+            if (url instanceof URI && isDueForRefresh(crl)) {
+                scheduleRefresh((URI) url);
+            }
+        });
+    }
+
+    private void storeCRLInBackground(final URI url, final IndexedX509CRL crl) {
+        if (this.storageDirectory != null) {
+            try {
+                this.refreshExecutor.execute(() -> storeCRL(url, crl));
+            } catch (final RejectedExecutionException e) {
+                LOGGER.debug("Storing CRL for [{}] was rejected", url);
+            }
+        }
+    }
+
+    /**
+     * Write the CRL, and its delta CRL, to the storage directory so they can be read back after a restart.
+     *
+     * @param url the url
+     * @param crl the crl
+     */
+    private void storeCRL(final URI url, final IndexedX509CRL crl) {
+        if (this.storageDirectory == null) {
+            return;
+        }
+        try {
+            writeAtomically(getStoredCRLFile(url, CRL_FILE_EXTENSION), crl.getCrl().getEncoded());
+            final File deltaFile = getStoredCRLFile(url, DELTA_CRL_FILE_EXTENSION);
+            if (crl.getDeltaCrl() != null) {
+                writeAtomically(deltaFile, crl.getDeltaCrl().getEncoded());
+            } else {
+                Files.deleteIfExists(deltaFile.toPath());
+            }
+            LOGGER.debug("Stored CRL for [{}] in [{}]", url, this.storageDirectory);
+        } catch (final Exception e) {
+            LOGGER.warn("Failed to store the CRL for [{}] in [{}]: [{}]", url, this.storageDirectory, e.getMessage());
+        }
+    }
+
+    private IndexedX509CRL readStoredCRL(final URI url) {
+        if (this.storageDirectory == null) {
+            return null;
+        }
+        final File file = getStoredCRLFile(url, CRL_FILE_EXTENSION);
+        if (!file.exists()) {
+            return null;
+        }
+        try {
+            LOGGER.debug("Reading stored CRL for [{}] from [{}]", url, file);
+            final X509CRL crl = this.fetcher.fetch(new FileSystemResource(file));
+            if (crl == null) {
+                return null;
+            }
+            X509CRL deltaCrl = null;
+            final File deltaFile = getStoredCRLFile(url, DELTA_CRL_FILE_EXTENSION);
+            if (deltaFile.exists()) {
+                deltaCrl = this.fetcher.fetch(new FileSystemResource(deltaFile));
+                if (!IndexedX509CRL.isDeltaFor(deltaCrl, crl)) {
+                    deltaCrl = null;
+                }
+            }
+            final IndexedX509CRL indexed = new IndexedX509CRL(crl, deltaCrl);
+            final IndexedX509CRL existing = this.crls.putIfAbsent(url, indexed);
+            return existing != null ? existing : indexed;
+        } catch (final Exception e) {
+            LOGGER.warn("Failed to read the stored CRL for [{}] from [{}]: [{}]", url, file, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Gets the number of CRLs kept in memory, which is as many as the cache may hold on the heap.
+     *
+     * @param crlCache the crl cache
+     * @return the maximum number of CRLs
+     */
+    private static long getMaximumCRLs(final Cache crlCache) {
+        if (crlCache != null && crlCache.getCacheConfiguration().getMaxEntriesLocalHeap() > 0) {
+            return crlCache.getCacheConfiguration().getMaxEntriesLocalHeap();
+        }
+        return DEFAULT_MAXIMUM_CRLS;
+    }
+
+    private File getStoredCRLFile(final URI url, final String extension) {
+        return new File(this.storageDirectory, DigestUtils.sha256(url.toString()) + extension);
+    }
+
+    private static void writeAtomically(final File file, final byte[] data) throws IOException {
+        final File temp = File.createTempFile(file.getName(), ".tmp", file.getParentFile());
+        try {
+            Files.write(temp.toPath(), data);
+            try {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (final AtomicMoveNotSupportedException e) {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp.toPath());
+        }
+    }
+
+    /**
+     * Gets the delta CRL locations from the FreshestCRL extension field of the CRL.
+     *
+     * @param crl the crl
+     * @return the delta crl locations
+     */
+    private List<URI> getFreshestCRLPoints(final X509CRL crl) {
+        final byte[] value = crl.getExtensionValue(Extension.freshestCRL.getId());
+        if (value == null) {
+            return new ArrayList<>();
+        }
+        try {
+            final CRLDistPoint points = CRLDistPoint.getInstance(JcaX509ExtensionUtils.parseExtensionValue(value));
+            return getURIs(Arrays.asList(points.getDistributionPoints()));
+        } catch (final Exception e) {
+            LOGGER.warn("Error reading FreshestCRL extension field on CRL issued by [{}]", crl.getIssuerX500Principal(), e);
+            return new ArrayList<>();
+        }
+    }
 
     /**
      * Gets the distribution points.
@@ -205,6 +563,11 @@ public class CRLDistributionPointRevocationChecker extends AbstractCRLRevocation
             return new URI[0];
         }
 
+        final List<URI> urls = getURIs(points);
+        return urls.toArray(new URI[urls.size()]);
+    }
+
+    private List<URI> getURIs(final List<DistributionPoint> points) {
         final List<URI> urls = new ArrayList<>();
 
         if (points != null) {
@@ -225,7 +588,7 @@ public class CRLDistributionPointRevocationChecker extends AbstractCRLRevocation
             }
         }
 
-        return urls.toArray(new URI[urls.size()]);
+        return urls;
     }
 
     /**
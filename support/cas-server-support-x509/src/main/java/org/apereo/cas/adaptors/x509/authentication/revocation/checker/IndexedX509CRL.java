@@ -0,0 +1,312 @@
+package org.apereo.cas.adaptors.x509.authentication.revocation.checker;
+
+import org.bouncycastle.asn1.ASN1Integer;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.cert.jcajce.JcaX509ExtensionUtils;
+
+import javax.security.auth.x500.X500Principal;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.security.NoSuchProviderException;
+import java.security.Principal;
+import java.security.Provider;
+import java.security.PublicKey;
+import java.security.SignatureException;
+import java.security.cert.CRLException;
+import java.security.cert.CRLReason;
+import java.security.cert.Certificate;
+import java.security.cert.X509CRL;
+import java.security.cert.X509CRLEntry;
+import java.security.cert.X509Certificate;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This is {@link IndexedX509CRL}. It wraps a parsed CRL, and optionally the delta CRL
+ * published for it, and keeps the serial numbers of revoked certificates in a hash set
+ * per certificate issuer. Checking whether a certificate is revoked is a set lookup;
+ * the CRL entry itself is only looked up for certificates that are found in the index.
+ * Entries of the delta CRL are applied on top of the base CRL, and entries that the delta
+ * CRL marks as {@link CRLReason#REMOVE_FROM_CRL} are taken out of the index.
+ * Everything other than revocation lookups, such as the validity period and signature,
+ * is answered by the base CRL.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class IndexedX509CRL extends X509CRL {
+
+    private final X509CRL crl;
+    private final X509CRL deltaCrl;
+    private final Map<X500Principal, Set<BigInteger>> revokedSerialNumbers = new HashMap<>();
+
+    public IndexedX509CRL(final X509CRL crl) {
+        this(crl, null);
+    }
+
+    public IndexedX509CRL(final X509CRL crl, final X509CRL deltaCrl) {
+        this.crl = crl;
+        this.deltaCrl = deltaCrl;
+        index(crl);
+        if (deltaCrl != null) {
+            index(deltaCrl);
+        }
+    }
+
+    /**
+     * Determine whether a CRL is a delta CRL that can be applied on top of the given base CRL.
+     * The delta CRL must come from the same issuer and must not require a newer base CRL.
+     *
+     * @param deltaCrl the delta crl
+     * @param crl      the base crl
+     * @return true if the delta crl applies to the base crl
+     */
+    public static boolean isDeltaFor(final X509CRL deltaCrl, final X509CRL crl) {
+        if (deltaCrl == null || crl == null
+                || !deltaCrl.getIssuerX500Principal().equals(crl.getIssuerX500Principal())) {
+            return false;
+        }
+        final BigInteger baseCrlNumber = getExtensionNumber(deltaCrl, Extension.deltaCRLIndicator.getId());
+        final BigInteger crlNumber = getExtensionNumber(crl, Extension.cRLNumber.getId());
+        return baseCrlNumber != null && crlNumber != null && baseCrlNumber.compareTo(crlNumber) <= 0;
+    }
+
+    public X509CRL getCrl() {
+        return this.crl;
+    }
+
+    public X509CRL getDeltaCrl() {
+        return this.deltaCrl;
+    }
+
+    /**
+     * Gets the earliest next update of the base and delta CRLs.
+     *
+     * @return the next update, or null if neither CRL defines one
+     */
+    public Date getEarliestNextUpdate() {
+        final Date nextUpdate = this.crl.getNextUpdate();
+        if (this.deltaCrl == null || this.deltaCrl.getNextUpdate() == null) {
+            return nextUpdate;
+        }
+        if (nextUpdate == null || this.deltaCrl.getNextUpdate().before(nextUpdate)) {
+            return this.deltaCrl.getNextUpdate();
+        }
+        return nextUpdate;
+    }
+
+    @Override
+    public X509CRLEntry getRevokedCertificate(final X509Certificate certificate) {
+        if (!isIndexed(certificate.getIssuerX500Principal(), certificate.getSerialNumber())) {
+            return null;
+        }
+        if (this.deltaCrl != null) {
+            final X509CRLEntry entry = this.deltaCrl.getRevokedCertificate(certificate);
+            if (entry != null) {
+                return entry;
+            }
+        }
+        return this.crl.getRevokedCertificate(certificate);
+    }
+
+    @Override
+    public X509CRLEntry getRevokedCertificate(final BigInteger serialNumber) {
+        if (!isIndexed(this.crl.getIssuerX500Principal(), serialNumber)) {
+            return null;
+        }
+        if (this.deltaCrl != null) {
+            final X509CRLEntry entry = this.deltaCrl.getRevokedCertificate(serialNumber);
+            if (entry != null) {
+                return entry;
+            }
+        }
+        return this.crl.getRevokedCertificate(serialNumber);
+    }
+
+    @Override
+    public Set<? extends X509CRLEntry> getRevokedCertificates() {
+        if (this.deltaCrl == null) {
+            return this.crl.getRevokedCertificates();
+        }
+        final Set<X509CRLEntry> entries = new HashSet<>();
+        addRevokedCertificates(entries, this.crl);
+        addRevokedCertificates(entries, this.deltaCrl);
+        return entries.isEmpty() ? null : entries;
+    }
+
+    @Override
+    public boolean isRevoked(final Certificate certificate) {
+        return certificate instanceof X509Certificate && getRevokedCertificate((X509Certificate) certificate) != null;
+    }
+
+    @Override
+    public byte[] getEncoded() throws CRLException {
+        return this.crl.getEncoded();
+    }
+
+    @Override
+    public void verify(final PublicKey key) throws CRLException, NoSuchAlgorithmException,
+            InvalidKeyException, NoSuchProviderException, SignatureException {
+        this.crl.verify(key);
+    }
+
+    @Override
+    public void verify(final PublicKey key, final String sigProvider) throws CRLException, NoSuchAlgorithmException,
+            InvalidKeyException, NoSuchProviderException, SignatureException {
+        this.crl.verify(key, sigProvider);
+    }
+
+    @Override
+    public void verify(final PublicKey key, final Provider sigProvider) throws CRLException, NoSuchAlgorithmException,
+            InvalidKeyException, SignatureException {
+        this.crl.verify(key, sigProvider);
+    }
+
+    @Override
+    public int getVersion() {
+        return this.crl.getVersion();
+    }
+
+    @Override
+    public Principal getIssuerDN() {
+        return this.crl.getIssuerDN();
+    }
+
+    @Override
+    public X500Principal getIssuerX500Principal() {
+        return this.crl.getIssuerX500Principal();
+    }
+
+    @Override
+    public Date getThisUpdate() {
+        return this.crl.getThisUpdate();
+    }
+
+    @Override
+    public Date getNextUpdate() {
+        return this.crl.getNextUpdate();
+    }
+
+    @Override
+    public byte[] getTBSCertList() throws CRLException {
+        return this.crl.getTBSCertList();
+    }
+
+    @Override
+    public byte[] getSignature() {
+        return this.crl.getSignature();
+    }
+
+    @Override
+    public String getSigAlgName() {
+        return this.crl.getSigAlgName();
+    }
+
+    @Override
+    public String getSigAlgOID() {
+        return this.crl.getSigAlgOID();
+    }
+
+    @Override
+    public byte[] getSigAlgParams() {
+        return this.crl.getSigAlgParams();
+    }
+
+    @Override
+    public boolean hasUnsupportedCriticalExtension() {
+        return this.crl.hasUnsupportedCriticalExtension();
+    }
+
+    @Override
+    public Set<String> getCriticalExtensionOIDs() {
+        return this.crl.getCriticalExtensionOIDs();
+    }
+
+    @Override
+    public Set<String> getNonCriticalExtensionOIDs() {
+        return this.crl.getNonCriticalExtensionOIDs();
+    }
+
+    @Override
+    public byte[] getExtensionValue(final String oid) {
+        return this.crl.getExtensionValue(oid);
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (other == null || getClass() != other.getClass()) {
+            return false;
+        }
+        final IndexedX509CRL that = (IndexedX509CRL) other;
+        return this.crl.equals(that.crl)
+                && (this.deltaCrl == null ? that.deltaCrl == null : this.deltaCrl.equals(that.deltaCrl));
+    }
+
+    @Override
+    public int hashCode() {
+        return this.crl.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return this.crl.toString();
+    }
+
+    private boolean isIndexed(final X500Principal issuer, final BigInteger serialNumber) {
+        final Set<BigInteger> serialNumbers = this.revokedSerialNumbers.get(issuer);
+        return serialNumbers != null && serialNumbers.contains(serialNumber);
+    }
+
+    private void index(final X509CRL source) {
+        final Set<? extends X509CRLEntry> entries = source.getRevokedCertificates();
+        if (entries == null) {
+            return;
+        }
+        for (final X509CRLEntry entry : entries) {
+            final X500Principal issuer = getCertificateIssuer(entry, source);
+            final Set<BigInteger> serialNumbers = this.revokedSerialNumbers.computeIfAbsent(issuer, k -> new HashSet<>());
+            if (entry.getRevocationReason() == CRLReason.REMOVE_FROM_CRL) {
+                serialNumbers.remove(entry.getSerialNumber());
+            } else {
+                serialNumbers.add(entry.getSerialNumber());
+            }
+        }
+    }
+
+    private void addRevokedCertificates(final Set<X509CRLEntry> results, final X509CRL source) {
+        final Set<? extends X509CRLEntry> entries = source.getRevokedCertificates();
+        if (entries == null) {
+            return;
+        }
+        entries.stream()
+                .filter(entry -> entry.getRevocationReason() != CRLReason.REMOVE_FROM_CRL)
+                .filter(entry -> isIndexed(getCertificateIssuer(entry, source), entry.getSerialNumber()))
+                .filter(entry -> source == this.deltaCrl
+                        || this.deltaCrl.getRevokedCertificate(entry.getSerialNumber()) == null)
+                .forEach(results::add);
+    }
+
+    private static X500Principal getCertificateIssuer(final X509CRLEntry entry, final X509CRL source) {
+        return entry.getCertificateIssuer() != null ? entry.getCertificateIssuer() : source.getIssuerX500Principal();
+    }
+
+    private static BigInteger getExtensionNumber(final X509CRL crl, final String oid) {
+        final byte[] value = crl.getExtensionValue(oid);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return ASN1Integer.getInstance(JcaX509ExtensionUtils.parseExtensionValue(value)).getValue();
+        } catch (final IOException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
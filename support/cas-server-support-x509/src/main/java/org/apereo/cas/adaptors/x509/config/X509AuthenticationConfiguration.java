@@ -41,6 +41,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
 
+import java.io.File;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -101,7 +102,10 @@ public class X509AuthenticationConfiguration {
                 getRevocationPolicy(x509.getCrlExpiredPolicy()),
                 cache,
                 crlFetcher(),
-                x509.isThrowOnFetchFailure());
+                x509.isThrowOnFetchFailure(),
+                x509.getCrlRefreshAheadSeconds(),
+                x509.getCrlRefreshIntervalSeconds(),
+                StringUtils.isNotBlank(x509.getCrlStorageDirectory()) ? new File(x509.getCrlStorageDirectory()) : null);
     }
 
     @Bean
@@ -1,6 +1,9 @@
 package org.apereo.cas;
 
+import org.apereo.cas.adaptors.x509.authentication.handler.support.CRLDistributionPointRevocationCheckerRefreshTests;
+import org.apereo.cas.adaptors.x509.authentication.handler.support.CRLDistributionPointRevocationCheckerStorageTests;
 import org.apereo.cas.adaptors.x509.authentication.handler.support.CRLDistributionPointRevocationCheckerTests;
+import org.apereo.cas.adaptors.x509.authentication.handler.support.IndexedX509CRLTests;
 import org.apereo.cas.adaptors.x509.authentication.handler.support.ResourceCRLRevocationCheckerTests;
 import org.apereo.cas.adaptors.x509.authentication.handler.support.ThresholdExpiredCRLRevocationPolicyTests;
 import org.apereo.cas.adaptors.x509.authentication.handler.support.X509CredentialsAuthenticationHandlerTests;
@@ -30,6 +33,9 @@ import org.junit.runners.Suite;
         ResourceCRLRevocationCheckerTests.class,
         ThresholdExpiredCRLRevocationPolicyTests.class,
         X509CredentialsAuthenticationHandlerTests.class,
-        CRLDistributionPointRevocationCheckerTests.class})
+        CRLDistributionPointRevocationCheckerTests.class,
+        CRLDistributionPointRevocationCheckerStorageTests.class,
+        CRLDistributionPointRevocationCheckerRefreshTests.class,
+        IndexedX509CRLTests.class})
 public class AllTestsSuite {
 }
@@ -0,0 +1,142 @@
+package org.apereo.cas.adaptors.x509.authentication.handler.support;
+
+import net.sf.ehcache.Cache;
+import net.sf.ehcache.CacheManager;
+import org.apereo.cas.adaptors.x509.authentication.ResourceCRLFetcher;
+import org.apereo.cas.adaptors.x509.authentication.revocation.RevokedCertificateException;
+import org.apereo.cas.adaptors.x509.authentication.revocation.checker.CRLDistributionPointRevocationChecker;
+import org.apereo.cas.adaptors.x509.util.MockCertificateAuthority;
+import org.bouncycastle.asn1.x509.CRLReason;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.security.cert.X509CRL;
+import java.security.cert.X509Certificate;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link CRLDistributionPointRevocationCheckerRefreshTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class CRLDistributionPointRevocationCheckerRefreshTests {
+
+    private static final String CRL_LOCATION = "http://localhost:8085/ca.crl";
+    private static final String DELTA_CRL_LOCATION = "http://localhost:8085/ca-delta.crl";
+
+    private MockCertificateAuthority ca;
+    private CRLDistributionPointRevocationChecker checker;
+
+    private final AtomicReference<X509CRL> crl = new AtomicReference<>();
+    private final AtomicReference<X509CRL> deltaCrl = new AtomicReference<>();
+    private final AtomicInteger crlFetches = new AtomicInteger();
+
+    @Before
+    public void setup() throws Exception {
+        this.ca = new MockCertificateAuthority("CN=Refresh Test CA");
+        final Cache cache = new Cache("crlCache-".concat(UUID.randomUUID().toString()), 100, false, false, 20, 10);
+        CacheManager.getInstance().addCache(cache);
+        this.checker = new CRLDistributionPointRevocationChecker(false, null, null, cache, new ResourceCRLFetcher() {
+            @Override
+            public X509CRL fetch(final URI location) throws IOException {
+                if (location.toString().equals(DELTA_CRL_LOCATION)) {
+                    return deltaCrl.get();
+                }
+                crlFetches.incrementAndGet();
+                return crl.get();
+            }
+        }, false, TimeUnit.HOURS.toSeconds(1), 0, null);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        this.checker.destroy();
+    }
+
+    @Test
+    public void verifyDeltaCrlIsAppliedToBaseCrl() throws Exception {
+        final Date nextUpdate = new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1));
+        final Map<Long, Integer> baseEntries = new HashMap<>();
+        baseEntries.put(100L, CRLReason.keyCompromise);
+        baseEntries.put(200L, CRLReason.keyCompromise);
+        this.crl.set(this.ca.issueCRL(10, nextUpdate, baseEntries, DELTA_CRL_LOCATION));
+
+        final Map<Long, Integer> deltaEntries = new HashMap<>();
+        deltaEntries.put(100L, CRLReason.removeFromCRL);
+        deltaEntries.put(300L, CRLReason.keyCompromise);
+        this.deltaCrl.set(this.ca.issueDeltaCRL(11, 10, nextUpdate, deltaEntries));
+
+        this.checker.check(this.ca.issueCertificate(100, CRL_LOCATION));
+        assertRevoked(this.ca.issueCertificate(200, CRL_LOCATION));
+        assertRevoked(this.ca.issueCertificate(300, CRL_LOCATION));
+        assertEquals(1, this.crlFetches.get());
+    }
+
+    @Test
+    public void verifyDeltaCrlIsAppliedToCrlRebuiltFromCache() throws Exception {
+        final Date nextUpdate = new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1));
+        this.crl.set(this.ca.issueCRL(10, nextUpdate, Collections.emptyMap(), DELTA_CRL_LOCATION));
+        this.deltaCrl.set(this.ca.issueDeltaCRL(11, 10, nextUpdate, Collections.singletonMap(300L, CRLReason.keyCompromise)));
+
+        this.checker.check(this.ca.issueCertificate(100, CRL_LOCATION));
+        ((Map<?, ?>) ReflectionTestUtils.getField(this.checker, "crls")).clear();
+        this.deltaCrl.set(null);
+
+        assertRevoked(this.ca.issueCertificate(300, CRL_LOCATION));
+        assertEquals(1, this.crlFetches.get());
+    }
+
+    @Test
+    public void verifyCrlIsRefreshedInBackgroundBeforeNextUpdate() throws Exception {
+        final Date soon = new Date(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(10));
+        this.crl.set(this.ca.issueCRL(10, soon, Collections.emptyMap(), null));
+
+        final X509Certificate certificate = this.ca.issueCertificate(100, CRL_LOCATION);
+        this.checker.check(certificate);
+        assertEquals(1, this.crlFetches.get());
+
+        final Date later = new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1));
+        this.crl.set(this.ca.issueCRL(11, later, Collections.singletonMap(100L, CRLReason.keyCompromise), null));
+
+        this.checker.check(certificate);
+        final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (this.crlFetches.get() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(2, this.crlFetches.get());
+
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                this.checker.check(certificate);
+                Thread.sleep(50);
+            } catch (final RevokedCertificateException e) {
+                assertEquals(2, this.crlFetches.get());
+                return;
+            }
+        }
+        fail("Refreshed CRL should have been used to revoke the certificate");
+    }
+
+    private void assertRevoked(final X509Certificate certificate) throws Exception {
+        try {
+            this.checker.check(certificate);
+            fail("Certificate should have been revoked");
+        } catch (final RevokedCertificateException e) {
+            assertNotNull(e.getRevocationDate());
+        }
+    }
+}
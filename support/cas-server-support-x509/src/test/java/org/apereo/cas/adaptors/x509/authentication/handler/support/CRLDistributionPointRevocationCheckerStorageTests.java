@@ -0,0 +1,83 @@
+package org.apereo.cas.adaptors.x509.authentication.handler.support;
+
+import net.sf.ehcache.Cache;
+import net.sf.ehcache.CacheManager;
+import org.apereo.cas.adaptors.x509.authentication.ResourceCRLFetcher;
+import org.apereo.cas.adaptors.x509.authentication.revocation.RevokedCertificateException;
+import org.apereo.cas.adaptors.x509.authentication.revocation.checker.CRLDistributionPointRevocationChecker;
+import org.apereo.cas.adaptors.x509.util.CertUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.security.cert.CRLException;
+import java.security.cert.CertificateException;
+import java.security.cert.X509CRL;
+import java.security.cert.X509Certificate;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link CRLDistributionPointRevocationCheckerStorageTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class CRLDistributionPointRevocationCheckerStorageTests {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void verifyStoredCrlIsUsedAfterRestart() throws Exception {
+        final File directory = folder.newFolder("crls");
+        final X509Certificate revoked = CertUtils.readCertificate(new ClassPathResource("user-revoked-distcrl.crt"));
+        final AtomicInteger fetches = new AtomicInteger();
+
+        final CRLDistributionPointRevocationChecker checker = getChecker(directory, new ResourceCRLFetcher() {
+            @Override
+            public X509CRL fetch(final URI crl) throws IOException, CRLException, CertificateException {
+                fetches.incrementAndGet();
+                return fetch(new ClassPathResource("userCA-valid.crl"));
+            }
+        });
+        try {
+            checker.check(revoked);
+            fail("Certificate should have been revoked");
+        } catch (final RevokedCertificateException e) {
+            assertEquals(1, fetches.get());
+        }
+        checker.destroy();
+
+        final File[] stored = directory.listFiles((dir, name) -> name.endsWith(".crl"));
+        assertNotNull(stored);
+        assertEquals(1, stored.length);
+
+        final CRLDistributionPointRevocationChecker restarted = getChecker(directory, new ResourceCRLFetcher() {
+            @Override
+            public X509CRL fetch(final URI crl) throws IOException {
+                throw new IOException("CRL location is not available");
+            }
+        });
+        try {
+            restarted.check(revoked);
+            fail("Certificate should have been revoked");
+        } catch (final RevokedCertificateException e) {
+            assertNotNull(e.getRevocationDate());
+        } finally {
+            restarted.destroy();
+        }
+    }
+
+    private static CRLDistributionPointRevocationChecker getChecker(final File directory, final ResourceCRLFetcher fetcher) {
+        final Cache cache = new Cache("crlCache-".concat(UUID.randomUUID().toString()), 100, false, false, 20, 10);
+        CacheManager.getInstance().addCache(cache);
+        return new CRLDistributionPointRevocationChecker(false, null, null, cache, fetcher, false, 900, 300, directory);
+    }
+}
@@ -0,0 +1,113 @@
+package org.apereo.cas.adaptors.x509.authentication.handler.support;
+
+import org.apereo.cas.adaptors.x509.authentication.ResourceCRLFetcher;
+import org.apereo.cas.adaptors.x509.authentication.revocation.checker.IndexedX509CRL;
+import org.apereo.cas.adaptors.x509.util.CertUtils;
+import org.apereo.cas.adaptors.x509.util.MockCertificateAuthority;
+import org.bouncycastle.asn1.x509.CRLReason;
+import org.junit.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.math.BigInteger;
+import java.security.cert.X509CRL;
+import java.security.cert.X509CRLEntry;
+import java.security.cert.X509Certificate;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link IndexedX509CRLTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class IndexedX509CRLTests {
+
+    @Test
+    public void verifyRevokedCertificatesAreIndexed() throws Exception {
+        final X509CRL crl = new ResourceCRLFetcher().fetch(new ClassPathResource("userCA-valid.crl"));
+        final IndexedX509CRL indexed = new IndexedX509CRL(crl);
+
+        final X509Certificate revoked = CertUtils.readCertificate(new ClassPathResource("user-revoked-distcrl.crt"));
+        final X509Certificate valid = CertUtils.readCertificate(new ClassPathResource("user-valid-distcrl.crt"));
+
+        assertNotNull(indexed.getRevokedCertificate(revoked));
+        assertEquals(crl.getRevokedCertificate(revoked), indexed.getRevokedCertificate(revoked));
+        assertTrue(indexed.isRevoked(revoked));
+        assertNull(indexed.getRevokedCertificate(valid));
+        assertFalse(indexed.isRevoked(valid));
+        assertNotNull(indexed.getRevokedCertificate(revoked.getSerialNumber()));
+        assertNull(indexed.getRevokedCertificate(BigInteger.ONE));
+        assertEquals(crl.getNextUpdate(), indexed.getNextUpdate());
+        assertEquals(crl.getRevokedCertificates(), indexed.getRevokedCertificates());
+    }
+
+    @Test
+    public void verifyCertificatesOfOtherIssuersAreNotRevoked() throws Exception {
+        final X509CRL crl = new ResourceCRLFetcher().fetch(new ClassPathResource("userCA-valid.crl"));
+        final IndexedX509CRL indexed = new IndexedX509CRL(crl);
+        final X509Certificate other = CertUtils.readCertificate(new ClassPathResource("intermediateCA.crt"));
+        assertNull(indexed.getRevokedCertificate(other));
+    }
+
+    @Test
+    public void verifyBaseCrlIsNotDeltaCrl() throws Exception {
+        final X509CRL crl = new ResourceCRLFetcher().fetch(new ClassPathResource("userCA-valid.crl"));
+        assertFalse(IndexedX509CRL.isDeltaFor(crl, crl));
+        assertFalse(IndexedX509CRL.isDeltaFor(null, crl));
+    }
+
+    @Test
+    public void verifyDeltaCrlIsMergedWithBaseCrl() throws Exception {
+        final MockCertificateAuthority ca = new MockCertificateAuthority("CN=Delta CRL Test CA");
+        final Date nextUpdate = new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1));
+        final Date deltaNextUpdate = new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1));
+
+        final Map<Long, Integer> baseEntries = new HashMap<>();
+        baseEntries.put(100L, CRLReason.keyCompromise);
+        baseEntries.put(200L, CRLReason.keyCompromise);
+        final X509CRL crl = ca.issueCRL(10, nextUpdate, baseEntries, null);
+
+        final Map<Long, Integer> deltaEntries = new HashMap<>();
+        deltaEntries.put(100L, CRLReason.removeFromCRL);
+        deltaEntries.put(300L, CRLReason.cessationOfOperation);
+        final X509CRL deltaCrl = ca.issueDeltaCRL(11, 10, deltaNextUpdate, deltaEntries);
+
+        assertTrue(IndexedX509CRL.isDeltaFor(deltaCrl, crl));
+        final IndexedX509CRL indexed = new IndexedX509CRL(crl, deltaCrl);
+
+        assertNull(indexed.getRevokedCertificate(BigInteger.valueOf(100)));
+        assertFalse(indexed.isRevoked(ca.issueCertificate(100, "http://localhost/ca.crl")));
+        assertNotNull(indexed.getRevokedCertificate(BigInteger.valueOf(200)));
+        assertTrue(indexed.isRevoked(ca.issueCertificate(200, "http://localhost/ca.crl")));
+        assertEquals(java.security.cert.CRLReason.CESSATION_OF_OPERATION,
+                indexed.getRevokedCertificate(BigInteger.valueOf(300)).getRevocationReason());
+        assertTrue(indexed.isRevoked(ca.issueCertificate(300, "http://localhost/ca.crl")));
+
+        final Set<BigInteger> revoked = indexed.getRevokedCertificates().stream()
+                .map(X509CRLEntry::getSerialNumber)
+                .collect(Collectors.toSet());
+        assertEquals(2, revoked.size());
+        assertTrue(revoked.contains(BigInteger.valueOf(200)));
+        assertTrue(revoked.contains(BigInteger.valueOf(300)));
+
+        assertEquals(crl.getNextUpdate(), indexed.getNextUpdate());
+        assertEquals(deltaCrl.getNextUpdate(), indexed.getEarliestNextUpdate());
+    }
+
+    @Test
+    public void verifyDeltaCrlForNewerBaseCrlDoesNotApply() throws Exception {
+        final MockCertificateAuthority ca = new MockCertificateAuthority("CN=Delta CRL Test CA");
+        final Date nextUpdate = new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1));
+        final X509CRL crl = ca.issueCRL(10, nextUpdate, new HashMap<>(), null);
+        final X509CRL deltaCrl = ca.issueDeltaCRL(21, 20, nextUpdate, new HashMap<>());
+        assertFalse(IndexedX509CRL.isDeltaFor(deltaCrl, crl));
+        assertFalse(IndexedX509CRL.isDeltaFor(crl, deltaCrl));
+    }
+}
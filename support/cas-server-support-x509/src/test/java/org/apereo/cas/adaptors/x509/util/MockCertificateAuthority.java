@@ -0,0 +1,120 @@
+package org.apereo.cas.adaptors.x509.util;
+
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x509.CRLDistPoint;
+import org.bouncycastle.asn1.x509.CRLNumber;
+import org.bouncycastle.asn1.x509.DistributionPoint;
+import org.bouncycastle.asn1.x509.DistributionPointName;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.asn1.x509.GeneralName;
+import org.bouncycastle.asn1.x509.GeneralNames;
+import org.bouncycastle.cert.X509v2CRLBuilder;
+import org.bouncycastle.cert.jcajce.JcaX509CRLConverter;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.bouncycastle.operator.ContentSigner;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.cert.X509CRL;
+import java.security.cert.X509Certificate;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This is {@link MockCertificateAuthority} that issues certificates, CRLs and delta CRLs
+ * signed by a freshly generated key, so that tests can build CRLs with the exact entries,
+ * numbers and update times they need.
+ *
+ * @author Misagh Moayyed
+ * @since 5.1.0
+ */
+public class MockCertificateAuthority {
+    private static final String SIGNATURE_ALGORITHM = "SHA256withRSA";
+
+    private final X500Name name;
+    private final KeyPair keyPair;
+
+    public MockCertificateAuthority(final String name) throws Exception {
+        this.name = new X500Name(name);
+        final KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        this.keyPair = generator.generateKeyPair();
+    }
+
+    /**
+     * Issue a certificate whose CRL distribution point is the given location.
+     *
+     * @param serialNumber the serial number
+     * @param crlLocation  the crl location
+     * @return the certificate
+     * @throws Exception the exception
+     */
+    public X509Certificate issueCertificate(final long serialNumber, final String crlLocation) throws Exception {
+        final Date now = new Date();
+        final JcaX509v3CertificateBuilder builder = new JcaX509v3CertificateBuilder(this.name, BigInteger.valueOf(serialNumber),
+                now, new Date(now.getTime() + TimeUnit.DAYS.toMillis(1)),
+                new X500Name("CN=user" + serialNumber), this.keyPair.getPublic());
+        builder.addExtension(Extension.cRLDistributionPoints, false, getDistributionPoints(crlLocation));
+        return new JcaX509CertificateConverter().getCertificate(builder.build(getSigner()));
+    }
+
+    /**
+     * Issue a CRL.
+     *
+     * @param crlNumber        the crl number
+     * @param nextUpdate       the next update
+     * @param revoked          the revoked serial numbers along with their revocation reason
+     * @param deltaCrlLocation the location of the delta crl advertised by the crl, or null
+     * @return the crl
+     * @throws Exception the exception
+     */
+    public X509CRL issueCRL(final long crlNumber, final Date nextUpdate, final Map<Long, Integer> revoked,
+                            final String deltaCrlLocation) throws Exception {
+        final X509v2CRLBuilder builder = getCRLBuilder(crlNumber, nextUpdate, revoked);
+        if (deltaCrlLocation != null) {
+            builder.addExtension(Extension.freshestCRL, false, getDistributionPoints(deltaCrlLocation));
+        }
+        return new JcaX509CRLConverter().getCRL(builder.build(getSigner()));
+    }
+
+    /**
+     * Issue a delta CRL that applies to base CRLs numbered from the given base CRL number.
+     *
+     * @param crlNumber     the crl number
+     * @param baseCrlNumber the base crl number
+     * @param nextUpdate    the next update
+     * @param revoked       the revoked serial numbers along with their revocation reason
+     * @return the delta crl
+     * @throws Exception the exception
+     */
+    public X509CRL issueDeltaCRL(final long crlNumber, final long baseCrlNumber, final Date nextUpdate,
+                                 final Map<Long, Integer> revoked) throws Exception {
+        final X509v2CRLBuilder builder = getCRLBuilder(crlNumber, nextUpdate, revoked);
+        builder.addExtension(Extension.deltaCRLIndicator, true, new CRLNumber(BigInteger.valueOf(baseCrlNumber)));
+        return new JcaX509CRLConverter().getCRL(builder.build(getSigner()));
+    }
+
+    private X509v2CRLBuilder getCRLBuilder(final long crlNumber, final Date nextUpdate,
+                                           final Map<Long, Integer> revoked) throws Exception {
+        final Date now = new Date();
+        final X509v2CRLBuilder builder = new X509v2CRLBuilder(this.name, now);
+        builder.setNextUpdate(nextUpdate);
+        builder.addExtension(Extension.cRLNumber, false, new CRLNumber(BigInteger.valueOf(crlNumber)));
+        revoked.forEach((serialNumber, reason) -> builder.addCRLEntry(BigInteger.valueOf(serialNumber), now, reason));
+        return builder;
+    }
+
+    private ContentSigner getSigner() throws Exception {
+        return new JcaContentSignerBuilder(SIGNATURE_ALGORITHM).build(this.keyPair.getPrivate());
+    }
+
+    private static CRLDistPoint getDistributionPoints(final String location) {
+        final DistributionPointName pointName = new DistributionPointName(
+                new GeneralNames(new GeneralName(GeneralName.uniformResourceIdentifier, location)));
+        return new CRLDistPoint(new DistributionPoint[]{new DistributionPoint(pointName, null, null)});
+    }
+}
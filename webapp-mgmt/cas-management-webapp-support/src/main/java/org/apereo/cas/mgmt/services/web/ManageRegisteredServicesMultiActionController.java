@@ -179,7 +179,7 @@ public class ManageRegisteredServicesMultiActionController extends AbstractManag
         }
         for (int i = 0; i < id.length; i++) {
             final long svcId = id[i];
-            final RegisteredService svc = this.servicesManager.findServiceBy(svcId);
+            final RegisteredService svc = this.servicesManager.findServiceForUpdate(svcId);
             if (svc == null) {
                 throw new IllegalArgumentException("Service id " + svcId + " cannot be found.");
             }